@@ -32,6 +32,8 @@ public class QItem extends EntityPathBase<Item> {
 
     public final EnumPath<com.javalab.shop.constant.ItemSellStatus> itemSellStatus = createEnum("itemSellStatus", com.javalab.shop.constant.ItemSellStatus.class);
 
+    public final StringPath itemSummary = createString("itemSummary");
+
     //inherited
     public final StringPath modifiedBy = _super.modifiedBy;
 
@@ -40,11 +42,15 @@ public class QItem extends EntityPathBase<Item> {
     //inherited
     public final DateTimePath<java.time.LocalDateTime> regTime = _super.regTime;
 
+    public final StringPath repImgUrl = createString("repImgUrl");
+
     public final NumberPath<Integer> stockNumber = createNumber("stockNumber", Integer.class);
 
     //inherited
     public final DateTimePath<java.time.LocalDateTime> updateTime = _super.updateTime;
 
+    public final NumberPath<Long> version = createNumber("version", Long.class);
+
     public QItem(String variable) {
         super(Item.class, forVariable(variable));
     }
@@ -0,0 +1,105 @@
+package com.javalab.shop.advice;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 동시성 충돌 재시도 Aspect
+ * - @RetryOnConflict 가 붙은 메소드를 감싸서 충돌이 나면 정해진 횟수만큼 다시 실행한다.
+ * - 재시도 사이에는 지수적으로 늘어나는 범위 안에서 무작위로 기다린다.(jitter)
+ *   충돌한 트랜잭션들이 같은 시각에 다시 부딪히지 않도록 하기 위함이다.
+ * - @Order(HIGHEST_PRECEDENCE) : 트랜잭션 어드바이스보다 바깥에서 실행되어야 재시도마다 새 트랜잭션이 시작된다.
+ * - 충돌/재시도 횟수는 메트릭으로 남긴다.(/actuator/metrics/shop.concurrency.conflicts, shop.concurrency.retries)
+ *   태그는 method, entity(충돌한 엔티티) 뿐이다. 엔티티 ID는 값의 종류에 끝이 없어 상품마다 시계열이 늘어나므로
+ *   태그로 쓰지 않고 로그에 남긴다.(충돌마다 debug, 재시도 횟수 초과 시 warn)
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Log4j2
+public class OptimisticLockRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticLockRetryAspect(MeterRegistry meterRegistry,
+                                     @Value("${shop.retry.max-attempts:3}") int maxAttempts,
+                                     @Value("${shop.retry.backoff-ms:20}") long backoffMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+    }
+
+    @Around("@annotation(com.javalab.shop.advice.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        // 바깥 트랜잭션 안에서 호출되었다면 그 트랜잭션은 이미 rollback-only 이므로 재시도는 바깥에 맡긴다.
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().toShortString();
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                String entity = conflictEntity(e);
+                String id = conflictId(e);
+                String[] tags = {"method", method, "entity", entity};
+                meterRegistry.counter("shop.concurrency.conflicts", tags).increment();
+                if (attempt >= maxAttempts) {
+                    log.warn("{} 충돌 재시도 횟수 초과({}회) : {}#{} {}", method, attempt, entity, id, e.getMessage());
+                    throw e;
+                }
+                log.debug("{} 충돌 재시도({}회) : {}#{}", method, attempt, entity, id);
+                meterRegistry.counter("shop.concurrency.retries", tags).increment();
+                Thread.sleep(backoffMillis(attempt));
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * 재시도 전 대기 시간 : 0 ~ backoffMillis * 2^(attempt-1) 미만에서 무작위
+     * @param attempt : 실패한 시도 번호(1부터)
+     */
+    long backoffMillis(int attempt) {
+        return ThreadLocalRandom.current().nextLong(Math.max(1, backoffMillis << (attempt - 1)));
+    }
+
+    /**
+     * 충돌한 엔티티 이름(메트릭 태그) - 낙관적 락 충돌이 아니면 unknown
+     */
+    private String conflictEntity(ConcurrencyFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException lockException
+                && lockException.getPersistentClassName() != null) {
+            String className = lockException.getPersistentClassName();
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+        return "unknown";
+    }
+
+    /**
+     * 충돌한 엔티티 ID(로그) - 낙관적 락 충돌이 아니면 unknown
+     */
+    private String conflictId(ConcurrencyFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException lockException
+                && lockException.getIdentifier() != null) {
+            return String.valueOf(lockException.getIdentifier());
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,17 @@
+package com.javalab.shop.advice;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 동시성 충돌 재시도 어노테이션
+ * - 이 어노테이션이 붙은 메소드에서 낙관적 락 충돌, 데드락 등 ConcurrencyFailureException 이 발생하면
+ *   트랜잭션을 새로 시작해서 다시 실행한다.(OptimisticLockRetryAspect)
+ * - 바깥에 이미 트랜잭션이 있으면 재시도하지 않고 예외를 그대로 던진다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,14 @@
+package com.javalab.shop.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 스케줄링 활성화를 위한 설정파일
+ * - @Scheduled 가 붙은 메소드를 주기적으로 실행한다.
+ * - 예) 핫 아이템 재고 장부의 DB 반영(HotItemStockLedger.flush())
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
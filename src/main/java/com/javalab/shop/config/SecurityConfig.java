@@ -84,7 +84,10 @@ public class SecurityConfig {
         http .authorizeRequests(request -> request
                 .requestMatchers("/images/**", "/static-images/**", "/css/**", "/favicon.ico", "/error", "/img/**").permitAll()// 여기 설정된 정적리소스 URL은 인증 없이 접근 가능, 에러를 안하면 무한 리디렉트함, 파비콘=아이콘임
                 .requestMatchers("/", "/members/**").permitAll() // /, /member/** URL은 인증 없이 접근 가능
+                .requestMatchers("/api/items/suggest").permitAll() // 메인 화면 검색창 자동완성은 로그인 없이 사용
+                .requestMatchers("/api/items").permitAll() // 메인 화면 상품 목록(커서 페이징)은 로그인 없이 사용
                 .requestMatchers("/admin/**").hasRole("ADMIN") // /admin/** URL은 ADMIN 권한을 가진 사용자만 접근 가능
+                .requestMatchers("/actuator/**").hasRole("ADMIN") // 메트릭 등 운영 정보는 ADMIN 만 조회 가능
                 .anyRequest().authenticated()); // 그 외의 URL은 인증된 사용자만 접근 가능
 
         // 인증 실패 시 처리할 핸들러를 설정
@@ -0,0 +1,28 @@
+package com.javalab.shop.constant;
+
+/**
+ * 인기 상품 순위 집계 기간
+ * - 기간을 같은 길이의 구간(bucket) bucketCount 개로 나누어 구간별로 판매량을 센다.
+ *   가장 오래된 구간이 기간을 벗어나면 통째로 버리므로 기간은 bucketMinutes 단위로 밀려난다(rolling window).
+ */
+public enum SalesWindow {
+    HOUR(5, 12),        // 최근 1시간 : 5분 x 12
+    DAY(60, 24),        // 최근 24시간 : 1시간 x 24
+    WEEK(360, 28);      // 최근 7일 : 6시간 x 28
+
+    private final int bucketMinutes;
+    private final int bucketCount;
+
+    SalesWindow(int bucketMinutes, int bucketCount) {
+        this.bucketMinutes = bucketMinutes;
+        this.bucketCount = bucketCount;
+    }
+
+    public long getBucketMillis() {
+        return bucketMinutes * 60_000L;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+}
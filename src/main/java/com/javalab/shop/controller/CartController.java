@@ -2,6 +2,7 @@ package com.javalab.shop.controller;
 
 import com.javalab.shop.dto.*;
 import com.javalab.shop.service.CartService;
+import com.javalab.shop.service.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -28,6 +29,7 @@ import java.util.List;
 public class CartController {
 
     private final CartService cartService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping(value = "/cart")
     public @ResponseBody ResponseEntity order(@RequestBody @Valid CartItemDto cartItemDto,
@@ -113,9 +115,12 @@ public class CartController {
     /**
      * 장바구니 상품 주문
      * - 장바구니에서 여러 상품을 선택하여 주문
+     * - 멱등키 헤더(Idempotency-Key)를 보내면 같은 키로 재시도할 때 처음 주문의 응답을 그대로 돌려준다.
+     *   주문이 끝나면 장바구니 상품이 삭제되어 권한 검증이 실패하므로 검증보다 먼저 저장된 응답을 확인한다.
      */
     @PostMapping(value = "/cart/orders")
-    public @ResponseBody ResponseEntity orderCartItem(@RequestBody CartOrderRequestDto cartOrderRequestDto, Principal principal) {
+    public @ResponseBody ResponseEntity orderCartItem(@RequestBody CartOrderRequestDto cartOrderRequestDto, Principal principal,
+                                                      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
 
         List<CartOrderItemDto> cartOrderItems = cartOrderRequestDto.getCartOrderItems();
 
@@ -123,14 +128,20 @@ public class CartController {
             return new ResponseEntity<>("주문할 상품을 선택해주세요", HttpStatus.FORBIDDEN);
         }
 
-        for (CartOrderItemDto cartOrderItem : cartOrderItems) {
-            if (!cartService.validateCartItem(cartOrderItem.getCartItemId(), principal.getName())) {
-                return new ResponseEntity<>("주문 권한이 없습니다.", HttpStatus.FORBIDDEN);
+        Object[] fingerprintValues = cartOrderItems.stream()
+                .map(cartOrderItem -> cartOrderItem.getCartItemId() + ":" + cartOrderItem.getCount())
+                .toArray();
+        String fingerprint = IdempotencyService.fingerprint(fingerprintValues);
+        return idempotencyService.execute(principal.getName(), idempotencyKey, fingerprint, () -> {
+            for (CartOrderItemDto cartOrderItem : cartOrderItems) {
+                if (!cartService.validateCartItem(cartOrderItem.getCartItemId(), principal.getName())) {
+                    return new ResponseEntity<>("주문 권한이 없습니다.", HttpStatus.FORBIDDEN);
+                }
             }
-        }
 
-        Long orderId = cartService.orderCartItem(cartOrderItems, principal.getName());
-        return new ResponseEntity<>(orderId, HttpStatus.OK);
+            Long orderId = cartService.orderCartItem(cartOrderItems, principal.getName());
+            return new ResponseEntity<>(orderId, HttpStatus.OK);
+        });
     }
 
-}
\ No newline at end of file
+}
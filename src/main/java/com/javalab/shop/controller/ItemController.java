@@ -1,17 +1,25 @@
 package com.javalab.shop.controller;
 
 import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.CursorSliceDto;
+import com.javalab.shop.dto.ItemDetailDto;
 import com.javalab.shop.dto.ItemDto;
 import com.javalab.shop.dto.ItemFormDto;
 import com.javalab.shop.dto.ItemSearchDto;
+import com.javalab.shop.dto.ItemSuggestDto;
+import com.javalab.shop.dto.MainItemDto;
 import com.javalab.shop.entity.Item;
+import com.javalab.shop.search.ItemSuggestIndex;
 import com.javalab.shop.service.ItemService;
+import com.javalab.shop.service.RecentlyViewedService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -19,8 +27,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +41,8 @@ import java.util.Optional;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final RecentlyViewedService recentlyViewedService;
 
     /**
      * 상품 상세 페이지
@@ -219,15 +231,32 @@ public class ItemController {
      * - /admin/items/{page} : 상품 관리 페이지로 이동(페이지 번호가 있는 경우)
      * - @PathVariable("page") Optional<Integer> page : 페이지 번호를 Optional로 받음
      * - Pageable pageable = PageRequest.of(page.isPresent() ? page.get() : 0, 3) : 페이지 번호가 있는 경우 해당 페이지로 이동
+     * - /admin/items?cursor=... : 커서(keyset) 페이징, "다음" 링크만 제공한다. 첫 페이지는 /admin/items?cursor= 로 요청한다.
+     *   전체 상품 수는 첫 페이지에서만 센다.
      *
      * @param itemSearchDto
      * @param page
+     * @param cursor : 이전 페이지에서 받은 다음 페이지 커서
      * @param model
      * @return
      */
     @GetMapping({"/admin/items", "/admin/items/{page}"})
     public String itemManage(ItemSearchDto itemSearchDto,
-                             @PathVariable("page") Optional<Integer> page, Model model){
+                             @PathVariable("page") Optional<Integer> page,
+                             @RequestParam(value = "cursor", required = false) String cursor, Model model){
+
+        if (cursor != null) {
+            CursorSliceDto<Item> itemSlice;
+            try {
+                itemSlice = itemService.getAdminItemSlice(itemSearchDto, cursor, 3, cursor.isEmpty());
+            } catch (IllegalArgumentException e) {
+                return "redirect:/admin/items?cursor="; // 잘못된 커서는 첫 페이지로
+            }
+            model.addAttribute("items", itemSlice);
+            model.addAttribute("itemSearchDto", itemSearchDto);
+            model.addAttribute("cursorMode", true);
+            return "item/itemMng";
+        }
 
         // page.get() : Optional 객체에서 값을 가져옴, 이 값은 페이지 번호, 없는 경우 0
         Pageable pageable = PageRequest.of(page.isPresent() ? page.get() : 0, 3);
@@ -240,6 +269,7 @@ public class ItemController {
         model.addAttribute("itemSearchDto", itemSearchDto);
         // maxPage : 최대 페이지 수, 화면에 5개의 페이지 번호를 표시
         model.addAttribute("maxPage", 5);
+        model.addAttribute("cursorMode", false);
 
         return "item/itemMng";
     }
@@ -247,13 +277,69 @@ public class ItemController {
     /**
      * 상품 상세 페이지
      * - 상품 상세 페이지로 이동
+     * - 상품과 이미지는 한 번의 쿼리로 조회해서 캐시한 값을 사용한다(ItemService.getItemDetailPage()).
+     * - 로그인한 회원의 최근 본 상품에 기록한다(메모리에만 기록하고 주기적으로 저장).
      * @param itemId
      */
     @GetMapping("/item/{itemId}")
-    public String itemDetail(Model model, @PathVariable("itemId") Long itemId){
-        ItemFormDto itemFormDto = itemService.getItemDetail(itemId);
-        model.addAttribute("item", itemFormDto);
+    public String itemDetail(Model model, @PathVariable("itemId") Long itemId, Principal principal){
+        ItemDetailDto itemDetailDto = itemService.getItemDetailPage(itemId);
+        if (principal != null) {
+            recentlyViewedService.record(principal.getName(), itemId);
+        }
+        model.addAttribute("item", itemDetailDto);
         return "item/itemDetail";
     }
 
+    /**
+     * 메인 화면 상품 목록 조회(JSON, 커서 페이징)
+     * - 응답의 nextCursor 를 다음 요청의 cursor 로 보내면 다음 페이지를 조회한다. nextCursor 가 null 이면 마지막 페이지이다.
+     * - 전체 상품 수(totalCount)는 count=true 일 때만 센다.
+     * @param itemSearchDto : 상품명 검색어(searchQuery)
+     * @param cursor : 다음 페이지 커서, 첫 페이지는 생략
+     * @param size : 페이지 크기(1 ~ 50)
+     * @param count : 전체 상품 수 조회 여부
+     */
+    @GetMapping("/api/items")
+    public @ResponseBody ResponseEntity mainItems(ItemSearchDto itemSearchDto,
+                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "size", defaultValue = "6") int size,
+                                                  @RequestParam(value = "count", defaultValue = "false") boolean count){
+        int pageSize = Math.max(1, Math.min(size, 50));
+        try {
+            return new ResponseEntity<CursorSliceDto<MainItemDto>>(
+                    itemService.getMainItemSlice(itemSearchDto, cursor, pageSize, count), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<String>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * 상품명 자동완성(검색창 입력 중 호출)
+     * - 메모리의 접두사 트리에서 찾으므로 DB를 조회하지 않는다.
+     * - 상품명 또는 상품명의 단어가 입력한 검색어로 시작하는 상품을 판매량이 많은 순서로 반환한다.
+     * @param q : 입력 중인 검색어
+     * @param size : 최대 제안 수(1 ~ 10)
+     */
+    @GetMapping("/api/items/suggest")
+    public @ResponseBody ResponseEntity suggestItems(@RequestParam(value = "q", defaultValue = "") String q,
+                                                     @RequestParam(value = "size", defaultValue = "10") int size){
+        int suggestSize = Math.max(1, Math.min(size, 10));
+        return new ResponseEntity<List<ItemSuggestDto>>(itemSuggestIndex.suggest(q, suggestSize), HttpStatus.OK);
+    }
+
+    /**
+     * 함께 구매한 상품(상품 상세 화면에서 호출)
+     * - 메모리의 함께 구매 색인에서 상품 ID를 꺼내고 상품 정보는 캐시에서 읽으므로 대부분 DB를 조회하지 않는다.
+     * - 이 상품과 같은 주문에 담긴 횟수가 많은 상품 순서로 반환한다. 주문 이력이 없으면 빈 목록이다.
+     * @param itemId : 상품 ID
+     * @param size : 최대 개수(1 ~ 10)
+     */
+    @GetMapping("/api/items/{itemId}/recommendations")
+    public @ResponseBody ResponseEntity recommendItems(@PathVariable("itemId") Long itemId,
+                                                       @RequestParam(value = "size", defaultValue = "6") int size){
+        int recommendSize = Math.max(1, Math.min(size, 10));
+        return new ResponseEntity<List<MainItemDto>>(itemService.getFrequentlyBoughtTogether(itemId, recommendSize), HttpStatus.OK);
+    }
+
 }
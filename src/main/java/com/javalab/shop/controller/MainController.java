@@ -1,5 +1,7 @@
 package com.javalab.shop.controller;
 
+import com.javalab.shop.constant.SalesWindow;
+import com.javalab.shop.dto.CursorSliceDto;
 import com.javalab.shop.dto.ItemSearchDto;
 import com.javalab.shop.dto.MainItemDto;
 import com.javalab.shop.service.ItemService;
@@ -9,9 +11,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.security.Principal;
 import java.util.Optional;
 
 @Controller
@@ -20,8 +24,31 @@ public class MainController {
 
     private final ItemService itemService;
 
+    /**
+     * 메인 화면
+     * - 페이지 번호(/?page=...) : offset 페이징, 기존 화면과의 호환을 위해 유지
+     * - 커서(/?cursor=...) : 커서(keyset) 페이징, 전체 상품 수를 세지 않고 "다음" 링크만 제공한다.
+     *   첫 페이지는 /?cursor= 로 요청한다.
+     * - 검색어 없는 첫 페이지(offset 페이징)에는 최근 하루 인기 상품(bestItems)과
+     *   로그인한 회원의 최근 본 상품(recentItems)을 함께 표시한다.
+     */
     @GetMapping("/")
-    public String main(ItemSearchDto itemSearchDto, @RequestParam("page") Optional<Integer> page, Model model){
+    public String main(ItemSearchDto itemSearchDto, @RequestParam("page") Optional<Integer> page,
+                       @RequestParam(value = "cursor", required = false) String cursor, Model model,
+                       Principal principal){
+
+        if (cursor != null) {
+            CursorSliceDto<MainItemDto> itemSlice;
+            try {
+                itemSlice = itemService.getMainItemSlice(itemSearchDto, cursor, 6, false);
+            } catch (IllegalArgumentException e) {
+                return "redirect:/?cursor="; // 잘못된 커서는 첫 페이지로
+            }
+            model.addAttribute("items", itemSlice);
+            model.addAttribute("itemSearchDto", itemSearchDto);
+            model.addAttribute("cursorMode", true);
+            return "main";
+        }
 
         Pageable pageable = PageRequest.of(page.isPresent() ? page.get() : 0, 6);
         Page<MainItemDto> items = itemService.getMainItemPage(itemSearchDto, pageable);
@@ -29,8 +56,16 @@ public class MainController {
         model.addAttribute("items", items);
         model.addAttribute("itemSearchDto", itemSearchDto);
         model.addAttribute("maxPage", 5);
+        // 첫 페이지(검색어 없음)에만 오늘의 인기 상품, 최근 본 상품(로그인 시) 표시
+        if (items.getNumber() == 0 && !StringUtils.hasText(itemSearchDto.getSearchQuery())) {
+            model.addAttribute("bestItems", itemService.getBestsellers(SalesWindow.DAY, 3));
+            if (principal != null) {
+                model.addAttribute("recentItems", itemService.getRecentlyViewedItems(principal.getName(), 6));
+            }
+        }
+        model.addAttribute("cursorMode", false);
 
         return "main";
     }
 
-}
\ No newline at end of file
+}
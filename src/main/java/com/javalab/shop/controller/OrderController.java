@@ -1,22 +1,34 @@
 package com.javalab.shop.controller;
 
+import com.javalab.shop.dto.CursorSliceDto;
 import com.javalab.shop.dto.OrderDto;
 import com.javalab.shop.dto.OrderHistDto;
+import com.javalab.shop.exception.OutOfStockException;
+import com.javalab.shop.service.IdempotencyService;
+import com.javalab.shop.service.OrderBatchProcessor;
+import com.javalab.shop.service.OrderExportService;
 import com.javalab.shop.service.OrderService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +37,9 @@ import java.util.Optional;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderBatchProcessor orderBatchProcessor;
+    private final IdempotencyService idempotencyService;
+    private final OrderExportService orderExportService;
 
     /**
      * 주문 페이지
@@ -34,12 +49,15 @@ public class OrderController {
      * @param orderDto : 주문 정보 바인딩
      * @param bindingResult : 유효성 검사 결과
      * @param principal : 시큐리티 Principal 객체로 로그인한 사용자 정보를 얻을 수 있다.
+     * @param idempotencyKey : 멱등키 헤더(Idempotency-Key), 같은 키로 재시도하면 처음 주문의 응답을 그대로 돌려준다.
+     * - 주문 묶음 처리(shop.order.batch.enabled)가 켜져 있으면 동시에 들어온 주문과 함께 한 트랜잭션으로 처리된다.
      *
      * @return
      */
     @PostMapping("/order")
     public @ResponseBody ResponseEntity order(@RequestBody @Valid OrderDto orderDto
-            , BindingResult bindingResult, Principal principal) {
+            , BindingResult bindingResult, Principal principal
+            , @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         // 주문 정보 유효성 검사
         if (bindingResult.hasErrors()) {
             StringBuilder sb = new StringBuilder();
@@ -54,26 +72,49 @@ public class OrderController {
         }
 
         String email = principal.getName(); // 로그인한 사용자 이메일
-        Long orderId;
 
-        try {
-            orderId = orderService.order(orderDto, email);  // 주문 서비스 호출
-        } catch (Exception e) {
-            return new ResponseEntity<String>(e.getMessage(), HttpStatus.BAD_REQUEST);
-        }
-
-        return new ResponseEntity<Long>(orderId, HttpStatus.OK);
+        // 같은 멱등키로 상품이나 수량이 다른 주문을 보내면 저장된 응답 대신 422 로 응답한다.
+        String fingerprint = IdempotencyService.fingerprint(orderDto.getItemId(), orderDto.getCount());
+        return idempotencyService.execute(email, idempotencyKey, fingerprint, () -> {
+            Long orderId;
+            try {
+                orderId = orderBatchProcessor.order(orderDto, email);  // 주문 서비스 호출
+            } catch (OutOfStockException | EntityNotFoundException e) {
+                // 재고 부족, 없는 상품처럼 다시 보내도 결과가 같은 오류만 400 으로 응답한다.
+                // 그 밖의 오류(DB 오류 등)는 그대로 던져서 500 으로 응답하고 멱등키도 저장하지 않는다.
+                return new ResponseEntity<String>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            return new ResponseEntity<Long>(orderId, HttpStatus.OK);
+        });
     }
 
     /**
      * 주문 내역 조회
+     * - 페이지 번호(/orders/{page}) : offset 페이징, 기존 화면과의 호환을 위해 유지
+     * - 커서(/orders?cursor=...) : 커서(keyset) 페이징, 전체 주문 수를 세지 않고 "다음" 링크만 제공한다.
+     *   첫 페이지는 /orders?cursor= 로 요청한다.
      * @param page : 페이지 번호
+     * @param cursor : 이전 페이지에서 받은 다음 페이지 커서
      * @param principal : 시큐리티 Principal 객체로 로그인한 사용자 정보를 얻을 수 있다.
      * @param model : 뷰에 전달할 데이터
      * @return
      */
     @GetMapping(value = {"/orders", "/orders/{page}"})
-    public String orderHist(@PathVariable("page") Optional<Integer> page, Principal principal, Model model){
+    public String orderHist(@PathVariable("page") Optional<Integer> page,
+                            @RequestParam(value = "cursor", required = false) String cursor,
+                            Principal principal, Model model){
+
+        if (cursor != null) {
+            CursorSliceDto<OrderHistDto> orderSlice;
+            try {
+                orderSlice = orderService.getOrderHistory(principal.getName(), cursor, 4);
+            } catch (IllegalArgumentException e) {
+                return "redirect:/orders?cursor="; // 잘못된 커서는 첫 페이지로
+            }
+            model.addAttribute("orders", orderSlice);
+            model.addAttribute("cursorMode", true);
+            return "order/orderHist";
+        }
 
         Pageable pageable = PageRequest.of(page.isPresent() ? page.get() : 0, 4); // 하드코딩하는건 좋은건 아님
         // Page 객체에는 주문 내역과 페이지 정보가 함께 담겨있다.
@@ -82,10 +123,33 @@ public class OrderController {
         model .addAttribute("orders", ordersHistDtoList);
         model.addAttribute("page", pageable.getPageNumber());
         model.addAttribute("maxPage", 5);
+        model.addAttribute("cursorMode", false);
 
         return "order/orderHist";
     }
 
+    /**
+     * 주문 내역 조회(JSON, 커서 페이징)
+     * - 모바일 앱 등에서 사용, 응답의 nextCursor 를 다음 요청의 cursor 로 보내면 다음 페이지를 조회한다.
+     * - nextCursor 가 null 이면 마지막 페이지이다.
+     * @param cursor : 다음 페이지 커서, 첫 페이지는 생략
+     * @param size : 페이지 크기(1 ~ 50)
+     * @param principal
+     * @return
+     */
+    @GetMapping("/api/orders")
+    public @ResponseBody ResponseEntity orderHistApi(@RequestParam(value = "cursor", required = false) String cursor,
+                                                     @RequestParam(value = "size", defaultValue = "10") int size,
+                                                     Principal principal){
+        int pageSize = Math.max(1, Math.min(size, 50));
+        try {
+            return new ResponseEntity<CursorSliceDto<OrderHistDto>>(
+                    orderService.getOrderHistory(principal.getName(), cursor, pageSize), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<String>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     /**
      * 주문 취소
      * - 주문 취소 권한이 있는지 확인한다.
@@ -108,4 +172,41 @@ public class OrderController {
         orderService.cancelOrder(orderId);
         return new ResponseEntity<Long>(orderId, HttpStatus.OK);
     }
+
+    /**
+     * 주문 내보내기(관리자)
+     * - 기간(from ~ to, 종료일 포함) 내 주문과 주문 상품을 CSV 또는 NDJSON 으로 내려받는다.
+     * - DB에서 읽는 대로 응답에 바로 쓰므로(스트리밍) 기간이 길어도 서버 메모리 사용량이 일정하다.
+     * - 예) /admin/orders/export?from=2024-11-01&to=2024-11-30&format=csv
+     * @param from : 시작일
+     * @param to : 종료일(포함)
+     * @param format : csv(기본값) 또는 ndjson
+     * @return
+     */
+    @GetMapping("/admin/orders/export")
+    public ResponseEntity exportOrders(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                       @RequestParam(value = "format", defaultValue = "csv") String format) {
+        if (from.isAfter(to)) {
+            return new ResponseEntity<String>("시작일은 종료일보다 이후일 수 없습니다.", HttpStatus.BAD_REQUEST);
+        }
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return new ResponseEntity<String>("지원하지 않는 형식입니다. (csv, ndjson)", HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            if (csv) {
+                orderExportService.exportCsv(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), outputStream);
+            } else {
+                orderExportService.exportNdjson(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), outputStream);
+            }
+        };
+        String fileName = "orders_" + from + "_" + to + (csv ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
 }
@@ -0,0 +1,33 @@
+package com.javalab.shop.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 커서(keyset) 페이징 결과 DTO
+ * - 전체 개수나 전체 페이지 수 대신 다음 페이지를 조회할 때 사용할 커서(nextCursor)를 담는다.
+ * - 마지막 페이지이면 nextCursor 는 null, hasNext 는 false 이다.
+ * - 전체 개수를 세지 않으므로 데이터가 많아도 페이지 조회 비용이 일정하다.
+ *   전체 개수를 요청한 경우에만 totalCount 에 담고, 세지 않았으면 null 이다.
+ * @param <T> 목록 항목 타입
+ */
+@Getter
+public class CursorSliceDto<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+    private final Long totalCount;
+
+    public CursorSliceDto(List<T> content, String nextCursor) {
+        this(content, nextCursor, null);
+    }
+
+    public CursorSliceDto(List<T> content, String nextCursor, Long totalCount) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+        this.totalCount = totalCount;
+    }
+}
@@ -0,0 +1,47 @@
+package com.javalab.shop.dto;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * 멱등키(Idempotency-Key)로 저장해 두는 주문 응답
+ * - 같은 키로 다시 요청하면 주문을 다시 실행하지 않고 저장된 응답을 그대로 돌려준다.
+ * - 주문 API 는 성공 시 주문 번호(Long), 실패 시 에러 메시지(String)를 응답 바디로 반환하므로 둘 중 하나만 채워진다.
+ * - 응답을 만든 요청의 지문(fingerprint, 요청 내용의 해시)을 함께 보관해서 같은 키로 다른 요청을 보내면 저장된 응답을 돌려주지 않는다.
+ */
+@Getter
+public class IdempotentResponse {
+
+    private final int status;
+    private final Long orderId;
+    private final String message;
+    private final String fingerprint;
+
+    public IdempotentResponse(int status, Long orderId, String message, String fingerprint) {
+        this.status = status;
+        this.orderId = orderId;
+        this.message = message;
+        this.fingerprint = fingerprint;
+    }
+
+    public static IdempotentResponse of(ResponseEntity<?> responseEntity, String fingerprint) {
+        Object body = responseEntity.getBody();
+        return new IdempotentResponse(responseEntity.getStatusCode().value(),
+                body instanceof Long ? (Long) body : null,
+                body instanceof Long || body == null ? null : body.toString(),
+                fingerprint);
+    }
+
+    /**
+     * 같은 요청인지 확인
+     * - 지문을 저장하기 전에 만들어진 응답(fingerprint 가 null)은 같은 요청으로 본다.
+     */
+    public boolean matches(String fingerprint) {
+        return this.fingerprint == null || this.fingerprint.equals(fingerprint);
+    }
+
+    public ResponseEntity<?> toResponseEntity() {
+        return new ResponseEntity<>(orderId != null ? orderId : message, HttpStatus.valueOf(status));
+    }
+}
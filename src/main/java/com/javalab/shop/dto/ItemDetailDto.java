@@ -0,0 +1,38 @@
+package com.javalab.shop.dto;
+
+import com.javalab.shop.constant.ItemSellStatus;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 상품 상세 페이지(/item/{itemId})에 노출하기 위한 DTO 클래스
+ * - 상품과 상품 이미지를 한 번의 쿼리로 조회한 결과를 담습니다(ItemRepositoryCustom.getItemDetail()).
+ * - 여러 요청이 캐시(ItemDetailCache)에 보관된 같은 객체를 함께 사용하므로 값을 바꿀 수 없게 만듭니다.
+ * - 재고 수량처럼 주문마다 바뀌는 값은 담지 않습니다.
+ */
+@Getter
+public class ItemDetailDto {
+
+    private final Long id;
+
+    private final String itemNm;
+
+    private final Integer price;
+
+    private final String itemDetail;
+
+    private final ItemSellStatus itemSellStatus;
+
+    private final List<ItemImgDto> itemImgDtoList;     // 이미지 ID 오름차순, 첫 번째가 대표 이미지
+
+    public ItemDetailDto(Long id, String itemNm, Integer price, String itemDetail, ItemSellStatus itemSellStatus,
+                         List<ItemImgDto> itemImgDtoList) {
+        this.id = id;
+        this.itemNm = itemNm;
+        this.price = price;
+        this.itemDetail = itemDetail;
+        this.itemSellStatus = itemSellStatus;
+        this.itemImgDtoList = List.copyOf(itemImgDtoList);
+    }
+}
@@ -4,7 +4,6 @@ import com.javalab.shop.constant.ItemSellStatus;
 import com.javalab.shop.entity.Item;
 import jakarta.validation.constraints.*;
 import lombok.*;
-import org.modelmapper.ModelMapper;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,7 +12,9 @@ import java.util.List;
  * 상품 등록/수정 화면에서 사용하는 DTO 클래스
  * - 화면에서 입력한 상품 관련 정보를 담아서 컨트롤러 레이어로 전달합니다.
  * - Item 엔티티와 1:1로 매핑됩니다.
- * - Item 엔티티와의 변환을 위해 ModelMapper를 사용합니다.
+ * - Item 엔티티와의 변환은 필드를 직접 옮기는 메서드(createItem(), of())를 사용합니다.
+ *   리플렉션으로 필드를 찾는 ModelMapper 와 달리 필드 이름/타입이 바뀌면 컴파일 오류가 나고, 호출마다 드는 비용이 작습니다.
+ *   (비용 비교 : src/test 의 ItemDtoMappingBenchmark)
  * - Validation 어노테이션을 사용하여 입력값의 유효성을 검증합니다.
  */
 @Getter@Setter
@@ -69,20 +70,32 @@ public class ItemFormDto {
     @Builder.Default
     private List<Long> itemImgIds = new ArrayList<>();
 
-    private static ModelMapper modelMapper = new ModelMapper();
-
     /**
      * ItemFormDto를 Item 엔티티로 변환
      * - 화면에서 입력한 상품 관련 정보를 담은 ItemFormDto 객체를 Item 엔티티로 변환합니다.
+     * - 새 상품을 만드는 용도이므로 id 는 옮기지 않습니다(수정은 Item.updateItem()).
      * @return
      */
     public Item createItem(){
-        return modelMapper.map(this, Item.class);
+        Item item = new Item();
+        item.setItemNm(itemNm);
+        item.setPrice(price);
+        item.setItemDetail(itemDetail);     // 요약(itemSummary)도 함께 설정된다.
+        item.setStockNumber(stockNumber);
+        item.setItemSellStatus(itemSellStatus);
+        return item;
     }
 
-    // DB에서 가져온 Item 엔티티를 받아서 ItemFormDto로 변환
+    // DB에서 가져온 Item 엔티티를 받아서 ItemFormDto로 변환, 이미지 목록은 호출하는 쪽에서 설정한다.
     public static ItemFormDto of(Item item){
-        return modelMapper.map(item, ItemFormDto.class);
+        return ItemFormDto.builder()
+                .id(item.getId())
+                .itemNm(item.getItemNm())
+                .price(item.getPrice())
+                .itemDetail(item.getItemDetail())
+                .stockNumber(item.getStockNumber())
+                .itemSellStatus(item.getItemSellStatus())
+                .build();
     }
 
 }
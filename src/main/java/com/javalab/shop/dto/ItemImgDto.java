@@ -2,7 +2,6 @@ package com.javalab.shop.dto;
 
 import com.javalab.shop.entity.ItemImg;
 import lombok.*;
-import org.modelmapper.ModelMapper;
 
 /**
  * ItemImg 엔티티와 ItemImgDto 간의 데이터 변환을 담당하는 클래스
@@ -24,27 +23,18 @@ public class ItemImgDto {
     private String imgUrl;         // 이미지 파일 경로
     private String repImgYn;       // 대표 이미지 여부
 
-    private static ModelMapper modelMapper = new ModelMapper();
-
     /**
      * ItemImg 엔티티를 ItemImgDto로 변환하는 메서드
      * static 메서드로 선언하여 외부에서 객체 생성 없이 사용 가능하도록 함.
+     * - 필드를 직접 옮기므로 이름이 다른 필드(repimgYn -> repImgYn)도 빠짐없이 옮겨진다.
      */
     public static ItemImgDto entityToDto(ItemImg itemImg){
-        ItemImgDto itemImgDto = modelMapper.map(itemImg, ItemImgDto.class);
-        return itemImgDto;
-    }
-/*
-    public static ItemImgDto entityToDto(ItemImg itemImg){
-        ItemImgDto itemImgDto = ItemImgDto.builder()
+        return ItemImgDto.builder()
                 .id(itemImg.getId())
-                .imgName(itemImg.getOriImgName())
-                .oriImgName(itemImg.getImgName())
-                .imgUrl(itemImg.getImgUri())
+                .imgName(itemImg.getImgName())
+                .oriImgName(itemImg.getOriImgName())
+                .imgUrl(itemImg.getImgUrl())
                 .repImgYn(itemImg.getRepimgYn())
                 .build();
-
-        return itemImgDto;
     }
- */
 }
\ No newline at end of file
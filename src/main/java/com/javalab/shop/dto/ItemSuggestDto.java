@@ -0,0 +1,18 @@
+package com.javalab.shop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 상품명 자동완성 제안 DTO
+ * - /api/items/suggest 응답으로 상품 ID와 상품명만 내려준다.
+ */
+@Getter @Setter
+@AllArgsConstructor
+public class ItemSuggestDto {
+
+    private Long itemId;
+
+    private String itemNm;
+}
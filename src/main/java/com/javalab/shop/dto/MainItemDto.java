@@ -15,7 +15,7 @@ public class MainItemDto {
 
     private String itemNm;
 
-    private String itemDetail;
+    private String itemSummary;     // 상품 상세 설명 요약(Item.itemSummary), 전체 상세 설명은 상품 상세 페이지에서만 조회
 
     private String imgUrl;
 
@@ -30,10 +30,10 @@ public class MainItemDto {
      *   DTO 객체를 생성하므로, 별도로 값을 이전하는 작업이 필요하지 않는다.
      */
     @QueryProjection
-    public MainItemDto(Long id, String itemNm, String itemDetail, String imgUrl, Integer price){
+    public MainItemDto(Long id, String itemNm, String itemSummary, String imgUrl, Integer price){
         this.id = id;
         this.itemNm = itemNm;
-        this.itemDetail = itemDetail;
+        this.itemSummary = itemSummary;
         this.imgUrl = imgUrl;
         this.price = price;
     }
@@ -1,7 +1,8 @@
 package com.javalab.shop.dto;
 
 import com.javalab.shop.constant.OrderStatus;
-import com.javalab.shop.entity.Order;
+import com.javalab.shop.entity.OrderSummary;
+import com.javalab.shop.entity.OrderSummaryLine;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -18,14 +19,16 @@ import java.util.List;
 public class OrderHistDto {
 
     /**
-     * Order 엔티티를 받아서 OrderHistDto로 변환
-     * - order : 데이터베이스에서 조회한 Order 엔티티
-     * @param order
+     * 주문 요약(OrderSummary)으로 생성
+     * - 주문 상품도 주문 요약에 저장된 스냅샷으로 채운다.
      */
-    public OrderHistDto(Order order){
-        this.orderId = order.getId();
-        this.orderDate = order.getOrderDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-        this.orderStatus = order.getOrderStatus();
+    public OrderHistDto(OrderSummary orderSummary){
+        this.orderId = orderSummary.getOrderId();
+        this.orderDate = orderSummary.getOrderDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+        this.orderStatus = orderSummary.getOrderStatus();
+        for (OrderSummaryLine line : orderSummary.getLines()) {
+            addOrderItemDto(new OrderItemDto(orderSummary.getOrderId(), line));
+        }
     }
 
     private Long orderId; //주문아이디
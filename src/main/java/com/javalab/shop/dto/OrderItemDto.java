@@ -1,6 +1,6 @@
 package com.javalab.shop.dto;
 
-import com.javalab.shop.entity.OrderItem;
+import com.javalab.shop.entity.OrderSummaryLine;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,13 +11,19 @@ import lombok.Setter;
 @Getter @Setter
 public class OrderItemDto {
 
-    public OrderItemDto(OrderItem orderItem, String imgUrl){
-        this.itemNm = orderItem.getItem().getItemNm();
-        this.count = orderItem.getCount();
-        this.orderPrice = orderItem.getOrderPrice();
-        this.imgUrl = imgUrl;
+    /**
+     * 주문 요약(OrderSummary)의 주문 상품 스냅샷으로 생성
+     */
+    public OrderItemDto(Long orderId, OrderSummaryLine line){
+        this.orderId = orderId;
+        this.itemNm = line.getItemNm();
+        this.count = line.getCount();
+        this.orderPrice = line.getOrderPrice();
+        this.imgUrl = line.getImgUrl();
     }
 
+    private Long orderId; //주문아이디
+
     private String itemNm; //상품명
     private int count; //주문 수량
 
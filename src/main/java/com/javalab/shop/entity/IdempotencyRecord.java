@@ -0,0 +1,65 @@
+package com.javalab.shop.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 멱등키 엔티티(shop.idempotency.store=db 일 때 사용)
+ * - 키별로 처음 실행한 주문 요청의 응답을 보관한다. 응답 상태(status)가 null 이면 처리 중인 요청이다.
+ * - 처리 중인 요청의 만료 시간은 짧은 임대 시간(lease-seconds)이고, 응답을 저장하면 보관 기간(ttl-minutes)으로 늘린다.
+ * - 키를 기본키로 사용하므로 여러 서버에서 같은 키로 동시에 INSERT 하면 하나만 성공한다.
+ * - 키를 직접 지정하는 엔티티는 save() 시 merge(조회 후 INSERT/UPDATE)가 되므로
+ *   Persistable 을 구현해서 새 엔티티는 바로 INSERT 되도록 한다.
+ */
+@Entity
+@Table(name = "idempotency_key", indexes = @Index(name = "idx_idempotency_key_expires_at", columnList = "expires_at"))
+@Getter @Setter
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String idempotencyKey;  // 회원 이메일 + ":" + 요청 헤더의 키
+
+    private Integer status;         // 응답 HTTP 상태 코드, null 이면 처리 중
+
+    private Long orderId;           // 성공 시 주문 번호
+
+    @Column(length = 1000)
+    private String message;         // 실패 시 에러 메시지
+
+    @Column(length = 64)
+    private String fingerprint;     // 응답을 만든 요청의 지문(요청 내용의 SHA-256 해시)
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Transient
+    private boolean newRecord = true;
+
+    public static IdempotencyRecord create(String idempotencyKey, LocalDateTime expiresAt) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey(idempotencyKey);
+        record.setExpiresAt(expiresAt);
+        return record;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newRecord = false;
+    }
+}
@@ -5,11 +5,14 @@ import com.javalab.shop.dto.ItemFormDto;
 import com.javalab.shop.exception.OutOfStockException;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table
+// 2차 캐시에 넣지 않는다. 주문마다 실행되는 재고 JPQL 일괄 UPDATE(decreaseStock 등)가 Item 영역 전체를 비우기 때문이다.
+// 상품 화면 조회는 ItemDetailCache, MainItemPageCache 가 DTO 로 캐시한다.
 @Getter
 @Setter
 @ToString
@@ -18,6 +21,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Item extends BaseEntity {
 
+    // 상품 상세 설명 요약 길이
+    public static final int SUMMARY_LENGTH = 100;
+
     /*
      * @Id :  해당 필드를 기본 키로 설정
      * @Column : 해당 필드를 컬럼으로 설정
@@ -43,15 +49,39 @@ public class Item extends BaseEntity {
     private int stockNumber; // 재고 수량
 
     // @Lob: 데이터베이스의 BLOB, CLOB 타입과 매핑
+    // @Basic(fetch = FetchType.LAZY) : 목록 조회에서 큰 텍스트를 읽지 않도록 처음 사용할 때 따로 조회한다.
+    // - 필드 단위 지연 로딩은 빌드 시 Hibernate 바이트코드 향상(build.gradle 의 hibernate { enhancement })이 있어야 동작한다.
+    // - 지연 로딩이므로 @ToString 에서 제외한다(출력할 때마다 조회 쿼리 실행, 준영속 상태면 예외).
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @Column(nullable = false)
+    @ToString.Exclude
     private String itemDetail; // 상품 상세 설명
 
+    // 상품 상세 설명 요약(앞 SUMMARY_LENGTH 글자), 메인 화면 목록처럼 상세 설명 일부만 보여주는 곳에서 사용
+    // - 상품 상세 설명을 저장/수정할 때 함께 계산한다(setItemDetail(), updateItem(), @PrePersist).
+    @Column(length = SUMMARY_LENGTH)
+    private String itemSummary;
+
+    // 대표 이미지 경로(item_img 의 repimg_yn = 'Y' 인 이미지의 img_url 복사본)
+    // - 메인 화면, 장바구니, 주문 요약이 item_img 를 조인하지 않고 읽는다.
+    // - 대표 이미지를 저장/수정할 때 ItemImgService 가 함께 바꾼다(updateRepImgUrl()).
+    private String repImgUrl;
+
     // EnumType.STRING: Enum의 이름을 DB에 저장
     // 실제 SQL : `item_sell_status` enum('SELL', 'SOLD_OUT') DEFAULT NULL,
     @Enumerated(EnumType.STRING)
     private ItemSellStatus itemSellStatus; // 상품 판매 상태
 
+    // @Version : 낙관적 락(Optimistic Lock)을 위한 버전, 엔티티가 수정될 때마다 1씩 증가
+    // - UPDATE 시 where version = ? 조건이 붙어서 그 사이에 다른 트랜잭션이 수정했다면 예외가 발생한다.
+    // - 재고 UPDATE 쿼리(ItemRepository.decreaseStock() 등)에서도 버전을 함께 증가시킨다.
+    // - @ColumnDefault("0") : 컬럼이 추가될 때 기존 상품의 버전을 0으로 채운다.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // LocalDateTime : JPA 2.2부터 지원
     // LocalDateTime : 날짜와 시간을 모두 저장, 밀리 초 단위까지 저장
 //    private LocalDateTime regTime; // 등록시간
@@ -67,10 +97,48 @@ public class Item extends BaseEntity {
         this.itemNm = itemFormDto.getItemNm();
         this.price = itemFormDto.getPrice();
         this.stockNumber = itemFormDto.getStockNumber();
-        this.itemDetail = itemFormDto.getItemDetail();
+        setItemDetail(itemFormDto.getItemDetail());
         this.itemSellStatus = itemFormDto.getItemSellStatus();
     }
 
+    /**
+     * 상품 상세 설명 변경, 요약도 함께 바꾼다.
+     * @param itemDetail
+     */
+    public void setItemDetail(String itemDetail) {
+        this.itemDetail = itemDetail;
+        this.itemSummary = summarize(itemDetail);
+    }
+
+    /**
+     * 대표 이미지 경로 변경
+     * @param repImgUrl : 대표 이미지의 조회 경로
+     */
+    public void updateRepImgUrl(String repImgUrl) {
+        this.repImgUrl = repImgUrl;
+    }
+
+    /**
+     * 저장 전에 요약이 없으면 채운다(빌더로 생성한 상품 등).
+     */
+    @PrePersist
+    protected void prePersistItemSummary() {
+        if (this.itemSummary == null) {
+            this.itemSummary = summarize(this.itemDetail);
+        }
+    }
+
+    /**
+     * 상품 상세 설명 요약 : 앞 SUMMARY_LENGTH 글자
+     * - 기존 상품의 요약을 채우는 쿼리(ItemRepository.fillMissingItemSummary())와 같은 결과여야 한다.
+     */
+    public static String summarize(String itemDetail) {
+        if (itemDetail == null || itemDetail.length() <= SUMMARY_LENGTH) {
+            return itemDetail;
+        }
+        return itemDetail.substring(0, SUMMARY_LENGTH);
+    }
+
     /**
      * 상품의 재고를 감소시킨다.
      * @param stockNumber
@@ -3,11 +3,15 @@ package com.javalab.shop.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * 상품 이미지를 저장하는 엔티티
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)     // 2차 캐시, 이미지 수정 시 변경되므로 READ_WRITE
 @Getter@Setter
 public class ItemImg extends BaseEntity {
 
@@ -4,6 +4,8 @@ import com.javalab.shop.constant.Role;
 import com.javalab.shop.dto.MemberFormDto;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
@@ -15,6 +17,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
  */
 @Entity
 @Table(name ="member")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)     // 2차 캐시, 회원 정보 수정이 있으므로 READ_WRITE
 @Getter @Setter
 @ToString
 @NoArgsConstructor
@@ -3,6 +3,8 @@ package com.javalab.shop.entity;
 import com.javalab.shop.constant.OrderStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -13,7 +15,11 @@ import java.util.List;
  * 주문 엔티티
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        indexes = {
+                // 기간별 주문 내보내기(관리자)에서 주문일 범위를 읽을 때 사용하는 인덱스
+                @Index(name = "idx_orders_order_date", columnList = "order_date, order_id")
+        })
 @Getter
 @Setter
 @AllArgsConstructor
@@ -43,7 +49,9 @@ public class Order extends BaseEntity {
      * JPA는 이 필드가 단순히 읽기 전용임을 알고, 외래 키 관리에 사용하지 않습니다.
      * CascadeType.ALL : OrderItem 엔티티를 저장하거나 삭제할 때, 연관된 OrderItem 엔티티도 함께 저장하거나 삭제
      * orphanRemoval = true : Order 에니티와 연관된 OrderItem 엔티티가 더 이상 참조되지 않으면 삭제
+     * @Cache : 주문별 주문 상품 ID 목록을 2차 캐시에 저장, 주문 상품 엔티티는 OrderItem 영역에서 읽는다.
      */
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "order", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems = new ArrayList<>();
 
@@ -95,13 +103,11 @@ public class Order extends BaseEntity {
     }
     /**
      * 주문 취소
-     * 주문 취소 시, 주문 상태를 취소로 변경하고, 주문 상품 리스트의 상품 수량을 순회 하면서 취소 처리
+     * 주문 취소 시, 주문 상태를 취소로 변경한다.
+     * - 주문 상품의 재고 복구는 주문 서비스에서 ItemRepository.increaseStock()으로 DB에서 처리한다.
      */
     public void cancelOrder() {
         this.orderStatus = OrderStatus.CANCEL;
-        for (OrderItem orderItem : orderItems) {
-            orderItem.cancel();
-        }
     }
 
 }
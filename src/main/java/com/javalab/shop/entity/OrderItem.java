@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -16,6 +18,8 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "order_item")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)     // 2차 캐시, Order.orderItems 컬렉션 캐시는 주문 상품 ID만 저장하므로 함께 캐시한다.
 @Getter
 @Setter
 @AllArgsConstructor
@@ -47,13 +51,16 @@ public class OrderItem extends BaseEntity {
     /**
      * 주문 상품 생성 메서드
      * - Item, 수량을 받아서 OrderItem 생성
+     * - 재고 차감은 여기서 하지 않는다. 주문 서비스에서 먼저 차감한 뒤에 호출한다.
+     *   단건 주문은 ItemRepository.decreaseStock()으로 DB에서 원자적으로 차감하고,
+     *   여러 상품 주문(장바구니, 묶음 주문)은 상품 행에 lock 을 건 뒤(findAllByIdForUpdate) Item.removeStock()으로 차감한다.
+     *   핫 아이템은 두 경우 모두 재고 장부(HotItemStockLedger)에서 차감한다.
      */
     public static OrderItem createOrderItem(Item item, int count){
         OrderItem orderItem = new OrderItem();  // 주문 상품 생성
         orderItem.setItem(item);    // 주문 상품 설정
         orderItem.setCount(count);  // 주문 수량
         orderItem.setOrderPrice(item.getPrice());   // 주문 가격은 상품의 가격
-        item.removeStock(count);    // 주문 수량만큼 재고 감소
         return orderItem;
     }
 
@@ -64,12 +71,4 @@ public class OrderItem extends BaseEntity {
     public int getTotalPrice(){
         return orderPrice * count;
     }
-
-    /**
-     * 주문 취소
-     * - 주문 수량만큼 재고 증가
-     */
-    public void cancel(){
-        this.getItem().addStock(count);
-    }
 }
@@ -0,0 +1,92 @@
+package com.javalab.shop.entity;
+
+import com.javalab.shop.constant.OrderStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주문 요약 엔티티(주문 내역 화면 전용 읽기 모델)
+ * - 주문 내역 화면에 필요한 정보(주문, 주문 상품, 상품명, 대표 이미지)를 한 행에 모아 둔다.
+ *   주문 내역을 조회할 때 orders, order_item, item, item_img 를 조인하지 않고
+ *   (member_email, order_date, order_id) 인덱스 범위만 읽는다.
+ * - 주문을 생성하는 트랜잭션에서 함께 저장하고, 주문을 취소하면 상태를 함께 변경한다.
+ * - 주문 상품 정보는 주문 시점의 스냅샷(JSON)이다.
+ * - 기본키로 주문 ID를 그대로 사용하므로 Persistable 을 구현해서 새 엔티티는 바로 INSERT 되도록 한다.
+ */
+@Entity
+@Table(name = "order_summary",
+        indexes = @Index(name = "idx_order_summary_member_date", columnList = "member_email, order_date, order_id"))
+@Getter @Setter
+public class OrderSummary implements Persistable<Long> {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(name = "member_email")
+    private String memberEmail;
+
+    @Column(name = "order_date")
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus orderStatus;
+
+    private int totalPrice;
+
+    // 주문 상품 스냅샷, JSON 컬럼으로 저장
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<OrderSummaryLine> lines = new ArrayList<>();
+
+    @Transient
+    private boolean newSummary = true;
+
+    /**
+     * 주문 엔티티로 주문 요약 생성
+     * @param order : 저장된(주문 ID가 있는) 주문
+     * @param imgUrlByItemId : 상품 ID -> 대표 이미지 경로
+     * @return
+     */
+    public static OrderSummary of(Order order, Map<Long, String> imgUrlByItemId) {
+        OrderSummary orderSummary = new OrderSummary();
+        orderSummary.setOrderId(order.getId());
+        orderSummary.setMemberId(order.getMember().getId());
+        orderSummary.setMemberEmail(order.getMember().getEmail());
+        orderSummary.setOrderDate(order.getOrderDate());
+        orderSummary.setOrderStatus(order.getOrderStatus());
+        orderSummary.setTotalPrice(order.getTotalPrice());
+        for (OrderItem orderItem : order.getOrderItems()) {
+            orderSummary.getLines().add(
+                    new OrderSummaryLine(orderItem, imgUrlByItemId.get(orderItem.getItem().getId())));
+        }
+        return orderSummary;
+    }
+
+    @Override
+    public Long getId() {
+        return orderId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newSummary;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newSummary = false;
+    }
+}
@@ -0,0 +1,30 @@
+package com.javalab.shop.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 주문 요약(OrderSummary)에 저장하는 주문 상품 스냅샷
+ * - 주문한 시점의 상품명, 주문 가격, 대표 이미지 경로를 그대로 보관한다.
+ *   나중에 상품명이나 이미지가 바뀌어도 주문 내역에는 실제로 구매한 상품 정보가 보인다.
+ * - order_summary 테이블의 lines 컬럼에 JSON 으로 저장된다.
+ */
+@Getter @Setter
+@NoArgsConstructor
+public class OrderSummaryLine {
+
+    private Long itemId;        // 상품 ID
+    private String itemNm;      // 주문 시점 상품명
+    private int count;          // 주문 수량
+    private int orderPrice;     // 주문 가격
+    private String imgUrl;      // 주문 시점 대표 이미지 경로
+
+    public OrderSummaryLine(OrderItem orderItem, String imgUrl) {
+        this.itemId = orderItem.getItem().getId();
+        this.itemNm = orderItem.getItem().getItemNm();
+        this.count = orderItem.getCount();
+        this.orderPrice = orderItem.getOrderPrice();
+        this.imgUrl = imgUrl;
+    }
+}
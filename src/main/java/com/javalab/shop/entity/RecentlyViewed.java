@@ -0,0 +1,59 @@
+package com.javalab.shop.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 최근 본 상품 엔티티
+ * - 회원별 최근 본 상품 ID 목록(최근 순서)을 한 행에 JSON 으로 저장한다.
+ * - 상품 상세 조회마다 저장하지 않고 메모리(RecentlyViewedStore)에 모아 두었다가 주기적으로 덮어쓴다(RecentlyViewedService).
+ * - 회원 이메일을 기본키로 사용하고, 새 엔티티는 조회 없이 바로 INSERT 되도록 Persistable 을 구현한다.
+ */
+@Entity
+@Table(name = "recently_viewed")
+@Getter @Setter
+public class RecentlyViewed implements Persistable<String> {
+
+    @Id
+    @Column(name = "member_email")
+    private String memberEmail;
+
+    // 최근 본 상품 ID, 가장 최근에 본 상품이 앞에 온다.
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<Long> itemIds = new ArrayList<>();
+
+    private LocalDateTime updateTime;
+
+    @Transient
+    private boolean newRecord = true;
+
+    public static RecentlyViewed create(String memberEmail) {
+        RecentlyViewed recentlyViewed = new RecentlyViewed();
+        recentlyViewed.setMemberEmail(memberEmail);
+        return recentlyViewed;
+    }
+
+    @Override
+    public String getId() {
+        return memberEmail;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newRecord = false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.javalab.shop.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 인기 상품 순위 구간 스냅샷(SalesRankSnapshot)에 저장하는 카운터
+ * - Space-Saving 스케치의 카운터 하나(상품, 센 수량, 최대 오차)이다.
+ * - sales_rank_snapshot 테이블의 counters 컬럼에 JSON 으로 저장된다.
+ */
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRankCounter {
+
+    private long itemId;    // 상품 ID
+    private long count;     // 센 판매 수량(실제보다 크거나 같다)
+    private long error;     // 최대 오차
+}
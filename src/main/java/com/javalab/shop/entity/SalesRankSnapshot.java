@@ -0,0 +1,42 @@
+package com.javalab.shop.entity;
+
+import com.javalab.shop.constant.SalesWindow;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 인기 상품 순위 구간 스냅샷 엔티티
+ * - 메모리의 인기 상품 순위(BestsellerRanking)를 재시작 후에 복원하기 위해 집계 기간/구간별 카운터를 한 행에 저장한다.
+ * - 변경된 구간만 주기적으로 덮어쓰고, 기간을 벗어난 구간은 지운다(BestsellerRankingUpdater).
+ */
+@Entity
+@Table(name = "sales_rank_snapshot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sales_rank_snapshot_bucket", columnNames = {"sales_window", "bucket_start"}))
+@Getter @Setter
+public class SalesRankSnapshot {
+
+    @Id
+    @Column(name = "sales_rank_snapshot_id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sales_window", nullable = false, length = 10)
+    private SalesWindow salesWindow;
+
+    @Column(name = "bucket_start", nullable = false)
+    private long bucketStart;       // 구간 시작 시각(epoch millis)
+
+    // 구간의 카운터, JSON 컬럼으로 저장
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<SalesRankCounter> counters = new ArrayList<>();
+
+    private LocalDateTime snapshotTime;     // 마지막 저장 시각
+}
@@ -0,0 +1,11 @@
+package com.javalab.shop.event;
+
+/**
+ * 상품 변경 이벤트
+ * - 상품 등록/수정 트랜잭션 안에서 발행하고, 검색 색인처럼 DB 밖에 상품 정보를 따로 들고 있는 곳은
+ *   커밋 후(@TransactionalEventListener(AFTER_COMMIT))에 받아서 자신의 정보를 갱신한다.
+ *   롤백되면 전달되지 않으므로 커밋되지 않은 상품이 색인에 들어가지 않는다.
+ * @param itemId : 변경된 상품 ID
+ */
+public record ItemChangedEvent(Long itemId) {
+}
@@ -0,0 +1,11 @@
+package com.javalab.shop.event;
+
+/**
+ * 상품 이미지 변경 이벤트
+ * - 상품 이미지 저장/수정 트랜잭션 안에서 발행한다(ItemImgService).
+ * - 이미지 URL 을 함께 들고 있는 곳(메인 화면 상품 목록 캐시 등)만 커밋 후에 받아서 갱신한다.
+ *   상품명 검색 색인처럼 이미지와 상관없는 곳이 상품 이미지마다 다시 색인하지 않도록 ItemChangedEvent 와 나누었다.
+ * @param itemId : 이미지가 변경된 상품 ID
+ */
+public record ItemImgChangedEvent(Long itemId) {
+}
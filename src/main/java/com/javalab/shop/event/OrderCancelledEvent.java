@@ -0,0 +1,14 @@
+package com.javalab.shop.event;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 주문 취소 이벤트
+ * - 주문을 취소하는 트랜잭션 안에서 발행한다(OrderService). 이미 취소된 주문은 다시 발행하지 않는다.
+ * @param orderId : 주문 ID
+ * @param orderDate : 취소한 주문의 주문일, 주문 생성 때 집계한 시간 구간에서 빼기 위해 사용한다.
+ * @param countByItemId : 상품 ID -> 주문 수량
+ */
+public record OrderCancelledEvent(Long orderId, LocalDateTime orderDate, Map<Long, Integer> countByItemId) {
+}
@@ -0,0 +1,15 @@
+package com.javalab.shop.event;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 주문 생성 이벤트
+ * - 주문을 저장하는 트랜잭션 안에서 발행한다(OrderService). 인기 상품 순위처럼 주문 수량을 따로 집계하는 곳은
+ *   커밋 후에 받아서 반영한다. 재고 부족 등으로 롤백된 주문은 전달되지 않는다.
+ * @param orderId : 주문 ID
+ * @param orderDate : 주문일, 집계할 시간 구간을 정한다.
+ * @param countByItemId : 상품 ID -> 주문 수량
+ */
+public record OrderCreatedEvent(Long orderId, LocalDateTime orderDate, Map<Long, Integer> countByItemId) {
+}
@@ -0,0 +1,216 @@
+package com.javalab.shop.ranking;
+
+import com.javalab.shop.constant.SalesWindow;
+import com.javalab.shop.entity.SalesRankCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 인기 상품(판매량) 순위
+ * - 집계 기간(SalesWindow)마다 구간(bucket)별 Space-Saving 스케치로 판매 수량을 센다.
+ *   상품이 아무리 많아도 구간마다 capacity 개의 카운터만 유지한다.
+ * - 주문/취소가 커밋될 때마다(BestsellerRankingUpdater) 주문일이 속한 구간에 더하거나 뺀다. O(log capacity)
+ * - 기간별 상위 topSize 개는 refresh() 가 기간 안의 구간들을 합쳐서 미리 계산해 둔다.
+ *   조회(top())는 미리 계산한 목록의 앞부분만 돌려주므로 O(topSize) 이고 lock 을 잡지 않는다.
+ * - 판매량은 근사값이다. 실제보다 크거나 같고, 많이 팔린 상품일수록 정확하다(SpaceSavingSketch).
+ * - 재시작에 대비해서 변경된 구간을 주기적으로 DB에 저장하고(drainDirtyBuckets()), 시작할 때 복원한다(restore()).
+ */
+@Component
+public class BestsellerRanking {
+
+    private final int capacity;
+    private final int topSize;
+    private final Map<SalesWindow, Bucket[]> rings = new EnumMap<>(SalesWindow.class);
+    private volatile Map<SalesWindow, List<RankedItem>> tops;
+
+    public BestsellerRanking(@Value("${shop.ranking.capacity:100}") int capacity,
+                             @Value("${shop.ranking.top-size:20}") int topSize) {
+        this.capacity = capacity;
+        this.topSize = topSize;
+        Map<SalesWindow, List<RankedItem>> emptyTops = new EnumMap<>(SalesWindow.class);
+        for (SalesWindow window : SalesWindow.values()) {
+            rings.put(window, new Bucket[window.getBucketCount()]);
+            emptyTops.put(window, List.of());
+        }
+        this.tops = emptyTops;
+    }
+
+    /**
+     * 판매 수량 추가(주문)
+     * @param timeMillis : 주문일(epoch millis)
+     */
+    public synchronized void record(long itemId, long count, long timeMillis) {
+        for (SalesWindow window : SalesWindow.values()) {
+            Bucket bucket = bucket(window, timeMillis, true);
+            if (bucket != null) {
+                bucket.sketch.add(itemId, count);
+                bucket.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * 판매 수량 차감(주문 취소), 주문일이 속한 구간이 이미 기간을 벗어났으면 무시한다.
+     * @param timeMillis : 취소한 주문의 주문일(epoch millis)
+     */
+    public synchronized void cancel(long itemId, long count, long timeMillis) {
+        for (SalesWindow window : SalesWindow.values()) {
+            Bucket bucket = bucket(window, timeMillis, false);
+            if (bucket != null) {
+                bucket.sketch.subtract(itemId, count);
+                bucket.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * 판매량 상위 상품 조회
+     * - 마지막 refresh() 결과이다.
+     * @param size : 최대 개수(topSize 보다 크면 topSize 개)
+     * @return 판매량이 많은 순서, 같으면 최근 상품(상품 ID가 큰 상품)이 앞선다.
+     */
+    public List<RankedItem> top(SalesWindow window, int size) {
+        List<RankedItem> top = tops.get(window);
+        return top.size() <= size ? top : top.subList(0, size);
+    }
+
+    /**
+     * 기간별 상위 topSize 개 다시 계산
+     * - 기간 안의 구간들의 카운터를 상품별로 합친다. 기간을 벗어난 구간은 이때 빠진다.
+     * @param now : 현재 시각(epoch millis)
+     */
+    public void refresh(long now) {
+        Map<SalesWindow, List<RankedItem>> newTops = new EnumMap<>(SalesWindow.class);
+        for (SalesWindow window : SalesWindow.values()) {
+            Map<Long, Long> totals = new HashMap<>();
+            synchronized (this) {
+                for (Bucket bucket : rings.get(window)) {
+                    if (isLive(window, bucket, now)) {
+                        bucket.sketch.forEach((itemId, count, error) -> totals.merge(itemId, count, Long::sum));
+                    }
+                }
+            }
+            newTops.put(window, totals.entrySet().stream()
+                    .filter(total -> total.getValue() > 0)
+                    .map(total -> new RankedItem(total.getKey(), total.getValue()))
+                    .sorted(Comparator.comparingLong(RankedItem::salesCount).reversed()
+                            .thenComparing(Comparator.comparingLong(RankedItem::itemId).reversed()))
+                    .limit(topSize)
+                    .toList());
+        }
+        tops = newTops;
+    }
+
+    /**
+     * 마지막 호출 이후 바뀐 구간(기간 안에 있는 구간만) 꺼내기, 꺼낸 구간은 변경 없음으로 표시한다.
+     * @param now : 현재 시각(epoch millis)
+     */
+    public synchronized List<BucketSnapshot> drainDirtyBuckets(long now) {
+        List<BucketSnapshot> snapshots = new ArrayList<>();
+        for (SalesWindow window : SalesWindow.values()) {
+            for (Bucket bucket : rings.get(window)) {
+                if (bucket != null && bucket.dirty && isLive(window, bucket, now)) {
+                    List<SalesRankCounter> counters = new ArrayList<>(bucket.sketch.size());
+                    bucket.sketch.forEach((itemId, count, error) -> counters.add(new SalesRankCounter(itemId, count, error)));
+                    snapshots.add(new BucketSnapshot(window, bucket.index * window.getBucketMillis(), counters));
+                    bucket.dirty = false;
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * 저장에 실패한 구간을 다시 변경됨으로 표시한다(다음 저장 때 다시 꺼낸다).
+     */
+    public synchronized void markDirty(List<BucketSnapshot> snapshots) {
+        for (BucketSnapshot snapshot : snapshots) {
+            Bucket bucket = bucket(snapshot.window(), snapshot.bucketStart(), false);
+            if (bucket != null) {
+                bucket.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * 저장된 카운터 복원(애플리케이션 시작 시), 기간을 벗어난 구간은 무시한다.
+     * @param bucketStart : 구간 시작 시각(epoch millis)
+     * @param now : 현재 시각(epoch millis)
+     */
+    public synchronized void restore(SalesWindow window, long bucketStart, long itemId, long count, long error, long now) {
+        if (bucketStart / window.getBucketMillis() <= now / window.getBucketMillis() - window.getBucketCount()) {
+            return;
+        }
+        Bucket bucket = bucket(window, bucketStart, true);
+        if (bucket != null) {
+            bucket.sketch.restore(itemId, count, error);
+        }
+    }
+
+    /**
+     * 기간 안에 있는 가장 오래된 구간의 시작 시각(epoch millis), 이보다 오래된 저장 구간은 지워도 된다.
+     */
+    public static long oldestLiveBucketStart(SalesWindow window, long now) {
+        return (now / window.getBucketMillis() - window.getBucketCount() + 1) * window.getBucketMillis();
+    }
+
+    /**
+     * 시각이 속한 구간
+     * - 구간은 ring(구간 수 크기의 배열)에 순환해서 저장한다. 같은 자리에 있는 더 오래된 구간은 버리고 새로 만든다.
+     * @param create : 없으면 만들지 여부
+     * @return 구간, 없거나 같은 자리에 더 최근 구간이 있으면(기간을 벗어난 시각) null
+     */
+    private Bucket bucket(SalesWindow window, long timeMillis, boolean create) {
+        long index = timeMillis / window.getBucketMillis();
+        Bucket[] ring = rings.get(window);
+        int slot = (int) Math.floorMod(index, (long) ring.length);
+        Bucket bucket = ring[slot];
+        if (bucket != null && bucket.index == index) {
+            return bucket;
+        }
+        if (!create || (bucket != null && bucket.index > index)) {
+            return null;
+        }
+        bucket = new Bucket(index, new SpaceSavingSketch(capacity));
+        ring[slot] = bucket;
+        return bucket;
+    }
+
+    private static boolean isLive(SalesWindow window, Bucket bucket, long now) {
+        long nowIndex = now / window.getBucketMillis();
+        return bucket != null && bucket.index <= nowIndex && bucket.index > nowIndex - window.getBucketCount();
+    }
+
+    private static class Bucket {
+        private final long index;       // 구간 번호 : 시작 시각 / 구간 길이
+        private final SpaceSavingSketch sketch;
+        private boolean dirty;          // 마지막 저장 이후 변경 여부
+
+        Bucket(long index, SpaceSavingSketch sketch) {
+            this.index = index;
+            this.sketch = sketch;
+        }
+    }
+
+    /**
+     * 순위 항목
+     * @param itemId : 상품 ID
+     * @param salesCount : 기간 내 판매 수량(근사값)
+     */
+    public record RankedItem(long itemId, long salesCount) {
+    }
+
+    /**
+     * 구간 저장 단위
+     * @param bucketStart : 구간 시작 시각(epoch millis)
+     */
+    public record BucketSnapshot(SalesWindow window, long bucketStart, List<SalesRankCounter> counters) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.javalab.shop.ranking;
+
+import com.javalab.shop.constant.SalesWindow;
+import com.javalab.shop.entity.SalesRankCounter;
+import com.javalab.shop.entity.SalesRankSnapshot;
+import com.javalab.shop.event.OrderCancelledEvent;
+import com.javalab.shop.event.OrderCreatedEvent;
+import com.javalab.shop.repository.SalesRankSnapshotRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 인기 상품 순위 갱신기
+ * - 주문/주문 취소가 커밋되면(OrderCreatedEvent, OrderCancelledEvent) 상품별 수량을 순위에 더하거나 뺀다.
+ *   롤백된 주문은 반영되지 않는다.
+ * - refresh-interval-ms 마다 기간별 상위 상품을 다시 계산한다. 주문마다 정렬하지 않고 조회는 계산된 목록만 읽는다.
+ * - snapshot-interval-ms 마다 변경된 구간을 sales_rank_snapshot 테이블에 덮어쓰고 기간을 벗어난 구간을 지운다.
+ *   애플리케이션 시작 후 저장된 구간으로 순위를 복원한다. 마지막 저장 이후의 주문은 재시작 시 빠진다(근사 순위).
+ * - shop.ranking.enabled=false 이면 집계하지 않고 인기 상품은 항상 빈 목록이다.
+ */
+@Component
+@Log4j2
+public class BestsellerRankingUpdater {
+
+    private final BestsellerRanking bestsellerRanking;
+    private final SalesRankSnapshotRepository salesRankSnapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public BestsellerRankingUpdater(BestsellerRanking bestsellerRanking,
+                                    SalesRankSnapshotRepository salesRankSnapshotRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${shop.ranking.enabled:true}") boolean enabled) {
+        this.bestsellerRanking = bestsellerRanking;
+        this.salesRankSnapshotRepository = salesRankSnapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    /**
+     * 저장된 구간으로 순위 복원
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<SalesRankSnapshot> snapshots = salesRankSnapshotRepository.findAll();
+        for (SalesRankSnapshot snapshot : snapshots) {
+            for (SalesRankCounter counter : snapshot.getCounters()) {
+                bestsellerRanking.restore(snapshot.getSalesWindow(), snapshot.getBucketStart(),
+                        counter.getItemId(), counter.getCount(), counter.getError(), now);
+            }
+        }
+        bestsellerRanking.refresh(now);
+        log.info("인기 상품 순위 복원 완료 : 구간 {}건, {}ms", snapshots.size(), System.currentTimeMillis() - now);
+    }
+
+    /**
+     * 주문 커밋 후 판매 수량 반영
+     * - 트랜잭션 밖에서 발행된 이벤트도 처리한다(fallbackExecution).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long orderTime = toEpochMillis(event.orderDate());
+        event.countByItemId().forEach((itemId, count) -> bestsellerRanking.record(itemId, count, orderTime));
+    }
+
+    /**
+     * 주문 취소 커밋 후 판매 수량 차감, 주문일이 속한 구간에서 뺀다.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderCancelled(OrderCancelledEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long orderTime = toEpochMillis(event.orderDate());
+        event.countByItemId().forEach((itemId, count) -> bestsellerRanking.cancel(itemId, count, orderTime));
+    }
+
+    /**
+     * 기간별 상위 상품 다시 계산
+     */
+    @Scheduled(initialDelayString = "${shop.ranking.refresh-interval-ms:5000}",
+            fixedDelayString = "${shop.ranking.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        bestsellerRanking.refresh(System.currentTimeMillis());
+    }
+
+    /**
+     * 변경된 구간 저장, 기간을 벗어난 구간 삭제
+     * - 저장에 실패하면 꺼낸 구간을 다시 변경됨으로 표시해서 다음 주기에 다시 저장한다.
+     */
+    @Scheduled(initialDelayString = "${shop.ranking.snapshot-interval-ms:60000}",
+            fixedDelayString = "${shop.ranking.snapshot-interval-ms:60000}")
+    public synchronized void snapshot() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<BestsellerRanking.BucketSnapshot> dirtyBuckets = bestsellerRanking.drainDirtyBuckets(now);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime snapshotTime = LocalDateTime.now();
+                for (BestsellerRanking.BucketSnapshot bucket : dirtyBuckets) {
+                    SalesRankSnapshot snapshot = salesRankSnapshotRepository
+                            .findBySalesWindowAndBucketStart(bucket.window(), bucket.bucketStart())
+                            .orElseGet(SalesRankSnapshot::new);
+                    snapshot.setSalesWindow(bucket.window());
+                    snapshot.setBucketStart(bucket.bucketStart());
+                    snapshot.setCounters(bucket.counters());
+                    snapshot.setSnapshotTime(snapshotTime);
+                    salesRankSnapshotRepository.save(snapshot);
+                }
+                for (SalesWindow window : SalesWindow.values()) {
+                    salesRankSnapshotRepository.deleteExpired(window, BestsellerRanking.oldestLiveBucketStart(window, now));
+                }
+            });
+        } catch (RuntimeException e) {
+            bestsellerRanking.markDirty(dirtyBuckets);
+            log.warn("인기 상품 순위 저장 실패 : 구간 {}건, 다음 주기에 다시 저장", dirtyBuckets.size(), e);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
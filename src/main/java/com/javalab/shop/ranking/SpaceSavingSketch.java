@@ -0,0 +1,145 @@
+package com.javalab.shop.ranking;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving 스케치 - 많이 팔린 상품(heavy hitters) 근사 집계
+ * - 상품 수와 상관없이 최대 capacity 개의 카운터만 유지한다.
+ * - 카운터가 가득 찬 상태에서 새 상품이 들어오면 가장 작은 카운터(min)를 넘겨받아 min + 수량으로 시작하고 min 을 오차로 기록한다.
+ *   그래서 센 값은 실제 판매량보다 크거나 같고(최대 오차 error), 전체 수량 / capacity 보다 많이 팔린 상품은 반드시 남아 있다.
+ * - 카운터는 최소 힙(heap)으로 관리하므로 추가/차감은 O(log capacity) 이다.
+ * - 차감(주문 취소)은 추적 중인 상품만 반영한다. 이미 밀려난 상품의 취소는 무시한다.
+ * - 동기화하지 않는다. BestsellerRanking 이 lock 을 잡고 사용한다.
+ */
+class SpaceSavingSketch {
+
+    private final int capacity;
+    private final long[] itemIds;
+    private final long[] counts;
+    private final long[] errors;
+    private final int[] heap;           // 힙 위치 -> 카운터 번호, heap[0] 이 가장 작은 카운터
+    private final int[] positions;      // 카운터 번호 -> 힙 위치
+    private final Map<Long, Integer> slots = new HashMap<>();   // 상품 ID -> 카운터 번호
+    private int size;
+
+    SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.itemIds = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+    }
+
+    /**
+     * 판매 수량 추가
+     */
+    void add(long itemId, long count) {
+        Integer slot = slots.get(itemId);
+        if (slot != null) {
+            counts[slot] += count;
+            siftDown(positions[slot]);
+            return;
+        }
+        if (size < capacity) {
+            put(itemId, count, 0);
+            return;
+        }
+        // 가장 적게 센 상품의 카운터를 넘겨받는다.
+        slot = heap[0];
+        slots.remove(itemIds[slot]);
+        slots.put(itemId, slot);
+        itemIds[slot] = itemId;
+        errors[slot] = counts[slot];
+        counts[slot] += count;
+        siftDown(0);
+    }
+
+    /**
+     * 판매 수량 차감(주문 취소), 추적 중이 아닌 상품은 무시한다.
+     */
+    void subtract(long itemId, long count) {
+        Integer slot = slots.get(itemId);
+        if (slot == null) {
+            return;
+        }
+        counts[slot] = Math.max(0, counts[slot] - count);
+        errors[slot] = Math.min(errors[slot], counts[slot]);
+        siftUp(positions[slot]);
+    }
+
+    /**
+     * 저장된 카운터 복원(스냅샷), 자리가 없으면 add() 와 같이 가장 작은 카운터를 넘겨받는다.
+     */
+    void restore(long itemId, long count, long error) {
+        if (size < capacity && !slots.containsKey(itemId)) {
+            put(itemId, count, error);
+        } else {
+            add(itemId, count);
+        }
+    }
+
+    void forEach(CounterConsumer consumer) {
+        for (int slot = 0; slot < size; slot++) {
+            consumer.accept(itemIds[slot], counts[slot], errors[slot]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void put(long itemId, long count, long error) {
+        int slot = size++;
+        itemIds[slot] = itemId;
+        counts[slot] = count;
+        errors[slot] = error;
+        heap[slot] = slot;
+        positions[slot] = slot;
+        slots.put(itemId, slot);
+        siftUp(slot);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (counts[heap[parent]] <= counts[heap[position]]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = (position << 1) + 1;
+            int right = left + 1;
+            if (left < size && counts[heap[left]] < counts[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && counts[heap[right]] < counts[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int slot = heap[a];
+        heap[a] = heap[b];
+        heap[b] = slot;
+        positions[heap[a]] = a;
+        positions[heap[b]] = b;
+    }
+
+    interface CounterConsumer {
+        void accept(long itemId, long count, long error);
+    }
+}
@@ -0,0 +1,25 @@
+package com.javalab.shop.repository;
+
+import com.javalab.shop.dto.ItemSearchDto;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 관리자 상품 목록 전체 수 조회 방식
+ * - 관리자 상품 목록은 페이지마다 같은 검색 조건(LIKE 포함)으로 COUNT 쿼리를 실행하므로 그 비용을 줄이는 방식을 고른다.
+ * - shop.admin.item-count.mode 설정으로 구현체를 고른다.
+ *   cached(기본값) : CachedAdminItemCount, 검색 조건별 정확한 수를 ttl-seconds 동안 보관
+ *   exact : ExactAdminItemCount, 매번 COUNT 쿼리 실행(기존 방식)
+ *   estimated : EstimatedAdminItemCount, 검색 조건이 없으면 테이블 통계의 행 수, 있으면 cached 와 같다.
+ * - 첫 페이지가 페이지 크기보다 적게 조회되는 등 조회 결과만으로 전체 수를 알 수 있으면 호출하지 않는다(ItemRepositoryCustomImpl).
+ */
+public interface AdminItemCountStrategy {
+
+    /**
+     * 검색 조건에 맞는 상품 수
+     * @param itemSearchDto : 검색 조건
+     * @param exactCount : 정확한 수를 세는 COUNT 쿼리
+     * @return 상품 수, 방식에 따라 보관된 값이나 추정값일 수 있다.
+     */
+    long count(ItemSearchDto itemSearchDto, LongSupplier exactCount);
+}
@@ -0,0 +1,69 @@
+package com.javalab.shop.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.ItemSearchDto;
+import com.javalab.shop.event.ItemChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.thymeleaf.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * 관리자 상품 목록 전체 수 : 검색 조건별로 보관(shop.admin.item-count.mode=cached, 기본값)
+ * - 같은 검색 조건으로 페이지를 넘기는 동안에는 COUNT 쿼리를 한 번만 실행한다.
+ * - 키는 검색 조건(기간, 판매 상태, 검색 조건, 소문자 검색어)이고 ttl-seconds 가 지나면 다시 센다.
+ *   상품 등록/수정이 커밋되어도 비우므로 관리자가 등록한 상품은 바로 수에 반영된다.
+ * - 기간 검색(1d, 1w ...)은 현재 시각 기준이라 ttl-seconds 동안은 이전 시각 기준의 수일 수 있다.
+ */
+@Component
+@ConditionalOnProperty(name = "shop.admin.item-count.mode", havingValue = "cached", matchIfMissing = true)
+public class CachedAdminItemCount implements AdminItemCountStrategy {
+
+    private final Cache<Filter, Long> counts;
+
+    public CachedAdminItemCount(@Value("${shop.admin.item-count.ttl-seconds:60}") long ttlSeconds,
+                                @Value("${shop.admin.item-count.max-size:1000}") long maxSize) {
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @Override
+    public long count(ItemSearchDto itemSearchDto, LongSupplier exactCount) {
+        return counts.get(Filter.of(itemSearchDto), filter -> exactCount.getAsLong());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        counts.invalidateAll();
+    }
+
+    long size() {
+        counts.cleanUp();
+        return counts.estimatedSize();
+    }
+
+    /**
+     * 캐시 키 - 전체 수를 결정하는 검색 조건만 담는다. 검색어가 없으면 검색 조건(searchBy)은 무시한다.
+     */
+    private record Filter(String searchDateType, ItemSellStatus searchSellStatus, String searchBy, String searchQuery) {
+
+        static Filter of(ItemSearchDto itemSearchDto) {
+            String searchDateType = itemSearchDto.getSearchDateType() == null ? "all" : itemSearchDto.getSearchDateType();
+            if (StringUtils.isEmpty(itemSearchDto.getSearchQuery())) {
+                return new Filter(searchDateType, itemSearchDto.getSearchSellStatus(), "", "");
+            }
+            return new Filter(searchDateType, itemSearchDto.getSearchSellStatus(),
+                    itemSearchDto.getSearchBy(), itemSearchDto.getSearchQuery().toLowerCase(Locale.ROOT));
+        }
+    }
+}
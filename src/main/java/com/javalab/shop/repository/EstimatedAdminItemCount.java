@@ -0,0 +1,60 @@
+package com.javalab.shop.repository;
+
+import com.javalab.shop.dto.ItemSearchDto;
+import com.javalab.shop.event.ItemChangedEvent;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.thymeleaf.util.StringUtils;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 관리자 상품 목록 전체 수 : 테이블 통계로 추정(shop.admin.item-count.mode=estimated)
+ * - 검색 조건이 없는 전체 목록은 COUNT 쿼리 대신 information_schema.TABLES 의 TABLE_ROWS(InnoDB 통계의 추정 행 수)를 사용한다.
+ *   상품이 많아도 일정한 시간에 답하지만 실제 수와 수십 % 차이가 날 수 있다.
+ * - 검색 조건이 있으면 통계로 추정할 수 없으므로 검색 조건별로 정확한 수를 보관한다(CachedAdminItemCount 와 같다).
+ * - 추정값이 실제보다 적어도 다음 페이지가 있으면 다음 페이지 링크가 보이도록 ItemRepositoryCustomImpl 이 전체 수를 보정한다.
+ */
+@Component
+@ConditionalOnProperty(name = "shop.admin.item-count.mode", havingValue = "estimated")
+public class EstimatedAdminItemCount implements AdminItemCountStrategy {
+
+    private final EntityManager em;
+    private final CachedAdminItemCount cachedCount;
+
+    public EstimatedAdminItemCount(EntityManager em,
+                                   @Value("${shop.admin.item-count.ttl-seconds:60}") long ttlSeconds,
+                                   @Value("${shop.admin.item-count.max-size:1000}") long maxSize) {
+        this.em = em;
+        this.cachedCount = new CachedAdminItemCount(ttlSeconds, maxSize);
+    }
+
+    @Override
+    public long count(ItemSearchDto itemSearchDto, LongSupplier exactCount) {
+        return cachedCount.count(itemSearchDto, isUnfiltered(itemSearchDto) ? this::estimatedTableRows : exactCount);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        cachedCount.onItemChanged(event);
+    }
+
+    private boolean isUnfiltered(ItemSearchDto itemSearchDto) {
+        return (itemSearchDto.getSearchDateType() == null || StringUtils.equals("all", itemSearchDto.getSearchDateType()))
+                && itemSearchDto.getSearchSellStatus() == null
+                && StringUtils.isEmpty(itemSearchDto.getSearchQuery());
+    }
+
+    // item 테이블의 추정 행 수, 통계가 없으면 0
+    private long estimatedTableRows() {
+        List<?> tableRows = em.createNativeQuery(
+                        "select table_rows from information_schema.tables where table_schema = database() and table_name = 'item'")
+                .getResultList();
+        return tableRows.isEmpty() || tableRows.get(0) == null ? 0 : ((Number) tableRows.get(0)).longValue();
+    }
+}
@@ -0,0 +1,20 @@
+package com.javalab.shop.repository;
+
+import com.javalab.shop.dto.ItemSearchDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 관리자 상품 목록 전체 수 : 매번 COUNT 쿼리 실행(shop.admin.item-count.mode=exact)
+ */
+@Component
+@ConditionalOnProperty(name = "shop.admin.item-count.mode", havingValue = "exact")
+public class ExactAdminItemCount implements AdminItemCountStrategy {
+
+    @Override
+    public long count(ItemSearchDto itemSearchDto, LongSupplier exactCount) {
+        return exactCount.getAsLong();
+    }
+}
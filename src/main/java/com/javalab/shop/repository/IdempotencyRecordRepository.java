@@ -0,0 +1,25 @@
+package com.javalab.shop.repository;
+
+import com.javalab.shop.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * IdempotencyRecord 엔티티에 대한 CRUD를 담당하는 Repository
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // 1. 보관 기간이 지난 키 하나 삭제(같은 키를 다시 선점하기 전에 호출)
+    @Modifying(flushAutomatically = true)
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.expiresAt < :now")
+    int deleteExpired(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    // 2. 보관 기간이 지난 키 전체 삭제(주기적인 정리)
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteAllExpired(@Param("now") LocalDateTime now);
+}
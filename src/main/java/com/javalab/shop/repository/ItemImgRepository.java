@@ -1,8 +1,12 @@
 package com.javalab.shop.repository;
 
 import com.javalab.shop.entity.ItemImg;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,8 +20,11 @@ public interface ItemImgRepository extends JpaRepository<ItemImg, Long>  {
      * - 상품 이미지는 ID 오름차순으로 정렬한다.
      * - 상품 이미지가 여러개일 수 있으므로 List로 반환한다.
      * - 상품 이미지가 없을 경우 빈 List를 반환한다.
+     * - 쿼리 캐시 사용 : 결과(상품 이미지 ID 목록)를 캐시하고 이미지는 2차 캐시에서 읽는다.
+     *   item_img 테이블이 바뀌면 다음 조회는 DB에서 다시 읽는다.
      * @param itemId
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ItemImg> findByItemIdOrderByIdAsc(Long itemId);
 
     /**
@@ -29,4 +36,12 @@ public interface ItemImgRepository extends JpaRepository<ItemImg, Long>  {
      * @param repimgYn
      */
     ItemImg findByItemIdAndRepimgYn(Long itemId, String repimgYn);
+
+    /**
+     * 여러 상품의 대표 이미지 조회
+     * - 주문 요약(OrderSummary)에 대표 이미지 경로를 저장할 때 한 번의 쿼리로 조회한다.
+     * @param itemIds
+     * @param repimgYn
+     */
+    List<ItemImg> findByItemIdInAndRepimgYn(Collection<Long> itemIds, String repimgYn);
 }
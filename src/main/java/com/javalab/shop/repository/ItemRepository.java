@@ -1,12 +1,20 @@
 package com.javalab.shop.repository;
 
 import com.javalab.shop.entity.Item;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 상품 레파지토리
@@ -45,8 +53,9 @@ public interface ItemRepository extends JpaRepository<Item, Long>, QuerydslPredi
     // 4) :itemDetail : 파라미터로 받은 itemDetail 값을 사용 (매개변수 바인딩-String itemDetail)
     // 5) like %:itemDetail% : itemDetail 필드에 itemDetail 문자열이 포함된 엔티티를 조회
     // 6) order by i.price desc : 조회된 엔티티를 price 필드를 기준으로 내림차순 정렬
-    @Query("select i from Item i where i.itemDetail like %:itemDetail% order by i.price desc")
-    List<Item> findByItemDetail(@Param("itemDetail") String itemDetail);
+    // @Query("select i from Item i where i.itemDetail like %:itemDetail% order by i.price desc")
+    // List<Item> findByItemDetail(@Param("itemDetail") String itemDetail);
+    // -> 상품 전체를 훑는 LIKE 대신 검색 색인으로 후보를 좁히도록 ItemRepositoryCustom.findByItemDetail 로 옮겼다.
     // "" 이 문자열이 아니고 객체지향형 쿼리 언어임을 알자!!!!
     // like %:itemDetail 하고 String itemDetail 에 있는 itemDetail 똑같이 맞춰줘야 함 저게
     // Item i는 별칭  %감싸는건 문법, itemDetail 스펠 틀리면 안됨
@@ -61,4 +70,83 @@ public interface ItemRepository extends JpaRepository<Item, Long>, QuerydslPredi
     // - nativeQuery = ture : SQL을 직접 작성하여 실행
     @Query(value="select * from item i where i.item_detail like " + "%:itemDetail% order by i.price desc", nativeQuery = true)
     List<Item> findByItemDetailByNative(@Param("itemDetail") String itemDetail);
+
+    // 6. [재고 차감] 조건부 UPDATE 한 번으로 재고를 차감한다.
+    // - 남은 재고가 주문 수량 이상일 때만 차감되고, 갱신된 행의 수를 반환한다.(0이면 상품이 없거나 재고 부족)
+    // - 상품을 조회해서 removeStock() 후 flush 하는 방식은 동시 주문시 서로의 변경을 덮어써서 재고가 틀어지고,
+    //   flush 시점까지 row lock 을 잡고 있게 된다. 이 쿼리는 DB가 한 문장 안에서 검사와 차감을 함께 처리한다.
+    // - 벌크 UPDATE 는 @Version 을 자동으로 올려주지 않으므로 직접 증가시킨다.
+    //   그래야 같은 상품을 조회해서 수정하던 다른 트랜잭션(관리자 상품 수정)이 충돌을 감지할 수 있다.
+    // - flushAutomatically = true : 실행 전에 영속성 컨텍스트의 변경 내용을 먼저 DB에 반영
+    @Modifying(flushAutomatically = true)
+    @Query("update Item i set i.stockNumber = i.stockNumber - :count, i.version = i.version + 1 " +
+            "where i.id = :itemId and i.stockNumber >= :count")
+    int decreaseStock(@Param("itemId") Long itemId, @Param("count") int count);
+
+    // 7. [재고 복구] 주문 취소시 주문 수량만큼 재고를 증가시킨다.
+    @Modifying(flushAutomatically = true)
+    @Query("update Item i set i.stockNumber = i.stockNumber + :count, i.version = i.version + 1 " +
+            "where i.id = :itemId")
+    int increaseStock(@Param("itemId") Long itemId, @Param("count") int count);
+
+    // 8. [재고 반영] 핫 아이템 재고 장부에서 모아둔 차감 수량을 한 번에 반영한다.
+    // - 장부에서 이미 재고를 검사했으므로 조건 없이 차감한다.(count 가 음수면 증가)
+    @Modifying(flushAutomatically = true)
+    @Query("update Item i set i.stockNumber = i.stockNumber - :count, i.version = i.version + 1 " +
+            "where i.id = :itemId")
+    int subtractStock(@Param("itemId") Long itemId, @Param("count") int count);
+
+    // 9. [장바구니 주문] 여러 상품을 한 번의 쿼리로 조회하면서 비관적 락(select ... for update)을 건다.
+    // - 상품 ID 오름차순으로 조회하므로 DB도 오름차순으로 행에 lock 을 건다.
+    //   모든 주문이 같은 순서로 lock 을 잡으면 서로가 가진 lock 을 기다리는 데드락이 생기지 않는다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :itemIds order by i.id asc")
+    List<Item> findAllByIdForUpdate(@Param("itemIds") Collection<Long> itemIds);
+
+    // 10. 여러 상품을 한 번의 쿼리로 조회(lock 없음), 상품 ID 오름차순
+    @Query("select i from Item i where i.id in :itemIds order by i.id asc")
+    List<Item> findAllByIdOrderByIdAsc(@Param("itemIds") Collection<Long> itemIds);
+
+    // 11. [검색 색인 적재] 전체 상품의 [상품 ID, 상품명, 상품 상세 설명, 대표 이미지 경로]를 상품 ID 순서로 스트림 조회한다.
+    // - 상품 ID 순서로 색인하면 검색 결과를 상품 ID 순서로 다시 정렬할 필요가 없다(NgramIndex).
+    // - 엔티티가 아닌 컬럼 값만 fetch size 만큼씩 읽으므로 상품이 많아도 영속성 컨텍스트에 쌓이지 않는다.
+    // - 트랜잭션 안에서 호출하고, 다 읽은 뒤에는 스트림을 닫아야 한다(try-with-resources).
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i.id, i.itemNm, i.itemDetail, i.repImgUrl from Item i order by i.id asc")
+    Stream<Object[]> streamSearchDocuments();
+
+    // 12. [자동완성 적재] 전체 상품의 [상품 ID, 상품명]을 상품 ID 순서로 스트림 조회한다.
+    // - 상품 상세 설명(Lob)은 읽지 않는다. 사용 방법은 11번과 같다.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i.id, i.itemNm from Item i order by i.id asc")
+    Stream<Object[]> streamSuggestDocuments();
+
+    // 13. [검색 색인 갱신] 상품 하나의 [상품명, 상품 상세 설명, 대표 이미지 경로]를 조회한다. 없으면 빈 목록
+    // - 상품 상세 설명은 지연 로딩이라 엔티티로 조회하면 트랜잭션 밖에서 읽을 수 없으므로 컬럼 값만 조회한다.
+    @Query("select i.itemNm, i.itemDetail, i.repImgUrl from Item i where i.id = :itemId")
+    List<Object[]> findSearchDocument(@Param("itemId") Long itemId);
+
+    // 14. [상품 요약 백필] 요약이 없는 기존 상품의 요약을 상세 설명 앞 100글자(Item.SUMMARY_LENGTH)로 채운다.
+    // - 한 번에 batchSize 건씩 처리한다(MariaDB update ... limit).
+    @Modifying
+    @Query(value = "update item set item_summary = left(item_detail, 100) where item_summary is null limit :batchSize",
+            nativeQuery = true)
+    int fillMissingItemSummary(@Param("batchSize") int batchSize);
+
+    // 15. [대표 이미지 경로 백필] 대표 이미지 경로가 없는 기존 상품에 대표 이미지(item_img.repimg_yn = 'Y')의 경로를 복사한다.
+    // - 한 번에 batchSize 건씩 처리한다. 대표 이미지가 없는 상품은 대상이 아니므로 반복해도 끝난다.
+    @Modifying
+    @Query(value = "update item set rep_img_url = " +
+            "(select im.img_url from item_img im where im.item_id = item.item_id and im.repimg_yn = 'Y' and im.img_url is not null limit 1) " +
+            "where rep_img_url is null " +
+            "and exists (select 1 from item_img im where im.item_id = item.item_id and im.repimg_yn = 'Y' and im.img_url is not null) " +
+            "limit :batchSize",
+            nativeQuery = true)
+    int fillMissingRepImgUrl(@Param("batchSize") int batchSize);
 }
@@ -1,11 +1,14 @@
 package com.javalab.shop.repository;
 
+import com.javalab.shop.dto.ItemDetailDto;
 import com.javalab.shop.dto.ItemSearchDto;
 import com.javalab.shop.dto.MainItemDto;
 import com.javalab.shop.entity.Item;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 /**
  * ItemRepositoryCustom 인터페이스
  * - queryDsl을 사용한 동적 쿼리를 위한 ItemRepositoryCustom 인터페이스
@@ -16,4 +19,23 @@ public interface ItemRepositoryCustom {
 
     Page<MainItemDto> getMainItemPage(ItemSearchDto itemSearchDto, Pageable pageable);
 
+    // keyset(seek) 페이징 : lastItemId(이전 페이지의 마지막 상품 ID)보다 작은 상품을 상품 ID 내림차순으로 limit 건 조회
+    // - 첫 페이지는 lastItemId = null, 전체 수는 필요할 때만 count 메서드로 따로 조회한다.
+    List<MainItemDto> getMainItemSlice(ItemSearchDto itemSearchDto, Long lastItemId, int limit);
+
+    long countMainItems(ItemSearchDto itemSearchDto);
+
+    // 상품 ID 목록의 메인 페이지 상품 조회(대표 이미지가 없는 상품 제외), 상품 ID 내림차순
+    List<MainItemDto> getMainItemsByIds(long[] itemIds);
+
+    List<Item> getAdminItemSlice(ItemSearchDto itemSearchDto, Long lastItemId, int limit);
+
+    long countAdminItems(ItemSearchDto itemSearchDto);
+
+    // 상품 상세 페이지 : 상품과 상품 이미지를 한 번의 쿼리로 조회, 상품이 없으면 null
+    ItemDetailDto getItemDetail(Long itemId);
+
+    // 상품 상세 설명으로 상품 조회(가격 내림차순), 검색 색인으로 후보를 좁힌 뒤 LIKE 로 확인한다.
+    List<Item> findByItemDetail(String itemDetail);
+
 }
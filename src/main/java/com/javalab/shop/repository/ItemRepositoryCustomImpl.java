@@ -1,13 +1,16 @@
 package com.javalab.shop.repository;
 
 import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.ItemDetailDto;
+import com.javalab.shop.dto.ItemImgDto;
 import com.javalab.shop.dto.ItemSearchDto;
 import com.javalab.shop.dto.MainItemDto;
 import com.javalab.shop.dto.QMainItemDto;
 import com.javalab.shop.entity.Item;
 import com.javalab.shop.entity.QItem;
 import com.javalab.shop.entity.QItemImg;
-import com.querydsl.core.QueryResults;
+import com.javalab.shop.search.ItemSearchIndex;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.jpa.impl.JPAQueryFactory;
@@ -18,6 +21,9 @@ import org.springframework.data.domain.Pageable;
 import org.thymeleaf.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -30,9 +36,18 @@ public class ItemRepositoryCustomImpl implements ItemRepositoryCustom{
     // 동적으로 쿼리를 생성하기 위해 JPAQueryFactory를 사용한다.
     private JPAQueryFactory queryFactory;
 
-    // 생성자를 통해 EntityManager를 전달 받는다.
-    public ItemRepositoryCustomImpl(EntityManager em){
+    // 상품명 검색어를 후보 상품 ID로 바꿔주는 검색 색인
+    private final ItemSearchIndex itemSearchIndex;
+
+    // 관리자 상품 목록 전체 수 조회 방식(shop.admin.item-count.mode)
+    private final AdminItemCountStrategy adminItemCountStrategy;
+
+    // 생성자를 통해 EntityManager, 검색 색인, 전체 수 조회 방식을 전달 받는다.
+    public ItemRepositoryCustomImpl(EntityManager em, ItemSearchIndex itemSearchIndex,
+                                    AdminItemCountStrategy adminItemCountStrategy){
         this.queryFactory = new JPAQueryFactory(em);
+        this.itemSearchIndex = itemSearchIndex;
+        this.adminItemCountStrategy = adminItemCountStrategy;
     }
 
     // 상품의 판매 상태와 검색 조건을 이용하여 상품 목록을 조회하는 메서드
@@ -76,32 +91,78 @@ public class ItemRepositoryCustomImpl implements ItemRepositoryCustom{
         return StringUtils.isEmpty(searchQuery) ? null : QItem.item.itemNm.like("%" + searchQuery + "%");
     }
 
+    /**
+     * 상품명 검색어로 검색 색인에서 후보 상품 ID를 조회하는 메서드
+     * - 빈 배열 : 상품명에 검색어가 포함된 상품이 없다. DB를 조회할 필요가 없다.
+     * - null : 색인으로 좁힐 수 없다(검색어 없음/한 글자, 후보가 너무 많음, 색인 준비 전). LIKE 조건만 사용한다.
+     */
+    private long[] itemNmCandidates(String searchBy, String searchQuery){
+        if(StringUtils.isEmpty(searchQuery) || !StringUtils.equals("itemNm", searchBy)){
+            return null;
+        }
+        return itemSearchIndex.findCandidates(ItemSearchIndex.Field.ITEM_NM, searchQuery);
+    }
+
+    // 후보 상품 ID 조건, 후보에 대해서만 LIKE 조건을 확인하므로 전체 상품을 훑지 않고 기본키로 찾는다.
+    private BooleanExpression idIn(long[] candidateIds){
+        return candidateIds == null ? null : QItem.item.id.in(Arrays.stream(candidateIds).boxed().toList());
+    }
+
+    // keyset 페이징 조건, 이전 페이지의 마지막 상품 ID보다 작은 상품(첫 페이지는 조건 없음)
+    private BooleanExpression idLt(Long lastItemId){
+        return lastItemId == null ? null : QItem.item.id.lt(lastItemId);
+    }
+
     /**
      * 관리자 페이지에서 상품 목록을 조회하기 위한 메서드
      * 검색 조건을 기반으로 QueryDSL을 사용하여 동적으로 쿼리를 실행하고,
      * 조회된 상품 목록을 페이징 처리하여 반환
+     * - 상품 상세 설명(Item.itemDetail)은 지연 로딩이므로 상품 엔티티를 조회해도 Lob 컬럼은 읽지 않는다.
+     * - 전체 데이터 수는 AdminItemCountStrategy 로 구한다(정확한 수, 보관된 수, 추정값).
+     * - 페이지 크기보다 한 건 더 조회해서 다음 페이지가 없으면(첫 페이지가 짧은 경우 포함) 전체 수를 세지 않고 계산한다.
+     * - 보관된 수나 추정값이 실제보다 적어도 다음 페이지가 있으면 전체 수를 "현재 페이지 + 1건" 이상으로 맞춰서
+     *   화면의 페이지 번호(maxPage)와 Next 버튼이 다음 페이지를 가리키게 한다.
      * @param itemSearchDto
      * @param pageable
      * @return
      */
     @Override
     public Page<Item> getAdminItemPage(ItemSearchDto itemSearchDto, Pageable pageable) {
+        // 상품명 검색이면 검색 색인으로 후보 상품을 먼저 구한다. 후보가 없으면 DB를 조회하지 않는다.
+        long[] candidateIds = itemNmCandidates(itemSearchDto.getSearchBy(), itemSearchDto.getSearchQuery());
+        if(candidateIds != null && candidateIds.length == 0){
+            return new PageImpl<>(Collections.emptyList(), pageable, 0);
+        }
+
         // quertFactory : 동적으로 쿼리를 만들 수 있는 쿼리 객체를 생성
-        // QuertyResults : querydsl의 페이징 처리를 위한 클래스로  fetchResults()메서드를 통해
-        // 조회된 데이터와 전체 데이터 수를 가져온다.
-        QueryResults<Item> results = queryFactory
+        // 다음 페이지가 있는지 알기 위해 페이지 크기 + 1 건을 조회한다.
+        List<Item> content = queryFactory
                 .selectFrom(QItem.item) // selectFrom() : 어떤 엔티티를 조회할지 지정(QItem.item)
                 .where(regDtsAfter(itemSearchDto.getSearchDateType()), // regDtsAfter() : 상품 등록일 검색 조건
                         searchSellStatusEq(itemSearchDto.getSearchSellStatus()),
                         searchByLike(itemSearchDto.getSearchBy(),
-                                itemSearchDto.getSearchQuery()))
+                                itemSearchDto.getSearchQuery()),
+                        idIn(candidateIds))     // idIn() : 검색 색인이 찾은 후보 상품 조건
                 .orderBy(QItem.item.id.desc())
                 .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetchResults();
+                .limit(pageable.getPageSize() + 1)
+                .fetch();
 
-        List<Item> content = results.getResults();  // 조회된 데이터 즉, content
-        long total = results.getTotal();        // 전체 데이터 수 즉, total(위 조회 조건에 합당한 전체건수)
+        // 1. 다음 페이지가 없으면 전체 데이터 수 = 현재 페이지 시작 위치 + 조회 건수(COUNT 쿼리 없음)
+        //    단, 마지막 페이지를 지나서 빈 페이지를 조회한 경우는 알 수 없으므로 센다.
+        if(content.size() <= pageable.getPageSize() && (!content.isEmpty() || pageable.getOffset() == 0)){
+            return new PageImpl<>(content, pageable, pageable.getOffset() + content.size());
+        }
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if(hasNext){
+            content = content.subList(0, pageable.getPageSize());
+        }
+
+        // 2. 전체 데이터 수(total) : 설정된 방식으로 구하고, 다음 페이지가 있으면 그보다 적지 않게 맞춘다.
+        long total = countAdminItems(itemSearchDto);
+        if(hasNext){
+            total = Math.max(total, pageable.getOffset() + pageable.getPageSize() + 1);
+        }
 
         // contest : 조회된 데이터
         // total : 전체 데이터 수
@@ -114,9 +175,10 @@ public class ItemRepositoryCustomImpl implements ItemRepositoryCustom{
      * 메인 페이지에 상품 목록을 조회하는 메서드
      * - QueryDSL을 사용하여 상품 데이터를 조회하고, 페이징 처리를 수행하는 로직이다.
      * - 상품 검색: ItemSearchDto에 포함된 검색 조건을 기반으로 데이터를 필터링합니다.
-     * - 대표 이미지 필터링: 대표 이미지(repimgYn = "Y")만 조회합니다.
+     * - 대표 이미지 필터링: 대표 이미지가 있는 상품만 조회합니다. 대표 이미지 경로는 상품(item.repImgUrl)에서 읽으므로 item_img 를 조인하지 않습니다.
      * - 페이징 처리: Pageable 객체를 기반으로 결과 데이터를 페이징 처리합니다.
      * - DTO 매핑: 조회 결과를 MainItemDto 객체로 매핑하여 반환합니다.
+     *   상품 상세 설명(Lob) 대신 미리 계산해 둔 요약(itemSummary)을 조회하므로 상세 설명이 길어도 목록 조회 크기는 일정하다.
      * @param itemSearchDto
      * @param pageable
      * @return
@@ -125,7 +187,14 @@ public class ItemRepositoryCustomImpl implements ItemRepositoryCustom{
     public Page<MainItemDto> getMainItemPage(ItemSearchDto itemSearchDto, Pageable pageable) {
         // 1. QueryDSL 객체 선언
         QItem item = QItem.item;
-        QItemImg itemImg = QItemImg.itemImg;
+
+        // 1.1. 검색 색인으로 상품명 검색(초성, 부분 음절, 오타 포함) 결과를 먼저 구한다.
+        // - 색인이 답할 수 있으면 결과 상품 ID 중 현재 페이지의 ID만 DB에서 조회한다.
+        // - 답할 수 없으면(검색어 없음/한 글자, 색인 준비 전) 아래의 LIKE 검색을 사용한다.
+        long[] matchedIds = mainItemNmMatches(itemSearchDto.getSearchQuery());
+        if(matchedIds != null){
+            return getMainItemPageByIds(matchedIds, pageable);
+        }
 
         // 2. 콘텐츠 조회
         // - 현재 페이지에 표시할 데이터를 QueryDSL로 조회한다.
@@ -135,13 +204,12 @@ public class ItemRepositoryCustomImpl implements ItemRepositoryCustom{
                         new QMainItemDto(
                                 item.id,
                                 item.itemNm,
-                                item.itemDetail,
-                                itemImg.imgUrl,
+                                item.itemSummary,
+                                item.repImgUrl,
                                 item.price)
                 )
-                .from(itemImg)  // itemImg 테이블을 기준으로 조회한다.
-                .join(itemImg.item, item)   // itemImg 테이블과 item 테이블을 조인한다.
-                .where(itemImg.repimgYn.eq("Y"))        // 대표 이미지만 조회한다.
+                .from(item)  // item 테이블만 조회한다. 대표 이미지 경로는 item.rep_img_url 에 있다.
+                .where(item.repImgUrl.isNotNull())        // 대표 이미지가 있는 상품만 조회한다.
                 .where(itemNmLike(itemSearchDto.getSearchQuery()))  // 상품명 검색 조건을 적용한다.
                 .orderBy(item.id.desc())    // 상품 번호를 기준으로 내림차순 정렬한다.
                 .offset(pageable.getOffset())   // 페이지 시작 위치를 설정한다.
@@ -154,9 +222,8 @@ public class ItemRepositoryCustomImpl implements ItemRepositoryCustom{
          */
         long total = queryFactory
                 .select(Wildcard.count)
-                .from(itemImg)
-                .join(itemImg.item, item)
-                .where(itemImg.repimgYn.eq("Y"))
+                .from(item)
+                .where(item.repImgUrl.isNotNull())
                 .where(itemNmLike(itemSearchDto.getSearchQuery()))
                 .fetchOne()
                 ;
@@ -166,4 +233,248 @@ public class ItemRepositoryCustomImpl implements ItemRepositoryCustom{
         return new PageImpl<>(content, pageable, total);
     }
 
-}
\ No newline at end of file
+    /**
+     * 검색 색인이 찾은 상품 ID(내림차순)로 메인 페이지 상품 목록을 만드는 메서드
+     * - 상품 ID가 이미 목록 순서(상품 번호 내림차순)로 정렬되어 있으므로 현재 페이지에 해당하는 ID만 잘라서 조회한다.
+     * - 전체 데이터 수는 찾은 상품 수이므로 count 쿼리를 실행하지 않는다.
+     *   검색 색인은 대표 이미지가 없는 상품(메인 화면에 나오지 않는 상품)을 결과에서 빼고 반환하므로 찾은 상품 수와 목록이 일치한다.
+     * @param matchedIds : 상품명에 검색어가 포함된 메인 화면 노출 상품 ID(내림차순)
+     * @param pageable
+     * @return
+     */
+    private Page<MainItemDto> getMainItemPageByIds(long[] matchedIds, Pageable pageable) {
+        QItem item = QItem.item;
+
+        int from = (int) Math.min(pageable.getOffset(), matchedIds.length);
+        int to = Math.min(from + pageable.getPageSize(), matchedIds.length);
+        if(from == to){
+            return new PageImpl<>(Collections.emptyList(), pageable, matchedIds.length);
+        }
+
+        List<MainItemDto> content = getMainItemsByIds(Arrays.copyOfRange(matchedIds, from, to));
+        return new PageImpl<>(content, pageable, matchedIds.length);
+    }
+
+    /**
+     * 메인 페이지 상품 목록을 keyset(seek) 방식으로 조회하는 메서드
+     * - offset 대신 "이전 페이지의 마지막 상품 ID보다 작은 상품"을 상품 ID 내림차순으로 limit 건 조회한다.
+     *   상품 ID(기본키) 인덱스에서 바로 시작 위치를 찾으므로 뒤쪽 페이지도 첫 페이지와 조회 비용이 같다.
+     * - 전체 데이터 수는 세지 않는다. 필요하면 countMainItems()를 따로 호출한다.
+     * @param itemSearchDto
+     * @param lastItemId : 이전 페이지의 마지막 상품 ID, 첫 페이지는 null
+     * @param limit : 조회할 최대 건수
+     * @return
+     */
+    @Override
+    public List<MainItemDto> getMainItemSlice(ItemSearchDto itemSearchDto, Long lastItemId, int limit) {
+        QItem item = QItem.item;
+
+        // 1. 검색 색인이 답할 수 있으면 결과 상품 ID(내림차순)에서 lastItemId 다음 위치부터 잘라서 조회한다.
+        long[] matchedIds = mainItemNmMatches(itemSearchDto.getSearchQuery());
+        if(matchedIds != null){
+            int from = lastItemId == null ? 0 : indexBelow(matchedIds, lastItemId);
+            int to = Math.min(from + limit, matchedIds.length);
+            return from == to ? Collections.emptyList() : getMainItemsByIds(Arrays.copyOfRange(matchedIds, from, to));
+        }
+
+        // 2. LIKE 검색 + 상품 ID 조건(item.id < lastItemId)
+        return queryFactory
+                .select(
+                        new QMainItemDto(
+                                item.id,
+                                item.itemNm,
+                                item.itemSummary,
+                                item.repImgUrl,
+                                item.price)
+                )
+                .from(item)
+                .where(item.repImgUrl.isNotNull(),
+                        itemNmLike(itemSearchDto.getSearchQuery()),
+                        idLt(lastItemId))
+                .orderBy(item.id.desc())
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 메인 페이지 상품 수 조회
+     * - 검색 색인이 답할 수 있으면 색인 결과 수를 반환하고 count 쿼리를 실행하지 않는다.
+     */
+    @Override
+    public long countMainItems(ItemSearchDto itemSearchDto) {
+        long[] matchedIds = mainItemNmMatches(itemSearchDto.getSearchQuery());
+        if(matchedIds != null){
+            return matchedIds.length;
+        }
+        QItem item = QItem.item;
+        return queryFactory
+                .select(Wildcard.count)
+                .from(item)
+                .where(item.repImgUrl.isNotNull(),
+                        itemNmLike(itemSearchDto.getSearchQuery()))
+                .fetchOne();
+    }
+
+    /**
+     * 관리자 페이지 상품 목록을 keyset(seek) 방식으로 조회하는 메서드
+     * - 검색 조건은 getAdminItemPage()와 같고, offset 대신 상품 ID 조건(item.id < lastItemId)을 사용한다.
+     * @param itemSearchDto
+     * @param lastItemId : 이전 페이지의 마지막 상품 ID, 첫 페이지는 null
+     * @param limit : 조회할 최대 건수
+     * @return
+     */
+    @Override
+    public List<Item> getAdminItemSlice(ItemSearchDto itemSearchDto, Long lastItemId, int limit) {
+        long[] candidateIds = itemNmCandidates(itemSearchDto.getSearchBy(), itemSearchDto.getSearchQuery());
+        if(candidateIds != null && candidateIds.length == 0){
+            return Collections.emptyList();
+        }
+        return queryFactory
+                .selectFrom(QItem.item)
+                .where(regDtsAfter(itemSearchDto.getSearchDateType()),
+                        searchSellStatusEq(itemSearchDto.getSearchSellStatus()),
+                        searchByLike(itemSearchDto.getSearchBy(), itemSearchDto.getSearchQuery()),
+                        idIn(candidateIds),
+                        idLt(lastItemId))
+                .orderBy(QItem.item.id.desc())
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 관리자 페이지 상품 수 조회(getAdminItemSlice()와 같은 검색 조건)
+     * - 설정된 AdminItemCountStrategy 에 따라 보관된 수나 추정값일 수 있다.
+     */
+    @Override
+    public long countAdminItems(ItemSearchDto itemSearchDto) {
+        return adminItemCountStrategy.count(itemSearchDto, () -> exactCountAdminItems(itemSearchDto));
+    }
+
+    // 관리자 페이지 상품 수 COUNT 쿼리
+    private long exactCountAdminItems(ItemSearchDto itemSearchDto) {
+        long[] candidateIds = itemNmCandidates(itemSearchDto.getSearchBy(), itemSearchDto.getSearchQuery());
+        if(candidateIds != null && candidateIds.length == 0){
+            return 0;
+        }
+        return queryFactory
+                .select(Wildcard.count)
+                .from(QItem.item)
+                .where(regDtsAfter(itemSearchDto.getSearchDateType()),
+                        searchSellStatusEq(itemSearchDto.getSearchSellStatus()),
+                        searchByLike(itemSearchDto.getSearchBy(), itemSearchDto.getSearchQuery()),
+                        idIn(candidateIds))
+                .fetchOne();
+    }
+
+    /**
+     * 상품 상세 페이지 조회
+     * - 상품과 이미지를 따로 조회하던 것(이미지 목록 조회 + 상품 조회 + 상세 설명 지연 로딩)을
+     *   상품에 이미지를 left join 한 한 번의 쿼리로 조회한다. 이미지가 없는 상품도 조회된다.
+     * - 상품 컬럼은 이미지 수(최대 5개)만큼 반복되어 전송되지만 왕복 횟수를 줄이는 쪽이 빠르다.
+     * @return 상품 상세 DTO, 상품이 없으면 null
+     */
+    @Override
+    public ItemDetailDto getItemDetail(Long itemId) {
+        QItem item = QItem.item;
+        QItemImg itemImg = QItemImg.itemImg;
+        List<Tuple> rows = queryFactory
+                .select(item.id, item.itemNm, item.price, item.itemDetail, item.itemSellStatus,
+                        itemImg.id, itemImg.imgName, itemImg.oriImgName, itemImg.imgUrl, itemImg.repimgYn)
+                .from(item)
+                .leftJoin(itemImg).on(itemImg.item.eq(item))
+                .where(item.id.eq(itemId))
+                .orderBy(itemImg.id.asc())
+                .fetch();
+        if(rows.isEmpty()){
+            return null;
+        }
+
+        List<ItemImgDto> itemImgDtoList = new ArrayList<>();
+        for(Tuple row : rows){
+            if(row.get(itemImg.id) != null){
+                itemImgDtoList.add(ItemImgDto.builder()
+                        .id(row.get(itemImg.id))
+                        .imgName(row.get(itemImg.imgName))
+                        .oriImgName(row.get(itemImg.oriImgName))
+                        .imgUrl(row.get(itemImg.imgUrl))
+                        .repImgYn(row.get(itemImg.repimgYn))
+                        .build());
+            }
+        }
+        Tuple first = rows.get(0);
+        return new ItemDetailDto(first.get(item.id), first.get(item.itemNm), first.get(item.price),
+                first.get(item.itemDetail), first.get(item.itemSellStatus), itemImgDtoList);
+    }
+
+    /**
+     * 상품 상세 설명으로 상품 조회, 가격이 높은 순서
+     * - 검색 색인에서 상세 설명 후보 상품 ID를 먼저 구하고 후보에 대해서만 LIKE 조건을 확인한다.
+     *   후보가 없으면 DB를 조회하지 않고, 색인으로 좁힐 수 없으면(한 글자 검색어, 후보가 너무 많음, 색인 준비 전)
+     *   전처럼 LIKE 조건만으로 조회한다.
+     * @param itemDetail : 검색어
+     * @return
+     */
+    @Override
+    public List<Item> findByItemDetail(String itemDetail) {
+        long[] candidateIds = StringUtils.isEmpty(itemDetail)
+                ? null : itemSearchIndex.findCandidates(ItemSearchIndex.Field.ITEM_DETAIL, itemDetail);
+        if(candidateIds != null && candidateIds.length == 0){
+            return Collections.emptyList();
+        }
+        QItem item = QItem.item;
+        return queryFactory
+                .selectFrom(item)
+                .where(item.itemDetail.like("%" + itemDetail + "%"),
+                        idIn(candidateIds))
+                .orderBy(item.price.desc())
+                .fetch();
+    }
+
+    /**
+     * 메인 페이지 상품명 검색을 검색 색인으로 답하는 메서드
+     * - 결과가 없으면 오타일 수 있으므로 편집 거리가 가까운 단어로 다시 찾는다.
+     * @return 상품 ID 내림차순 배열, 색인으로 답할 수 없으면(검색어 없음/한 글자, 색인 준비 전) null
+     */
+    private long[] mainItemNmMatches(String searchQuery){
+        long[] matchedIds = StringUtils.isEmpty(searchQuery) ? null : itemSearchIndex.findItemNmMatches(searchQuery);
+        if(matchedIds != null && matchedIds.length == 0){
+            matchedIds = itemSearchIndex.findItemNmFuzzyMatches(searchQuery);
+        }
+        return matchedIds;
+    }
+
+    // 내림차순 배열에서 lastItemId 보다 작은 첫 번째 위치(이진 탐색)
+    private static int indexBelow(long[] descendingIds, long lastItemId){
+        int low = 0;
+        int high = descendingIds.length;
+        while(low < high){
+            int mid = (low + high) >>> 1;
+            if(descendingIds[mid] >= lastItemId){
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // 검색 색인/인기 상품 순위가 찾은 상품 ID의 메인 페이지 상품 조회, 기본키로 찾는다.
+    @Override
+    public List<MainItemDto> getMainItemsByIds(long[] itemIds){
+        QItem item = QItem.item;
+        return queryFactory
+                .select(
+                        new QMainItemDto(
+                                item.id,
+                                item.itemNm,
+                                item.itemSummary,
+                                item.repImgUrl,
+                                item.price)
+                )
+                .from(item)
+                .where(item.repImgUrl.isNotNull())
+                .where(idIn(itemIds))
+                .orderBy(item.id.desc())
+                .fetch();
+    }
+}
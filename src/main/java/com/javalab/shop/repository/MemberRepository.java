@@ -1,11 +1,16 @@
 package com.javalab.shop.repository;
 
 import com.javalab.shop.entity.Member;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /*
     * Member엔티티를 기준으로 CRUD가만들어지는데 Long 타입이다.
  */
 public interface MemberRepository extends JpaRepository<Member, Long> {
+    // 로그인한 회원을 요청마다 이메일로 조회하므로 쿼리 캐시 사용(member 테이블이 바뀌면 다시 조회)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Member findByEmail(String email);
 }
@@ -1,10 +1,40 @@
 package com.javalab.shop.repository;
 
+import com.javalab.shop.constant.OrderStatus;
 import com.javalab.shop.entity.OrderItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.stream.Stream;
 
 /**
  * OrderItem 엔티티에 대한 CRUD를 담당하는 Repository
  */
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // 1. [자동완성 적재] 상품별 판매량 [상품 ID, 주문 수량 합계] 스트림 조회
+    // - 취소된 주문은 제외하도록 orderStatus 에 OrderStatus.ORDER 를 넘긴다.
+    // - 트랜잭션 안에서 호출하고, 다 읽은 뒤에는 스트림을 닫아야 한다(try-with-resources).
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select oi.item.id, sum(oi.count) from OrderItem oi join oi.order o " +
+            "where o.orderStatus = :orderStatus group by oi.item.id")
+    Stream<Object[]> streamSalesCountByItem(@Param("orderStatus") OrderStatus orderStatus);
+
+    // 2. [함께 구매한 상품 재생성] 주문별 상품 [주문 ID, 상품 ID] 스트림 조회, 주문 ID 오름차순
+    // - 같은 주문의 상품이 연속해서 나오므로 주문 ID가 바뀔 때마다 한 주문으로 묶어서 처리한다.
+    // - 트랜잭션 안에서 호출하고, 다 읽은 뒤에는 스트림을 닫아야 한다(try-with-resources).
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o.id, oi.item.id from OrderItem oi join oi.order o " +
+            "where o.orderStatus = :orderStatus order by o.id")
+    Stream<Object[]> streamItemIdsByOrder(@Param("orderStatus") OrderStatus orderStatus);
 }
@@ -1,12 +1,18 @@
 package com.javalab.shop.repository;
 
 import com.javalab.shop.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 주문 CRUD Repository
@@ -34,4 +40,54 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             "where o.member.email = :email"
     )
     Long countOrder(@Param("email") String email);
+
+    /**
+     * 주문 요약(OrderSummary)이 없는 주문 ID 조회(주문 요약 백필)
+     * - lastId 보다 큰 주문 ID를 오름차순으로 조회한다.
+     * @param lastId : 이전 배치의 마지막 주문 ID
+     * @param pageable : 배치 크기(limit)만 사용
+     */
+    @Query("select o.id from Order o " +
+            "where o.id > :lastId " +
+            "and not exists (select 1 from OrderSummary s where s.orderId = o.id) " +
+            "order by o.id asc"
+    )
+    List<Long> findIdsWithoutSummary(@Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * 주문을 주문자, 주문 상품, 상품과 함께 조회(fetch join)
+     * @param orderIds
+     */
+    @Query("select distinct o from Order o " +
+            "join fetch o.member " +
+            "join fetch o.orderItems oi " +
+            "join fetch oi.item " +
+            "where o.id in :orderIds"
+    )
+    List<Order> findAllWithOrderItems(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * 주문 내보내기(관리자) - 기간 내 주문 상품을 한 행씩 스트림으로 조회
+     * - 엔티티가 아닌 컬럼 값만 조회하므로 영속성 컨텍스트에 쌓이지 않는다.
+     * - fetch size 만큼씩 DB에서 받아 오는 전진 전용(forward-only) 커서로 읽으므로
+     *   기간이 길어도 한 번에 메모리에 올라오는 행 수는 fetch size 를 넘지 않는다.
+     * - 주문일, 주문 ID 순으로 정렬하므로 한 주문의 주문 상품은 연속해서 조회된다.
+     * - 트랜잭션 안에서 호출하고, 다 읽은 뒤에는 스트림을 닫아야 한다(try-with-resources).
+     * @param from : 시작 일시(포함)
+     * @param to : 종료 일시(제외)
+     * @return [주문 ID, 주문일, 주문 상태, 회원 이메일, 상품 ID, 상품명, 주문 수량, 주문 가격]
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o.id, o.orderDate, o.orderStatus, m.email, i.id, i.itemNm, oi.count, oi.orderPrice " +
+            "from OrderItem oi " +
+            "join oi.order o " +
+            "join o.member m " +
+            "join oi.item i " +
+            "where o.orderDate >= :from and o.orderDate < :to " +
+            "order by o.orderDate asc, o.id asc"
+    )
+    Stream<Object[]> streamOrderLines(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
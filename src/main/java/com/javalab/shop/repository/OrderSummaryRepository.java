@@ -0,0 +1,63 @@
+package com.javalab.shop.repository;
+
+import com.javalab.shop.entity.OrderSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 주문 요약(주문 내역 읽기 모델) Repository
+ * - 모든 조회는 (member_email, order_date, order_id) 인덱스 범위를 최신순으로 읽는다.
+ */
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    /**
+     * 주문 내역 offset 페이징
+     * - 페이지에 필요한 행(offset + limit)까지만 인덱스 범위를 읽는다. 전체 주문 수는 countByMemberEmail 로 따로 조회한다.
+     * @param email
+     * @param pageable
+     */
+    @Query("select s from OrderSummary s " +
+            "where s.memberEmail = :email " +
+            "order by s.orderDate desc, s.orderId desc"
+    )
+    List<OrderSummary> findPage(@Param("email") String email, Pageable pageable);
+
+    /**
+     * 회원의 전체 주문 수, 인덱스(member_email, ...)만 읽는다.
+     */
+    long countByMemberEmail(String memberEmail);
+
+    /**
+     * 주문 내역 커서 페이징 - 첫 페이지
+     * @param email
+     * @param pageable : 조회할 개수(limit)만 사용
+     */
+    @Query("select s from OrderSummary s " +
+            "where s.memberEmail = :email " +
+            "order by s.orderDate desc, s.orderId desc"
+    )
+    List<OrderSummary> findFirstSlice(@Param("email") String email, Pageable pageable);
+
+    /**
+     * 주문 내역 커서 페이징 - 다음 페이지
+     * - 이전 페이지 마지막 주문의 (주문일, 주문 ID) 보다 앞선 주문을 조회한다.
+     * @param email
+     * @param orderDate : 이전 페이지 마지막 주문의 주문일
+     * @param orderId : 이전 페이지 마지막 주문의 주문 ID
+     * @param pageable : 조회할 개수(limit)만 사용
+     */
+    @Query("select s from OrderSummary s " +
+            "where s.memberEmail = :email " +
+            "and (s.orderDate < :orderDate or (s.orderDate = :orderDate and s.orderId < :orderId)) " +
+            "order by s.orderDate desc, s.orderId desc"
+    )
+    List<OrderSummary> findSliceAfter(@Param("email") String email,
+                                      @Param("orderDate") LocalDateTime orderDate,
+                                      @Param("orderId") Long orderId,
+                                      Pageable pageable);
+}
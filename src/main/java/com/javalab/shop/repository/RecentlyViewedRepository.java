@@ -0,0 +1,10 @@
+package com.javalab.shop.repository;
+
+import com.javalab.shop.entity.RecentlyViewed;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * 최근 본 상품 Repository, 기본키는 회원 이메일
+ */
+public interface RecentlyViewedRepository extends JpaRepository<RecentlyViewed, String> {
+}
@@ -0,0 +1,23 @@
+package com.javalab.shop.repository;
+
+import com.javalab.shop.constant.SalesWindow;
+import com.javalab.shop.entity.SalesRankSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * 인기 상품 순위 구간 스냅샷 Repository
+ */
+public interface SalesRankSnapshotRepository extends JpaRepository<SalesRankSnapshot, Long> {
+
+    Optional<SalesRankSnapshot> findBySalesWindowAndBucketStart(SalesWindow salesWindow, long bucketStart);
+
+    // 기간을 벗어난 구간 삭제
+    @Modifying
+    @Query("delete from SalesRankSnapshot s where s.salesWindow = :salesWindow and s.bucketStart < :bucketStart")
+    int deleteExpired(@Param("salesWindow") SalesWindow salesWindow, @Param("bucketStart") long bucketStart);
+}
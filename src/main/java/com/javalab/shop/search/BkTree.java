@@ -0,0 +1,162 @@
+package com.javalab.shop.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BK-tree(Burkhard-Keller tree) - 편집 거리(Levenshtein distance)가 가까운 단어 찾기
+ * - 노드마다 단어 하나를 저장하고, 자식 간선에는 부모 단어와 자식 단어의 편집 거리를 붙인다.
+ * - 검색어와 노드 단어의 거리가 d 이면 거리 maxDistance 이내의 단어는 삼각 부등식에 의해
+ *   간선 거리가 d - maxDistance ~ d + maxDistance 인 자식 아래에만 있으므로 나머지 자식은 건너뛴다.
+ * - 단어 추가만 지원한다. 상품이 수정/삭제되어 더 이상 쓰이지 않는 단어도 남아 있으므로
+ *   찾은 단어로 다시 검색해서 실제 상품을 확인해야 한다(ItemSearchIndex).
+ * - 노드는 객체 대신 배열(단어, 간선 거리, 첫 자식, 다음 형제)로 저장한다.
+ * - 읽기(검색)는 동시에, 쓰기(추가)는 한 번에 하나씩 실행된다.
+ */
+class BkTree {
+
+    private static final int NONE = -1;
+
+    private final Set<String> words = new HashSet<>();
+    private String[] nodeWords = new String[1024];
+    private int[] edgeDistances = new int[1024];
+    private int[] firstChildren = new int[1024];
+    private int[] nextSiblings = new int[1024];
+    private int nodeCount;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 단어 추가, 이미 있으면 무시한다.
+     */
+    void add(String word) {
+        lock.writeLock().lock();
+        try {
+            if (!words.add(word)) {
+                return;
+            }
+            if (nodeCount == 0) {
+                newNode(word, 0);
+                return;
+            }
+            int node = 0;
+            while (true) {
+                int distance = distance(word, nodeWords[node]);
+                int child = firstChildren[node];
+                while (child != NONE && edgeDistances[child] != distance) {
+                    child = nextSiblings[child];
+                }
+                if (child == NONE) {
+                    child = newNode(word, distance);
+                    nextSiblings[child] = firstChildren[node];
+                    firstChildren[node] = child;
+                    return;
+                }
+                node = child;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 편집 거리가 maxDistance 이내인 단어 조회
+     * @param word : 검색어
+     * @param maxDistance : 최대 편집 거리
+     * @return 가까운 단어들(검색어 자신 포함), 순서는 정해져 있지 않다.
+     */
+    List<String> search(String word, int maxDistance) {
+        List<String> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (nodeCount == 0) {
+                return found;
+            }
+            int[] previous = new int[64];
+            int[] current = new int[64];
+            int[] stack = new int[64];
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                String nodeWord = nodeWords[node];
+                if (nodeWord.length() >= previous.length) {
+                    previous = new int[nodeWord.length() + 1];
+                    current = new int[nodeWord.length() + 1];
+                }
+                int distance = distance(word, nodeWord, previous, current);
+                if (distance <= maxDistance) {
+                    found.add(nodeWord);
+                }
+                for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+                    if (Math.abs(edgeDistances[child] - distance) <= maxDistance) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top << 1);
+                        }
+                        stack[top++] = child;
+                    }
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int newNode(String word, int edgeDistance) {
+        int node = nodeCount++;
+        if (node == nodeWords.length) {
+            int capacity = node << 1;
+            nodeWords = Arrays.copyOf(nodeWords, capacity);
+            edgeDistances = Arrays.copyOf(edgeDistances, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        }
+        nodeWords[node] = word;
+        edgeDistances[node] = edgeDistance;
+        firstChildren[node] = NONE;
+        nextSiblings[node] = NONE;
+        return node;
+    }
+
+    /**
+     * 편집 거리 - 한 글자 추가/삭제/교체를 1로 센다.
+     */
+    static int distance(String a, String b) {
+        return distance(a, b, new int[b.length() + 1], new int[b.length() + 1]);
+    }
+
+    /**
+     * 편집 거리 - 계산에 쓸 배열(b 길이 + 1 이상)을 받아서 검색하는 동안 재사용한다.
+     */
+    private static int distance(String a, String b, int[] previous, int[] current) {
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int replace = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(replace, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,247 @@
+package com.javalab.shop.search;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 함께 구매한 상품(co-occurrence) 그래프
+ * - 한 주문에 함께 담긴 상품 쌍마다 양쪽 상품의 이웃 목록에 서로의 함께 구매 횟수를 더한다.
+ * - 상품별 정보는 슬롯 번호로 관리하고(LongIntHashMap), 이웃 목록은 상품 ID(long[])와 횟수(int[]) 배열로 저장한다.
+ *   Map<Long, Map<Long, Integer>> 처럼 쌍마다 객체를 만들지 않는다.
+ * - 이웃 목록은 횟수가 많은 순서(같으면 최근 상품)로 정렬해 두므로 추천 조회는 앞의 limit 개를 복사하기만 하면 된다.
+ * - 상품마다 이웃은 최대 candidateSize 개만 둔다. 가득 찬 상태에서 새 이웃이 들어오면 횟수가 가장 적은 이웃의 자리를
+ *   넘겨받아 그 횟수 + 1 로 시작한다(Space-Saving). 자주 함께 팔리는 상품은 밀려나지 않고, 센 값은 실제보다 크거나 같다.
+ * - 읽기(추천)는 동시에, 쓰기(주문 반영)는 한 번에 하나씩 실행된다.
+ */
+public class CoPurchaseGraph {
+
+    private static final int NO_SLOT = -1;
+    private static final long[] EMPTY = new long[0];
+    private static final int INITIAL_NEIGHBOURS = 4;
+
+    private final int candidateSize;
+    private final LongIntHashMap slotByItemId;
+    private long[][] neighbourIds;
+    private int[][] neighbourCounts;
+    private int[] neighbourSizes;
+    private int slotCount;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param candidateSize : 상품별 최대 이웃 수, 추천 개수보다 넉넉해야 순위가 정확하다.
+     * @param expectedSize : 예상 상품 수
+     */
+    public CoPurchaseGraph(int candidateSize, int expectedSize) {
+        this.candidateSize = candidateSize;
+        this.slotByItemId = new LongIntHashMap(expectedSize);
+        int capacity = Math.max(16, expectedSize);
+        this.neighbourIds = new long[capacity][];
+        this.neighbourCounts = new int[capacity][];
+        this.neighbourSizes = new int[capacity];
+    }
+
+    /**
+     * 주문 반영 - 주문의 상품 쌍마다 함께 구매 횟수 1 증가
+     * @param itemIds : 주문의 상품 ID(중복 없음)
+     */
+    public void addOrder(long[] itemIds) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < itemIds.length; i++) {
+                for (int j = 0; j < itemIds.length; j++) {
+                    if (i != j) {
+                        increment(slotOf(itemIds[i]), itemIds[j]);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 주문 취소 반영 - 주문의 상품 쌍마다 함께 구매 횟수 1 감소, 이웃 목록에 없는 쌍은 무시한다.
+     * @param itemIds : 주문의 상품 ID(중복 없음)
+     */
+    public void removeOrder(long[] itemIds) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < itemIds.length; i++) {
+                int slot = slotByItemId.get(itemIds[i], NO_SLOT);
+                if (slot == NO_SLOT) {
+                    continue;
+                }
+                for (int j = 0; j < itemIds.length; j++) {
+                    if (i != j) {
+                        decrement(slot, itemIds[j]);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 함께 구매한 상품 조회
+     * @param limit : 최대 개수
+     * @return 함께 구매 횟수가 많은 순서의 상품 ID, 없으면 빈 배열
+     */
+    public long[] neighbours(long itemId, int limit) {
+        lock.readLock().lock();
+        try {
+            int slot = slotByItemId.get(itemId, NO_SLOT);
+            if (slot == NO_SLOT || neighbourSizes[slot] == 0) {
+                return EMPTY;
+            }
+            return Arrays.copyOf(neighbourIds[slot], Math.min(limit, neighbourSizes[slot]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 함께 구매 횟수(근사값), 이웃 목록에 없으면 0
+     */
+    public int count(long itemId, long neighbourId) {
+        lock.readLock().lock();
+        try {
+            int slot = slotByItemId.get(itemId, NO_SLOT);
+            if (slot == NO_SLOT) {
+                return 0;
+            }
+            int index = indexOf(slot, neighbourId);
+            return index < 0 ? 0 : neighbourCounts[slot][index];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByItemId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int slotOf(long itemId) {
+        int slot = slotByItemId.get(itemId, NO_SLOT);
+        if (slot != NO_SLOT) {
+            return slot;
+        }
+        slot = slotCount++;
+        if (slot == neighbourSizes.length) {
+            int capacity = slot << 1;
+            neighbourIds = Arrays.copyOf(neighbourIds, capacity);
+            neighbourCounts = Arrays.copyOf(neighbourCounts, capacity);
+            neighbourSizes = Arrays.copyOf(neighbourSizes, capacity);
+        }
+        slotByItemId.put(itemId, slot, NO_SLOT);
+        return slot;
+    }
+
+    private void increment(int slot, long neighbourId) {
+        int index = indexOf(slot, neighbourId);
+        if (index < 0) {
+            int size = neighbourSizes[slot];
+            if (size < candidateSize) {
+                // 1. 자리가 있으면 맨 뒤에 횟수 0 으로 추가
+                ensureCapacity(slot, size + 1);
+                index = neighbourSizes[slot]++;
+                neighbourCounts[slot][index] = 0;
+            } else {
+                // 2. 가득 찼으면 횟수가 가장 적은 맨 뒤 이웃의 자리와 횟수를 넘겨받는다.
+                index = size - 1;
+            }
+            neighbourIds[slot][index] = neighbourId;
+        }
+        neighbourCounts[slot][index]++;
+        moveUp(slot, index);
+    }
+
+    private void decrement(int slot, long neighbourId) {
+        int index = indexOf(slot, neighbourId);
+        if (index < 0) {
+            return;
+        }
+        long[] ids = neighbourIds[slot];
+        int[] counts = neighbourCounts[slot];
+        if (--counts[index] > 0) {
+            moveDown(slot, index);
+            return;
+        }
+        // 횟수가 0 이 되면 목록에서 뺀다.
+        int size = --neighbourSizes[slot];
+        System.arraycopy(ids, index + 1, ids, index, size - index);
+        System.arraycopy(counts, index + 1, counts, index, size - index);
+    }
+
+    private int indexOf(int slot, long neighbourId) {
+        long[] ids = neighbourIds[slot];
+        for (int i = 0; i < neighbourSizes[slot]; i++) {
+            if (ids[i] == neighbourId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 이웃 배열은 작게 시작해서 두 배씩(최대 candidateSize) 늘린다. 대부분의 상품은 이웃이 몇 개뿐이다.
+     */
+    private void ensureCapacity(int slot, int size) {
+        long[] ids = neighbourIds[slot];
+        if (ids == null) {
+            neighbourIds[slot] = new long[Math.min(INITIAL_NEIGHBOURS, candidateSize)];
+            neighbourCounts[slot] = new int[Math.min(INITIAL_NEIGHBOURS, candidateSize)];
+        } else if (ids.length < size) {
+            int capacity = Math.min(ids.length << 1, candidateSize);
+            neighbourIds[slot] = Arrays.copyOf(ids, capacity);
+            neighbourCounts[slot] = Arrays.copyOf(neighbourCounts[slot], capacity);
+        }
+    }
+
+    // 횟수가 늘어난 이웃을 앞쪽 제자리로(삽입 정렬 한 단계)
+    private void moveUp(int slot, int index) {
+        long[] ids = neighbourIds[slot];
+        int[] counts = neighbourCounts[slot];
+        long id = ids[index];
+        int count = counts[index];
+        while (index > 0 && rankBefore(count, id, counts[index - 1], ids[index - 1])) {
+            ids[index] = ids[index - 1];
+            counts[index] = counts[index - 1];
+            index--;
+        }
+        ids[index] = id;
+        counts[index] = count;
+    }
+
+    // 횟수가 줄어든 이웃을 뒤쪽 제자리로
+    private void moveDown(int slot, int index) {
+        long[] ids = neighbourIds[slot];
+        int[] counts = neighbourCounts[slot];
+        int size = neighbourSizes[slot];
+        long id = ids[index];
+        int count = counts[index];
+        while (index < size - 1 && rankBefore(counts[index + 1], ids[index + 1], count, id)) {
+            ids[index] = ids[index + 1];
+            counts[index] = counts[index + 1];
+            index++;
+        }
+        ids[index] = id;
+        counts[index] = count;
+    }
+
+    /**
+     * 순위 비교 - 함께 구매 횟수가 많은 상품, 같으면 최근 상품(상품 ID가 큰 상품)이 앞선다.
+     */
+    private static boolean rankBefore(int count, long id, int otherCount, long otherId) {
+        if (count != otherCount) {
+            return count > otherCount;
+        }
+        return id > otherId;
+    }
+}
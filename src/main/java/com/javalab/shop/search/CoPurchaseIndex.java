@@ -0,0 +1,83 @@
+package com.javalab.shop.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 함께 구매한 상품 색인("이 상품을 구매한 고객이 함께 구매한 상품")
+ * - 주문마다 함께 담긴 상품 쌍의 횟수를 상품별 이웃 목록(CoPurchaseGraph)에 누적해 두고
+ *   상품 상세 화면의 추천 API 가 이웃 목록의 앞부분만 읽는다. 추천 조회 비용은 주문/상품 수와 상관없다.
+ * - 애플리케이션 시작 후, 그리고 주기적으로 CoPurchaseIndexUpdater 가 주문 이력(order_item)으로 새 그래프를 만들고(ready),
+ *   그 사이에는 주문/취소가 커밋될 때마다 해당 주문만 더하거나 뺀다.
+ * - 그래프가 준비되기 전에는 빈 배열을 반환한다.
+ */
+@Component
+public class CoPurchaseIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final int topSize;
+    private final int candidateSize;
+
+    private volatile CoPurchaseGraph graph;
+    private volatile boolean ready;
+
+    public CoPurchaseIndex(@Value("${shop.recommend.top-size:10}") int topSize,
+                           @Value("${shop.recommend.candidate-size:50}") int candidateSize) {
+        this.topSize = topSize;
+        this.candidateSize = Math.max(topSize, candidateSize);
+        this.graph = new CoPurchaseGraph(this.candidateSize, 1024);
+    }
+
+    /**
+     * 함께 구매한 상품 조회
+     * @param size : 최대 개수, top-size 보다 크면 top-size 개
+     * @return 함께 구매 횟수가 많은 순서의 상품 ID
+     */
+    public long[] recommend(long itemId, int size) {
+        if (!ready) {
+            return EMPTY;
+        }
+        return graph.neighbours(itemId, Math.min(size, topSize));
+    }
+
+    /**
+     * 주문 반영
+     * @param itemIds : 주문의 상품 ID(중복 없음)
+     */
+    public void addOrder(long[] itemIds) {
+        graph.addOrder(itemIds);
+    }
+
+    /**
+     * 주문 취소 반영
+     * @param itemIds : 주문의 상품 ID(중복 없음)
+     */
+    public void removeOrder(long[] itemIds) {
+        graph.removeOrder(itemIds);
+    }
+
+    /**
+     * 재생성용 빈 그래프 생성 - addOrder() 로 주문 이력을 모두 넣은 뒤 replace() 로 교체한다.
+     * @param expectedSize : 예상 상품 수
+     */
+    public CoPurchaseGraph newGraph(int expectedSize) {
+        return new CoPurchaseGraph(candidateSize, expectedSize);
+    }
+
+    /**
+     * 새로 만든 그래프로 교체하고 추천에 사용하기 시작한다.
+     */
+    public void replace(CoPurchaseGraph graph) {
+        this.graph = graph;
+        this.ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return graph.size();
+    }
+}
@@ -0,0 +1,231 @@
+package com.javalab.shop.search;
+
+import com.javalab.shop.constant.OrderStatus;
+import com.javalab.shop.event.OrderCancelledEvent;
+import com.javalab.shop.event.OrderCreatedEvent;
+import com.javalab.shop.repository.ItemRepository;
+import com.javalab.shop.repository.OrderItemRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * 함께 구매한 상품 색인 갱신기
+ * - 주문/주문 취소가 커밋되면(OrderCreatedEvent, OrderCancelledEvent) 해당 주문의 상품 쌍만 더하거나 뺀다.
+ * - 애플리케이션 시작 후, 그리고 rebuild-interval-ms 마다 주문 이력(order_item, 취소 주문 제외)을 주문 순서로 다시 읽어서
+ *   새 그래프를 만들고 교체한다. 이웃 수 제한(Space-Saving) 때문에 생기는 오차와 놓친 이벤트를 이때 바로잡는다.
+ * - 재생성 중에 커밋된 주문/취소는 모아 두었다가 교체 직후 새 그래프에 반영한다.
+ *   주문은 ID 순서대로 커밋되지 않으므로 스트림이 실제로 읽은 주문 ID를 기록해 두고(주문당 8byte, 재생성 중에만 보관)
+ *   스트림이 읽은 주문의 생성은 다시 더하지 않고, 취소는 그래프에 들어 있는 주문(스트림이 읽었거나 모아 둔 생성을 더한 주문)만 뺀다.
+ * - 상품이 max-order-items 개보다 많은 주문은 쌍이 너무 많고 관련성도 낮으므로 반영하지 않는다.
+ * - shop.recommend.enabled=false 이면 그래프를 만들지 않고 추천은 항상 빈 목록이다.
+ */
+@Component
+@Log4j2
+public class CoPurchaseIndexUpdater {
+
+    private final CoPurchaseIndex coPurchaseIndex;
+    private final ItemRepository itemRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final boolean enabled;
+    private final int maxOrderItems;
+
+    private final Object pendingLock = new Object();
+    private final List<PendingOrder> pendingOrders = new ArrayList<>();
+    private boolean building;
+
+    public CoPurchaseIndexUpdater(CoPurchaseIndex coPurchaseIndex,
+                                  ItemRepository itemRepository,
+                                  OrderItemRepository orderItemRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${shop.recommend.enabled:true}") boolean enabled,
+                                  @Value("${shop.recommend.max-order-items:20}") int maxOrderItems) {
+        this.coPurchaseIndex = coPurchaseIndex;
+        this.itemRepository = itemRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxOrderItems = maxOrderItems;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 주기적으로 주문 이력으로 그래프를 새로 만든다.
+     */
+    @Scheduled(initialDelayString = "${shop.recommend.rebuild-interval-ms:86400000}",
+            fixedDelayString = "${shop.recommend.rebuild-interval-ms:86400000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * 주문 이력으로 그래프 생성
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        synchronized (pendingLock) {
+            building = true;
+        }
+        CoPurchaseGraph graph = coPurchaseIndex.newGraph((int) Math.min(Integer.MAX_VALUE, itemRepository.count()));
+        OrderReplay replay = new OrderReplay(graph, maxOrderItems);
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = orderItemRepository.streamItemIdsByOrder(OrderStatus.ORDER)) {
+                    rows.forEach(row -> replay.accept((Long) row[0], (Long) row[1]));
+                }
+                replay.flush();
+            });
+        } catch (RuntimeException e) {
+            synchronized (pendingLock) {
+                building = false;
+                pendingOrders.clear();
+            }
+            throw e;
+        }
+
+        synchronized (pendingLock) {
+            coPurchaseIndex.replace(graph);
+            building = false;
+            // 재생성 중에 커밋된 주문/취소 반영
+            Set<Long> addedOrderIds = new HashSet<>();
+            for (PendingOrder pending : pendingOrders) {
+                boolean inGraph = replay.saw(pending.orderId()) || addedOrderIds.contains(pending.orderId());
+                if (pending.cancelled()) {
+                    if (inGraph) {
+                        graph.removeOrder(pending.itemIds());
+                        addedOrderIds.remove(pending.orderId());
+                    }
+                } else if (!inGraph) {
+                    graph.addOrder(pending.itemIds());
+                    addedOrderIds.add(pending.orderId());
+                }
+            }
+            pendingOrders.clear();
+        }
+        log.info("함께 구매한 상품 색인 생성 완료 : 주문 {}건, 상품 {}건, {}ms",
+                replay.orders, coPurchaseIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 주문 커밋 후 상품 쌍 반영
+     * - 트랜잭션 밖에서 발행된 이벤트도 처리한다(fallbackExecution).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        long[] itemIds = toItemIds(event.countByItemId().keySet());
+        if (!enabled || itemIds == null) {
+            return;
+        }
+        synchronized (pendingLock) {
+            if (building) {
+                pendingOrders.add(new PendingOrder(event.orderId(), itemIds, false));
+            }
+            coPurchaseIndex.addOrder(itemIds);
+        }
+    }
+
+    /**
+     * 주문 취소 커밋 후 상품 쌍 차감
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderCancelled(OrderCancelledEvent event) {
+        long[] itemIds = toItemIds(event.countByItemId().keySet());
+        if (!enabled || itemIds == null) {
+            return;
+        }
+        synchronized (pendingLock) {
+            if (building) {
+                pendingOrders.add(new PendingOrder(event.orderId(), itemIds, true));
+            }
+            coPurchaseIndex.removeOrder(itemIds);
+        }
+    }
+
+    private long[] toItemIds(Collection<Long> itemIds) {
+        if (itemIds.size() < 2 || itemIds.size() > maxOrderItems) {
+            return null;
+        }
+        return itemIds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private record PendingOrder(long orderId, long[] itemIds, boolean cancelled) {
+    }
+
+    /**
+     * 주문 ID 순서로 읽은 [주문 ID, 상품 ID] 를 주문 단위로 묶어서 그래프에 넣는다.
+     * - 상품이 두 개 미만이거나 maxOrderItems 개보다 많은 주문은 넣지 않는다.
+     * - 읽은 주문 ID는 읽은 순서(오름차순)대로 배열에 모아 두고 saw() 에서 이진 탐색한다.
+     */
+    private static class OrderReplay {
+        private final CoPurchaseGraph graph;
+        private final int maxOrderItems;
+        private final long[] itemIds;
+        private int size;
+        private long orderId;
+        private long[] seenOrderIds = new long[1024];
+        private int seenCount;
+        private long orders;            // 그래프에 넣은 주문 수
+
+        OrderReplay(CoPurchaseGraph graph, int maxOrderItems) {
+            this.graph = graph;
+            this.maxOrderItems = maxOrderItems;
+            this.itemIds = new long[maxOrderItems + 1];     // 넘쳤는지 알 수 있도록 한 칸 더
+        }
+
+        void accept(long rowOrderId, long itemId) {
+            if (rowOrderId != orderId) {
+                flush();
+                orderId = rowOrderId;
+                if (seenCount == seenOrderIds.length) {
+                    seenOrderIds = Arrays.copyOf(seenOrderIds, seenCount << 1);
+                }
+                seenOrderIds[seenCount++] = rowOrderId;
+            }
+            for (int i = 0; i < size; i++) {
+                if (itemIds[i] == itemId) {
+                    return;
+                }
+            }
+            if (size < itemIds.length) {
+                itemIds[size++] = itemId;
+            }
+        }
+
+        void flush() {
+            if (size >= 2 && size <= maxOrderItems) {
+                graph.addOrder(Arrays.copyOf(itemIds, size));
+                orders++;
+            }
+            size = 0;
+        }
+
+        // 스트림이 읽은 주문인지 확인
+        boolean saw(long orderId) {
+            return Arrays.binarySearch(seenOrderIds, 0, seenCount, orderId) >= 0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.javalab.shop.search;
+
+import java.util.Locale;
+
+/**
+ * 한글 검색용 토크나이저
+ * - jamo(String) : 한글 음절을 자모로 분해한다. 겹받침, 이중 모음도 기본 자모로 나눈다.
+ *   "나이키" -> "ㄴㅏㅇㅣㅋㅣ", "닭" -> "ㄷㅏㄹㄱ"
+ *   입력 중인 검색어("나잌", "달")도 분해하면 완성된 상품명의 분해 결과에 그대로 포함되므로 부분 음절 검색이 된다.
+ * - choseong(String) : 한글 음절을 초성으로 바꾼다. "나이키 에어" -> "ㄴㅇㅋ ㅇㅇ"
+ * - 한글이 아닌 글자는 소문자로 바꿔서 그대로 둔다.
+ * - 결과는 호환용 자모(U+3131 ~ U+3163)로 만든다. 키보드로 입력한 자음/모음이 이 영역이기 때문이다.
+ */
+public final class HangulTokenizer {
+
+    private static final char SYLLABLE_BEGIN = '가';
+    private static final char SYLLABLE_END = '힣';
+    private static final int JUNGSEONG_COUNT = 21;
+    private static final int JONGSEONG_COUNT = 28;
+
+    private static final String[] CHOSEONG = {
+            "ㄱ", "ㄲ", "ㄴ", "ㄷ", "ㄸ", "ㄹ", "ㅁ", "ㅂ", "ㅃ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅉ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+    private static final String[] JUNGSEONG = {
+            "ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅛ", "ㅜ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ",
+            "ㅠ", "ㅡ", "ㅡㅣ", "ㅣ"
+    };
+    private static final String[] JONGSEONG = {
+            "", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ",
+            "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+
+    // 검색어에 직접 입력한 겹자음/이중 모음(호환용 자모)의 분해
+    private static final String COMPOUND_JAMO = "ㄳㄵㄶㄺㄻㄼㄽㄾㄿㅀㅄㅘㅙㅚㅝㅞㅟㅢ";
+    private static final String[] COMPOUND_JAMO_PARTS = {
+            "ㄱㅅ", "ㄴㅈ", "ㄴㅎ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ", "ㅂㅅ",
+            "ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅡㅣ"
+    };
+
+    private HangulTokenizer() {
+    }
+
+    /**
+     * 자모 분해
+     */
+    public static String jamo(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSyllable(c)) {
+                int offset = c - SYLLABLE_BEGIN;
+                sb.append(CHOSEONG[offset / (JUNGSEONG_COUNT * JONGSEONG_COUNT)]);
+                sb.append(JUNGSEONG[offset % (JUNGSEONG_COUNT * JONGSEONG_COUNT) / JONGSEONG_COUNT]);
+                sb.append(JONGSEONG[offset % JONGSEONG_COUNT]);
+            } else {
+                int compound = COMPOUND_JAMO.indexOf(c);
+                if (compound >= 0) {
+                    sb.append(COMPOUND_JAMO_PARTS[compound]);
+                } else {
+                    sb.append(Character.toLowerCase(c));
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 초성 변환
+     */
+    public static String choseong(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSyllable(c)) {
+                sb.append(CHOSEONG[(c - SYLLABLE_BEGIN) / (JUNGSEONG_COUNT * JONGSEONG_COUNT)]);
+            } else {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 초성 검색어 여부 - 자음(ㄱ ~ ㅎ)과 공백으로만 이루어지고 자음이 하나 이상 있다.
+     * 예) "ㄴㅇㅋ" -> true, "나ㅇㅋ" -> false
+     */
+    public static boolean isChoseongQuery(String query) {
+        if (query == null) {
+            return false;
+        }
+        boolean hasConsonant = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c >= 'ㄱ' && c <= 'ㅎ') {
+                hasConsonant = true;
+            } else if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return hasConsonant;
+    }
+
+    /**
+     * 소문자 변환 - 자모 분해 없이 대소문자만 구분하지 않고 검색할 필드(상품 상세 설명)에 사용
+     */
+    public static String lowerCase(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isSyllable(char c) {
+        return c >= SYLLABLE_BEGIN && c <= SYLLABLE_END;
+    }
+}
@@ -0,0 +1,298 @@
+package com.javalab.shop.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상품 검색 색인
+ * - 상품명(itemNm)과 상품 상세 설명(itemDetail)의 bigram 역색인을 메모리에 들고 있다가
+ *   상품 목록 검색(ItemRepositoryCustomImpl)이 DB를 조회하기 전에 검색어에 해당하는 상품 ID를 알려준다.
+ * - 상품명은 한글을 자모로 분해해서 색인하고(부분 음절 검색, "나잌" -> 나이키),
+ *   초성만 따로 색인한다(초성 검색, "ㄴㅇㅋ" -> 나이키). 두 색인 모두 검색어 포함 여부까지 확인한 정확한 결과를 반환한다.
+ * - 상품명의 단어는 BK-tree 에 따로 모아 두었다가 검색 결과가 없을 때 오타를 고려한 검색(findItemNmFuzzyMatches)에 사용한다.
+ * - 상품 상세 설명은 소문자로만 바꿔서 색인하고 후보만 반환한다.
+ * - 대표 이미지가 없는 상품은 메인 화면에 나오지 않으므로(repImgUrl is not null) 따로 표시해 두고
+ *   메인 화면 검색(findItemNmMatches, findItemNmFuzzyMatches) 결과에서 뺀다.
+ *   메인 화면의 페이지/커서/전체 수가 이 결과의 개수로 계산되기 때문이다. 관리자 검색(findCandidates)은 모든 상품을 찾는다.
+ * - 애플리케이션 시작 후 ItemSearchIndexUpdater 가 전체 상품으로 색인을 만들고(ready),
+ *   이후에는 상품 등록/수정이 커밋될 때마다 해당 상품만 다시 색인한다.
+ * - 색인이 준비되기 전이거나 색인으로 답할 수 없는 검색어면 null 을 반환하고, 호출하는 쪽은 기존 LIKE 검색을 사용한다.
+ */
+@Component
+public class ItemSearchIndex {
+
+    public enum Field {
+        ITEM_NM, ITEM_DETAIL
+    }
+
+    private static final long[] EMPTY = new long[0];
+
+    private final int maxCandidates;
+
+    private volatile Indexes indexes = new Indexes(1024);
+    private volatile boolean ready;
+
+    public ItemSearchIndex(@Value("${shop.search.max-candidates:1000}") int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * 검색어를 포함할 수 있는 상품 ID(후보) 조회 - 후보에 대해 LIKE 로 다시 확인하는 용도
+     * - 상품명 후보는 자모 단위로 포함 여부를 확인한 결과이므로 LIKE '%검색어%' 결과를 모두 포함한다.
+     * @param field : 검색할 필드
+     * @param query : 검색어
+     * @return 상품 ID 내림차순 배열(빈 배열이면 일치하는 상품 없음),
+     *         색인으로 답할 수 없거나 후보가 max-candidates 보다 많으면 null
+     */
+    public long[] findCandidates(Field field, String query) {
+        if (!ready) {
+            return null;
+        }
+        Indexes current = indexes;
+        NgramIndex index = field == Field.ITEM_NM ? current.itemNm : current.itemDetail;
+        return index.search(query, maxCandidates);
+    }
+
+    /**
+     * 상품명 검색(메인 화면)
+     * - 초성으로만 된 검색어("ㄴㅇㅋ")는 초성 색인, 그 밖의 검색어는 자모 색인에서 찾는다.
+     * - LIKE 로는 초성/부분 음절을 찾을 수 없으므로 결과 수를 제한하지 않고 정확한 결과를 모두 반환한다.
+     * @param query : 검색어
+     * @return 상품명에 검색어가 포함된 메인 화면 노출 상품 ID 내림차순 배열, 색인으로 답할 수 없으면 null
+     */
+    public long[] findItemNmMatches(String query) {
+        if (!ready) {
+            return null;
+        }
+        Indexes current = indexes;
+        NgramIndex index = HangulTokenizer.isChoseongQuery(query) ? current.itemNmChoseong : current.itemNm;
+        return current.listedOnly(index.search(query, Integer.MAX_VALUE));
+    }
+
+    /**
+     * 오타를 고려한 상품명 검색(메인 화면에서 검색 결과가 없을 때)
+     * - 검색어를 단어로 나누고, 단어마다 상품명 단어 중 편집 거리가 가까운 단어(BK-tree)를 찾는다.
+     *   허용하는 편집 거리는 단어 길이에 따라 두 글자~네 글자는 1, 다섯 글자 이상은 2이다. 한 글자 단어는 무시한다.
+     * - 숫자가 들어간 단어(모델 번호, 사이즈 등)는 한 글자만 달라도 다른 상품이므로 오타를 허용하지 않고 그대로 찾는다.
+     * - 가까운 단어 중 하나라도 포함한 상품을 단어별로 구한 뒤(합집합) 모든 단어의 결과에 있는 상품만 반환한다(교집합).
+     *   "나이카 런닝화" -> ("나이키") ∩ ("러닝화") 를 포함한 상품
+     * @param query : 검색어
+     * @return 메인 화면 노출 상품 ID 내림차순 배열, 색인이 준비되지 않았으면 null
+     */
+    public long[] findItemNmFuzzyMatches(String query) {
+        if (!ready) {
+            return null;
+        }
+        Indexes current = indexes;
+        long[] matches = null;
+        for (String token : HangulTokenizer.lowerCase(query).trim().split("\\s+")) {
+            if (token.length() < 2) {
+                continue;
+            }
+            List<String> similarTokens = isFuzzyToken(token)
+                    ? current.itemNmTokens.search(token, maxDistance(token))
+                    : List.of(token);
+            long[] tokenMatches = EMPTY;
+            for (String similar : similarTokens) {
+                long[] similarMatches = current.itemNm.search(similar, Integer.MAX_VALUE);
+                if (similarMatches != null) {
+                    tokenMatches = union(tokenMatches, similarMatches);
+                }
+            }
+            matches = matches == null ? tokenMatches : intersect(matches, tokenMatches);
+            if (matches.length == 0) {
+                break;
+            }
+        }
+        return matches == null ? EMPTY : current.listedOnly(matches);
+    }
+
+    /**
+     * 메인 화면에 나오는 상품 색인(이미 있으면 교체)
+     */
+    public void put(long itemId, String itemNm, String itemDetail) {
+        indexes.put(itemId, itemNm, itemDetail, true);
+    }
+
+    /**
+     * 상품 색인(이미 있으면 교체)
+     * @param listed : 메인 화면 노출 여부(대표 이미지가 있는 상품)
+     */
+    public void put(long itemId, String itemNm, String itemDetail, boolean listed) {
+        indexes.put(itemId, itemNm, itemDetail, listed);
+    }
+
+    /**
+     * 상품 색인 삭제
+     */
+    public void remove(long itemId) {
+        indexes.remove(itemId);
+    }
+
+    /**
+     * 초기 적재용 빈 색인 생성
+     * @param expectedSize : 예상 상품 수
+     */
+    public Indexes newIndexes(int expectedSize) {
+        return new Indexes(expectedSize);
+    }
+
+    /**
+     * 새로 만든 색인으로 교체하고 검색에 사용하기 시작한다.
+     */
+    public void replace(Indexes indexes) {
+        indexes.trimToSize();
+        this.indexes = indexes;
+        this.ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return indexes.itemNm.size();
+    }
+
+    /**
+     * 오타를 허용할 단어 - 두 글자 이상이고 숫자가 없는 단어
+     */
+    private static boolean isFuzzyToken(String token) {
+        if (token.length() < 2) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int maxDistance(String token) {
+        return token.length() >= 5 ? 2 : 1;
+    }
+
+    /**
+     * 내림차순 배열 두 개의 합집합(내림차순, 중복 제거)
+     */
+    private static long[] union(long[] a, long[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        long[] merged = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length || j < b.length) {
+            long next;
+            if (j == b.length || (i < a.length && a[i] > b[j])) {
+                next = a[i++];
+            } else if (i == a.length || b[j] > a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+            merged[size++] = next;
+        }
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    /**
+     * 내림차순 배열 두 개의 교집합(내림차순)
+     */
+    private static long[] intersect(long[] a, long[] b) {
+        long[] common = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] > b[j]) {
+                i++;
+            } else if (a[i] < b[j]) {
+                j++;
+            } else {
+                common[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return size == common.length ? common : Arrays.copyOf(common, size);
+    }
+
+    /**
+     * 상품 한 건을 색인할 때 함께 갱신하는 색인 묶음
+     */
+    public static class Indexes {
+
+        private final NgramIndex itemNm;
+        private final NgramIndex itemNmChoseong;
+        private final NgramIndex itemDetail;
+        private final BkTree itemNmTokens = new BkTree();  // 상품명 단어(소문자, 숫자 없는 단어), 추가만 한다.
+        private final Set<Long> unlisted = ConcurrentHashMap.newKeySet();  // 메인 화면에 나오지 않는 상품(대표 이미지 없음), 보통 비어 있다.
+
+        private Indexes(int expectedSize) {
+            this.itemNm = new NgramIndex(expectedSize, HangulTokenizer::jamo, true);
+            this.itemNmChoseong = new NgramIndex(expectedSize, HangulTokenizer::choseong, true);
+            this.itemDetail = new NgramIndex(expectedSize);
+        }
+
+        public void put(long itemId, String itemNm, String itemDetail) {
+            put(itemId, itemNm, itemDetail, true);
+        }
+
+        public void put(long itemId, String itemNm, String itemDetail, boolean listed) {
+            if (listed) {
+                unlisted.remove(itemId);
+            } else {
+                unlisted.add(itemId);
+            }
+            this.itemNm.put(itemId, itemNm);
+            this.itemNmChoseong.put(itemId, itemNm);
+            this.itemDetail.put(itemId, itemDetail);
+            if (itemNm != null) {
+                for (String token : HangulTokenizer.lowerCase(itemNm).trim().split("\\s+")) {
+                    if (isFuzzyToken(token)) {
+                        itemNmTokens.add(token);
+                    }
+                }
+            }
+        }
+
+        public void remove(long itemId) {
+            itemNm.remove(itemId);
+            itemNmChoseong.remove(itemId);
+            itemDetail.remove(itemId);
+            unlisted.remove(itemId);
+        }
+
+        /**
+         * 검색 결과에서 메인 화면에 나오지 않는 상품을 뺀다(순서 유지).
+         */
+        private long[] listedOnly(long[] itemIds) {
+            if (itemIds == null || unlisted.isEmpty()) {
+                return itemIds;
+            }
+            long[] listed = new long[itemIds.length];
+            int size = 0;
+            for (long itemId : itemIds) {
+                if (!unlisted.contains(itemId)) {
+                    listed[size++] = itemId;
+                }
+            }
+            return size == listed.length ? listed : Arrays.copyOf(listed, size);
+        }
+
+        private void trimToSize() {
+            itemNm.trimToSize();
+            itemNmChoseong.trimToSize();
+            itemDetail.trimToSize();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.javalab.shop.search;
+
+import com.javalab.shop.event.ItemChangedEvent;
+import com.javalab.shop.event.ItemImgChangedEvent;
+import com.javalab.shop.repository.ItemRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 상품 검색 색인 갱신기
+ * - 애플리케이션 시작 후 전체 상품을 스트림으로 읽어서 새 색인을 만들고 교체한다.
+ *   만드는 동안에는 색인이 준비되지 않았으므로 상품 검색은 기존 LIKE 검색으로 동작한다.
+ * - 상품 등록/수정이나 상품 이미지 변경이 커밋되면(ItemChangedEvent, ItemImgChangedEvent) 해당 상품만 다시 읽어서 색인한다.
+ *   이미지 변경은 대표 이미지 유무(메인 화면 노출 여부)를 바꿀 수 있다.
+ *   초기 적재 중에 변경된 상품은 적재가 끝난 뒤 한 번 더 색인해서 스트림이 읽은 이전 값을 덮어쓴다.
+ * - shop.search.index.enabled=false 이면 색인을 만들지 않고 항상 LIKE 검색을 사용한다.
+ */
+@Component
+@Log4j2
+public class ItemSearchIndexUpdater {
+
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final boolean enabled;
+
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+
+    public ItemSearchIndexUpdater(ItemSearchIndex itemSearchIndex,
+                                  ItemRepository itemRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${shop.search.index.enabled:true}") boolean enabled) {
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemRepository = itemRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    /**
+     * 전체 상품으로 색인 생성
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        building = true;
+        try {
+            int expectedSize = (int) Math.min(Integer.MAX_VALUE, itemRepository.count());
+            ItemSearchIndex.Indexes indexes = itemSearchIndex.newIndexes(expectedSize);
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = itemRepository.streamSearchDocuments()) {
+                    rows.forEach(row -> indexes.put((Long) row[0], (String) row[1], (String) row[2], row[3] != null));
+                }
+            });
+            itemSearchIndex.replace(indexes);
+        } finally {
+            building = false;
+        }
+
+        // 적재 중에 커밋된 변경은 스트림이 이전 값을 읽었을 수 있으므로 다시 색인한다.
+        List<Long> changedItemIds = new ArrayList<>(changedWhileBuilding);
+        changedWhileBuilding.removeAll(changedItemIds);
+        changedItemIds.forEach(this::reindex);
+        log.info("상품 검색 색인 생성 완료 : {}건, {}ms", itemSearchIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 상품 등록/수정 커밋 후 해당 상품 다시 색인
+     * - 트랜잭션 밖에서 발행된 이벤트도 처리한다(fallbackExecution).
+     * - 메인 화면 캐시(MainItemPageCache)가 비워진 뒤 색인이 바뀌기 전에 이전 색인으로 검색한 결과를 다시 채우지 않도록
+     *   같은 이벤트의 다른 리스너보다 먼저 실행한다(@Order).
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        onChanged(event.itemId());
+    }
+
+    /**
+     * 상품 이미지 등록/수정 커밋 후 해당 상품 다시 색인(대표 이미지 유무)
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemImgChanged(ItemImgChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        onChanged(event.itemId());
+    }
+
+    private void onChanged(Long itemId) {
+        if (building) {
+            changedWhileBuilding.add(itemId);
+        }
+        reindex(itemId);
+    }
+
+    private void reindex(Long itemId) {
+        // 상품 상세 설명은 지연 로딩이므로 엔티티 대신 컬럼 값으로 조회한다(트랜잭션 밖에서 호출됨).
+        List<Object[]> document = itemRepository.findSearchDocument(itemId);
+        if (!document.isEmpty()) {
+            Object[] row = document.get(0);
+            itemSearchIndex.put(itemId, (String) row[0], (String) row[1], row[2] != null);
+        } else {
+            itemSearchIndex.remove(itemId);
+        }
+    }
+}
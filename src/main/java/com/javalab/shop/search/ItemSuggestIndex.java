@@ -0,0 +1,81 @@
+package com.javalab.shop.search;
+
+import com.javalab.shop.dto.ItemSuggestDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 상품명 자동완성 색인
+ * - 상품명 접두사 트리(SuggestTrie)를 메모리에 들고 있다가 입력 중인 검색어로 시작하는 상품명을 판매량 순서로 제안한다.
+ * - 애플리케이션 시작 후 ItemSuggestIndexUpdater 가 전체 상품과 판매량으로 트리를 만들고(ready),
+ *   이후에는 상품 등록/수정이 커밋될 때마다 해당 상품만 다시 넣는다. 판매량은 주기적으로 트리를 새로 만들어서 반영한다.
+ * - 트리가 준비되기 전에는 빈 목록을 반환한다(자동완성은 없어도 검색은 동작한다).
+ */
+@Component
+public class ItemSuggestIndex {
+
+    private final int maxSuggestions;
+
+    private volatile SuggestTrie trie;
+    private volatile boolean ready;
+
+    public ItemSuggestIndex(@Value("${shop.search.suggest.max-size:10}") int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+        this.trie = new SuggestTrie(maxSuggestions, 1024);
+    }
+
+    /**
+     * 자동완성 제안
+     * @param query : 입력 중인 검색어
+     * @param size : 최대 제안 수, max-size 보다 크면 max-size 개
+     * @return 상품명이 검색어로 시작하거나 상품명의 단어가 검색어로 시작하는 상품, 판매량이 많은 순서
+     */
+    public List<ItemSuggestDto> suggest(String query, int size) {
+        if (!ready) {
+            return List.of();
+        }
+        return trie.suggest(query, Math.min(size, maxSuggestions));
+    }
+
+    /**
+     * 상품 추가(이미 있으면 교체), 판매량은 기존 값을 유지한다.
+     */
+    public void put(long itemId, String itemNm) {
+        SuggestTrie current = trie;
+        current.put(itemId, itemNm, current.getSales(itemId));
+    }
+
+    /**
+     * 상품 삭제
+     */
+    public void remove(long itemId) {
+        trie.remove(itemId);
+    }
+
+    /**
+     * 초기 적재용 빈 트리 생성 - add() 로 모두 넣은 뒤 replace() 로 교체한다.
+     * @param expectedSize : 예상 상품 수
+     */
+    public SuggestTrie newTrie(int expectedSize) {
+        return new SuggestTrie(maxSuggestions, expectedSize);
+    }
+
+    /**
+     * 새로 만든 트리로 교체하고 제안에 사용하기 시작한다.
+     */
+    public void replace(SuggestTrie trie) {
+        trie.build();
+        this.trie = trie;
+        this.ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return trie.size();
+    }
+}
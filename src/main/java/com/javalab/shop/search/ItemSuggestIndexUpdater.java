@@ -0,0 +1,136 @@
+package com.javalab.shop.search;
+
+import com.javalab.shop.constant.OrderStatus;
+import com.javalab.shop.entity.Item;
+import com.javalab.shop.event.ItemChangedEvent;
+import com.javalab.shop.repository.ItemRepository;
+import com.javalab.shop.repository.OrderItemRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 상품명 자동완성 색인 갱신기
+ * - 애플리케이션 시작 후, 그리고 rebuild-interval-ms 마다 상품별 판매량과 전체 상품명을 스트림으로 읽어서 새 트리를 만들고 교체한다.
+ *   판매량은 주문마다 바뀌므로 주문 때마다 트리를 고치지 않고 주기적으로 새로 만들어서 반영한다.
+ * - 상품 등록/수정이 커밋되면(ItemChangedEvent) 해당 상품만 다시 넣는다(판매량은 유지).
+ *   트리를 만드는 중에 변경된 상품은 교체한 뒤 한 번 더 넣어서 스트림이 읽은 이전 값을 덮어쓴다.
+ * - shop.search.suggest.enabled=false 이면 트리를 만들지 않고 자동완성은 항상 빈 목록을 반환한다.
+ */
+@Component
+@Log4j2
+public class ItemSuggestIndexUpdater {
+
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemRepository itemRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final boolean enabled;
+
+    private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+
+    public ItemSuggestIndexUpdater(ItemSuggestIndex itemSuggestIndex,
+                                   ItemRepository itemRepository,
+                                   OrderItemRepository orderItemRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${shop.search.suggest.enabled:true}") boolean enabled) {
+        this.itemSuggestIndex = itemSuggestIndex;
+        this.itemRepository = itemRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 판매량 반영을 위해 주기적으로 트리를 새로 만든다.
+     */
+    @Scheduled(initialDelayString = "${shop.search.suggest.rebuild-interval-ms:600000}",
+            fixedDelayString = "${shop.search.suggest.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * 상품별 판매량과 전체 상품명으로 트리 생성
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        building = true;
+        try {
+            int expectedSize = (int) Math.min(Integer.MAX_VALUE, itemRepository.count());
+            SuggestTrie trie = itemSuggestIndex.newTrie(expectedSize);
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                // 1. 상품별 판매량(주문 수량 합계, 취소 주문 제외)
+                Map<Long, Integer> salesByItemId = new HashMap<>();
+                try (Stream<Object[]> rows = orderItemRepository.streamSalesCountByItem(OrderStatus.ORDER)) {
+                    rows.forEach(row -> salesByItemId.put((Long) row[0],
+                            (int) Math.min(Integer.MAX_VALUE, ((Number) row[1]).longValue())));
+                }
+                // 2. 전체 상품명
+                try (Stream<Object[]> rows = itemRepository.streamSuggestDocuments()) {
+                    rows.forEach(row -> trie.add((Long) row[0], (String) row[1],
+                            salesByItemId.getOrDefault((Long) row[0], 0)));
+                }
+            });
+            itemSuggestIndex.replace(trie);
+        } finally {
+            building = false;
+        }
+
+        // 적재 중에 커밋된 변경은 스트림이 이전 값을 읽었을 수 있으므로 다시 넣는다.
+        List<Long> changedItemIds = new ArrayList<>(changedWhileBuilding);
+        changedWhileBuilding.removeAll(changedItemIds);
+        changedItemIds.forEach(this::reindex);
+        log.info("상품명 자동완성 색인 생성 완료 : {}건, {}ms", itemSuggestIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 상품 등록/수정 커밋 후 해당 상품 다시 넣기
+     * - 트랜잭션 밖에서 발행된 이벤트도 처리한다(fallbackExecution).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (building) {
+            changedWhileBuilding.add(event.itemId());
+        }
+        reindex(event.itemId());
+    }
+
+    private void reindex(Long itemId) {
+        Optional<Item> item = itemRepository.findById(itemId);
+        if (item.isPresent()) {
+            itemSuggestIndex.put(itemId, item.get().getItemNm());
+        } else {
+            itemSuggestIndex.remove(itemId);
+        }
+    }
+}
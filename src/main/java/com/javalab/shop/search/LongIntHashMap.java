@@ -0,0 +1,144 @@
+package com.javalab.shop.search;
+
+/**
+ * long 키 -> int 값 해시 맵(오픈 어드레싱, 선형 탐사)
+ * - 상품 수가 수십만~백만 건일 때 HashMap<Long, Integer> 는 항목마다 Long, Integer, Node 객체가 생기므로
+ *   기본형 배열 두 개로 같은 일을 한다.
+ * - 키 0 은 빈 칸 표시로 사용하므로 0보다 큰 키(상품 ID)만 저장할 수 있다.
+ * - 동기화하지 않으므로 호출하는 쪽에서 락을 잡아야 한다.
+ */
+class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    LongIntHashMap() {
+        this(16);
+    }
+
+    LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return 키에 해당하는 값, 없으면 missingValue
+     */
+    int get(long key, int missingValue) {
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    /**
+     * @return 이전 값, 없었으면 missingValue
+     */
+    int put(long key, int value, int missingValue) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("키는 0보다 커야 합니다 : " + key);
+        }
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return missingValue;
+    }
+
+    /**
+     * @return 제거한 값, 없었으면 missingValue
+     */
+    int remove(long key, int missingValue) {
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                shiftBack(i);
+                size--;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    /**
+     * 삭제한 칸(gap) 뒤에 이어진 항목 중 gap 으로 옮겨도 탐색이 끊기지 않는 항목을 당겨 온다.
+     * - 삭제 표시(tombstone)를 남기지 않으므로 삭제가 많아도 탐색 길이가 늘어나지 않는다.
+     */
+    private void shiftBack(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (keys[i] == 0) {
+                break;
+            }
+            int home = slot(keys[i]);
+            // home 이 (gap, i] 구간 밖이면 gap 으로 옮길 수 있다.
+            boolean movable = i > gap ? (home <= gap || home > i) : (home <= gap && home > i);
+            if (movable) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = slot(oldKeys[j]);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR <= expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
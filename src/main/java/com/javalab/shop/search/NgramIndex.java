@@ -0,0 +1,495 @@
+package com.javalab.shop.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * 글자 2-gram(bigram) 역색인
+ * - 문서(상품)의 텍스트를 정규화(normalizer)한 뒤 연속한 두 글자씩 잘라 bigram -> 문서 번호 목록(posting)으로 저장한다.
+ *   "운동화" -> "운동", "동화"
+ *   정규화 함수로 자모 분해(HangulTokenizer.jamo), 초성 변환(HangulTokenizer.choseong)을 지정하면
+ *   자모/초성 단위로 색인한다.
+ * - 검색어가 포함된(LIKE '%검색어%') 문서는 검색어의 bigram 을 모두 가지므로
+ *   검색어 bigram 들의 posting 교집합은 항상 정답을 빠짐없이 포함한다(후보 집합).
+ *   "동화운" 처럼 bigram 은 모두 있지만 이어져 있지 않은 문서도 후보에 섞일 수 있다.
+ *   verify=true 로 만들면 정규화한 텍스트를 함께 저장해 두고 후보마다 검색어 포함 여부를 확인해서 정확한 결과만 반환한다.
+ * - posting 은 문서가 적으면 정렬된 int 배열, 전체 문서의 1/32 이상이면 비트맵으로 저장한다.
+ *   자모처럼 글자 종류가 적어서 bigram 마다 문서가 많은 경우에도 비트맵 AND 로 교집합을 빠르게 구할 수 있다.
+ * - 문서 번호는 추가할 때마다 1씩 늘어나므로 posting 은 항상 오름차순이다.
+ *   문서를 수정하면 이전 문서 번호는 삭제 표시만 하고 새 번호로 다시 추가하며,
+ *   삭제 표시된 문서가 살아 있는 문서보다 많아지면 posting 을 다시 만든다(compact).
+ * - 읽기(검색)는 동시에, 쓰기(추가/삭제)는 한 번에 하나씩 실행된다.
+ */
+public class NgramIndex {
+
+    private static final int NO_DOC = -1;
+    private static final int MIN_COMPACT_DOCS = 1024;
+    private static final int DENSE_RATIO = 32;
+    private static final int MIN_DENSE_SIZE = 256;
+    private static final long[] EMPTY = new long[0];
+
+    private final UnaryOperator<String> normalizer;
+    private final boolean verify;
+
+    private final Map<Integer, Postings> postingsByGram = new HashMap<>();
+    private final LongIntHashMap docByItemId;
+    private long[] itemIdByDoc;
+    private final BitSet deletedDocs = new BitSet();
+    private int docCount;           // 다음에 부여할 문서 번호
+    private int deletedCount;
+    private boolean sortedByItemId = true;  // 문서 번호 순서와 상품 ID 순서가 같은지 여부
+
+    // verify=true 일 때 정규화한 텍스트, 문서 doc 의 텍스트는 keyChars[keyOffsets[doc] ~ keyOffsets[doc + 1])
+    private char[] keyChars;
+    private int[] keyOffsets;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public NgramIndex() {
+        this(1024);
+    }
+
+    public NgramIndex(int expectedSize) {
+        this(expectedSize, HangulTokenizer::lowerCase, false);
+    }
+
+    /**
+     * @param expectedSize : 예상 문서 수
+     * @param normalizer : 색인/검색 전에 텍스트에 적용할 정규화 함수
+     * @param verify : true 이면 후보마다 검색어 포함 여부를 확인해서 정확한 결과만 반환한다.
+     */
+    public NgramIndex(int expectedSize, UnaryOperator<String> normalizer, boolean verify) {
+        this.normalizer = normalizer;
+        this.verify = verify;
+        this.docByItemId = new LongIntHashMap(expectedSize);
+        this.itemIdByDoc = new long[Math.max(16, expectedSize)];
+        if (verify) {
+            this.keyChars = new char[Math.max(16, expectedSize) * 8];
+            this.keyOffsets = new int[itemIdByDoc.length + 1];
+        }
+    }
+
+    /**
+     * 상품 텍스트 색인(이미 있으면 교체)
+     * @param itemId
+     * @param text
+     */
+    public void put(long itemId, String text) {
+        String key = normalizer.apply(text == null ? "" : text);
+        int[] grams = grams(key);
+        lock.writeLock().lock();
+        try {
+            deleteDoc(docByItemId.remove(itemId, NO_DOC));
+            int doc = docCount;
+            if (doc == itemIdByDoc.length) {
+                itemIdByDoc = Arrays.copyOf(itemIdByDoc, doc << 1);
+                if (verify) {
+                    keyOffsets = Arrays.copyOf(keyOffsets, (doc << 1) + 1);
+                }
+            }
+            if (doc > 0 && itemId < itemIdByDoc[doc - 1]) {
+                sortedByItemId = false;
+            }
+            itemIdByDoc[doc] = itemId;
+            if (verify) {
+                appendKey(doc, key);
+            }
+            docCount++;
+            docByItemId.put(itemId, doc, NO_DOC);
+            for (int gram : grams) {
+                postingsByGram.computeIfAbsent(gram, g -> new Postings()).add(doc, docCount);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 상품 색인 삭제
+     * @param itemId
+     */
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            deleteDoc(docByItemId.remove(itemId, NO_DOC));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 검색어를 포함한(verify=false 이면 포함할 수 있는) 상품 ID 조회
+     * @param query : 검색어
+     * @param maxResults : 결과가 이보다 많으면 null 을 반환한다. 제한이 없으면 Integer.MAX_VALUE
+     * @return 상품 ID 내림차순 배열, 색인으로 답할 수 없으면 null
+     *         (정규화한 검색어가 두 글자 미만, LIKE 와일드카드(%, _) 포함, 결과가 maxResults 초과)
+     */
+    public long[] search(String query, int maxResults) {
+        if (query == null || query.indexOf('%') >= 0 || query.indexOf('_') >= 0) {
+            return null;
+        }
+        String key = normalizer.apply(query);
+        int[] grams = grams(key);
+        if (grams.length == 0) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            // 1. posting 이 짧은 bigram 부터 교집합을 구한다. 하나라도 없으면 결과도 없다.
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postingsByGram.get(grams[i]);
+                if (lists[i] == null) {
+                    return EMPTY;
+                }
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+            // 배열 posting 이 하나라도 있으면 그중 가장 짧은 것을 기준으로 삼는다.
+            for (int i = 1; i < lists.length && lists[0].bits != null; i++) {
+                if (lists[i].bits == null) {
+                    Postings sparse = lists[i];
+                    lists[i] = lists[0];
+                    lists[0] = sparse;
+                }
+            }
+
+            Results results = new Results(maxResults);
+            char[] keyToFind = key.toCharArray();
+            if (lists[0].bits == null) {
+                // 2-1. 기준 posting(배열)의 문서들이 나머지 posting 에도 모두 있는지 확인한다.
+                //      배열 posting 은 오름차순이므로 탐색 시작 위치는 앞으로만 이동한다.
+                Postings shortest = lists[0];
+                int[] positions = new int[lists.length];
+                next:
+                for (int k = 0; k < shortest.size; k++) {
+                    int doc = shortest.docs[k];
+                    if (deletedDocs.get(doc)) {
+                        continue;
+                    }
+                    for (int l = 1; l < lists.length; l++) {
+                        Postings postings = lists[l];
+                        if (postings.bits != null) {
+                            if (!postings.contains(doc)) {
+                                continue next;
+                            }
+                            continue;
+                        }
+                        int position = Arrays.binarySearch(postings.docs, positions[l], postings.size, doc);
+                        if (position < 0) {
+                            positions[l] = -position - 1;
+                            if (positions[l] == postings.size) {
+                                break next;
+                            }
+                            continue next;
+                        }
+                        positions[l] = position + 1;
+                    }
+                    if (!accept(doc, keyToFind, results)) {
+                        return null;
+                    }
+                }
+            } else {
+                // 2-2. 모두 비트맵이면 64개 문서씩 AND 한다.
+                int words = lists[0].bits.length;
+                for (Postings postings : lists) {
+                    words = Math.min(words, postings.bits.length);
+                }
+                for (int w = 0; w < words; w++) {
+                    long word = lists[0].bits[w];
+                    for (int l = 1; l < lists.length && word != 0; l++) {
+                        word &= lists[l].bits[w];
+                    }
+                    while (word != 0) {
+                        int doc = (w << 6) + Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                        if (!deletedDocs.get(doc) && !accept(doc, keyToFind, results)) {
+                            return null;
+                        }
+                    }
+                }
+            }
+
+            // 3. 목록 화면과 같은 상품 ID 내림차순으로 정렬
+            return results.toDescendingArray(sortedByItemId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 후보 문서를 결과에 추가한다. verify=true 이면 검색어를 포함한 문서만 추가한다.
+     * @return 결과가 최대 개수를 넘으면 false
+     */
+    private boolean accept(int doc, char[] keyToFind, Results results) {
+        if (verify && !containsKey(doc, keyToFind)) {
+            return true;
+        }
+        return results.add(itemIdByDoc[doc]);
+    }
+
+    private boolean containsKey(int doc, char[] keyToFind) {
+        char[] chars = keyChars;
+        char first = keyToFind[0];
+        int last = keyOffsets[doc + 1] - keyToFind.length;
+        next:
+        for (int i = keyOffsets[doc]; i <= last; i++) {
+            if (chars[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < keyToFind.length; j++) {
+                if (chars[i + j] != keyToFind[j]) {
+                    continue next;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void appendKey(int doc, String key) {
+        int begin = keyOffsets[doc];
+        int end = begin + key.length();
+        if (end > keyChars.length) {
+            keyChars = Arrays.copyOf(keyChars, Math.max(end, keyChars.length << 1));
+        }
+        key.getChars(0, key.length(), keyChars, begin);
+        keyOffsets[doc + 1] = end;
+    }
+
+    /**
+     * 색인된 상품 수
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByItemId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 초기 적재처럼 한꺼번에 추가한 뒤 배열의 남는 공간을 정리한다.
+     */
+    public void trimToSize() {
+        lock.writeLock().lock();
+        try {
+            for (Postings postings : postingsByGram.values()) {
+                postings.trimToSize();
+            }
+            int capacity = Math.max(16, docCount);
+            itemIdByDoc = Arrays.copyOf(itemIdByDoc, capacity);
+            if (verify) {
+                keyOffsets = Arrays.copyOf(keyOffsets, capacity + 1);
+                keyChars = Arrays.copyOf(keyChars, Math.max(16, keyOffsets[docCount]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void deleteDoc(int doc) {
+        if (doc != NO_DOC) {
+            deletedDocs.set(doc);
+            deletedCount++;
+        }
+    }
+
+    /**
+     * 삭제 표시된 문서를 빼고 살아 있는 문서의 번호를 상품 ID 순서대로 0부터 다시 매긴다.
+     * - 번호 순서가 바뀌므로 배열 posting 은 다시 정렬하고, 비트맵 posting 은 다시 만든다.
+     */
+    private void compactIfNeeded() {
+        int liveCount = docCount - deletedCount;
+        if (deletedCount < MIN_COMPACT_DOCS || deletedCount <= liveCount) {
+            return;
+        }
+        // 1. 살아 있는 문서를 상품 ID 순서로 정렬
+        long[] liveItemIds = new long[liveCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (!deletedDocs.get(doc)) {
+                liveItemIds[live++] = itemIdByDoc[doc];
+            }
+        }
+        Arrays.sort(liveItemIds);
+
+        // 2. 새 문서 번호 부여, 정규화한 텍스트도 새 번호 순서로 옮긴다.
+        int[] newDocByOldDoc = new int[docCount];
+        Arrays.fill(newDocByOldDoc, NO_DOC);
+        char[] newKeyChars = verify ? new char[Math.max(16, keyOffsets[docCount])] : null;
+        int[] newKeyOffsets = verify ? new int[Math.max(16, liveCount) + 1] : null;
+        for (int newDoc = 0; newDoc < liveCount; newDoc++) {
+            int oldDoc = docByItemId.get(liveItemIds[newDoc], NO_DOC);
+            newDocByOldDoc[oldDoc] = newDoc;
+            docByItemId.put(liveItemIds[newDoc], newDoc, NO_DOC);
+            if (verify) {
+                int length = keyOffsets[oldDoc + 1] - keyOffsets[oldDoc];
+                System.arraycopy(keyChars, keyOffsets[oldDoc], newKeyChars, newKeyOffsets[newDoc], length);
+                newKeyOffsets[newDoc + 1] = newKeyOffsets[newDoc] + length;
+            }
+        }
+        postingsByGram.values().removeIf(postings -> postings.remap(newDocByOldDoc, liveCount) == 0);
+        itemIdByDoc = Arrays.copyOf(liveItemIds, Math.max(16, liveCount));
+        keyChars = newKeyChars;
+        keyOffsets = newKeyOffsets;
+        docCount = liveCount;
+        deletedDocs.clear();
+        deletedCount = 0;
+        sortedByItemId = true;
+    }
+
+    /**
+     * 텍스트의 bigram 을 중복 없이 반환한다. 두 글자(char)를 하나의 int 로 합친다.
+     */
+    static int[] grams(String text) {
+        if (text.length() < 2) {
+            return new int[0];
+        }
+        int[] grams = new int[text.length() - 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (text.charAt(i) << 16) | text.charAt(i + 1);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * bigram 하나의 문서 번호 목록
+     * - 문서가 적으면 오름차순 int 배열(docs), 많아지면 비트맵(bits)으로 바꾼다.
+     *   전체 문서의 1/32 이상이면 비트맵이 배열보다 작거나 같다.
+     */
+    private static class Postings {
+
+        private int[] docs = new int[4];
+        private long[] bits;
+        private int size;
+
+        void add(int doc, int docCount) {
+            if (bits == null && size >= MIN_DENSE_SIZE && size >= docCount / DENSE_RATIO) {
+                toBits(docCount);
+            }
+            if (bits != null) {
+                int word = doc >> 6;
+                if (word >= bits.length) {
+                    bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length << 1));
+                }
+                bits[word] |= 1L << doc;
+            } else {
+                if (size == docs.length) {
+                    docs = Arrays.copyOf(docs, Math.max(4, size << 1));
+                }
+                docs[size] = doc;
+            }
+            size++;
+        }
+
+        boolean contains(int doc) {
+            int word = doc >> 6;
+            return word < bits.length && (bits[word] & (1L << doc)) != 0;
+        }
+
+        void trimToSize() {
+            if (bits == null && size < docs.length) {
+                docs = Arrays.copyOf(docs, size);
+            }
+        }
+
+        /**
+         * @return 번호를 다시 매긴 뒤 남은 문서 수
+         */
+        int remap(int[] newDocByOldDoc, int docCount) {
+            int[] remapped = new int[size];
+            int count = 0;
+            if (bits != null) {
+                for (int w = 0; w < bits.length; w++) {
+                    long word = bits[w];
+                    while (word != 0) {
+                        int oldDoc = (w << 6) + Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                        if (oldDoc < newDocByOldDoc.length && newDocByOldDoc[oldDoc] != NO_DOC) {
+                            remapped[count++] = newDocByOldDoc[oldDoc];
+                        }
+                    }
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    int newDoc = newDocByOldDoc[docs[i]];
+                    if (newDoc != NO_DOC) {
+                        remapped[count++] = newDoc;
+                    }
+                }
+            }
+            Arrays.sort(remapped, 0, count);
+            docs = Arrays.copyOf(remapped, count);
+            bits = null;
+            size = count;
+            if (size >= MIN_DENSE_SIZE && size >= docCount / DENSE_RATIO) {
+                toBits(docCount);
+            }
+            return count;
+        }
+
+        private void toBits(int docCount) {
+            bits = new long[(docCount >> 6) + 1];
+            for (int i = 0; i < size; i++) {
+                bits[docs[i] >> 6] |= 1L << docs[i];
+            }
+            docs = null;
+        }
+    }
+
+    /**
+     * 검색 결과(상품 ID) 수집
+     */
+    private static class Results {
+
+        private final int maxResults;
+        private long[] itemIds = new long[16];
+        private int size;
+
+        Results(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        boolean add(long itemId) {
+            if (size == maxResults) {
+                return false;
+            }
+            if (size == itemIds.length) {
+                itemIds = Arrays.copyOf(itemIds, size << 1);
+            }
+            itemIds[size++] = itemId;
+            return true;
+        }
+
+        /**
+         * 문서 번호 순서로 모은 상품 ID 를 내림차순으로 바꾼다.
+         * 문서 번호 순서가 상품 ID 순서와 같으면 뒤집기만 한다.
+         */
+        long[] toDescendingArray(boolean sortedByItemId) {
+            long[] result = Arrays.copyOf(itemIds, size);
+            if (!sortedByItemId) {
+                Arrays.sort(result);
+            }
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                long tmp = result[i];
+                result[i] = result[j];
+                result[j] = tmp;
+            }
+            return result;
+        }
+    }
+}
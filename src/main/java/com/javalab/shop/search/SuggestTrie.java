@@ -0,0 +1,475 @@
+package com.javalab.shop.search;
+
+import com.javalab.shop.dto.ItemSuggestDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 상품명 자동완성용 압축 접두사 트리(radix trie)
+ * - 상품명을 자모로 분해한 문자열을 키로 저장한다. 상품명 전체와 각 단어의 시작 위치부터의 문자열을 모두 키로 넣으므로
+ *   "러닝" 을 입력해도 "나이키 러닝화" 가 제안된다. 자모 단위이므로 입력 중인 음절("러닣")도 접두사로 찾는다.
+ * - 자식이 하나뿐인 노드는 합쳐서 간선에 여러 글자(label)를 저장한다(압축).
+ * - 노드마다 하위 트리에서 판매량이 가장 많은 상품 topSize 개(top)를 미리 계산해 두므로
+ *   제안 조회는 접두사 길이만큼 노드를 따라 내려간 뒤 그 노드의 top 을 읽기만 하면 된다.
+ * - 상품 추가/삭제 시에는 키 경로에 있는 노드의 top 만 다시 계산한다.
+ *   초기 적재는 top 계산 없이 모두 넣은 뒤 build() 에서 한 번에 계산한다.
+ * - 읽기(제안)는 동시에, 쓰기(추가/삭제)는 한 번에 하나씩 실행된다.
+ */
+public class SuggestTrie {
+
+    private static final int NO_SLOT = -1;
+    private static final int[] NO_SLOTS = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final int topSize;
+    private final Node root = new Node(new char[0]);
+
+    // 상품별 정보는 슬롯 번호로 관리한다. 트리에는 슬롯 번호(int)만 저장한다.
+    private final LongIntHashMap slotByItemId;
+    private long[] itemIds;
+    private String[] itemNms;
+    private int[] sales;
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SuggestTrie(int topSize, int expectedSize) {
+        this.topSize = topSize;
+        this.slotByItemId = new LongIntHashMap(expectedSize);
+        int capacity = Math.max(16, expectedSize);
+        this.itemIds = new long[capacity];
+        this.itemNms = new String[capacity];
+        this.sales = new int[capacity];
+    }
+
+    /**
+     * 초기 적재용 상품 추가 - top 은 build() 에서 계산한다.
+     */
+    public void add(long itemId, String itemNm, int salesCount) {
+        lock.writeLock().lock();
+        try {
+            insertItem(itemId, itemNm, salesCount, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 초기 적재 후 모든 노드의 top 계산
+     */
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            buildTop(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 상품 추가(이미 있으면 교체)
+     * @param itemId
+     * @param itemNm
+     * @param salesCount : 판매량, 제안 순서를 정한다.
+     */
+    public void put(long itemId, String itemNm, int salesCount) {
+        lock.writeLock().lock();
+        try {
+            removeItem(itemId);
+            insertItem(itemId, itemNm, salesCount, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 상품 삭제
+     */
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeItem(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 판매량 조회 - 상품을 다시 넣을 때 기존 판매량을 유지하기 위해 사용
+     * @return 판매량, 없는 상품이면 0
+     */
+    public int getSales(long itemId) {
+        lock.readLock().lock();
+        try {
+            int slot = slotByItemId.get(itemId, NO_SLOT);
+            return slot == NO_SLOT ? 0 : sales[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 자동완성 제안
+     * @param prefix : 입력한 검색어
+     * @param limit : 최대 제안 수(topSize 이하)
+     * @return 판매량이 많은 순서의 상품, 같은 상품명은 한 번만
+     */
+    public List<ItemSuggestDto> suggest(String prefix, int limit) {
+        char[] key = HangulTokenizer.jamo(prefix.trim()).toCharArray();
+        List<ItemSuggestDto> suggestions = new ArrayList<>();
+        if (key.length == 0) {
+            return suggestions;
+        }
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return suggestions;
+            }
+            Set<String> itemNmSet = new HashSet<>();
+            for (int slot : node.top) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                if (itemNmSet.add(itemNms[slot])) {
+                    suggestions.add(new ItemSuggestDto(itemIds[slot], itemNms[slot]));
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByItemId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== 상품(슬롯) 관리 =====
+
+    private void insertItem(long itemId, String itemNm, int salesCount, boolean updateTop) {
+        int slot = freeSlotCount > 0 ? freeSlots[--freeSlotCount] : slotCount++;
+        if (slot == itemIds.length) {
+            int capacity = slot << 1;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            itemNms = Arrays.copyOf(itemNms, capacity);
+            sales = Arrays.copyOf(sales, capacity);
+        }
+        itemIds[slot] = itemId;
+        itemNms[slot] = itemNm;
+        sales[slot] = salesCount;
+        slotByItemId.put(itemId, slot, NO_SLOT);
+        for (char[] key : keys(itemNm)) {
+            insert(key, slot, updateTop);
+        }
+    }
+
+    private void removeItem(long itemId) {
+        int slot = slotByItemId.remove(itemId, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return;
+        }
+        for (char[] key : keys(itemNms[slot])) {
+            delete(key, slot);
+        }
+        itemNms[slot] = null;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount << 1);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    /**
+     * 상품명의 키 목록 - 상품명 전체와 공백 뒤에서 시작하는 각 단어부터의 문자열(자모 분해)
+     */
+    private static List<char[]> keys(String itemNm) {
+        String jamo = HangulTokenizer.jamo(itemNm == null ? "" : itemNm.trim());
+        List<char[]> keys = new ArrayList<>();
+        for (int i = 0; i < jamo.length(); i++) {
+            if ((i == 0 || jamo.charAt(i - 1) == ' ') && jamo.charAt(i) != ' ') {
+                keys.add(jamo.substring(i).toCharArray());
+            }
+        }
+        return keys;
+    }
+
+    // ===== 트리 =====
+
+    /**
+     * 접두사로 시작하는 키를 모두 포함하는 가장 위쪽 노드
+     */
+    private Node find(char[] key) {
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length) {
+            Node child = node.child(key[depth]);
+            if (child == null) {
+                return null;
+            }
+            int matched = child.match(key, depth);
+            depth += matched;
+            if (matched < child.label.length && depth < key.length) {
+                return null;    // 간선 중간에서 글자가 다름
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private void insert(char[] key, int slot, boolean updateTop) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int depth = 0;
+        while (depth < key.length) {
+            Node child = node.child(key[depth]);
+            if (child == null) {
+                // 1. 같은 글자로 시작하는 간선이 없으면 남은 키 전체를 간선으로 하는 새 노드
+                child = new Node(Arrays.copyOfRange(key, depth, key.length));
+                node.addChild(child);
+                node = child;
+                depth = key.length;
+            } else {
+                int matched = child.match(key, depth);
+                if (matched < child.label.length) {
+                    // 2. 간선 중간에서 갈라지면 간선을 나눈다.
+                    child = node.split(child, matched);
+                }
+                node = child;
+                depth += matched;
+            }
+            path.add(node);
+        }
+        addSlot(node, slot);
+        if (updateTop) {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                computeTop(path.get(i));
+            }
+        }
+    }
+
+    private void delete(char[] key, int slot) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int depth = 0;
+        while (depth < key.length) {
+            node = node.child(key[depth]);
+            if (node == null || node.match(key, depth) < node.label.length) {
+                return;
+            }
+            depth += node.label.length;
+            path.add(node);
+        }
+        node.removeSlot(slot);
+
+        // 빈 노드는 떼어 내고, 자식이 하나만 남은 노드는 자식과 합친다.
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.slots.length == 0 && current.children.length == 0) {
+                parent.removeChild(current);
+            } else if (current.slots.length == 0 && current.children.length == 1) {
+                parent.replaceChild(current, current.mergeWithOnlyChild());
+            } else {
+                computeTop(current);
+            }
+        }
+        computeTop(root);
+    }
+
+    /**
+     * 노드에서 끝나는 상품 목록(slots)은 순위대로 정렬해 둔다.
+     */
+    private void addSlot(Node node, int slot) {
+        int[] slots = node.slots;
+        int index = slots.length;
+        while (index > 0 && rankBefore(slot, slots[index - 1])) {
+            index--;
+        }
+        int[] newSlots = new int[slots.length + 1];
+        System.arraycopy(slots, 0, newSlots, 0, index);
+        newSlots[index] = slot;
+        System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+        node.slots = newSlots;
+    }
+
+    private void buildTop(Node node) {
+        for (Node child : node.children) {
+            buildTop(child);
+        }
+        computeTop(node);
+    }
+
+    /**
+     * 노드의 top = 자신에서 끝나는 상품 + 자식들의 top 중 판매량 상위 topSize 개(중복 제외)
+     * - 각 목록은 이미 순위대로 정렬되어 있으므로 목록의 맨 앞끼리만 비교해서 topSize 개를 고른다(k-way merge).
+     * - 한 상품이 여러 키(단어)로 들어가므로 서로 다른 자식에 같은 상품이 있을 수 있다.
+     */
+    private void computeTop(Node node) {
+        if (node.children.length == 0) {
+            node.top = node.slots.length <= topSize ? node.slots : Arrays.copyOf(node.slots, topSize);
+            return;
+        }
+        int lists = node.children.length + 1;
+        int[] positions = new int[lists];
+        int[] top = new int[topSize];
+        int size = 0;
+        while (size < topSize) {
+            int best = NO_SLOT;
+            int bestList = -1;
+            for (int list = 0; list < lists; list++) {
+                int[] ranked = list == 0 ? node.slots : node.children[list - 1].top;
+                if (positions[list] < ranked.length && (best == NO_SLOT || rankBefore(ranked[positions[list]], best))) {
+                    best = ranked[positions[list]];
+                    bestList = list;
+                }
+            }
+            if (best == NO_SLOT) {
+                break;
+            }
+            positions[bestList]++;
+            if (!contains(top, size, best)) {
+                top[size++] = best;
+            }
+        }
+        node.top = size == topSize ? top : Arrays.copyOf(top, size);
+    }
+
+    /**
+     * 순위 비교 - 판매량이 많은 상품, 같으면 최근 상품(상품 ID가 큰 상품)이 앞선다.
+     */
+    private boolean rankBefore(int slot, int other) {
+        if (sales[slot] != sales[other]) {
+            return sales[slot] > sales[other];
+        }
+        return itemIds[slot] > itemIds[other];
+    }
+
+    private static boolean contains(int[] slots, int size, int slot) {
+        for (int i = 0; i < size; i++) {
+            if (slots[i] == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 트리 노드
+     */
+    private static class Node {
+
+        private char[] label;                   // 부모에서 이 노드로 오는 간선의 글자들
+        private Node[] children = NO_CHILDREN;  // label 첫 글자 오름차순
+        private int[] slots = NO_SLOTS;         // 키가 이 노드에서 끝나는 상품, 순위 순서
+        private int[] top = NO_SLOTS;           // 하위 트리의 판매량 상위 상품
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int index = indexOf(c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        /**
+         * @return key[from] 부터 label 과 일치하는 글자 수
+         */
+        int match(char[] key, int from) {
+            int matched = 0;
+            while (matched < label.length && from + matched < key.length && label[matched] == key[from + matched]) {
+                matched++;
+            }
+            return matched;
+        }
+
+        void addChild(Node child) {
+            int index = -indexOf(child.label[0]) - 1;
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newChildren[index] = child;
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            children = newChildren;
+        }
+
+        void removeChild(Node child) {
+            int index = indexOf(child.label[0]);
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        void replaceChild(Node child, Node replacement) {
+            children[indexOf(child.label[0])] = replacement;
+        }
+
+        /**
+         * 자식 간선을 at 위치에서 둘로 나눈다. (부모) -label[0, at)-> (새 노드) -label[at, )-> (자식)
+         * @return 새 노드
+         */
+        Node split(Node child, int at) {
+            int index = indexOf(child.label[0]);
+            Node middle = new Node(Arrays.copyOfRange(child.label, 0, at));
+            child.label = Arrays.copyOfRange(child.label, at, child.label.length);
+            middle.children = new Node[]{child};
+            middle.top = child.top;
+            children[index] = middle;
+            return middle;
+        }
+
+        /**
+         * 상품이 없고 자식이 하나뿐인 노드를 자식과 합친 노드
+         */
+        Node mergeWithOnlyChild() {
+            Node child = children[0];
+            char[] merged = Arrays.copyOf(label, label.length + child.label.length);
+            System.arraycopy(child.label, 0, merged, label.length, child.label.length);
+            child.label = merged;
+            return child;
+        }
+
+        void removeSlot(int slot) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] == slot) {
+                    int[] newSlots = new int[slots.length - 1];
+                    System.arraycopy(slots, 0, newSlots, 0, i);
+                    System.arraycopy(slots, i + 1, newSlots, i, slots.length - i - 1);
+                    slots = newSlots.length == 0 ? NO_SLOTS : newSlots;
+                    return;
+                }
+            }
+        }
+
+        private int indexOf(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = children[mid].label[0];
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
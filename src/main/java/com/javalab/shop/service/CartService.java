@@ -1,5 +1,6 @@
 package com.javalab.shop.service;
 
+import com.javalab.shop.advice.RetryOnConflict;
 import com.javalab.shop.dto.*;
 import com.javalab.shop.entity.Cart;
 import com.javalab.shop.entity.CartItem;
@@ -16,7 +17,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 장바구니 서비스 클래스
@@ -147,6 +150,7 @@ public class CartService {
      * 장바구니 상품 주문
      * - 컨트롤러 레이어에서 전달받은 장바구니 상품 리스트를 이용해서 주문을 생성한다.
      * - 주문 생성 후 장바구니 상품을 삭제한다.
+     * - 이 메소드의 트랜잭션 안에서 OrderService.orders()가 실행되므로 충돌 재시도는 여기서 한다.
      * @return
      */
 //    public Long orderCartItem(List<CartOrderDto> cartOrderDtoList, String email){
@@ -177,16 +181,25 @@ public class CartService {
 //
 //        return orderId;
 //    }
+    @RetryOnConflict
     public Long orderCartItem(List<CartOrderItemDto> cartOrderItems, String email) {
-        // 1. 주문할 상품 리스트를 담을 리스트 생성
-        List<OrderDto> orderDtoList = new ArrayList<>();
+        // 1. 주문할 장바구니 상품을 한 번의 쿼리로 조회
+        List<Long> cartItemIds = cartOrderItems.stream()
+                .map(CartOrderItemDto::getCartItemId)
+                .toList();
+        Map<Long, CartItem> cartItemMap = new HashMap<>();
+        for (CartItem cartItem : cartItemRepository.findAllById(cartItemIds)) {
+            cartItemMap.put(cartItem.getId(), cartItem);
+        }
 
         // 2. CartOrderRequestDto 내부의 cartOrderItems를 순회하며 OrderDto 리스트 생성
+        List<OrderDto> orderDtoList = new ArrayList<>();
         for (CartOrderItemDto cartOrderItemDto : cartOrderItems) {
             // 2.1. 장바구니 상품 조회
-            CartItem cartItem = cartItemRepository
-                    .findById(cartOrderItemDto.getCartItemId())
-                    .orElseThrow(EntityNotFoundException::new);
+            CartItem cartItem = cartItemMap.get(cartOrderItemDto.getCartItemId());
+            if (cartItem == null) {
+                throw new EntityNotFoundException();
+            }
 
             // 2.2. OrderDto 객체 생성 및 값 설정
             OrderDto orderDto = new OrderDto();
@@ -196,16 +209,11 @@ public class CartService {
             orderDtoList.add(orderDto);
         }
 
-        // 3. 주문 서비스 호출하여 주문 생성
+        // 3. 주문 서비스 호출하여 주문 생성(상품은 한 번의 쿼리로 id 오름차순 lock)
         Long orderId = orderService.orders(orderDtoList, email);
 
-        // 4. 주문 완료 후 장바구니 항목 삭제
-        for (CartOrderItemDto cartOrderItemDto : cartOrderItems) {
-            CartItem cartItem = cartItemRepository
-                    .findById(cartOrderItemDto.getCartItemId())
-                    .orElseThrow(EntityNotFoundException::new);
-            cartItemRepository.delete(cartItem);
-        }
+        // 4. 주문 완료 후 장바구니 항목을 한 번의 DELETE 로 삭제
+        cartItemRepository.deleteAllInBatch(cartItemMap.values());
 
         // 5. 주문 ID 반환
         return orderId;
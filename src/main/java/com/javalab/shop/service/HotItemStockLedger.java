@@ -0,0 +1,378 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.repository.ItemRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 핫 아이템(플래시 세일 상품) 재고 장부
+ * - 주문이 몰리는 상품의 재고를 DB 대신 메모리에서 차감한다.
+ *   모든 주문이 item 테이블의 같은 행을 UPDATE 하면 그 행의 lock 을 기다리느라 주문이 줄을 서게 된다.
+ * - 상품마다 CPU 코어 수만큼 나눈 카운터(stripe)를 두고 CAS 로 차감하므로 lock 이 없다.
+ * - 차감한 수량은 모아두었다가 주기적으로(그리고 종료 시) 한 트랜잭션으로 item 테이블에 반영한다.
+ *   아직 반영하지 않은 수량은 마지막으로 반영한 재고(flushedStock)와 스트라이프 합계의 차이로 구한다.
+ * - 애플리케이션 시작 시 DB의 재고로 장부를 다시 만든다.
+ * - shop.stock.hot-item.enabled=true 일 때만 동작하며, 대상 상품은 shop.stock.hot-item.ids 로 지정한다.
+ */
+@Component
+@Log4j2
+public class HotItemStockLedger {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final List<Long> hotItemIds;
+
+    // 상품 ID -> 스트라이프 재고
+    private final Map<Long, StripedStock> stocks = new ConcurrentHashMap<>();
+
+    public HotItemStockLedger(ItemRepository itemRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${shop.stock.hot-item.enabled:false}") boolean enabled,
+                              @Value("${shop.stock.hot-item.ids:}") List<Long> hotItemIds) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.hotItemIds = hotItemIds;
+    }
+
+    /**
+     * 애플리케이션 시작 시 설정된 핫 아이템의 재고를 DB에서 읽어 장부를 만든다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        for (Long itemId : hotItemIds) {
+            markHot(itemId);
+        }
+        log.info("핫 아이템 재고 장부 로딩 완료 : {}", stocks.keySet());
+    }
+
+    /**
+     * 상품을 핫 아이템으로 등록한다.
+     * - 현재 DB 재고를 스트라이프에 나눠 담는다.
+     * @param itemId
+     */
+    public void markHot(Long itemId) {
+        if (!enabled) {
+            return;
+        }
+        itemRepository.findById(itemId).ifPresent(item ->
+                stocks.put(itemId, new StripedStock(item.getStockNumber())));
+    }
+
+    public boolean isHotItem(Long itemId) {
+        return enabled && stocks.containsKey(itemId);
+    }
+
+    /**
+     * 재고 차감
+     * - 재고가 부족하면 false 를 반환한다.
+     * - 트랜잭션 안에서 호출되면 롤백 시 차감한 재고를 되돌린다.
+     * @param itemId
+     * @param count
+     */
+    public boolean reserve(Long itemId, int count) {
+        StripedStock stock = stocks.get(itemId);
+        if (stock == null) {
+            return false;
+        }
+        // 관리자 재고 수정(reset)으로 교체된 장부면 새 장부에서 다시 차감한다.
+        while (!stock.reserve(count)) {
+            if (stock.successor == null) {
+                return false;
+            }
+            stock = stock.successor;
+        }
+        StripedStock reserved = stock;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // 차감한 장부에 되돌린다. 그 사이 교체되었으면 새 장부로 넘어간다.
+                    if (status != STATUS_COMMITTED) {
+                        reserved.release(count);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * 재고 복구(주문 취소)
+     * - 트랜잭션 안에서 호출되면 커밋된 후에 복구한다.
+     * @param itemId
+     * @param count
+     */
+    public void release(Long itemId, int count) {
+        StripedStock stock = stocks.get(itemId);
+        if (stock == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stock.release(count);
+                }
+            });
+        } else {
+            stock.release(count);
+        }
+    }
+
+    /**
+     * 관리자가 상품의 재고를 직접 수정한 경우 장부를 새 재고로 맞춘다.
+     * - 관리자가 저장한 재고가 기준이 되지만 아직 DB에 반영하지 않은 차감 수량(주문)은 새 장부로 넘겨서
+     *   새 장부의 재고에서 빼고 다음 flush 에서 DB에도 반영한다.
+     * - 이전 장부는 닫아서(retire) 더 이상 차감할 수 없게 하고, 닫힌 뒤에 들어온 복구(롤백, 주문 취소)는 새 장부로 넘긴다.
+     * - 트랜잭션 안에서 호출되면 커밋된 후에 맞춘다(롤백되면 장부를 그대로 둔다).
+     * @param itemId
+     * @param stockNumber
+     */
+    public void reset(Long itemId, int stockNumber) {
+        if (!isHotItem(itemId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 관리자가 조회한 뒤에 flush 가 커밋되면 버전 충돌(@Version)로 관리자 수정이 실패하므로
+            // 지금 장부가 DB에 반영한 재고가 관리자 재고가 덮어쓰는 값이다. 커밋 후 교체 전에 끝난 flush 의 변경분도
+            // 새 재고에서 빼야 하므로 지금 값을 기준으로 넘겨줄 차감 수량을 구한다.
+            // (flush 가 DB 반영 후 아직 이 값을 옮기지 않았어도 그 변경분은 관리자 재고에서 한 번 더 빠지므로 장부와 DB는 일치한다.)
+            StripedStock previous = stocks.get(itemId);
+            long flushedStock = previous.flushedStock;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replace(itemId, stockNumber, previous, flushedStock);
+                }
+            });
+        } else {
+            replace(itemId, stockNumber, null, 0);
+        }
+    }
+
+    /**
+     * 장부 교체
+     * - flush 가 변경분을 DB에 반영하는 동안에는 교체하지 않는다(synchronized).
+     *   반영 중인 변경분이 새 장부로도 넘어가서 두 번 반영되지 않게 하기 위해서이다.
+     * @param previous : 관리자 수정 시점의 장부(null 이면 지금 장부)
+     * @param flushedStock : 그 시점에 장부가 DB에 반영한 재고
+     */
+    private synchronized void replace(Long itemId, int stockNumber, StripedStock previous, long flushedStock) {
+        StripedStock current = stocks.get(itemId);
+        if (current == null) {
+            return;
+        }
+        if (current != previous) {
+            // 트랜잭션 밖에서 호출되었거나 그 사이 다른 수정으로 교체되었으면 지금 장부를 기준으로 한다.
+            flushedStock = current.flushedStock;
+        }
+        StripedStock successor = new StripedStock(stockNumber);
+        stocks.put(itemId, successor);
+        successor.carryPendingDelta(current.retire(successor, flushedStock));
+    }
+
+    public int getStock(Long itemId) {
+        StripedStock stock = stocks.get(itemId);
+        return stock == null ? 0 : stock.sum();
+    }
+
+    /**
+     * 장부에 쌓인 차감 수량을 item 테이블에 반영한다.
+     * - 모든 핫 아이템의 변경분을 한 트랜잭션에서 처리한다.
+     * - 반영에 성공한 뒤에만 반영한 재고(flushedStock)를 옮기므로 실패하면 다음 주기에 같은 변경분을 다시 반영한다.
+     * - 장부 교체(replace)와 동시에 실행하지 않는다(synchronized).
+     */
+    @Scheduled(fixedDelayString = "${shop.stock.hot-item.flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (stocks.isEmpty()) {
+            return;
+        }
+        Map<StripedStock, Long> deltas = new HashMap<>();
+        Map<Long, Long> itemDeltas = new HashMap<>();
+        stocks.forEach((itemId, stock) -> {
+            long delta = stock.pendingDelta();
+            if (delta != 0) {
+                deltas.put(stock, delta);
+                itemDeltas.put(itemId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    itemDeltas.forEach((itemId, delta) -> itemRepository.subtractStock(itemId, delta.intValue())));
+            deltas.forEach(StripedStock::markFlushed);
+        } catch (RuntimeException e) {
+            log.warn("핫 아이템 재고 DB 반영 실패, 다음 주기에 재시도 : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 종료 시 남은 차감 수량을 DB에 반영한다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 스트라이프 재고
+     * - 재고를 CPU 코어 수만큼의 카운터로 나누어 보관한다.
+     * - 스레드마다 자기 스트라이프에서 먼저 차감하고, 부족하면 다른 스트라이프를 차례로 시도한다.
+     * - 카운터 사이에 PADDING 만큼 간격을 두어 서로 다른 코어가 같은 캐시 라인을 두고 경쟁하지 않게 한다.
+     * - 아직 DB에 반영하지 않은 차감 수량은 flushedStock - 스트라이프 합계이다.
+     *   차감 도중(여러 스트라이프에서 모으는 중) 합계를 읽으면 잠시 어긋날 수 있지만 다음 flush 에서 맞춰진다.
+     * - 교체된 장부는 모든 스트라이프를 RETIRED 로 바꿔서 닫는다. 닫힌 스트라이프에서는 차감이 실패하고,
+     *   되돌리는 수량은 successor(새 장부)로 넘어간다. 스트라이프 값을 CAS 로 바꾸므로 닫기 전에 끝난 차감/복구는
+     *   retire() 가 읽은 값에 모두 들어 있고, 닫은 뒤의 차감/복구는 이전 장부에 남지 않는다.
+     */
+    static final class StripedStock {
+
+        private static final int PADDING = 16; // int 16개 = 64byte(캐시 라인 크기)
+        private static final int RETIRED = Integer.MIN_VALUE; // 닫힌 스트라이프(재고는 음수가 되지 않는다)
+
+        private final int stripeCount;
+        private final AtomicIntegerArray stripes;
+        // 마지막으로 DB에 반영된 재고(HotItemStockLedger 의 lock 안에서만 바꾼다)
+        private volatile long flushedStock;
+        // 교체된 경우 새 장부(retire 에서 스트라이프를 닫기 전에 설정한다)
+        volatile StripedStock successor;
+
+        StripedStock(int stockNumber) {
+            this.flushedStock = stockNumber;
+            this.stripeCount = Runtime.getRuntime().availableProcessors();
+            this.stripes = new AtomicIntegerArray(stripeCount * PADDING);
+            for (int i = 0; i < stripeCount; i++) {
+                // 나머지는 앞쪽 스트라이프부터 하나씩 더 담는다.
+                int share = stockNumber / stripeCount + (i < stockNumber % stripeCount ? 1 : 0);
+                stripes.set(i * PADDING, share);
+            }
+        }
+
+        private int homeStripe() {
+            return (int) (Thread.currentThread().getId() % stripeCount);
+        }
+
+        boolean reserve(int count) {
+            int home = homeStripe();
+            // 1. 한 스트라이프에서 전부 차감할 수 있으면 CAS 한 번으로 끝난다.
+            for (int i = 0; i < stripeCount; i++) {
+                int index = ((home + i) % stripeCount) * PADDING;
+                int current;
+                while ((current = stripes.get(index)) >= count) {
+                    if (stripes.compareAndSet(index, current, current - count)) {
+                        return true;
+                    }
+                }
+            }
+            // 2. 남은 재고가 여러 스트라이프에 흩어져 있으면 조금씩 모아서 차감한다.
+            int remaining = count;
+            for (int i = 0; i < stripeCount && remaining > 0; i++) {
+                int index = ((home + i) % stripeCount) * PADDING;
+                int current;
+                while ((current = stripes.get(index)) > 0) {
+                    int taken = Math.min(current, remaining);
+                    if (stripes.compareAndSet(index, current, current - taken)) {
+                        remaining -= taken;
+                        break;
+                    }
+                }
+            }
+            if (remaining > 0) {
+                // 전체 재고가 부족하면(또는 장부가 닫혔으면) 가져온 만큼 되돌려 놓는다.
+                if (remaining < count) {
+                    release(count - remaining);
+                }
+                return false;
+            }
+            return true;
+        }
+
+        void release(int count) {
+            int index = homeStripe() * PADDING;
+            int current;
+            while ((current = stripes.get(index)) != RETIRED) {
+                if (stripes.compareAndSet(index, current, current + count)) {
+                    return;
+                }
+            }
+            successor.release(count);
+        }
+
+        /**
+         * 장부를 닫고 flushedStock 이후에 차감된 수량을 반환한다.
+         */
+        long retire(StripedStock successor, long flushedStock) {
+            this.successor = successor;
+            long sum = 0;
+            for (int i = 0; i < stripeCount; i++) {
+                sum += stripes.getAndSet(i * PADDING, RETIRED);
+            }
+            return flushedStock - sum;
+        }
+
+        /**
+         * 이전 장부의 반영하지 않은 차감 수량을 넘겨받는다.
+         * - 재고에서 빼고, 반영한 재고(flushedStock)는 관리자가 저장한 재고로 두어 다음 flush 에서 DB에 반영한다.
+         * - 이전 장부가 닫힌 뒤에는 이 장부에서 차감이 시작될 수 있으므로 스트라이프는 CAS 로 바꾼다.
+         */
+        void carryPendingDelta(long pendingDelta) {
+            long taken = 0;
+            if (pendingDelta > 0) {
+                // 재고보다 많으면 0까지만 뺀다.
+                for (int i = 0; i < stripeCount && taken < pendingDelta; i++) {
+                    int index = i * PADDING;
+                    int current;
+                    while ((current = stripes.get(index)) > 0) {
+                        int part = (int) Math.min(current, pendingDelta - taken);
+                        if (stripes.compareAndSet(index, current, current - part)) {
+                            taken += part;
+                            break;
+                        }
+                    }
+                }
+            } else if (pendingDelta < 0) {
+                release((int) -pendingDelta);
+                taken = pendingDelta;
+            }
+            // flushedStock - (스트라이프 합계) = pendingDelta 가 되도록 맞춘다.
+            flushedStock = flushedStock - taken + pendingDelta;
+        }
+
+        long pendingDelta() {
+            return flushedStock - sum();
+        }
+
+        void markFlushed(long delta) {
+            flushedStock -= delta;
+        }
+
+        int sum() {
+            int sum = 0;
+            for (int i = 0; i < stripeCount; i++) {
+                sum += Math.max(0, stripes.get(i * PADDING));   // 닫힌 스트라이프(RETIRED)는 0
+            }
+            return sum;
+        }
+    }
+}
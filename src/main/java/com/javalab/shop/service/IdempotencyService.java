@@ -0,0 +1,109 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.dto.IdempotentResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * 멱등키(Idempotency-Key) 처리 서비스
+ * - 모바일 앱 등은 응답 시간이 초과되면 같은 주문을 다시 보낸다.
+ *   요청 헤더에 같은 멱등키를 담아 보내면 처음 실행한 주문의 응답을 그대로 돌려주고 주문은 다시 실행하지 않는다.
+ * - 키는 회원별로 구분한다(회원 이메일 + 키).
+ * - 같은 키의 첫 요청이 아직 처리 중이면 409(CONFLICT)를 반환한다.
+ * - 요청 내용의 지문(fingerprint)을 함께 저장하고, 같은 키로 내용이 다른 요청을 보내면 422(UNPROCESSABLE_ENTITY)를 반환한다.
+ * - 성공 응답과 다시 보내도 결과가 같은 실패 응답만 저장하고, 서버 오류 등 일시적인 실패는 저장하지 않는다.
+ * - 헤더가 없으면 지금처럼 매번 주문을 실행한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyStore idempotencyStore;
+
+    /**
+     * 멱등키로 요청 실행
+     * @param email : 로그인한 회원 이메일
+     * @param idempotencyKey : 요청 헤더의 멱등키(없으면 null)
+     * @param fingerprint : 요청 지문(fingerprint() 로 만든 요청 내용의 해시)
+     * @param action : 실제 주문을 실행하고 응답을 만드는 작업
+     * @return 처음 실행한 응답 또는 저장된 응답
+     */
+    public ResponseEntity<?> execute(String email, String idempotencyKey, String fingerprint,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (StringUtils.isEmpty(idempotencyKey)) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return new ResponseEntity<String>("멱등키는 " + MAX_KEY_LENGTH + "자 이하로 입력해주세요.", HttpStatus.BAD_REQUEST);
+        }
+
+        String key = email + ":" + idempotencyKey;
+        // 1. 이미 사용한 키이면 저장된 응답을 반환(같은 키로 다른 요청을 보냈으면 422)
+        if (!idempotencyStore.tryAcquire(key)) {
+            return idempotencyStore.find(key)
+                    .<ResponseEntity<?>>map(stored -> stored.matches(fingerprint)
+                            ? stored.toResponseEntity()
+                            : new ResponseEntity<String>("이미 다른 주문 요청에 사용한 멱등키입니다.", HttpStatus.UNPROCESSABLE_ENTITY))
+                    .orElseGet(() -> new ResponseEntity<String>("같은 주문 요청을 처리하고 있습니다.", HttpStatus.CONFLICT));
+        }
+
+        // 2. 처음 사용하는 키이면 주문을 실행하고 응답 저장
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // 예상하지 못한 오류는 저장하지 않고 같은 키로 다시 시도할 수 있게 한다.
+            idempotencyStore.release(key);
+            throw e;
+        }
+        if (isReplayable(response.getStatusCode())) {
+            idempotencyStore.complete(key, IdempotentResponse.of(response, fingerprint));
+        } else {
+            idempotencyStore.release(key);
+        }
+        return response;
+    }
+
+    /**
+     * 요청 지문 생성
+     * - 요청 내용을 이루는 값들을 순서대로 이어 붙인 문자열의 SHA-256 해시(16진수 64자)
+     * @param values : 요청 내용(상품 ID, 수량 등)
+     */
+    public static String fingerprint(Object... values) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(Arrays.deepToString(values).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 저장해서 그대로 돌려줄 응답인지 확인
+     * - 성공(2xx)과 다시 보내도 결과가 같은 실패(재고 부족 등 4xx)만 저장한다.
+     * - 서버 오류(5xx)와 시간이 지나면 결과가 달라질 수 있는 408, 409, 429 는 저장하지 않고 같은 키로 다시 시도할 수 있게 한다.
+     */
+    private boolean isReplayable(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return true;
+        }
+        return status.is4xxClientError()
+                && status.value() != HttpStatus.REQUEST_TIMEOUT.value()
+                && status.value() != HttpStatus.CONFLICT.value()
+                && status.value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+}
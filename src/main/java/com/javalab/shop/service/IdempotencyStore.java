@@ -0,0 +1,43 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.dto.IdempotentResponse;
+
+import java.util.Optional;
+
+/**
+ * 멱등키 저장소
+ * - 키별로 처음 실행한 요청의 응답을 일정 시간(ttl-minutes) 동안 보관한다.
+ * - 처리 중인 키는 짧은 임대 시간(lease-seconds)만 유지한다. 처리하던 서버가 죽어도 임대 시간이 지나면 같은 키로 다시 시도할 수 있다.
+ * - shop.idempotency.store 설정으로 구현체를 고른다.
+ *   memory(기본값) : InMemoryIdempotencyStore, 서버 한 대에서만 유효한 LRU 저장소
+ *   db : JpaIdempotencyStore, 여러 서버가 idempotency_key 테이블을 함께 사용
+ */
+public interface IdempotencyStore {
+
+    /**
+     * 키를 선점한다.
+     * @param key
+     * @return 선점에 성공하면 true, 이미 다른 요청이 선점한(처리 중이거나 완료된) 키이면 false
+     */
+    boolean tryAcquire(String key);
+
+    /**
+     * 저장된 응답을 조회한다.
+     * @param key
+     * @return 완료된 요청의 응답, 처리 중이거나 없으면 Optional.empty()
+     */
+    Optional<IdempotentResponse> find(String key);
+
+    /**
+     * 선점한 키에 응답을 저장한다.
+     * @param key
+     * @param response
+     */
+    void complete(String key, IdempotentResponse response);
+
+    /**
+     * 처리 중 예상하지 못한 오류가 발생하면 선점을 풀어서 같은 키로 다시 시도할 수 있게 한다.
+     * @param key
+     */
+    void release(String key);
+}
@@ -0,0 +1,106 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.dto.IdempotentResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 메모리 멱등키 저장소(기본값)
+ * - 최대 max-entries 개의 키를 보관하고, 넘치면 가장 오래 사용하지 않은 키부터 버린다(LRU). 처리 중인 키는 버리지 않는다.
+ * - 보관 기간(ttl-minutes)이 지난 키, 임대 시간(lease-seconds)이 지난 처리 중인 키는 없는 키로 본다.
+ * - 서버 메모리에만 있으므로 서버가 여러 대이면 shop.idempotency.store=db 를 사용한다.
+ */
+@Component
+@ConditionalOnProperty(name = "shop.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final long ttlMillis;
+    private final long leaseMillis;
+    private final Map<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${shop.idempotency.max-entries:10000}") int maxEntries,
+                                    @Value("${shop.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                                    @Value("${shop.idempotency.lease-seconds:60}") long leaseSeconds) {
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.leaseMillis = leaseSeconds * 1000L;
+        // accessOrder=true : 조회할 때마다 맨 뒤로 옮겨서 맨 앞에 가장 오래 사용하지 않은 키가 남는다.
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictOldestCompleted(this);
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isExpired()) {
+            return false;
+        }
+        entries.put(key, new Entry(null, System.currentTimeMillis() + leaseMillis));
+        return true;
+    }
+
+    @Override
+    public synchronized Optional<IdempotentResponse> find(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entry.response);
+    }
+
+    @Override
+    public synchronized void complete(String key, IdempotentResponse response) {
+        entries.put(key, new Entry(response, System.currentTimeMillis() + ttlMillis));
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * 가장 오래 사용하지 않은 키 중 처리가 끝났거나 만료된 키 하나를 제거한다.
+     * - 처리 중인 키를 버리면 같은 키의 재시도가 주문을 한 번 더 실행하므로 처리 중인 키는 제거하지 않는다.
+     *   모든 키가 처리 중이면 잠시 max-entries 를 넘는다(동시에 처리 중인 요청 수만큼).
+     */
+    private static void evictOldestCompleted(Map<String, Entry> entries) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.response != null || entry.isExpired()) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+        private final IdempotentResponse response;   // null 이면 처리 중
+        private final long expiresAt;
+
+        Entry(IdempotentResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.javalab.shop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.javalab.shop.dto.ItemDetailDto;
+import com.javalab.shop.event.ItemChangedEvent;
+import com.javalab.shop.event.ItemImgChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 상품 상세 페이지 캐시
+ * - 상품 상세 페이지(/item/{itemId})는 메인 화면 다음으로 많이 호출되므로 상품별 조회 결과(ItemDetailDto)를 메모리에 보관한다.
+ * - 최대 max-size 개를 보관하고, 넘치면 Caffeine 이 사용 빈도가 낮은 상품부터 버린다.
+ * - 상품 또는 상품 이미지 변경이 커밋되면 해당 상품만 비운다.
+ *   비우는 중에 DB를 읽던 조회가 이전 값을 넣지 않도록 변경 횟수(generation)를 조회 전후로 비교한다(MainItemPageCache 와 같음).
+ * - 주문(재고 차감)은 상세 페이지에 보이는 값을 바꾸지 않으므로 비우지 않는다.
+ * - 메트릭 : cache.gets(result=hit/miss), cache.evictions, cache.load.duration(cache=itemDetail)
+ */
+@Component
+public class ItemDetailCache {
+
+    private final boolean enabled;
+    private final Cache<Long, ItemDetailDto> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemDetailCache(MeterRegistry meterRegistry,
+                           @Value("${shop.cache.item-detail.enabled:true}") boolean enabled,
+                           @Value("${shop.cache.item-detail.max-size:10000}") long maxSize) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemDetail");
+    }
+
+    /**
+     * 캐시된 상품 상세 조회, 없으면 loader 로 조회해서 보관한다.
+     * - 같은 상품을 동시에 조회하면 한 번만 loader 를 실행하고 나머지는 그 결과를 기다린다.
+     * - loader 가 null(없는 상품)을 반환하면 보관하지 않는다.
+     */
+    public ItemDetailDto get(Long itemId, Supplier<ItemDetailDto> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long startGeneration = generation.get();
+        ItemDetailDto value = cache.get(itemId, k -> loader.get());
+        if (value != null && generation.get() != startGeneration) {
+            // 조회하는 동안 상품 변경이 커밋되었으면 이전 값을 읽었을 수 있으므로 보관하지 않는다.
+            cache.asMap().remove(itemId, value);
+        }
+        return value;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(event.itemId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemImgChanged(ItemImgChangedEvent event) {
+        invalidate(event.itemId());
+    }
+
+    public void invalidate(Long itemId) {
+        generation.incrementAndGet();
+        cache.invalidate(itemId);
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+}
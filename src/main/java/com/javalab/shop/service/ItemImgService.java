@@ -1,6 +1,7 @@
 package com.javalab.shop.service;
 
 import com.javalab.shop.entity.ItemImg;
+import com.javalab.shop.event.ItemImgChangedEvent;
 import com.javalab.shop.repository.ItemImgRepository;
 import io.micrometer.common.util.StringUtils;
 import jakarta.persistence.EntityNotFoundException;
@@ -8,6 +9,7 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -24,6 +26,7 @@ public class ItemImgService {
 
     private final ItemImgRepository itemImgRepository;
     private final FileService fileService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 상품 이미지 저장
@@ -49,6 +52,11 @@ public class ItemImgService {
         //상품 이미지 정보 저장
         itemImg.updateItemImg(oriImgName, imgName, imgUrl);
         itemImgRepository.save(itemImg);
+        // 대표 이미지면 상품의 대표 이미지 경로도 바꾼다.
+        updateRepImgUrl(itemImg);
+
+        // 이미지 URL 을 들고 있는 캐시(메인 화면 상품 목록)는 커밋 후에 갱신된다.
+        eventPublisher.publishEvent(new ItemImgChangedEvent(itemImg.getItem().getId()));
     }
 
     /**
@@ -83,5 +91,21 @@ public class ItemImgService {
         // updateItemImg() 메서드는 ItemImg 엔티티의 메서드로 영속화 되어 있는 ItemImg 엔티티의 정보를 수정하게 되고
         // JPA가 변경감지하여 수정된 내용을 DB에 반영.
         itemImg.updateItemImg(oriImgName, imgName, imgUrl);
+        // 5.1 대표 이미지면 상품의 대표 이미지 경로도 바꾼다.
+        updateRepImgUrl(itemImg);
+
+        // 6. 이미지 URL 을 들고 있는 캐시(메인 화면 상품 목록)는 커밋 후에 갱신된다.
+        eventPublisher.publishEvent(new ItemImgChangedEvent(itemImg.getItem().getId()));
+    }
+
+    /**
+     * 대표 이미지 경로 반영
+     * - 메인 화면/장바구니/주문 요약은 item_img 대신 상품(item.rep_img_url)의 대표 이미지 경로를 읽으므로
+     *   대표 이미지가 저장/수정될 때 같은 트랜잭션에서 상품에도 반영한다(변경 감지로 UPDATE).
+     */
+    private void updateRepImgUrl(ItemImg itemImg) {
+        if ("Y".equals(itemImg.getRepimgYn())) {
+            itemImg.getItem().updateRepImgUrl(itemImg.getImgUrl());
+        }
     }
 }
@@ -1,23 +1,42 @@
 package com.javalab.shop.service;
 
+import com.javalab.shop.constant.SalesWindow;
+import com.javalab.shop.dto.CursorSliceDto;
+import com.javalab.shop.dto.ItemDetailDto;
 import com.javalab.shop.dto.ItemFormDto;
 import com.javalab.shop.dto.ItemImgDto;
 import com.javalab.shop.dto.ItemSearchDto;
 import com.javalab.shop.dto.MainItemDto;
 import com.javalab.shop.entity.Item;
 import com.javalab.shop.entity.ItemImg;
+import com.javalab.shop.event.ItemChangedEvent;
 import jakarta.persistence.EntityNotFoundException;
+import com.javalab.shop.ranking.BestsellerRanking;
 import com.javalab.shop.repository.ItemImgRepository;
 import com.javalab.shop.repository.ItemRepository;
+import com.javalab.shop.search.CoPurchaseIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.thymeleaf.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -28,6 +47,14 @@ public class ItemService {
     private final ItemRepository itemRepository;
     private final ItemImgService itemImgService;
     private final ItemImgRepository itemImgRepository;
+    private final HotItemStockLedger hotItemStockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MainItemPageCache mainItemPageCache;
+    private final ItemDetailCache itemDetailCache;
+    private final TransactionTemplate transactionTemplate;
+    private final BestsellerRanking bestsellerRanking;
+    private final CoPurchaseIndex coPurchaseIndex;
+    private final RecentlyViewedService recentlyViewedService;
 
     // 상품 등록
     public Long saveItem(ItemFormDto itemFormDto, List<MultipartFile> itemImgFileList) throws Exception{
@@ -54,12 +81,33 @@ public class ItemService {
             // 2.4. ItemImgService의 saveItemImg() 메소드를 통해 ItemImg 객체 저장
             itemImgService.saveItemImg(itemImg, itemImgFileList.get(i));
         }
-        return item.getId();// 3. 등록된 Item ID 반환
+        // 3. 상품 변경 이벤트 발행, 커밋된 후에 검색 색인 등에 반영된다.
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
+        return item.getId();// 4. 등록된 Item ID 반환
 
     }
 
     /**
-     * 상품 상세 조회
+     * 상품 컬럼 백필
+     * - 요약(Item.itemSummary), 대표 이미지 경로(Item.repImgUrl) 컬럼이 생기기 전에 저장된 상품의 값을 애플리케이션 시작 시 채운다.
+     * - 배치(500건)마다 트랜잭션을 나눠서 커밋하므로 중간에 실패해도 다음 시작 시 남은 상품부터 이어서 처리한다.
+     * - 검색 색인(ItemSearchIndexUpdater)이 대표 이미지 경로로 메인 화면 노출 여부를 정하므로 색인 생성보다 먼저 실행한다(@Order).
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillItemColumns() {
+        Integer updated;
+        do {
+            updated = transactionTemplate.execute(status -> itemRepository.fillMissingItemSummary(500));
+        } while (updated != null && updated > 0);
+        do {
+            updated = transactionTemplate.execute(status -> itemRepository.fillMissingRepImgUrl(500));
+        } while (updated != null && updated > 0);
+    }
+
+    /**
+     * 상품 상세 조회(관리자 상품 수정 화면)
      * - 한 개의 상품과 여러 개의 상품 이미지 정보를 조회하는 메서드
      * - 상품 ID를 전달받아 상품 상세 정보를 조회하는 메서드 상품 이미지 정보를 조회한다.
      * - 상품 정보와 상품 이미지 정보를 조합하여 상품 상세 정보를 반환한다.
@@ -83,6 +131,7 @@ public class ItemService {
         }
 
         // 3. 상품 번호로 해당 상품을 조회한다. 이렇게 조회하면 영속성 컨텍스트에 해당 엔티티가 영속화된다.
+        //    상품 상세 설명(Lob)은 지연 로딩이므로 아래에서 ItemFormDto로 변환할 때 따로 조회된다.
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(EntityNotFoundException::new);
 
@@ -97,6 +146,24 @@ public class ItemService {
         return itemFormDto;
     }
 
+    /**
+     * 상품 상세 페이지 조회
+     * - 상품과 이미지를 한 번의 쿼리로 조회하고(ItemRepositoryCustom.getItemDetail()) 결과를 캐시(ItemDetailCache)에 보관한다.
+     *   상품/상품 이미지가 수정되면 커밋 후에 해당 상품만 비운다.
+     * - 캐시에서 꺼낼 때 트랜잭션(커넥션)을 시작하지 않도록 SUPPORTS 를 사용한다.
+     * - 수정 화면은 재고 수량 등 모든 값이 필요하므로 getItemDetail() 을 사용한다.
+     * @param itemId
+     * @throws EntityNotFoundException 없는 상품
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ItemDetailDto getItemDetailPage(Long itemId) {
+        ItemDetailDto itemDetailDto = itemDetailCache.get(itemId, () -> itemRepository.getItemDetail(itemId));
+        if (itemDetailDto == null) {
+            throw new EntityNotFoundException();
+        }
+        return itemDetailDto;
+    }
+
     /**
      * 상품 수정
      * @param itemFormDto
@@ -110,6 +177,8 @@ public class ItemService {
 
         // 2. 영속화 되어 있는 상품의 정보를 수정한다. - 변경감지(dirty checking) - 자동감지 후 자동 저장됨.
         item.updateItem(itemFormDto);
+        // 2.1. 핫 아이템이면 재고 장부도 관리자가 입력한 재고로 맞춘다(커밋된 후에 반영).
+        hotItemStockLedger.reset(item.getId(), item.getStockNumber());
 
         // 3. 화면에서 전달된 상품 이미지의 키(기본키)를 arrayLIst로 받아온다.
         List<Long> itemImgIds = itemFormDto.getItemImgIds();
@@ -119,6 +188,8 @@ public class ItemService {
             // 4.1 상품 이미지 파일을 업데이트 한다. (상품 이미지 id, 상품 이미지 파일)
             itemImgService.updateItemImg(itemImgIds.get(i), itemImgFileList.get(i));
         }
+        // 5. 상품 변경 이벤트 발행, 커밋된 후에 검색 색인 등에 반영된다.
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId()));
         return item.getId();
     }
 
@@ -133,8 +204,142 @@ public class ItemService {
         return itemRepository.getAdminItemPage(itemSearchDto, pageable);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * 메인 화면 상품 목록 조회
+     * - 캐시(MainItemPageCache)에 있으면 DB를 조회하지 않는다.
+     *   캐시에서 꺼낼 때 트랜잭션(커넥션)을 시작하지 않도록 SUPPORTS 를 사용한다.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<MainItemDto> getMainItemPage(ItemSearchDto itemSearchDto, Pageable pageable){
-        return itemRepository.getMainItemPage(itemSearchDto, pageable);
+        return mainItemPageCache.get(itemSearchDto, pageable,
+                () -> itemRepository.getMainItemPage(itemSearchDto, pageable));
+    }
+
+    /**
+     * 인기 상품 조회
+     * - 상품 ID는 메모리의 판매량 순위(BestsellerRanking)에서 O(size) 로 꺼내고,
+     *   상품 정보는 MainItemPageCache 에 상품 ID 목록별로 보관하므로 순위가 바뀌기 전까지 DB를 조회하지 않는다.
+     * @param window : 집계 기간
+     * @param size : 최대 개수
+     * @return 판매량 순서, 대표 이미지가 없는 상품은 빠진다.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<MainItemDto> getBestsellers(SalesWindow window, int size){
+        long[] itemIds = bestsellerRanking.top(window, size).stream()
+                .mapToLong(BestsellerRanking.RankedItem::itemId)
+                .toArray();
+        return getMainItemsInOrder(itemIds);
+    }
+
+    /**
+     * 함께 구매한 상품 조회(상품 상세 화면 추천)
+     * - 상품 ID는 메모리의 함께 구매 색인(CoPurchaseIndex)에서 O(size) 로 꺼내고,
+     *   상품 정보는 인기 상품과 같이 MainItemPageCache 에 상품 ID 목록별로 보관한다.
+     * @param itemId : 기준 상품 ID
+     * @param size : 최대 개수
+     * @return 함께 구매 횟수 순서, 대표 이미지가 없는 상품은 빠진다.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<MainItemDto> getFrequentlyBoughtTogether(Long itemId, int size){
+        return getMainItemsInOrder(coPurchaseIndex.recommend(itemId, size));
+    }
+
+    /**
+     * 최근 본 상품 조회(메인 화면)
+     * - 상품 ID는 메모리의 회원별 기록(RecentlyViewedService)에서 꺼내고, 상품 정보는 인기 상품과 같이 캐시에서 읽는다.
+     * @param email : 로그인한 회원 이메일
+     * @param size : 최대 개수
+     * @return 가장 최근에 본 상품부터, 삭제되었거나 대표 이미지가 없는 상품은 빠진다.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<MainItemDto> getRecentlyViewedItems(String email, int size){
+        return getMainItemsInOrder(recentlyViewedService.getItemIds(email, size));
+    }
+
+    // 상품 ID 목록 순서대로 메인 페이지 상품 조회(캐시)
+    private List<MainItemDto> getMainItemsInOrder(long[] itemIds){
+        if (itemIds.length == 0) {
+            return List.of();
+        }
+        return mainItemPageCache.getByIds(itemIds, () -> {
+            // 상품 ID 내림차순으로 조회되므로 주어진 순서로 다시 정렬한다.
+            Map<Long, MainItemDto> itemById = new HashMap<>();
+            for (MainItemDto mainItemDto : itemRepository.getMainItemsByIds(itemIds)) {
+                itemById.put(mainItemDto.getId(), mainItemDto);
+            }
+            List<MainItemDto> mainItems = new ArrayList<>(itemById.size());
+            for (long id : itemIds) {
+                MainItemDto mainItemDto = itemById.get(id);
+                if (mainItemDto != null) {
+                    mainItems.add(mainItemDto);
+                }
+            }
+            return List.copyOf(mainItems);
+        });
+    }
+
+    /**
+     * 메인 화면 상품 목록 조회(커서 페이징)
+     * - offset 대신 이전 페이지 마지막 상품 ID 다음부터 조회하므로 뒤쪽 페이지도 조회 비용이 같다.
+     * - 전체 상품 수는 withCount 가 true 일 때만 센다.
+     * @param cursor : 이전 페이지에서 받은 다음 페이지 커서, 첫 페이지는 null 또는 ""
+     * @param size : 페이지 크기
+     * @param withCount : 전체 상품 수 조회 여부
+     * @throws IllegalArgumentException 잘못된 커서
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CursorSliceDto<MainItemDto> getMainItemSlice(ItemSearchDto itemSearchDto, String cursor, int size, boolean withCount){
+        Long lastItemId = ItemCursor.lastItemId(cursor);
+        return mainItemPageCache.getSlice(itemSearchDto, cursor, size, withCount, () -> toSlice(
+                itemRepository.getMainItemSlice(itemSearchDto, lastItemId, size + 1), size, MainItemDto::getId,
+                withCount ? itemRepository.countMainItems(itemSearchDto) : null));
+    }
+
+    /**
+     * 관리자 상품 목록 조회(커서 페이징)
+     * @param cursor : 이전 페이지에서 받은 다음 페이지 커서, 첫 페이지는 null 또는 ""
+     * @param size : 페이지 크기
+     * @param withCount : 전체 상품 수 조회 여부
+     * @throws IllegalArgumentException 잘못된 커서
+     */
+    @Transactional(readOnly = true)
+    public CursorSliceDto<Item> getAdminItemSlice(ItemSearchDto itemSearchDto, String cursor, int size, boolean withCount){
+        Long lastItemId = ItemCursor.lastItemId(cursor);
+        return toSlice(itemRepository.getAdminItemSlice(itemSearchDto, lastItemId, size + 1), size, Item::getId,
+                withCount ? itemRepository.countAdminItems(itemSearchDto) : null);
+    }
+
+    // size + 1 건 조회한 결과 -> 커서 페이징 결과, 한 건 더 조회되었으면 마지막 상품으로 다음 커서 생성
+    private static <T> CursorSliceDto<T> toSlice(List<T> rows, int size, Function<T, Long> idOf, Long totalCount){
+        if (rows.size() <= size) {
+            return new CursorSliceDto<>(rows, null, totalCount);
+        }
+        List<T> content = rows.subList(0, size);
+        return new CursorSliceDto<>(new ArrayList<>(content), new ItemCursor(idOf.apply(content.get(size - 1))).encode(), totalCount);
+    }
+
+    /**
+     * 상품 목록 커서 : 이전 페이지 마지막 상품 ID
+     * - 화면/클라이언트에는 상품 ID를 URL-safe Base64 로 인코딩한 문자열로 전달한다.
+     */
+    record ItemCursor(Long itemId) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(String.valueOf(itemId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ItemCursor decode(String cursor) {
+            try {
+                return new ItemCursor(Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다.", e);
+            }
+        }
+
+        // 첫 페이지(커서 없음)는 null
+        static Long lastItemId(String cursor) {
+            return StringUtils.isEmpty(cursor) ? null : decode(cursor).itemId();
+        }
     }
 }
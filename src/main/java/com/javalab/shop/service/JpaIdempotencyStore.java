@@ -0,0 +1,101 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.dto.IdempotentResponse;
+import com.javalab.shop.entity.IdempotencyRecord;
+import com.javalab.shop.repository.IdempotencyRecordRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * DB 멱등키 저장소(shop.idempotency.store=db)
+ * - idempotency_key 테이블을 여러 서버가 함께 사용하므로 어느 서버로 재시도가 들어와도 같은 응답을 돌려준다.
+ * - 키 선점은 기본키 INSERT 로 한다. 같은 키로 동시에 INSERT 하면 하나만 성공한다.
+ *   선점한 키는 임대 시간(lease-seconds) 뒤에 만료되므로 처리하던 서버가 죽어도 그 뒤에는 다시 선점할 수 있다.
+ * - 주문 트랜잭션과 상관없이 바로 커밋되어야 다른 서버에서 보이므로 항상 새 트랜잭션에서 실행한다.
+ * - 보관 기간이 지난 키는 주기적으로 삭제한다.
+ */
+@Component
+@ConditionalOnProperty(name = "shop.idempotency.store", havingValue = "db")
+@Log4j2
+public class JpaIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMinutes;
+    private final long leaseSeconds;
+
+    public JpaIdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${shop.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                               @Value("${shop.idempotency.lease-seconds:60}") long leaseSeconds) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttlMinutes = ttlMinutes;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    @Override
+    public boolean tryAcquire(String key) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                // 보관 기간이 지난 키와 임대 시간이 지난 처리 중인 키를 지우고 선점한다.
+                idempotencyRecordRepository.deleteExpired(key, now);
+                idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.create(key, now.plusSeconds(leaseSeconds)));
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // 다른 요청이 이미 선점한 키
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        return idempotencyRecordRepository.findById(key)
+                .filter(record -> record.getStatus() != null)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(record -> new IdempotentResponse(record.getStatus(), record.getOrderId(), record.getMessage(),
+                        record.getFingerprint()));
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        transactionTemplate.executeWithoutResult(status ->
+                idempotencyRecordRepository.findById(key).ifPresent(record -> {
+                    record.setStatus(response.getStatus());
+                    record.setOrderId(response.getOrderId());
+                    record.setMessage(response.getMessage());
+                    record.setFingerprint(response.getFingerprint());
+                    record.setExpiresAt(LocalDateTime.now().plusMinutes(ttlMinutes));
+                }));
+    }
+
+    @Override
+    public void release(String key) {
+        transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(key));
+    }
+
+    /**
+     * 보관 기간이 지난 키 삭제
+     */
+    @Scheduled(fixedDelayString = "${shop.idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteAllExpired(LocalDateTime.now()));
+        if (deleted > 0) {
+            log.info("보관 기간이 지난 멱등키 {}건 삭제", deleted);
+        }
+    }
+}
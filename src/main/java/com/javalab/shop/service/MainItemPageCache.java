@@ -0,0 +1,141 @@
+package com.javalab.shop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.javalab.shop.dto.CursorSliceDto;
+import com.javalab.shop.dto.ItemSearchDto;
+import com.javalab.shop.dto.MainItemDto;
+import com.javalab.shop.event.ItemChangedEvent;
+import com.javalab.shop.event.ItemImgChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 메인 화면 상품 목록 캐시
+ * - 메인 화면(/)은 가장 많이 호출되지만 상품이 등록/수정되기 전까지 결과가 바뀌지 않으므로
+ *   검색어와 페이지별로 조회 결과(Page<MainItemDto>, keyset 페이징은 CursorSliceDto<MainItemDto>)를 메모리에 보관한다.
+ * - 키는 메인 화면 조회에 쓰이는 조건만으로 만든다 : 검색어(소문자, null 은 ""), 페이지 번호(keyset 은 커서), 페이지 크기
+ *   (LIKE 와 검색 색인 모두 대소문자를 구분하지 않으므로 "NIKE", "nike" 는 같은 키)
+ * - 최대 max-size 개를 보관하고, 넘치면 Caffeine 이 사용 빈도가 낮은 항목부터 버린다.
+ * - 상품 또는 상품 이미지 변경이 커밋되면 모두 비운다. 새 상품은 모든 페이지의 순서를, 상품명 수정은 검색 결과를 바꾸기 때문이다.
+ *   상품 변경은 검색 색인이 다시 색인된 뒤에 비운다(@Order).
+ *   비우는 중에 DB를 읽던 조회가 이전 값을 넣지 않도록 변경 횟수(generation)를 조회 전후로 비교한다.
+ * - 메트릭 : cache.gets(result=hit/miss), cache.evictions, cache.load.duration(cache=mainItemPage),
+ *   shop.cache.main-item-page.hit-ratio
+ * - 인기 상품/함께 구매한 상품 목록(getByIds())도 같은 캐시에 상품 ID 목록을 키로 보관한다.
+ */
+@Component
+public class MainItemPageCache {
+
+    private final boolean enabled;
+    private final Cache<Object, Object> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public MainItemPageCache(MeterRegistry meterRegistry,
+                             @Value("${shop.cache.main-item-page.enabled:true}") boolean enabled,
+                             @Value("${shop.cache.main-item-page.max-size:1000}") long maxSize) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "mainItemPage");
+        Gauge.builder("shop.cache.main-item-page.hit-ratio", cache, c -> c.stats().hitRate())
+                .description("메인 화면 상품 목록 캐시 적중률")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시된 메인 화면 상품 목록 조회, 없으면 loader 로 조회해서 보관한다.
+     * - 같은 키를 동시에 조회하면 한 번만 loader 를 실행하고 나머지는 그 결과를 기다린다.
+     */
+    public Page<MainItemDto> get(ItemSearchDto itemSearchDto, Pageable pageable, Supplier<Page<MainItemDto>> loader) {
+        return get(new PageKey(normalize(itemSearchDto), pageable.getPageNumber(), pageable.getPageSize()), loader);
+    }
+
+    /**
+     * 캐시된 메인 화면 상품 목록(keyset 페이징) 조회, 없으면 loader 로 조회해서 보관한다.
+     */
+    public CursorSliceDto<MainItemDto> getSlice(ItemSearchDto itemSearchDto, String cursor, int size, boolean withCount,
+                                                Supplier<CursorSliceDto<MainItemDto>> loader) {
+        return get(new SliceKey(normalize(itemSearchDto), cursor == null ? "" : cursor, size, withCount), loader);
+    }
+
+    /**
+     * 캐시된 상품 ID 목록(인기 상품, 함께 구매한 상품)의 상품 조회, 없으면 loader 로 조회해서 보관한다.
+     * - 키는 순위/추천이 정한 상품 ID 목록이다. 목록이 바뀌면 새 키로 조회하고 이전 목록은 Caffeine 이 버린다.
+     */
+    public List<MainItemDto> getByIds(long[] itemIds, Supplier<List<MainItemDto>> loader) {
+        return get(new ItemIdsKey(Arrays.stream(itemIds).boxed().toList()), loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Object key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long startGeneration = generation.get();
+        T value = (T) cache.get(key, k -> loader.get());
+        if (generation.get() != startGeneration) {
+            // 조회하는 동안 상품 변경이 커밋되었으면 이전 값을 읽었을 수 있으므로 보관하지 않는다.
+            cache.asMap().remove(key, value);
+        }
+        return value;
+    }
+
+    // 검색 색인 갱신(ItemSearchIndexUpdater)이 끝난 뒤에 비운다.
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidateAll();
+    }
+
+    // 대표 이미지 유무로 검색 색인 결과가 바뀔 수 있으므로 마찬가지로 색인 갱신 뒤에 비운다.
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemImgChanged(ItemImgChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    // 검색어 정규화 : 소문자, null 은 ""
+    private static String normalize(ItemSearchDto itemSearchDto) {
+        return itemSearchDto.getSearchQuery() == null ? "" : itemSearchDto.getSearchQuery().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 캐시 키 - 메인 화면 조회 결과를 결정하는 값만 담는다.
+     */
+    private record PageKey(String searchQuery, int pageNumber, int pageSize) {
+    }
+
+    private record SliceKey(String searchQuery, String cursor, int size, boolean withCount) {
+    }
+
+    private record ItemIdsKey(List<Long> itemIds) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.dto.OrderDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 주문 묶음 처리기(그룹 커밋)
+ * - 동시에 들어온 단건 주문(POST /order)을 최대 max-wait-ms 동안, 최대 max-size 건까지 모아서
+ *   한 트랜잭션으로 처리한다. 주문마다 트랜잭션을 커밋하면 커밋 대기 시간이 처리량의 한계가 되기 때문이다.
+ * - 주문을 요청한 스레드는 자신의 주문이 포함된 묶음이 커밋될 때까지 기다렸다가
+ *   주문 번호를 받거나 OutOfStockException 등 자신의 주문에 대한 예외를 받는다.
+ * - 묶음 전체가 실패하면(예: DB 오류) 각 주문을 개별 트랜잭션으로 다시 처리한다.
+ * - 종료가 시작된 뒤에 들어온 주문, timeout-ms 안에 작업 스레드가 가져가지 못한 주문은 요청한 스레드가 직접 처리한다.
+ *   작업 스레드가 가져간 주문은 커밋될 수 있으므로 시간이 지나도 실제 결과(주문 번호 또는 예외)를 기다린다.
+ * - shop.order.batch.enabled=true 일 때만 동작하고, 꺼져 있으면 OrderService.order() 를 그대로 호출한다.
+ */
+@Component
+@Log4j2
+public class OrderBatchProcessor {
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+    private final long timeoutMillis;
+    private final DistributionSummary batchSizeSummary;
+
+    private final BlockingQueue<OrderRequest> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread worker;
+
+    public OrderBatchProcessor(OrderService orderService,
+                               MeterRegistry meterRegistry,
+                               @Value("${shop.order.batch.enabled:false}") boolean enabled,
+                               @Value("${shop.order.batch.max-size:64}") int maxBatchSize,
+                               @Value("${shop.order.batch.max-wait-ms:5}") long maxWaitMillis,
+                               @Value("${shop.order.batch.timeout-ms:10000}") long timeoutMillis) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitMillis = maxWaitMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.batchSizeSummary = DistributionSummary.builder("shop.order.batch.size")
+                .description("한 트랜잭션으로 처리한 주문 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "order-batch");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("주문 묶음 처리 시작 : max-size={}, max-wait-ms={}", maxBatchSize, maxWaitMillis);
+    }
+
+    /**
+     * 종료 시 대기 중인 주문을 모두 처리한 뒤 작업 스레드를 멈춘다.
+     * - 이후에 들어온 주문은 order() 에서 직접 처리한다.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * 주문
+     * - 묶음 처리가 켜져 있으면 큐에 넣고 묶음이 커밋될 때까지 기다린다.
+     * - 큐에 넣은 뒤 종료가 시작되었거나 timeout-ms 안에 결과가 없으면 큐에서 꺼내서 직접 처리한다.
+     *   큐에서 꺼낼 수 없으면(작업 스레드가 이미 가져감) 묶음의 결과가 나올 때까지 기다린다.
+     * @param orderDto
+     * @param email
+     * @return 주문 번호
+     */
+    public Long order(OrderDto orderDto, String email) {
+        if (!running) {
+            return orderService.order(orderDto, email);
+        }
+        OrderRequest request = new OrderRequest(orderDto, email);
+        queue.add(request);
+        // 넣는 사이에 작업 스레드가 끝났으면 아무도 꺼내지 않는다.
+        if (!running && queue.remove(request)) {
+            return orderService.order(orderDto, email);
+        }
+        try {
+            try {
+                return request.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // 아직 큐에 있으면 작업 스레드가 가져가지 않은 주문이므로 직접 처리한다.
+                if (queue.remove(request)) {
+                    return orderService.order(orderDto, email);
+                }
+                // 작업 스레드가 가져간 주문은 커밋될 수 있으므로 실제 결과가 나올 때까지 기다린다.
+                // 오류로 응답하면 멱등키가 풀려서 같은 키로 재시도한 주문이 한 번 더 실행된다.
+                log.warn("주문 묶음 처리가 {}ms 안에 끝나지 않아 결과를 계속 기다립니다.", timeoutMillis);
+                return request.future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("주문 처리 대기 중 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            // 호출자가 OrderService.order() 를 직접 호출했을 때와 같은 예외를 받도록 원인 예외를 그대로 던진다.
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void run() {
+        List<OrderRequest> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                // 1. 첫 주문이 들어올 때까지 대기
+                OrderRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // 2. 이미 쌓여 있는 주문은 기다리지 않고 가져온다.
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                // 3. 묶음이 다 차지 않았으면 첫 주문 이후 max-wait-ms 까지만 더 기다린다.
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    OrderRequest next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 중단되면 새 주문은 받지 않고, 이미 받은 주문만 처리하고 끝낸다.
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    process(batch);
+                } finally {
+                    // 처리 중 예상하지 못한 오류(Error)로 결과가 채워지지 않은 주문도 기다리지 않게 한다.
+                    for (OrderRequest request : batch) {
+                        request.future.completeExceptionally(new IllegalStateException("주문 묶음 처리 중 오류가 발생했습니다."));
+                    }
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void process(List<OrderRequest> batch) {
+        batchSizeSummary.record(batch.size());
+        try {
+            orderService.orderBatch(batch);
+        } catch (RuntimeException e) {
+            log.warn("주문 묶음({}건) 처리 실패, 개별 주문으로 다시 처리 : {}", batch.size(), e.getMessage());
+            for (OrderRequest request : batch) {
+                request.reset();
+                try {
+                    request.setOrderId(orderService.order(request.getOrderDto(), request.getEmail()));
+                } catch (RuntimeException orderException) {
+                    request.setException(orderException);
+                }
+            }
+        }
+        // 트랜잭션이 커밋된 후에 호출자에게 결과를 전달한다.
+        for (OrderRequest request : batch) {
+            request.complete();
+        }
+    }
+
+    /**
+     * 묶음 처리 대기 중인 주문 요청
+     * - 처리 결과로 주문 번호 또는 예외 중 하나가 채워진다.
+     */
+    @Getter @Setter
+    public static class OrderRequest {
+
+        private final OrderDto orderDto;
+        private final String email;
+        private Long orderId;
+        private RuntimeException exception;
+
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        public OrderRequest(OrderDto orderDto, String email) {
+            this.orderDto = orderDto;
+            this.email = email;
+        }
+
+        void reset() {
+            orderId = null;
+            exception = null;
+        }
+
+        void complete() {
+            if (exception != null) {
+                future.completeExceptionally(exception);
+            } else {
+                future.complete(orderId);
+            }
+        }
+    }
+}
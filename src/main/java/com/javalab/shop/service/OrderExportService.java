@@ -0,0 +1,158 @@
+package com.javalab.shop.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.javalab.shop.repository.OrderRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 주문 내보내기 서비스(관리자)
+ * - 기간 내 주문과 주문 상품을 CSV 또는 NDJSON(한 줄에 JSON 하나)으로 출력 스트림에 바로 쓴다.
+ * - DB 커서에서 한 행씩 읽어서 바로 쓰므로 List<Order> 처럼 전체 결과를 메모리에 올리지 않는다.
+ *   한 번에 메모리에 있는 데이터는 fetch size 만큼의 행과 출력 버퍼뿐이라 기간이 길어도 메모리 사용량이 일정하다.
+ * - 읽는 동안 DB 커넥션과 읽기 전용 트랜잭션을 유지한다.
+ */
+@Service
+@Log4j2
+public class OrderExportService {
+
+    private static final String CSV_HEADER =
+            "order_id,order_date,order_status,member_email,item_id,item_nm,count,order_price";
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * CSV 내보내기
+     * - 주문 상품 한 개가 한 줄이다. 엑셀에서 한글이 깨지지 않도록 UTF-8 BOM 을 붙인다.
+     * @param from : 시작 일시(포함)
+     * @param to : 종료 일시(제외)
+     * @param outputStream
+     * @return 내보낸 행(주문 상품) 수
+     */
+    public long exportCsv(LocalDateTime from, LocalDateTime to, OutputStream outputStream) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        return readOnlyTransactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<Object[]> rows = orderRepository.streamOrderLines(from, to)) {
+                writer.write('\uFEFF');     // UTF-8 BOM
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Object[] row = iterator.next();
+                    for (int i = 0; i < row.length; i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        writer.write(csv(row[i]));
+                    }
+                    writer.write('\n');
+                    count++;
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.info("주문 CSV 내보내기 : {} ~ {}, {}행", from, to, count);
+            return count;
+        });
+    }
+
+    /**
+     * NDJSON 내보내기
+     * - 주문 한 건이 한 줄이며, 주문 상품은 lines 배열에 담는다.
+     * - 한 주문의 주문 상품은 연속해서 조회되므로 주문 ID가 바뀔 때마다 이전 주문을 닫는다.
+     * @param from : 시작 일시(포함)
+     * @param to : 종료 일시(제외)
+     * @param outputStream
+     * @return 내보낸 주문 수
+     */
+    public long exportNdjson(LocalDateTime from, LocalDateTime to, OutputStream outputStream) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        return readOnlyTransactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<Object[]> rows = orderRepository.streamOrderLines(from, to);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+                generator.setRootValueSeparator(null);
+                // 주문마다 출력 스트림까지 flush 하거나 끝난 뒤 응답 스트림을 닫지 않도록 한다.
+                generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                Object currentOrderId = null;
+                Iterator<Object[]> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Object[] row = iterator.next();
+                    if (!Objects.equals(currentOrderId, row[0])) {
+                        // 새 주문 시작 : 이전 주문을 닫고 줄을 바꾼다.
+                        if (currentOrderId != null) {
+                            endOrder(generator, writer);
+                        }
+                        currentOrderId = row[0];
+                        generator.writeStartObject();
+                        generator.writeNumberField("orderId", (Long) row[0]);
+                        generator.writeStringField("orderDate", row[1].toString());
+                        generator.writeStringField("orderStatus", row[2].toString());
+                        generator.writeStringField("memberEmail", (String) row[3]);
+                        generator.writeArrayFieldStart("lines");
+                        count++;
+                    }
+                    generator.writeStartObject();
+                    generator.writeNumberField("itemId", (Long) row[4]);
+                    generator.writeStringField("itemNm", (String) row[5]);
+                    generator.writeNumberField("count", (Integer) row[6]);
+                    generator.writeNumberField("orderPrice", (Integer) row[7]);
+                    generator.writeEndObject();
+                }
+                if (currentOrderId != null) {
+                    endOrder(generator, writer);
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.info("주문 NDJSON 내보내기 : {} ~ {}, {}건", from, to, count);
+            return count;
+        });
+    }
+
+    private void endOrder(JsonGenerator generator, Writer writer) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+        writer.write('\n');
+    }
+
+    /**
+     * CSV 값 변환 : 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번 쓴다.
+     */
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
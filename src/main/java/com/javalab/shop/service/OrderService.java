@@ -1,24 +1,32 @@
 package com.javalab.shop.service;
 
+import com.javalab.shop.advice.RetryOnConflict;
+import com.javalab.shop.constant.OrderStatus;
+import com.javalab.shop.dto.CursorSliceDto;
 import com.javalab.shop.dto.OrderDto;
 import com.javalab.shop.dto.OrderHistDto;
-import com.javalab.shop.dto.OrderItemDto;
 import com.javalab.shop.entity.*;
-import com.javalab.shop.repository.ItemImgRepository;
+import com.javalab.shop.event.OrderCancelledEvent;
+import com.javalab.shop.event.OrderCreatedEvent;
+import com.javalab.shop.exception.OutOfStockException;
 import com.javalab.shop.repository.ItemRepository;
 import jakarta.persistence.EntityNotFoundException;
 import com.javalab.shop.repository.MemberRepository;
 import com.javalab.shop.repository.OrderRepository;
+import com.javalab.shop.repository.OrderSummaryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Service
 @Transactional
@@ -29,11 +37,17 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final ItemRepository itemRepository;
     private final MemberRepository memberRepository;
-    private final ItemImgRepository itemImgRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaryWriter orderSummaryWriter;
+    private final HotItemStockLedger hotItemStockLedger;
+    private final ApplicationEventPublisher eventPublisher;
 
     // 주문
+    @RetryOnConflict
     public Long order(OrderDto orderDto, String email) {
-        // 1. 주문할 상품 조회(영속화)
+        // 1. 재고 차감(조건부 UPDATE), 재고가 부족하면 OutOfStockException
+        reserveStock(orderDto.getItemId(), orderDto.getCount());
+        // 1.1. 주문할 상품 조회(영속화), 주문 가격을 가져오기 위해 조회
         Item item = itemRepository.findById(orderDto.getItemId()).orElseThrow(EntityNotFoundException::new);
         // 2. 주문자 조회, 영속화 상태로 만들기
         Member member = memberRepository.findByEmail(email);
@@ -48,6 +62,10 @@ public class OrderService {
         Order order = Order.createOrder(member, orderItemList);
         // 3.5. 주문 저장, 영속화 상태로 만들기, 주문 저장 쿼리문 실행
         orderRepository.save(order);
+        // 3.6. 주문 내역 화면용 주문 요약 저장(같은 트랜잭션)
+        orderSummaryWriter.write(List.of(order));
+        // 3.7. 주문 생성 이벤트 발행, 커밋된 후에 인기 상품 순위에 반영된다.
+        publishOrderCreated(List.of(order));
 
         return order.getId();
     }
@@ -60,6 +78,8 @@ public class OrderService {
      * - 주문 목록은 주문 번호, 주문 일자, 주문 상품 리스트, 주문 상태로 구성된다.
      * - 주문 상품 리스트는 주문 상품 번호, 상품명, 상품 가격, 상품 이미지로 구성된다.
      * - 주문 목록은 주문 일자를 기준으로 내림차순 정렬한다.
+     * - 주문 요약(order_summary) 테이블만 읽는다. 페이지는 인덱스 범위 스캔 한 번, 전체 주문 수는 필요할 때만 인덱스로 센다.
+     *   주문 상품 정보는 주문 시점의 스냅샷이다.
      * @param email 회원 이메일
      * @param pageable 페이징 처리
      * @return
@@ -67,33 +87,75 @@ public class OrderService {
     @Transactional(readOnly = true)
     public Page<OrderHistDto> getOrderList(String email, Pageable pageable) {
 
-        // 1. 주문 목록 조회
-        List<Order> orders = orderRepository.findOrders(email, pageable);
-        // 2. 주문 목록 총 개수 조회
-        Long totalCount = orderRepository.countOrder(email);
-        // 3. 주문 목록 저장용 ArrayList 생성
+        // 1. 주문 요약 조회(페이지 범위만)
+        List<OrderSummary> orderSummaries = orderSummaryRepository.findPage(email, pageable);
+        // 2. 주문 요약 -> 주문 DTO
         List<OrderHistDto> orderHistDtos = new ArrayList<>();
-        // 3.1. 주문 목록을 순회하면서 주문 정보를 DTO로 변환
-        for (Order order : orders) {
-            // 3.1.1. 주문 한 건에 대한 주문 DTO 생성
-            OrderHistDto orderHistDto = new OrderHistDto(order);
-            // 3.1.2. 주문 정보에서 주문 상품 리스트 조회
-            List<OrderItem> orderItems = order.getOrderItems();
-            // 3.2. 하나의 주문에서 여러 상품을 주문할 수 있으므로 상품 리스트를 순회하면서 상품 정보를 DTO로 변환
-            for (OrderItem orderItem : orderItems) {
-                // 3.2.1 주문 상품 리스트에서 각 상품의 대표 이미지만 조회해서 ItemImg 객체 생성
-                ItemImg itemImg = itemImgRepository
-                        .findByItemIdAndRepimgYn(orderItem.getItem().getId(), "Y");
-                // 3.2.2. 주문 상품 DTO 생성
-                OrderItemDto orderItemDto = new OrderItemDto(orderItem, itemImg.getImgUrl());
-                // 3.2.3 주문 DTO에 주문 상품 추가
-                orderHistDto.addOrderItemDto(orderItemDto);
+        for (OrderSummary orderSummary : orderSummaries) {
+            orderHistDtos.add(new OrderHistDto(orderSummary));
+        }
+        // 3. 주문 목록 반환, 전체 주문 수는 조회한 행으로 계산할 수 없을 때만(첫 페이지가 가득 찼거나 마지막 페이지를 넘어선 경우) 센다.
+        return PageableExecutionUtils.getPage(orderHistDtos, pageable, () -> orderSummaryRepository.countByMemberEmail(email));
+    }
+
+    /**
+     * 주문 목록 커서(keyset) 페이징 조회
+     * - (주문일, 주문 ID) 내림차순으로 size 건을 조회하고 다음 페이지 커서를 함께 반환한다.
+     * - offset 과 전체 주문 수 조회(count)가 없으므로 주문이 많은 회원도 페이지마다 조회 비용이 같다.
+     * - size + 1 건을 조회해서 다음 페이지가 있는지 확인한다.
+     * - 주문 요약(order_summary) 테이블만 읽는다.
+     * @param email 회원 이메일
+     * @param cursor 이전 페이지에서 받은 nextCursor, 첫 페이지는 null
+     * @param size 페이지 크기
+     * @return
+     */
+    @Transactional(readOnly = true)
+    public CursorSliceDto<OrderHistDto> getOrderHistory(String email, String cursor, int size) {
+        // 1. 커서 다음의 주문 요약 size + 1 건 조회
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<OrderSummary> orderSummaries;
+        if (StringUtils.isEmpty(cursor)) {
+            orderSummaries = orderSummaryRepository.findFirstSlice(email, limit);
+        } else {
+            OrderCursor orderCursor = OrderCursor.decode(cursor);
+            orderSummaries = orderSummaryRepository.findSliceAfter(email, orderCursor.orderDate(), orderCursor.orderId(), limit);
+        }
+        // 2. 한 건 더 조회되었으면 다음 페이지가 있다. 마지막 주문으로 다음 커서 생성
+        String nextCursor = null;
+        if (orderSummaries.size() > size) {
+            orderSummaries = orderSummaries.subList(0, size);
+            OrderSummary last = orderSummaries.get(size - 1);
+            nextCursor = new OrderCursor(last.getOrderDate(), last.getOrderId()).encode();
+        }
+        // 3. 주문 요약 -> 주문 DTO
+        List<OrderHistDto> orderHistDtos = new ArrayList<>();
+        for (OrderSummary orderSummary : orderSummaries) {
+            orderHistDtos.add(new OrderHistDto(orderSummary));
+        }
+        return new CursorSliceDto<>(orderHistDtos, nextCursor);
+    }
+
+    /**
+     * 주문 내역 커서 : 이전 페이지 마지막 주문의 (주문일, 주문 ID)
+     * - 화면/클라이언트에는 "주문일|주문 ID" 를 URL-safe Base64 로 인코딩한 문자열로 전달한다.
+     */
+    record OrderCursor(LocalDateTime orderDate, Long orderId) {
+
+        String encode() {
+            String value = orderDate + "|" + orderId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static OrderCursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.lastIndexOf('|');
+                return new OrderCursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다.", e);
             }
-            // 3.3. 주문 목록에 주문 DTO 추가, 한 건의 주문 정보를 전체 주문 목록에 추가
-            orderHistDtos.add(orderHistDto);
         }
-        // 4. 주문 목록 반환
-        return new PageImpl<OrderHistDto>(orderHistDtos, pageable, totalCount);
     }
 
     /**
@@ -128,10 +190,24 @@ public class OrderService {
      * - 주문 취소를 한다.
      * @param orderId
      */
+    @RetryOnConflict
     public void cancelOrder(Long orderId){
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(EntityNotFoundException::new);
+        // 이미 취소된 주문이면 재고를 다시 복구하지 않는다.
+        if (order.getOrderStatus() == OrderStatus.CANCEL) {
+            return;
+        }
         order.cancelOrder();
+        // 주문 요약의 상태도 함께 변경
+        orderSummaryRepository.findById(orderId)
+                .ifPresent(orderSummary -> orderSummary.setOrderStatus(order.getOrderStatus()));
+        // 주문 수량만큼 재고 복구
+        for (OrderItem orderItem : order.getOrderItems()) {
+            restoreStock(orderItem.getItem().getId(), orderItem.getCount());
+        }
+        // 주문 취소 이벤트 발행, 커밋된 후에 인기 상품 순위에서 빠진다.
+        eventPublisher.publishEvent(new OrderCancelledEvent(order.getId(), order.getOrderDate(), countByItemId(order)));
     }
 
     /**
@@ -139,33 +215,179 @@ public class OrderService {
      * - 장바구니에서 여러 상품을 선택해서 주문할 수 있다.
      * - 주문할 상품 리스트와 회원 이메일을 인자로 받는다.
      * - 주문할 회원을 조회한다.
-     * - 전달받은 주문 상품 리스트를 순회하면서 장바구니에서 전달받은 dto를 이용해서 주문 상품 엔티티를 생성한다.
+     * - 같은 상품이 여러 번 들어오면 수량을 합친다.
+     * - 주문할 상품은 한 번의 쿼리로 조회하면서 상품 ID 오름차순으로 lock 을 건다.
+     *   두 장바구니가 같은 상품들을 서로 다른 순서로 주문해도 lock 순서가 같으므로 데드락이 생기지 않는다.
+     * - 재고는 lock 을 잡은 상품 엔티티에서 차감하고, 변경된 상품들은 flush 시점에 id 순서로 모아서(batch) UPDATE 된다.
      * @param orderDtoList
      * @param email
      * @return
      */
+    @RetryOnConflict
     public Long orders(List<OrderDto> orderDtoList, String email){
         // 1. 주문자 조회
         Member member = memberRepository.findByEmail(email);
-        // 2. 주문 상품 리스트 저장을 위한 ArrayList 생성
-        List<OrderItem> orderItemList = new ArrayList<>();
-        // 3. 장바구니에서 전달받은 dto를 순회하면서 주문 상품 엔티티 생성 후 리스트에 추가
+        // 2. 상품 ID별 주문 수량 합계(TreeMap : 상품 ID 오름차순)
+        Map<Long, Integer> countByItemId = new TreeMap<>();
         for (OrderDto orderDto : orderDtoList) {
-            Item item = itemRepository.findById(orderDto.getItemId())
-                    .orElseThrow(EntityNotFoundException::new);
-
-            OrderItem orderItem = OrderItem.createOrderItem(item, orderDto.getCount());
-            orderItemList.add(orderItem);
+            countByItemId.merge(orderDto.getItemId(), orderDto.getCount(), Integer::sum);
+        }
+        // 3. 주문할 상품을 한 번의 쿼리로 조회(id 오름차순 lock)
+        Map<Long, Item> items = lockItems(countByItemId.keySet());
+        if (items.size() != countByItemId.size()) {
+            throw new EntityNotFoundException();
+        }
+        // 4. 재고 차감 후 주문 상품 엔티티 생성
+        List<OrderItem> orderItemList = new ArrayList<>();
+        for (Item item : items.values()) {
+            int count = countByItemId.get(item.getId());
+            removeStock(item, count);
+            orderItemList.add(OrderItem.createOrderItem(item, count));
         }
-        // 4. 위에서 생성한 주문 상품 리스트와 주문자를 이용해서 주문 엔티티 생성
+        // 5. 위에서 생성한 주문 상품 리스트와 주문자를 이용해서 주문 엔티티 생성
         Order order = Order.createOrder(member, orderItemList);
-        // 5. 주문 저장(영속화)
+        // 6. 주문 저장(영속화) + 주문 요약 저장
         orderRepository.save(order);
-        // 6. 주문 번호 반환
+        orderSummaryWriter.write(List.of(order));
+        publishOrderCreated(List.of(order));
+        // 7. 주문 번호 반환
         return order.getId();
     }
 
+    /**
+     * 주문 묶음 처리(그룹 커밋)
+     * - OrderBatchProcessor 가 짧은 시간 동안 모은 단건 주문들을 한 트랜잭션에서 처리한다.
+     * - 묶음에 포함된 상품들을 한 번의 쿼리로 조회하면서 id 오름차순으로 lock 을 걸고, 들어온 순서대로 재고를 확인한다.
+     * - 재고가 부족하거나 상품이 없는 주문은 그 주문만 실패로 표시하고 나머지 주문은 계속 처리한다.
+     * - 결과(주문 번호 또는 예외)는 각 요청 객체에 담아 둔다.
+     *   호출자에게는 커밋이 끝난 뒤에 OrderBatchProcessor 가 전달한다.
+     * @param requests
+     */
+    @RetryOnConflict
+    public void orderBatch(List<OrderBatchProcessor.OrderRequest> requests) {
+        // 1. 묶음 안의 모든 상품 ID(TreeSet : 오름차순, 중복 제거)
+        Set<Long> itemIds = new TreeSet<>();
+        for (OrderBatchProcessor.OrderRequest request : requests) {
+            request.reset();    // 충돌로 재시도되는 경우 이전 결과를 지운다.
+            itemIds.add(request.getOrderDto().getItemId());
+        }
+        // 2. 상품을 한 번의 쿼리로 조회(id 오름차순 lock)
+        Map<Long, Item> items = lockItems(itemIds);
+        // 3. 들어온 순서대로 재고 차감 후 주문 생성
+        Map<String, Member> members = new HashMap<>();
+        Map<OrderBatchProcessor.OrderRequest, Order> orders = new LinkedHashMap<>();
+        for (OrderBatchProcessor.OrderRequest request : requests) {
+            OrderDto orderDto = request.getOrderDto();
+            Item item = items.get(orderDto.getItemId());
+            try {
+                if (item == null) {
+                    throw new EntityNotFoundException();
+                }
+                removeStock(item, orderDto.getCount());
+            } catch (OutOfStockException | EntityNotFoundException e) {
+                request.setException(e);
+                continue;
+            }
+            Member member = members.computeIfAbsent(request.getEmail(), memberRepository::findByEmail);
+            List<OrderItem> orderItemList = new ArrayList<>();
+            orderItemList.add(OrderItem.createOrderItem(item, orderDto.getCount()));
+            orders.put(request, Order.createOrder(member, orderItemList));
+        }
+        // 4. 주문 저장 후 각 요청에 주문 번호 설정
+        orderRepository.saveAll(orders.values());
+        orderSummaryWriter.write(orders.values());
+        publishOrderCreated(orders.values());
+        orders.forEach((request, order) -> request.setOrderId(order.getId()));
+    }
+
+    // 저장된 주문마다 주문 생성 이벤트 발행
+    private void publishOrderCreated(Collection<Order> orders) {
+        for (Order order : orders) {
+            eventPublisher.publishEvent(new OrderCreatedEvent(order.getId(), order.getOrderDate(), countByItemId(order)));
+        }
+    }
+
+    // 주문의 상품 ID -> 주문 수량
+    private static Map<Long, Integer> countByItemId(Order order) {
+        Map<Long, Integer> countByItemId = new HashMap<>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            countByItemId.merge(orderItem.getItem().getId(), orderItem.getCount(), Integer::sum);
+        }
+        return countByItemId;
+    }
+
+    /**
+     * 여러 상품을 한 번의 쿼리로 조회하면서 상품 ID 오름차순으로 lock 을 건다.
+     * - 핫 아이템은 메모리 재고 장부에서 차감하므로 lock 없이 조회한다.
+     * @param itemIds
+     * @return 상품 ID 오름차순 Map
+     */
+    private Map<Long, Item> lockItems(Collection<Long> itemIds) {
+        List<Long> hotItemIds = new ArrayList<>();
+        List<Long> lockItemIds = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            (hotItemStockLedger.isHotItem(itemId) ? hotItemIds : lockItemIds).add(itemId);
+        }
+        Map<Long, Item> items = new TreeMap<>();
+        if (!lockItemIds.isEmpty()) {
+            itemRepository.findAllByIdForUpdate(lockItemIds).forEach(item -> items.put(item.getId(), item));
+        }
+        if (!hotItemIds.isEmpty()) {
+            itemRepository.findAllByIdOrderByIdAsc(hotItemIds).forEach(item -> items.put(item.getId(), item));
+        }
+        return items;
+    }
+
+    /**
+     * lock 을 잡은 상품의 재고 차감
+     * - lock 을 잡은 상태이므로 엔티티에서 차감해도 안전하다. 변경 내용은 flush 시점에 UPDATE 된다.
+     * - 핫 아이템은 메모리 재고 장부에서 차감한다.
+     * @param item
+     * @param count
+     */
+    private void removeStock(Item item, int count) {
+        if (hotItemStockLedger.isHotItem(item.getId())) {
+            reserveStock(item.getId(), count);
+        } else {
+            item.removeStock(count);
+        }
+    }
 
+    /**
+     * 재고 차감
+     * - ItemRepository.decreaseStock()으로 남은 재고가 충분할 때만 차감한다.
+     * - 차감된 행이 없으면 상품이 없거나(EntityNotFoundException) 재고가 부족한 경우(OutOfStockException)
+     * - 예외가 발생하면 트랜잭션이 롤백되므로 앞에서 차감한 다른 상품의 재고도 함께 원복된다.
+     * - 핫 아이템은 DB 대신 메모리 재고 장부(HotItemStockLedger)에서 차감한다.
+     * @param itemId
+     * @param count
+     */
+    private void reserveStock(Long itemId, int count) {
+        if (hotItemStockLedger.isHotItem(itemId)) {
+            if (!hotItemStockLedger.reserve(itemId, count)) {
+                throw new OutOfStockException("상품의 재고가 부족 합니다. (현재 재고 수량: " + hotItemStockLedger.getStock(itemId) + ")");
+            }
+            return;
+        }
+        if (itemRepository.decreaseStock(itemId, count) == 0) {
+            Item item = itemRepository.findById(itemId)
+                    .orElseThrow(EntityNotFoundException::new);
+            throw new OutOfStockException("상품의 재고가 부족 합니다. (현재 재고 수량: " + item.getStockNumber() + ")");
+        }
+    }
 
+    /**
+     * 재고 복구
+     * - 주문 취소시 주문 수량만큼 재고를 증가시킨다.
+     * @param itemId
+     * @param count
+     */
+    private void restoreStock(Long itemId, int count) {
+        if (hotItemStockLedger.isHotItem(itemId)) {
+            hotItemStockLedger.release(itemId, count);
+            return;
+        }
+        itemRepository.increaseStock(itemId, count);
+    }
 
 }
@@ -0,0 +1,96 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.entity.Order;
+import com.javalab.shop.entity.OrderItem;
+import com.javalab.shop.entity.OrderSummary;
+import com.javalab.shop.repository.OrderRepository;
+import com.javalab.shop.repository.OrderSummaryRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * 주문 요약(OrderSummary) 작성기
+ * - 주문을 저장한 트랜잭션 안에서 주문 요약을 함께 저장한다.
+ *   주문에 포함된 상품의 대표 이미지 경로는 상품(item.rep_img_url)에서 읽으므로 상품 이미지를 따로 조회하지 않는다.
+ * - 주문 요약이 생기기 전에 저장된 주문은 애플리케이션 시작 시 배치로 채운다(백필).
+ */
+@Component
+@Log4j2
+public class OrderSummaryWriter {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean backfillEnabled;
+    private final int backfillBatchSize;
+
+    public OrderSummaryWriter(OrderSummaryRepository orderSummaryRepository,
+                              OrderRepository orderRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${shop.order-summary.backfill.enabled:true}") boolean backfillEnabled,
+                              @Value("${shop.order-summary.backfill.batch-size:500}") int backfillBatchSize) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.backfillEnabled = backfillEnabled;
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    /**
+     * 주문 요약 저장
+     * - 저장된(주문 ID가 있는) 주문을 전달해야 한다.
+     * @param orders
+     */
+    public void write(Collection<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        // 1. 주문 상품들의 대표 이미지 경로(주문할 때 이미 조회한 상품에 있다)
+        Map<Long, String> imgUrlByItemId = new HashMap<>();
+        for (Order order : orders) {
+            for (OrderItem orderItem : order.getOrderItems()) {
+                imgUrlByItemId.put(orderItem.getItem().getId(), orderItem.getItem().getRepImgUrl());
+            }
+        }
+        // 2. 주문 요약 저장
+        List<OrderSummary> orderSummaries = new ArrayList<>();
+        for (Order order : orders) {
+            orderSummaries.add(OrderSummary.of(order, imgUrlByItemId));
+        }
+        orderSummaryRepository.saveAll(orderSummaries);
+    }
+
+    /**
+     * 주문 요약 백필
+     * - 주문 요약이 없는 주문을 주문 ID 순서로 batch-size 건씩 읽어서 주문 요약을 만든다.
+     * - 배치마다 트랜잭션을 나누므로 중간에 실패해도 다음 시작 시 남은 주문부터 이어서 처리한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillEnabled) {
+            return;
+        }
+        long lastId = 0;
+        int total = 0;
+        while (true) {
+            List<Long> orderIds = orderRepository.findIdsWithoutSummary(lastId, PageRequest.of(0, backfillBatchSize));
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    write(new ArrayList<>(orderRepository.findAllWithOrderItems(orderIds))));
+            total += orderIds.size();
+            lastId = orderIds.get(orderIds.size() - 1);
+        }
+        if (total > 0) {
+            log.info("주문 요약 백필 완료 : {}건", total);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.entity.RecentlyViewed;
+import com.javalab.shop.repository.RecentlyViewedRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 최근 본 상품 서비스
+ * - 상품 상세 조회(/item/{itemId})를 회원별로 메모리(RecentlyViewedStore)에만 기록한다. 조회마다 DB에 쓰지 않는다.
+ * - 메모리에 없는 회원은 처음 사용할 때 한 번 recently_viewed 테이블에서 읽어 온다.
+ * - flush-interval-ms 마다(그리고 종료 시) 변경된 회원의 목록만 한 트랜잭션으로 덮어쓴다.
+ *   마지막 저장 이후의 기록은 서버가 비정상 종료되면 사라질 수 있다.
+ * - shop.recent.enabled=false 이면 기록하지 않고 항상 빈 목록을 반환한다.
+ */
+@Service
+@Log4j2
+public class RecentlyViewedService {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final RecentlyViewedStore recentlyViewedStore;
+    private final RecentlyViewedRepository recentlyViewedRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public RecentlyViewedService(RecentlyViewedStore recentlyViewedStore,
+                                 RecentlyViewedRepository recentlyViewedRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${shop.recent.enabled:true}") boolean enabled) {
+        this.recentlyViewedStore = recentlyViewedStore;
+        this.recentlyViewedRepository = recentlyViewedRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 상품 상세 조회 기록
+     * @param email : 로그인한 회원 이메일
+     */
+    public void record(String email, Long itemId) {
+        if (!enabled) {
+            return;
+        }
+        if (!recentlyViewedStore.record(email, itemId)) {
+            load(email);
+            recentlyViewedStore.record(email, itemId);
+        }
+    }
+
+    /**
+     * 최근 본 상품 ID 조회
+     * @param email : 로그인한 회원 이메일
+     * @param size : 최대 개수
+     * @return 가장 최근에 본 상품부터
+     */
+    public long[] getItemIds(String email, int size) {
+        if (!enabled) {
+            return EMPTY;
+        }
+        long[] itemIds = recentlyViewedStore.get(email, size);
+        if (itemIds == null) {
+            load(email);
+            itemIds = recentlyViewedStore.get(email, size);
+        }
+        return itemIds == null ? EMPTY : itemIds;
+    }
+
+    private void load(String email) {
+        long[] itemIds = recentlyViewedRepository.findById(email)
+                .map(recentlyViewed -> recentlyViewed.getItemIds().stream().mapToLong(Long::longValue).toArray())
+                .orElse(EMPTY);
+        recentlyViewedStore.load(email, itemIds);
+    }
+
+    /**
+     * 변경된 회원의 최근 본 상품을 recently_viewed 테이블에 덮어쓴다.
+     * - 저장에 실패하면 꺼낸 목록을 다시 변경됨으로 표시해서 다음 주기에 다시 저장한다.
+     */
+    @Scheduled(fixedDelayString = "${shop.recent.flush-interval-ms:60000}")
+    public synchronized void flush() {
+        Map<String, long[]> dirty = recentlyViewedStore.drainDirty();
+        if (dirty.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, RecentlyViewed> saved = recentlyViewedRepository.findAllById(dirty.keySet()).stream()
+                        .collect(Collectors.toMap(RecentlyViewed::getMemberEmail, Function.identity()));
+                LocalDateTime updateTime = LocalDateTime.now();
+                dirty.forEach((email, itemIds) -> {
+                    RecentlyViewed recentlyViewed = saved.computeIfAbsent(email, RecentlyViewed::create);
+                    recentlyViewed.setItemIds(Arrays.stream(itemIds).boxed().toList());
+                    recentlyViewed.setUpdateTime(updateTime);
+                });
+                recentlyViewedRepository.saveAll(saved.values());
+            });
+            recentlyViewedStore.flushed(dirty);
+        } catch (RuntimeException e) {
+            log.warn("최근 본 상품 저장 실패 : 회원 {}명, 다음 주기에 다시 저장 : {}", dirty.size(), e.getMessage());
+            recentlyViewedStore.markDirty(dirty);
+        }
+    }
+
+    /**
+     * 종료 시 남은 기록을 저장한다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
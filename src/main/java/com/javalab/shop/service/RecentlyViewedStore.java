@@ -0,0 +1,177 @@
+package com.javalab.shop.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 회원별 최근 본 상품 저장소(메모리)
+ * - 회원마다 최근 본 상품 ID를 history-size 칸짜리 long 배열(ring buffer)에 담는다. 가득 차면 가장 오래된 상품을 덮어쓴다.
+ *   이미 있는 상품을 다시 보면 맨 앞(가장 최근)으로 옮긴다.
+ * - 최대 max-members 명만 보관하고, 넘치면 가장 오래전에 사용한 회원을 통째로 뺀다(LRU, LinkedHashMap 접근 순서).
+ *   아직 저장하지 않은 회원은 빼기 전에 목록을 떼어 두었다가 다음 저장 때 함께 저장한다.
+ * - 메모리에 없는 회원은 먼저 load() 로 DB에 저장된 목록을 넣어야 한다. record(), get() 은 없는 회원이면 실패를 반환한다.
+ * - 변경된 회원은 drainDirty() 로 꺼내서 저장한다(RecentlyViewedService). 모든 메서드는 이 객체의 lock 을 잡는다.
+ */
+@Component
+public class RecentlyViewedStore {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final int historySize;
+    private final Map<String, History> histories;
+    // 저장하기 전에 LRU 로 빠진 회원의 목록, 저장이 끝나면 지운다(flushed()).
+    private final Map<String, long[]> evicted = new HashMap<>();
+
+    public RecentlyViewedStore(@Value("${shop.recent.history-size:20}") int historySize,
+                               @Value("${shop.recent.max-members:50000}") int maxMembers) {
+        this.historySize = historySize;
+        this.histories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, History> eldest) {
+                if (size() <= maxMembers) {
+                    return false;
+                }
+                if (eldest.getValue().dirty) {
+                    evicted.put(eldest.getKey(), eldest.getValue().toArray(historySize));
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * 상품 조회 기록
+     * @return 메모리에 없는 회원이면 false(load() 후 다시 호출)
+     */
+    public synchronized boolean record(String email, long itemId) {
+        History history = histories.get(email);
+        if (history == null) {
+            return false;
+        }
+        history.add(itemId);
+        return true;
+    }
+
+    /**
+     * 최근 본 상품 조회
+     * @param limit : 최대 개수
+     * @return 가장 최근에 본 상품부터, 메모리에 없는 회원이면 null(load() 후 다시 호출)
+     */
+    public synchronized long[] get(String email, int limit) {
+        History history = histories.get(email);
+        return history == null ? null : history.toArray(limit);
+    }
+
+    /**
+     * 저장된 목록으로 회원 추가, 이미 있으면 무시한다.
+     * - 저장되기 전에 LRU 로 빠진 목록이 있으면 DB 값보다 최신이므로 그 목록을 사용한다.
+     * @param itemIds : 가장 최근에 본 상품부터
+     */
+    public synchronized void load(String email, long[] itemIds) {
+        if (histories.containsKey(email)) {
+            return;
+        }
+        long[] pending = evicted.remove(email);
+        History history = new History(historySize);
+        long[] source = pending != null ? pending : itemIds;
+        for (int i = Math.min(source.length, historySize) - 1; i >= 0; i--) {
+            history.add(source[i]);
+        }
+        history.dirty = pending != null;
+        histories.put(email, history);
+    }
+
+    /**
+     * 마지막 호출 이후 변경된 회원의 목록 꺼내기, 메모리에 있는 회원은 변경 없음으로 표시한다.
+     * - LRU 로 빠진 회원의 목록은 flushed() 가 호출될 때까지 남겨 둔다(그 사이에 load() 하면 이 목록을 사용한다).
+     * @return 회원 이메일 -> 최근 본 상품 ID(가장 최근부터)
+     */
+    public synchronized Map<String, long[]> drainDirty() {
+        Map<String, long[]> dirty = new HashMap<>(evicted);
+        histories.forEach((email, history) -> {
+            if (history.dirty) {
+                dirty.put(email, history.toArray(historySize));
+                history.dirty = false;
+            }
+        });
+        return dirty;
+    }
+
+    /**
+     * 저장이 끝난 목록 중 LRU 로 빠진 회원의 목록을 지운다(그 사이에 다시 빠진 목록은 남긴다).
+     */
+    public synchronized void flushed(Map<String, long[]> saved) {
+        saved.forEach((email, itemIds) -> evicted.remove(email, itemIds));
+    }
+
+    /**
+     * 저장에 실패한 목록을 다시 변경됨으로 표시한다(다음 저장 때 다시 꺼낸다).
+     */
+    public synchronized void markDirty(Map<String, long[]> failed) {
+        failed.forEach((email, itemIds) -> {
+            History history = histories.get(email);
+            if (history != null) {
+                history.dirty = true;
+            } else {
+                evicted.putIfAbsent(email, itemIds);
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return histories.size();
+    }
+
+    /**
+     * 회원 한 명의 최근 본 상품(ring buffer)
+     * - head 가 가장 최근 상품의 위치이고, 앞으로 갈수록(인덱스가 줄수록) 오래된 상품이다.
+     */
+    private static class History {
+        private final long[] itemIds;
+        private int head = -1;
+        private int size;
+        private boolean dirty;
+
+        History(int capacity) {
+            this.itemIds = new long[capacity];
+        }
+
+        void add(long itemId) {
+            dirty = true;
+            for (int k = 0; k < size; k++) {
+                if (itemIds[index(k)] == itemId) {
+                    // 이미 본 상품 : 더 최근 상품들을 한 칸씩 뒤로 밀고 맨 앞에 놓는다.
+                    for (int j = k; j > 0; j--) {
+                        itemIds[index(j)] = itemIds[index(j - 1)];
+                    }
+                    itemIds[head] = itemId;
+                    return;
+                }
+            }
+            head = (head + 1) % itemIds.length;
+            itemIds[head] = itemId;
+            size = Math.min(size + 1, itemIds.length);
+        }
+
+        long[] toArray(int limit) {
+            int length = Math.min(limit, size);
+            if (length == 0) {
+                return EMPTY;
+            }
+            long[] recent = new long[length];
+            for (int k = 0; k < length; k++) {
+                recent[k] = itemIds[index(k)];
+            }
+            return recent;
+        }
+
+        // k 번째로 최근 상품의 위치(0 이 가장 최근)
+        private int index(int k) {
+            return Math.floorMod(head - k, itemIds.length);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.javalab.shop.advice;
+
+import com.javalab.shop.entity.Item;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 동시성 충돌 재시도 Aspect 테스트
+ * - 정해진 횟수만큼 낙관적 락 충돌을 일으키는 대상에 Aspect 를 직접 적용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+class OptimisticLockRetryAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * 처음 conflicts 번은 상품(1번)의 버전 충돌로 실패하는 대상
+     */
+    static class ConflictingTarget {
+
+        private final int conflicts;
+        private int calls;
+
+        ConflictingTarget(int conflicts) {
+            this.conflicts = conflicts;
+        }
+
+        @RetryOnConflict
+        public int order() {
+            calls++;
+            if (calls <= conflicts) {
+                throw new ObjectOptimisticLockingFailureException(Item.class, 1L);
+            }
+            return calls;
+        }
+
+        int getCalls() {
+            return calls;
+        }
+    }
+
+    private ConflictingTarget proxy(ConflictingTarget target, OptimisticLockRetryAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    // 충돌한 엔티티(Item) 태그가 붙은 카운터 값
+    private double count(String name) {
+        return meterRegistry.find(name).tag("entity", "Item").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    @Test
+    @DisplayName("충돌하면 다시 실행하고 충돌/재시도 횟수를 메트릭으로 남김 테스트")
+    public void retryUntilSuccess() {
+        ConflictingTarget target = new ConflictingTarget(2);
+
+        int calls = proxy(target, new OptimisticLockRetryAspect(meterRegistry, 3, 1)).order();
+
+        assertEquals(3, calls);
+        assertEquals(3, target.getCalls());
+        assertEquals(2, count("shop.concurrency.conflicts"));
+        assertEquals(2, count("shop.concurrency.retries"));
+        // 엔티티 ID는 태그로 남기지 않는다(상품마다 시계열이 늘어나지 않도록).
+        assertTrue(meterRegistry.getMeters().stream().allMatch(meter -> meter.getId().getTag("id") == null));
+    }
+
+    @Test
+    @DisplayName("최대 시도 횟수를 넘으면 예외를 그대로 던짐 테스트")
+    public void giveUpAfterMaxAttempts() {
+        ConflictingTarget target = new ConflictingTarget(Integer.MAX_VALUE);
+        ConflictingTarget proxy = proxy(target, new OptimisticLockRetryAspect(meterRegistry, 3, 1));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, proxy::order);
+
+        assertEquals(3, target.getCalls());
+        assertEquals(3, count("shop.concurrency.conflicts"));   // 마지막 실패도 충돌로 센다.
+        assertEquals(2, count("shop.concurrency.retries"));
+    }
+
+    @Test
+    @DisplayName("바깥 트랜잭션 안에서는 재시도하지 않음 테스트")
+    public void noRetryInsideTransaction() {
+        ConflictingTarget target = new ConflictingTarget(1);
+        ConflictingTarget proxy = proxy(target, new OptimisticLockRetryAspect(meterRegistry, 3, 1));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class, proxy::order);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(1, target.getCalls());
+        assertEquals(0, count("shop.concurrency.retries"));
+    }
+
+    @Test
+    @DisplayName("재시도 대기 시간은 0 ~ backoff * 2^(시도-1) 미만 테스트")
+    public void jitterBound() {
+        OptimisticLockRetryAspect aspect = new OptimisticLockRetryAspect(meterRegistry, 5, 20);
+
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            long bound = 20L << (attempt - 1);
+            for (int i = 0; i < 1000; i++) {
+                long backoff = aspect.backoffMillis(attempt);
+                assertTrue(backoff >= 0 && backoff < bound, "attempt " + attempt + " : " + backoff);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.javalab.shop.dto;
+
+import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.entity.Item;
+import com.javalab.shop.entity.ItemImg;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 DTO 변환 비용 벤치마크(JMH) - 직접 작성한 변환 메서드 vs ModelMapper(이전 방식)
+ * - 실행 : ./gradlew jmh -Pjmh.includes=ItemDtoMappingBenchmark -Pjmh.prof=gc
+ * - 호출당 시간(ns)과 gc 프로파일러의 호출당 할당 바이트(gc.alloc.rate.norm), 할당 속도(gc.alloc.rate)를 비교한다.
+ * - modelMapper* 는 이전 구현과 같이 ModelMapper 하나를 재사용한다(타입 매핑은 첫 호출에 만들어져 보관된다).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemDtoMappingBenchmark {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private ItemFormDto itemFormDto;
+    private Item item;
+    private ItemImg itemImg;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        itemFormDto = ItemFormDto.builder()
+                .itemNm("나이키 경량 러닝화")
+                .price(89000)
+                .itemDetail("가볍고 통기성이 좋은 러닝화 ".repeat(20))
+                .stockNumber(100)
+                .itemSellStatus(ItemSellStatus.SELL)
+                .build();
+        item = itemFormDto.createItem();
+        item.setId(1L);
+        itemImg = new ItemImg();
+        itemImg.setId(1L);
+        itemImg.setImgName("0b5a3f0e-2c1d.jpg");
+        itemImg.setOriImgName("running.jpg");
+        itemImg.setImgUrl("/images/item/0b5a3f0e-2c1d.jpg");
+        itemImg.setRepimgYn("Y");
+        itemImg.setItem(item);
+    }
+
+    @Benchmark
+    public Item createItem() {
+        return itemFormDto.createItem();
+    }
+
+    @Benchmark
+    public Item modelMapperCreateItem() {
+        return modelMapper.map(itemFormDto, Item.class);
+    }
+
+    @Benchmark
+    public ItemFormDto itemFormDtoOf() {
+        return ItemFormDto.of(item);
+    }
+
+    @Benchmark
+    public ItemFormDto modelMapperItemFormDtoOf() {
+        return modelMapper.map(item, ItemFormDto.class);
+    }
+
+    @Benchmark
+    public ItemImgDto itemImgEntityToDto() {
+        return ItemImgDto.entityToDto(itemImg);
+    }
+
+    @Benchmark
+    public ItemImgDto modelMapperItemImgEntityToDto() {
+        return modelMapper.map(itemImg, ItemImgDto.class);
+    }
+}
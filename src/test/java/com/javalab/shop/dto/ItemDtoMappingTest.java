@@ -0,0 +1,68 @@
+package com.javalab.shop.dto;
+
+import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.entity.Item;
+import com.javalab.shop.entity.ItemImg;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 상품 DTO 변환 메서드 테스트
+ * - 스프링 컨텍스트와 DB 없이 실행된다. 변환 비용 비교는 ItemDtoMappingBenchmark(JMH)
+ */
+class ItemDtoMappingTest {
+
+    @Test
+    @DisplayName("상품 등록 DTO -> 상품 엔티티 -> 상품 수정 DTO 변환 테스트")
+    public void itemFormDto() {
+        ItemFormDto itemFormDto = ItemFormDto.builder()
+                .id(99L)
+                .itemNm("나이키 러닝화")
+                .price(89000)
+                .itemDetail("가벼운 러닝화")
+                .stockNumber(100)
+                .itemSellStatus(ItemSellStatus.SELL)
+                .build();
+
+        Item item = itemFormDto.createItem();
+        assertNull(item.getId());                               // 새 상품이므로 id 는 옮기지 않는다.
+        assertEquals("나이키 러닝화", item.getItemNm());
+        assertEquals(89000, item.getPrice());
+        assertEquals("가벼운 러닝화", item.getItemDetail());
+        assertEquals("가벼운 러닝화", item.getItemSummary());
+        assertEquals(100, item.getStockNumber());
+        assertEquals(ItemSellStatus.SELL, item.getItemSellStatus());
+
+        item.setId(1L);
+        ItemFormDto of = ItemFormDto.of(item);
+        assertEquals(1L, of.getId());
+        assertEquals(itemFormDto.getItemNm(), of.getItemNm());
+        assertEquals(itemFormDto.getPrice(), of.getPrice());
+        assertEquals(itemFormDto.getItemDetail(), of.getItemDetail());
+        assertEquals(itemFormDto.getStockNumber(), of.getStockNumber());
+        assertEquals(itemFormDto.getItemSellStatus(), of.getItemSellStatus());
+        assertTrue(of.getItemImgDtoList().isEmpty());
+    }
+
+    @Test
+    @DisplayName("상품 이미지 엔티티 -> 상품 이미지 DTO 변환 테스트")
+    public void itemImgDto() {
+        ItemImg itemImg = new ItemImg();
+        itemImg.setId(1L);
+        itemImg.setImgName("0b5a3f0e.jpg");
+        itemImg.setOriImgName("running.jpg");
+        itemImg.setImgUrl("/images/item/0b5a3f0e.jpg");
+        itemImg.setRepimgYn("Y");
+
+        ItemImgDto itemImgDto = ItemImgDto.entityToDto(itemImg);
+        assertEquals(1L, itemImgDto.getId());
+        assertEquals("0b5a3f0e.jpg", itemImgDto.getImgName());
+        assertEquals("running.jpg", itemImgDto.getOriImgName());
+        assertEquals("/images/item/0b5a3f0e.jpg", itemImgDto.getImgUrl());
+        assertEquals("Y", itemImgDto.getRepImgYn());
+    }
+}
@@ -0,0 +1,124 @@
+package com.javalab.shop.ranking;
+
+import com.javalab.shop.constant.SalesWindow;
+import com.javalab.shop.entity.SalesRankCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 인기 상품 순위 테스트
+ * - 순위만 직접 생성해서 사용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+class BestsellerRankingTest {
+
+    private static final long HOUR = 60 * 60_000L;
+    private static final long NOW = 1_000 * HOUR;       // 구간 경계에 맞춘 기준 시각
+
+    @Test
+    @DisplayName("판매량 순서, 같으면 최근 상품 순서로 상위 상품 조회 테스트")
+    public void top() {
+        BestsellerRanking ranking = new BestsellerRanking(100, 20);
+        ranking.record(1L, 5, NOW);
+        ranking.record(2L, 7, NOW);
+        ranking.record(3L, 5, NOW);
+        ranking.record(1L, 1, NOW);
+
+        assertTrue(ranking.top(SalesWindow.DAY, 3).isEmpty());     // refresh() 전에는 반영되지 않는다.
+        ranking.refresh(NOW);
+
+        assertEquals(List.of(new BestsellerRanking.RankedItem(2L, 7), new BestsellerRanking.RankedItem(1L, 6),
+                new BestsellerRanking.RankedItem(3L, 5)), ranking.top(SalesWindow.DAY, 3));
+        assertEquals(2, ranking.top(SalesWindow.HOUR, 2).size());
+        assertEquals(3, ranking.top(SalesWindow.WEEK, 10).size());
+    }
+
+    @Test
+    @DisplayName("카운터보다 상품이 많아도 많이 팔린 상품은 남음 테스트")
+    public void heavyHitters() {
+        BestsellerRanking ranking = new BestsellerRanking(10, 3);
+        for (long itemId = 100; itemId < 1_000; itemId++) {
+            ranking.record(itemId, 1, NOW);             // 한 번씩 팔린 상품 900개
+            if (itemId % 3 == 0) {
+                ranking.record(1L, 1, NOW);             // 300개
+            }
+            if (itemId % 5 == 0) {
+                ranking.record(2L, 1, NOW);             // 180개
+            }
+        }
+        ranking.refresh(NOW);
+
+        List<BestsellerRanking.RankedItem> top = ranking.top(SalesWindow.DAY, 2);
+        assertEquals(1L, top.get(0).itemId());
+        assertEquals(2L, top.get(1).itemId());
+        assertTrue(top.get(0).salesCount() >= 300);     // 센 값은 실제보다 크거나 같다.
+        assertTrue(top.get(1).salesCount() >= 180);
+    }
+
+    @Test
+    @DisplayName("기간을 벗어난 구간은 순위에서 빠짐 테스트")
+    public void expire() {
+        BestsellerRanking ranking = new BestsellerRanking(100, 20);
+        ranking.record(1L, 10, NOW);
+        ranking.record(2L, 1, NOW + 2 * HOUR);
+
+        ranking.refresh(NOW + 2 * HOUR);
+        assertEquals(List.of(new BestsellerRanking.RankedItem(2L, 1)), ranking.top(SalesWindow.HOUR, 10));
+        assertEquals(1L, ranking.top(SalesWindow.DAY, 10).get(0).itemId());
+
+        ranking.refresh(NOW + 25 * HOUR);
+        assertEquals(List.of(new BestsellerRanking.RankedItem(2L, 1)), ranking.top(SalesWindow.DAY, 10));
+        assertEquals(2, ranking.top(SalesWindow.WEEK, 10).size());
+
+        ranking.record(3L, 1, NOW);                     // 기간을 벗어난 시각의 주문은 해당 기간 순위에 반영되지 않는다.
+        ranking.refresh(NOW + 25 * HOUR);
+        assertEquals(1, ranking.top(SalesWindow.DAY, 10).size());
+    }
+
+    @Test
+    @DisplayName("주문 취소 시 주문일 구간에서 차감 테스트")
+    public void cancel() {
+        BestsellerRanking ranking = new BestsellerRanking(100, 20);
+        ranking.record(1L, 3, NOW);
+        ranking.record(2L, 2, NOW);
+        ranking.cancel(1L, 3, NOW);
+        ranking.cancel(9L, 1, NOW);                     // 순위에 없는 상품은 무시
+        ranking.refresh(NOW + HOUR / 2);
+
+        assertEquals(List.of(new BestsellerRanking.RankedItem(2L, 2)), ranking.top(SalesWindow.DAY, 10));
+    }
+
+    @Test
+    @DisplayName("변경된 구간 저장 후 복원 테스트")
+    public void snapshotAndRestore() {
+        BestsellerRanking ranking = new BestsellerRanking(100, 20);
+        ranking.record(1L, 4, NOW);
+        ranking.record(2L, 2, NOW + HOUR);
+        ranking.refresh(NOW + HOUR);
+
+        List<BestsellerRanking.BucketSnapshot> snapshots = ranking.drainDirtyBuckets(NOW + HOUR);
+        assertEquals(4, snapshots.size());              // HOUR 1개(1시간 전 구간은 기간 밖) + DAY 2개 + WEEK 1개(같은 6시간 구간)
+        assertTrue(ranking.drainDirtyBuckets(NOW + HOUR).isEmpty());    // 꺼낸 구간은 변경 없음
+
+        ranking.markDirty(snapshots);                   // 저장 실패
+        assertEquals(4, ranking.drainDirtyBuckets(NOW + HOUR).size());
+
+        BestsellerRanking restored = new BestsellerRanking(100, 20);
+        for (BestsellerRanking.BucketSnapshot snapshot : snapshots) {
+            for (SalesRankCounter counter : snapshot.counters()) {
+                restored.restore(snapshot.window(), snapshot.bucketStart(),
+                        counter.getItemId(), counter.getCount(), counter.getError(), NOW + HOUR);
+            }
+        }
+        restored.refresh(NOW + HOUR);
+
+        for (SalesWindow window : SalesWindow.values()) {
+            assertEquals(ranking.top(window, 10), restored.top(window, 10));
+        }
+        assertEquals(NOW + HOUR - 23 * HOUR, BestsellerRanking.oldestLiveBucketStart(SalesWindow.DAY, NOW + HOUR));
+    }
+}
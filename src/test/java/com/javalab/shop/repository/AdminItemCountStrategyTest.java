@@ -0,0 +1,72 @@
+package com.javalab.shop.repository;
+
+import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.ItemSearchDto;
+import com.javalab.shop.event.ItemChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 관리자 상품 목록 전체 수 조회 방식 테스트
+ * - 조회 방식만 직접 생성해서 사용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+class AdminItemCountStrategyTest {
+
+    @Test
+    @DisplayName("같은 검색 조건은 한 번만 세고 상품 변경 커밋 시 다시 세는지 테스트")
+    public void cached() {
+        CachedAdminItemCount countStrategy = new CachedAdminItemCount(60, 100);
+        AtomicInteger counts = new AtomicInteger();
+
+        assertEquals(10, countStrategy.count(search("itemNm", "Nike", null), () -> count(counts, 10)));
+        assertEquals(10, countStrategy.count(search("itemNm", "nike", null), () -> count(counts, 20)));   // 대소문자만 다른 검색어
+        assertEquals(30, countStrategy.count(search("itemNm", "nike", ItemSellStatus.SELL), () -> count(counts, 30)));
+        assertEquals(40, countStrategy.count(search("createdBy", "", null), () -> count(counts, 40)));
+        assertEquals(40, countStrategy.count(search("itemNm", "", null), () -> count(counts, 50)));   // 검색어가 없으면 검색 조건은 무시
+        assertEquals(3, counts.get());
+        assertEquals(3, countStrategy.size());
+
+        countStrategy.onItemChanged(new ItemChangedEvent(1L));
+        assertEquals(11, countStrategy.count(search("itemNm", "Nike", null), () -> count(counts, 11)));
+        assertEquals(4, counts.get());
+    }
+
+    @Test
+    @DisplayName("보관 기간이 지나면 다시 세는지 테스트")
+    public void ttl() {
+        CachedAdminItemCount countStrategy = new CachedAdminItemCount(0, 100);
+        AtomicInteger counts = new AtomicInteger();
+
+        countStrategy.count(search("itemNm", "Nike", null), () -> count(counts, 10));
+        countStrategy.count(search("itemNm", "Nike", null), () -> count(counts, 10));
+        assertEquals(2, counts.get());
+    }
+
+    @Test
+    @DisplayName("매번 세는 방식 테스트")
+    public void exact() {
+        ExactAdminItemCount countStrategy = new ExactAdminItemCount();
+        AtomicInteger counts = new AtomicInteger();
+
+        countStrategy.count(search("itemNm", "Nike", null), () -> count(counts, 10));
+        countStrategy.count(search("itemNm", "Nike", null), () -> count(counts, 10));
+        assertEquals(2, counts.get());
+    }
+
+    private ItemSearchDto search(String searchBy, String searchQuery, ItemSellStatus searchSellStatus) {
+        ItemSearchDto itemSearchDto = new ItemSearchDto();
+        itemSearchDto.setSearchBy(searchBy);
+        itemSearchDto.setSearchQuery(searchQuery);
+        itemSearchDto.setSearchSellStatus(searchSellStatus);
+        return itemSearchDto;
+    }
+
+    private long count(AtomicInteger counts, long count) {
+        counts.incrementAndGet();
+        return count;
+    }
+}
@@ -1,9 +1,14 @@
 package com.javalab.shop.repository;
 
 import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.ItemFormDto;
+import com.javalab.shop.dto.QMainItemDto;
 import com.javalab.shop.entity.Item;
+import com.javalab.shop.entity.ItemImg;
 import com.javalab.shop.entity.QItem;
+import com.javalab.shop.entity.QItemImg;
 import com.javalab.shop.exception.ItemNotFoundException;
+import com.javalab.shop.search.ItemSearchIndex;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.jpa.JPQLQueryFactory;
 import com.querydsl.jpa.impl.JPAQueryFactory;
@@ -12,7 +17,10 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.extern.log4j.Log4j2;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -51,6 +59,12 @@ public class ItemRepositoryTest {
     @Autowired
     ItemRepository itemRepository; // 테스트할 ItemRepository 빈 주입
 
+    @Autowired
+    ItemImgRepository itemImgRepository;
+
+    @Autowired
+    ItemSearchIndex itemSearchIndex;
+
     // 아이템 한개 저장 테스트
     @Test
     @DisplayName("상품 저장 테스트")
@@ -250,6 +264,9 @@ public class ItemRepositoryTest {
 
         // 상품 상세 설명 조건 설정
         String searchItemDetail = "테스트 상품 상세 설명";
+        // 롤백되는 테스트 상품은 커밋 후 색인(ItemSearchIndexUpdater)되지 않으므로 직접 색인에 넣는다.
+        itemRepository.findByItemDetailByNative(searchItemDetail)
+                .forEach(item -> itemSearchIndex.put(item.getId(), item.getItemNm(), item.getItemDetail()));
 
         // When
         List<Item> itemList = itemRepository.findByItemDetail(searchItemDetail);
@@ -495,6 +512,141 @@ public class ItemRepositoryTest {
     }
 
 
+    @Test
+    @DisplayName("상품 상세 설명 요약 저장/수정 테스트")
+    public void itemSummaryTest() {
+        // 1. 빌더로 생성한 상품은 저장할 때 요약을 채운다.
+        String longDetail = "가벼운 러닝화 ".repeat(50);
+        Item item = Item.builder()
+                .itemNm("요약 테스트 상품")
+                .price(10000)
+                .stockNumber(10)
+                .itemDetail(longDetail)
+                .itemSellStatus(ItemSellStatus.SELL)
+                .build();
+        itemRepository.saveAndFlush(item);
+        assertThat(item.getItemSummary()).isEqualTo(longDetail.substring(0, Item.SUMMARY_LENGTH));
+
+        // 2. 상품 수정(updateItem)과 setItemDetail() 은 요약도 함께 바꾼다.
+        ItemFormDto itemFormDto = ItemFormDto.builder()
+                .itemNm("요약 테스트 상품")
+                .price(10000)
+                .stockNumber(10)
+                .itemDetail("짧은 설명")
+                .itemSellStatus(ItemSellStatus.SELL)
+                .build();
+        item.updateItem(itemFormDto);
+        assertThat(item.getItemSummary()).isEqualTo("짧은 설명");
+        item.setItemDetail(null);
+        assertThat(item.getItemSummary()).isNull();
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("목록 조회 시 DB에서 받는 바이트 수 비교(상세 설명 vs 요약/지연 로딩)")
+    public void listBytesTransferredTest() {
+        // 1. given : 상세 설명이 4,800자인 상품 30개(대표 이미지 포함)
+        for (int i = 0; i < 30; i++) {
+            Item item = Item.builder()
+                    .itemNm("전송량 테스트 상품 " + i)
+                    .price(10000)
+                    .stockNumber(10)
+                    .itemDetail("상세 설명 ".repeat(800))
+                    .itemSellStatus(ItemSellStatus.SELL)
+                    .build();
+            itemRepository.save(item);
+            ItemImg itemImg = new ItemImg();
+            itemImg.setItem(item);
+            itemImg.setImgUrl("/images/item/" + i + ".jpg");
+            itemImg.setRepimgYn("Y");
+            itemImgRepository.save(itemImg);
+        }
+        em.flush();
+        em.clear();
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        QItem item = QItem.item;
+        QItemImg itemImg = QItemImg.itemImg;
+
+        // 2. 메인 화면 한 페이지(6건) : 상세 설명(이전) vs 요약(이후)
+        long mainBefore = bytesSent(() -> queryFactory
+                .select(item.id, item.itemNm, item.itemDetail, itemImg.imgUrl, item.price)
+                .from(itemImg).join(itemImg.item, item)
+                .where(itemImg.repimgYn.eq("Y"))
+                .orderBy(item.id.desc()).limit(6).fetch());
+        long mainAfter = bytesSent(() -> queryFactory
+                .select(new QMainItemDto(item.id, item.itemNm, item.itemSummary, itemImg.imgUrl, item.price))
+                .from(itemImg).join(itemImg.item, item)
+                .where(itemImg.repimgYn.eq("Y"))
+                .orderBy(item.id.desc()).limit(6).fetch());
+
+        // 3. 관리자 화면 한 페이지(3건) : 상세 설명까지 읽은 엔티티(이전) vs 상세 설명 지연 로딩 엔티티(이후)
+        long adminBefore = bytesSent(() -> queryFactory
+                .select(item, item.itemDetail).from(item)
+                .orderBy(item.id.desc()).limit(3).fetch());
+        em.clear();
+        long adminAfter = bytesSent(() -> queryFactory
+                .selectFrom(item)
+                .orderBy(item.id.desc()).limit(3).fetch());
+
+        log.info("메인 화면 6건 : 상세 설명 {} bytes -> 요약 {} bytes", mainBefore, mainAfter);
+        log.info("관리자 화면 3건 : 상세 설명 포함 {} bytes -> 지연 로딩 {} bytes", adminBefore, adminAfter);
+        assertThat(mainAfter).isLessThan(mainBefore);
+        assertThat(adminAfter).isLessThan(adminBefore);
+    }
+
+    /**
+     * 쿼리 실행 중 DB 서버가 보낸 바이트 수(MariaDB 세션 상태 Bytes_sent 의 차이)
+     * - 테스트 트랜잭션 안에서는 같은 커넥션(세션)을 사용하므로 세션 상태로 잴 수 있다.
+     * - 상태 조회 자체의 응답 크기는 빼고 계산한다.
+     */
+    private long bytesSent(Runnable query) {
+        long before = sessionBytesSent();
+        query.run();
+        long after = sessionBytesSent();
+        long statusQueryBytes = sessionBytesSent() - after;
+        return after - before - statusQueryBytes;
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)      // 커밋 후에 2차 캐시/쿼리 캐시에 반영되므로 테스트 트랜잭션 없이 실행
+    @DisplayName("상품 이미지 2차 캐시와 상품 이미지 목록 쿼리 캐시 적중 테스트")
+    public void secondLevelCacheTest() {
+        // 1. given : 상품과 이미지 저장(각각 커밋)
+        Item item = saveTestItem();
+        ItemImg itemImg = new ItemImg();
+        itemImg.setItem(item);
+        itemImg.setImgUrl("/images/item/cache.jpg");
+        itemImg.setRepimgYn("Y");
+        itemImgRepository.save(itemImg);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        try {
+            // 2. when, then : 같은 이미지를 두 번 조회(조회마다 다른 영속성 컨텍스트)
+            // 이미지는 저장할 때 캐시에 들어가므로 두 번 모두 캐시에서 읽는다. 상품(Item)은 2차 캐시 대상이 아니다.
+            for (int i = 0; i < 2; i++) {
+                assertThat(itemImgRepository.findById(itemImg.getId())).isPresent();
+            }
+            assertThat(statistics.getDomainDataRegionStatistics(ItemImg.class.getName()).getHitCount()).isEqualTo(2);
+            assertThat(em.getEntityManagerFactory().getCache().contains(Item.class, item.getId())).isFalse();
+
+            // 3. when, then : 이미지 목록을 두 번 조회, 두 번째 조회만 쿼리 캐시에서 읽는다.
+            for (int i = 0; i < 2; i++) {
+                assertThat(itemImgRepository.findByItemIdOrderByIdAsc(item.getId())).hasSize(1);
+            }
+            assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+            assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        } finally {
+            itemImgRepository.delete(itemImg);
+            itemRepository.delete(item);
+        }
+    }
+
+    private long sessionBytesSent() {
+        Object[] row = (Object[]) em.createNativeQuery("show session status like 'Bytes_sent'").getSingleResult();
+        return Long.parseLong(row[1].toString());
+    }
+
     /*
       * 테스트 클래스에서 사용할 메소드
       * 상품 한 개 저장
@@ -0,0 +1,86 @@
+package com.javalab.shop.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * BK-tree(편집 거리 검색)와 오타를 고려한 상품명 검색 테스트
+ * - 스프링 컨텍스트와 DB 없이 실행된다. 조회 비용 벤치마크는 ItemNmFuzzySearchBenchmark(JMH)
+ */
+class BkTreeTest {
+
+    @Test
+    @DisplayName("편집 거리 계산 테스트")
+    public void distance() {
+        assertEquals(0, BkTree.distance("나이키", "나이키"));
+        assertEquals(1, BkTree.distance("나이카", "나이키"));      // 교체
+        assertEquals(1, BkTree.distance("나키", "나이키"));        // 삭제
+        assertEquals(2, BkTree.distance("런닝", "러닝화"));        // 교체 + 추가
+        assertEquals(3, BkTree.distance("", "abc"));
+    }
+
+    @Test
+    @DisplayName("편집 거리 이내의 단어를 전체 탐색과 같게 찾는지 테스트")
+    public void search() {
+        Random random = new Random(3);
+        BkTree tree = new BkTree();
+        Set<String> words = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 2 + random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            tree.add(word.toString());
+            words.add(word.toString());
+        }
+        assertEquals(words.size(), tree.size());
+
+        for (String query : List.of("ab", "abcd", "dddddd", "abcabc", "zz")) {
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                Set<String> expected = new HashSet<>();
+                for (String word : words) {
+                    if (BkTree.distance(query, word) <= maxDistance) {
+                        expected.add(word);
+                    }
+                }
+                assertEquals(expected, new HashSet<>(tree.search(query, maxDistance)), query);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("오타가 있는 검색어로 상품명 검색 테스트")
+    public void fuzzyItemNmSearch() {
+        ItemSearchIndex itemSearchIndex = new ItemSearchIndex(1000);
+        assertNull(itemSearchIndex.findItemNmFuzzyMatches("나이카"));      // 준비되지 않은 색인
+
+        ItemSearchIndex.Indexes indexes = itemSearchIndex.newIndexes(16);
+        indexes.put(1L, "나이키 러닝화", "");
+        indexes.put(2L, "나이키 축구화", "");
+        indexes.put(3L, "아디다스 러닝화", "");
+        indexes.put(4L, "Converse 스니커즈", "");
+        itemSearchIndex.replace(indexes);
+
+        assertArrayEquals(new long[0], itemSearchIndex.findItemNmMatches("나이카"));
+        assertArrayEquals(new long[]{2L, 1L}, itemSearchIndex.findItemNmFuzzyMatches("나이카"));
+        assertArrayEquals(new long[]{1L}, itemSearchIndex.findItemNmFuzzyMatches("나이카 런닝화"));
+        assertArrayEquals(new long[]{4L}, itemSearchIndex.findItemNmFuzzyMatches("convrese"));  // 다섯 글자 이상은 편집 거리 2
+        assertArrayEquals(new long[0], itemSearchIndex.findItemNmFuzzyMatches("샌들"));
+        assertArrayEquals(new long[0], itemSearchIndex.findItemNmFuzzyMatches("나"));
+
+        // 수정된 상품은 이전 단어로 찾을 수 없다(BK-tree 에는 단어가 남아 있어도 상품명 색인으로 다시 확인).
+        itemSearchIndex.put(2L, "나이스 티셔츠", "");
+        assertArrayEquals(new long[0], itemSearchIndex.findItemNmFuzzyMatches("축구화 나이카"));
+        assertArrayEquals(new long[]{2L, 1L}, itemSearchIndex.findItemNmFuzzyMatches("나이카"));     // 나이키, 나이스
+    }
+}
@@ -0,0 +1,67 @@
+package com.javalab.shop.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 함께 구매한 상품 그래프 테스트
+ * - 그래프만 직접 생성해서 사용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+class CoPurchaseGraphTest {
+
+    @Test
+    @DisplayName("함께 구매 횟수가 많은 순서, 같으면 최근 상품 순서로 조회 테스트")
+    public void neighbours() {
+        CoPurchaseGraph graph = new CoPurchaseGraph(10, 16);
+        graph.addOrder(new long[]{1L, 2L, 3L});
+        graph.addOrder(new long[]{1L, 3L});
+        graph.addOrder(new long[]{1L, 4L});
+
+        assertArrayEquals(new long[]{3L, 4L, 2L}, graph.neighbours(1L, 10));
+        assertArrayEquals(new long[]{3L}, graph.neighbours(1L, 1));
+        assertArrayEquals(new long[]{1L, 2L}, graph.neighbours(3L, 10));   // 쌍의 양쪽에 반영
+        assertEquals(2, graph.count(1L, 3L));
+        assertEquals(0, graph.neighbours(9L, 10).length);                   // 주문 이력이 없는 상품
+    }
+
+    @Test
+    @DisplayName("주문 취소 시 함께 구매 횟수 차감, 0 이 되면 이웃에서 제거 테스트")
+    public void removeOrder() {
+        CoPurchaseGraph graph = new CoPurchaseGraph(10, 16);
+        graph.addOrder(new long[]{1L, 2L});
+        graph.addOrder(new long[]{1L, 2L});
+        graph.addOrder(new long[]{1L, 3L});
+
+        graph.removeOrder(new long[]{1L, 2L});
+        assertArrayEquals(new long[]{3L, 2L}, graph.neighbours(1L, 10));
+        graph.removeOrder(new long[]{1L, 2L});
+        assertArrayEquals(new long[]{3L}, graph.neighbours(1L, 10));
+        graph.removeOrder(new long[]{5L, 6L});                              // 없는 쌍은 무시
+        assertEquals(0, graph.count(2L, 1L));
+    }
+
+    @Test
+    @DisplayName("이웃이 최대 개수를 넘어도 자주 함께 팔린 상품은 남음 테스트")
+    public void candidateSize() {
+        CoPurchaseGraph graph = new CoPurchaseGraph(8, 16);
+        for (long itemId = 100; itemId < 200; itemId++) {
+            graph.addOrder(new long[]{1L, itemId});             // 한 번씩 함께 팔린 상품 100개
+            if (itemId % 2 == 0) {
+                graph.addOrder(new long[]{1L, 2L});             // 50번
+            }
+            if (itemId % 4 == 0) {
+                graph.addOrder(new long[]{1L, 3L});             // 25번
+            }
+        }
+
+        long[] neighbours = graph.neighbours(1L, 10);
+        assertEquals(8, neighbours.length);
+        assertEquals(2L, neighbours[0]);
+        assertEquals(3L, neighbours[1]);
+        assertTrue(graph.count(1L, 2L) >= 50);                  // 센 값은 실제보다 크거나 같다.
+    }
+}
@@ -0,0 +1,37 @@
+package com.javalab.shop.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 한글 검색용 토크나이저 테스트
+ */
+class HangulTokenizerTest {
+
+    @Test
+    @DisplayName("자모 분해 테스트")
+    public void jamo() {
+        assertEquals("ㄴㅏㅇㅣㅋㅣ", HangulTokenizer.jamo("나이키"));
+        assertEquals("ㄷㅏㄹㄱ", HangulTokenizer.jamo("닭"));          // 겹받침
+        assertEquals("ㄱㅗㅏㅈㅏ", HangulTokenizer.jamo("과자"));       // 이중 모음
+        assertEquals("ㄷㅏㄹㄱ", HangulTokenizer.jamo("다ㄺ"));         // 직접 입력한 겹자음
+        assertEquals("nike ㅇㅔㅇㅓ", HangulTokenizer.jamo("NIKE 에어"));
+    }
+
+    @Test
+    @DisplayName("초성 변환 및 초성 검색어 판별 테스트")
+    public void choseong() {
+        assertEquals("ㄴㅇㅋ ㅇㅇ", HangulTokenizer.choseong("나이키 에어"));
+        assertEquals("ㄲㅃ 2kg", HangulTokenizer.choseong("꿀빵 2KG"));
+
+        assertTrue(HangulTokenizer.isChoseongQuery("ㄴㅇㅋ"));
+        assertTrue(HangulTokenizer.isChoseongQuery("ㄴㅇㅋ ㅇㅇ"));
+        assertFalse(HangulTokenizer.isChoseongQuery("나ㅇㅋ"));
+        assertFalse(HangulTokenizer.isChoseongQuery("ㅏㅣ"));
+        assertFalse(HangulTokenizer.isChoseongQuery(" "));
+    }
+}
@@ -0,0 +1,93 @@
+package com.javalab.shop.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 오타를 고려한 상품명 검색 조회 비용 벤치마크(JMH)
+ * - 실행 : ./gradlew jmh
+ * - bkTreeSearch : 상품명 단어 BK-tree 에서 가까운 단어만 찾는 비용
+ * - fuzzyItemNmSearch : 가까운 단어로 상품을 찾아 합집합/교집합까지 구하는 비용(메인 화면 검색의 재검색 비용)
+ * - exactItemNmSearch : 같은 검색어의 정확한 검색 비용(재검색 전에 항상 실행된다)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class ItemNmFuzzySearchBenchmark {
+
+    private static final String[] BRANDS = {"나이키", "아디다스", "뉴발란스", "푸마", "리복", "컨버스", "반스", "아식스", "휠라", "미즈노"};
+    private static final String[] COLORS = {"블랙", "화이트", "네이비", "그레이", "베이지", "레드", "블루", "그린", "핑크", "옐로우"};
+    private static final String[] CATEGORIES = {"러닝화", "운동화", "축구화", "농구화", "슬리퍼", "샌들", "후드티", "반팔티", "트레이닝 팬츠", "바람막이",
+            "패딩", "백팩", "모자", "양말", "레깅스", "집업", "조거팬츠", "스니커즈", "워킹화", "등산화"};
+    private static final String[] WORDS = {"경량", "방수", "초경량", "기모", "오버핏", "슬림핏", "와이드", "컴포트", "프리미엄", "베이직"};
+
+    @Param({"100000", "1000000"})
+    public int itemCount;
+
+    // 오타 한 글자(브랜드), 단어마다 오타(브랜드/색상/분류), 띄어 쓴 분류("트레이닝 팬츠")의 오타, 찾을 수 없는 검색어
+    @Param({"나이카", "미즈노 옐로유 등산하", "트레이넹 펜츠", "없는상품"})
+    public String query;
+
+    private ItemSearchIndex itemSearchIndex;
+    private BkTree itemNmTokens;
+    private List<String> queryTokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        itemSearchIndex = new ItemSearchIndex(1000);
+        itemNmTokens = new BkTree();
+        ItemSearchIndex.Indexes indexes = itemSearchIndex.newIndexes(itemCount);
+        for (int itemId = 1; itemId <= itemCount; itemId++) {
+            String itemNm = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + random.nextInt(100) + "호 "
+                    + COLORS[random.nextInt(COLORS.length)] + " "
+                    + CATEGORIES[random.nextInt(CATEGORIES.length)] + " "
+                    + (char) ('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26)) + random.nextInt(1000);
+            indexes.put(itemId, itemNm, "");
+            for (String token : itemNm.toLowerCase().split(" ")) {
+                if (token.chars().noneMatch(Character::isDigit)) {     // ItemSearchIndex 와 같이 숫자가 없는 단어만
+                    itemNmTokens.add(token);
+                }
+            }
+        }
+        itemSearchIndex.replace(indexes);
+        queryTokens = List.of(query.split(" "));
+    }
+
+    @Benchmark
+    public int bkTreeSearch() {
+        int found = 0;
+        for (String token : queryTokens) {
+            found += itemNmTokens.search(token, token.length() >= 5 ? 2 : 1).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public long[] fuzzyItemNmSearch() {
+        return itemSearchIndex.findItemNmFuzzyMatches(query);
+    }
+
+    @Benchmark
+    public long[] exactItemNmSearch() {
+        return itemSearchIndex.findItemNmMatches(query);
+    }
+}
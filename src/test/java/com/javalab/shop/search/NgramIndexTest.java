@@ -0,0 +1,251 @@
+package com.javalab.shop.search;
+
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 상품 검색 색인(bigram 역색인) 테스트
+ * - 색인만 직접 생성해서 사용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+@Log4j2
+class NgramIndexTest {
+
+    @Test
+    @DisplayName("검색어가 포함된 상품을 상품 ID 내림차순으로 조회 테스트")
+    public void search() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "나이키 러닝화");
+        index.put(2L, "아디다스 운동화");
+        index.put(3L, "Nike 축구화");
+        index.put(4L, "나이키 축구화");
+
+        assertArrayEquals(new long[]{4L, 1L}, index.search("나이키", 1000));
+        assertArrayEquals(new long[]{4L, 3L}, index.search("축구화", 1000));
+        assertArrayEquals(new long[]{3L}, index.search("NIKE", 1000));   // 대소문자 구분 없음
+        assertArrayEquals(new long[0], index.search("샌들", 1000));
+    }
+
+    @Test
+    @DisplayName("상품 수정/삭제 시 색인 반영 테스트")
+    public void updateAndRemove() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "겨울 패딩");
+        index.put(2L, "겨울 코트");
+
+        index.put(1L, "여름 반팔");     // 수정
+        index.remove(2L);               // 삭제
+
+        assertArrayEquals(new long[0], index.search("겨울", 1000));
+        assertArrayEquals(new long[]{1L}, index.search("여름 반", 1000));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("색인으로 답할 수 없는 검색어는 null 반환 테스트")
+    public void cannotAnswer() {
+        NgramIndex index = new NgramIndex();
+        for (long itemId = 1; itemId <= 10; itemId++) {
+            index.put(itemId, "테스트 상품 " + itemId);
+        }
+
+        assertNull(index.search("상", 1000));        // 한 글자
+        assertNull(index.search("상%품", 1000));     // LIKE 와일드카드
+        assertNull(index.search("상품", 5));         // 후보가 최대 후보 수 초과
+        assertEquals(10, index.search("상품", 10).length);
+    }
+
+    @Test
+    @DisplayName("같은 상품을 여러 번 수정해도 색인 크기 유지 테스트(compact)")
+    public void compact() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "고정 상품");
+        for (int i = 0; i < 5000; i++) {
+            index.put(2L, "수정 상품 " + i);
+        }
+
+        assertArrayEquals(new long[]{2L, 1L}, index.search("상품", 1000));
+        assertArrayEquals(new long[]{2L}, index.search("상품 4999", 1000));
+        assertArrayEquals(new long[0], index.search("상품 4998", 1000));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("자모/초성 색인으로 부분 음절, 초성 검색 테스트")
+    public void hangulSearch() {
+        ItemSearchIndex itemSearchIndex = new ItemSearchIndex(1000);
+        ItemSearchIndex.Indexes indexes = itemSearchIndex.newIndexes(16);
+        indexes.put(1L, "나이키 러닝화", "가벼운 러닝화");
+        indexes.put(2L, "나이스 티셔츠", "면 티셔츠");
+        indexes.put(3L, "닭가슴살 도시락", "저녁 도시락");
+        itemSearchIndex.replace(indexes);
+
+        assertArrayEquals(new long[]{1L}, itemSearchIndex.findItemNmMatches("나잌"));        // 입력 중인 음절
+        assertArrayEquals(new long[]{2L, 1L}, itemSearchIndex.findItemNmMatches("나이"));
+        assertArrayEquals(new long[]{3L}, itemSearchIndex.findItemNmMatches("달"));          // 겹받침(ㄺ)의 앞부분
+        assertArrayEquals(new long[]{1L}, itemSearchIndex.findItemNmMatches("ㄴㅇㅋ"));      // 초성
+        assertArrayEquals(new long[]{2L, 1L}, itemSearchIndex.findItemNmMatches("ㄴㅇ"));
+        assertArrayEquals(new long[0], itemSearchIndex.findItemNmMatches("ㅋㄴㅇ"));
+        assertNull(itemSearchIndex.findItemNmMatches("ㄴ"));                                 // 한 글자 초성은 색인으로 답할 수 없음
+    }
+
+    @Test
+    @DisplayName("대표 이미지가 없는 상품은 메인 화면 검색 결과에서 빠지고 관리자 검색에는 나옴 테스트")
+    public void unlistedItem() {
+        ItemSearchIndex itemSearchIndex = new ItemSearchIndex(1000);
+        ItemSearchIndex.Indexes indexes = itemSearchIndex.newIndexes(16);
+        indexes.put(1L, "나이키 러닝화", "가벼운 러닝화", true);
+        indexes.put(2L, "나이키 축구화", "잔디용 축구화", false);   // 대표 이미지 없음
+        indexes.put(3L, "나이키 농구화", "발목 농구화", true);
+        itemSearchIndex.replace(indexes);
+
+        // 메인 화면의 페이지/전체 수는 이 결과의 개수로 계산되므로 목록에 나오지 않는 상품은 세지 않는다.
+        assertArrayEquals(new long[]{3L, 1L}, itemSearchIndex.findItemNmMatches("나이키"));
+        assertArrayEquals(new long[]{3L, 1L}, itemSearchIndex.findItemNmMatches("ㄴㅇㅋ"));
+        assertArrayEquals(new long[0], itemSearchIndex.findItemNmFuzzyMatches("나이카 축구화"));
+        assertArrayEquals(new long[]{3L, 2L, 1L}, itemSearchIndex.findCandidates(ItemSearchIndex.Field.ITEM_NM, "나이키"));
+
+        // 대표 이미지가 생기면 다시 색인되어 메인 화면 검색에 나온다.
+        itemSearchIndex.put(2L, "나이키 축구화", "잔디용 축구화", true);
+        assertArrayEquals(new long[]{3L, 2L, 1L}, itemSearchIndex.findItemNmMatches("나이키"));
+        assertArrayEquals(new long[]{2L}, itemSearchIndex.findItemNmFuzzyMatches("나이카 축구화"));
+    }
+
+    @Test
+    @DisplayName("준비되지 않은 색인은 null 반환 테스트")
+    public void notReady() {
+        ItemSearchIndex itemSearchIndex = new ItemSearchIndex(1000);
+        itemSearchIndex.put(1L, "나이키 러닝화", "가벼운 러닝화");
+        assertNull(itemSearchIndex.findCandidates(ItemSearchIndex.Field.ITEM_NM, "러닝화"));
+        assertNull(itemSearchIndex.findItemNmMatches("러닝화"));
+
+        ItemSearchIndex.Indexes indexes = itemSearchIndex.newIndexes(16);
+        indexes.put(1L, "나이키 러닝화", "가벼운 러닝화");
+        itemSearchIndex.replace(indexes);
+        assertArrayEquals(new long[]{1L}, itemSearchIndex.findCandidates(ItemSearchIndex.Field.ITEM_NM, "러닝화"));
+        assertArrayEquals(new long[]{1L}, itemSearchIndex.findCandidates(ItemSearchIndex.Field.ITEM_DETAIL, "가벼운"));
+    }
+
+    // ===== 벤치마크 =====
+
+    private static final String[] BRANDS = {"나이키", "아디다스", "뉴발란스", "푸마", "리복", "컨버스", "반스", "아식스", "휠라", "미즈노"};
+    private static final String[] COLORS = {"블랙", "화이트", "네이비", "그레이", "베이지", "레드", "블루", "그린", "핑크", "옐로우"};
+    private static final String[] CATEGORIES = {"러닝화", "운동화", "축구화", "농구화", "슬리퍼", "샌들", "후드티", "반팔티", "트레이닝 팬츠", "바람막이",
+            "패딩", "백팩", "모자", "양말", "레깅스", "집업", "조거팬츠", "스니커즈", "워킹화", "등산화"};
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("100만 건 상품명 검색 - 색인 후보 조회와 LIKE(전체 스캔) 비교")
+    public void compareWithLike() {
+        int itemCount = 1_000_000;
+        String[] itemNms = syntheticItemNms(itemCount);
+
+        // 1. 색인 생성
+        long buildStart = System.nanoTime();
+        NgramIndex index = new NgramIndex(itemCount);
+        for (int itemId = 1; itemId <= itemCount; itemId++) {
+            index.put(itemId, itemNms[itemId]);
+        }
+        index.trimToSize();
+        log.info("색인 생성 : {}건, {}ms", itemCount, (System.nanoTime() - buildStart) / 1_000_000);
+
+        // 2. 검색어별로 색인 후보 조회와 LIKE '%검색어%' 전체 스캔(메모리, DB I/O 제외) 비교
+        String[] queries = {"QZ512", "반스 핑크 등산화", "미즈노 옐로우", "없는 상품"};
+        for (String query : queries) {
+            String normalized = query.toLowerCase(Locale.ROOT);
+            List<Long> expected = new ArrayList<>();
+            List<Long> likeLatencies = new ArrayList<>();
+            for (int run = 0; run < 20; run++) {
+                expected.clear();
+                long begin = System.nanoTime();
+                for (int itemId = itemCount; itemId >= 1; itemId--) {
+                    if (itemNms[itemId].toLowerCase(Locale.ROOT).contains(normalized)) {
+                        expected.add((long) itemId);
+                    }
+                }
+                likeLatencies.add(System.nanoTime() - begin);
+            }
+
+            long[] candidates = null;
+            List<Long> indexLatencies = new ArrayList<>();
+            for (int run = 0; run < 2000; run++) {
+                long begin = System.nanoTime();
+                candidates = index.search(query, Integer.MAX_VALUE);
+                indexLatencies.add(System.nanoTime() - begin);
+            }
+
+            // 후보는 LIKE 결과를 빠짐없이 포함해야 한다.
+            List<Long> candidateList = Arrays.stream(candidates).boxed().toList();
+            assertTrue(candidateList.containsAll(expected));
+            log.info("[{}] LIKE 결과 {}건, 색인 후보 {}건 | LIKE p50 {}us, p99 {}us | 색인 p50 {}us, p99 {}us",
+                    query, expected.size(), candidates.length,
+                    percentileMicros(likeLatencies, 50), percentileMicros(likeLatencies, 99),
+                    percentileMicros(indexLatencies, 50), percentileMicros(indexLatencies, 99));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("100만 건 상품명 자모/초성 검색 응답 시간")
+    public void hangulSearchLatency() {
+        int itemCount = 1_000_000;
+        String[] itemNms = syntheticItemNms(itemCount);
+
+        long buildStart = System.nanoTime();
+        ItemSearchIndex itemSearchIndex = new ItemSearchIndex(1000);
+        ItemSearchIndex.Indexes indexes = itemSearchIndex.newIndexes(itemCount);
+        for (int itemId = 1; itemId <= itemCount; itemId++) {
+            indexes.put(itemId, itemNms[itemId], "");
+        }
+        itemSearchIndex.replace(indexes);
+        log.info("자모/초성 색인 생성 : {}건, {}ms", itemCount, (System.nanoTime() - buildStart) / 1_000_000);
+
+        String[] queries = {"QZ512", "반스 핑크 등산", "뉴발ㄹ", "ㅁㅈㄴ ㅇㄹㅇ", "ㅂㅅ ㅍㅋ ㄷㅅㅎ", "없는 상품"};
+        for (String query : queries) {
+            long[] matches = null;
+            for (int run = 0; run < 1000; run++) {     // JIT 워밍업
+                itemSearchIndex.findItemNmMatches(query);
+            }
+            List<Long> latencies = new ArrayList<>();
+            for (int run = 0; run < 2000; run++) {
+                long begin = System.nanoTime();
+                matches = itemSearchIndex.findItemNmMatches(query);
+                latencies.add(System.nanoTime() - begin);
+            }
+            log.info("[{}] 결과 {}건 | p50 {}us, p99 {}us", query, matches.length,
+                    percentileMicros(latencies, 50), percentileMicros(latencies, 99));
+        }
+    }
+
+    private String[] syntheticItemNms(int itemCount) {
+        Random random = new Random(42);
+        String[] itemNms = new String[itemCount + 1];
+        for (int itemId = 1; itemId <= itemCount; itemId++) {
+            itemNms[itemId] = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + COLORS[random.nextInt(COLORS.length)] + " "
+                    + CATEGORIES[random.nextInt(CATEGORIES.length)] + " "
+                    + (char) ('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26)) + random.nextInt(1000);
+        }
+        return itemNms;
+    }
+
+    private long percentileMicros(List<Long> latencies, double percentile) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1000;
+    }
+}
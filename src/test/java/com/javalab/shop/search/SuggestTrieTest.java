@@ -0,0 +1,174 @@
+package com.javalab.shop.search;
+
+import com.javalab.shop.dto.ItemSuggestDto;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 상품명 자동완성 접두사 트리 테스트
+ * - 트리만 직접 생성해서 사용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+@Log4j2
+class SuggestTrieTest {
+
+    @Test
+    @DisplayName("검색어로 시작하는 상품명을 판매량 순서로 제안 테스트")
+    public void suggest() {
+        SuggestTrie trie = new SuggestTrie(10, 16);
+        trie.add(1L, "나이키 러닝화", 5);
+        trie.add(2L, "나이키 축구화", 30);
+        trie.add(3L, "나이스 티셔츠", 10);
+        trie.add(4L, "아디다스 러닝화", 20);
+        trie.build();
+
+        assertEquals(List.of(2L, 3L, 1L), itemIds(trie.suggest("나이", 10)));
+        assertEquals(List.of(2L, 1L), itemIds(trie.suggest("나잌", 10)));       // 입력 중인 음절
+        assertEquals(List.of(4L, 1L), itemIds(trie.suggest("러닝", 10)));       // 단어의 시작
+        assertEquals(List.of(2L), itemIds(trie.suggest("나이", 1)));
+        assertEquals(List.of(), itemIds(trie.suggest("닝화", 10)));             // 단어 중간은 제안하지 않음
+        assertEquals(List.of(), itemIds(trie.suggest(" ", 10)));
+    }
+
+    @Test
+    @DisplayName("상품 수정/삭제 시 제안 반영 테스트")
+    public void updateAndRemove() {
+        SuggestTrie trie = new SuggestTrie(2, 16);
+        trie.add(1L, "겨울 패딩", 1);
+        trie.add(2L, "겨울 코트", 2);
+        trie.add(3L, "겨울 장갑", 3);
+        trie.build();
+        assertEquals(List.of(3L, 2L), itemIds(trie.suggest("겨울", 10)));      // 상위 2개만 유지
+
+        trie.remove(3L);
+        assertEquals(List.of(2L, 1L), itemIds(trie.suggest("겨울", 10)));
+
+        trie.put(2L, "여름 반팔", trie.getSales(2L));                           // 수정
+        assertEquals(List.of(1L), itemIds(trie.suggest("겨울", 10)));
+        assertEquals(List.of(2L), itemIds(trie.suggest("여름 반", 10)));
+        assertEquals(2, trie.getSales(2L));
+
+        trie.put(4L, "겨울 패딩 세트", 0);
+        trie.put(5L, "겨울 패딩", 1);
+        assertEquals(List.of(5L), itemIds(trie.suggest("겨울 패", 10)));        // 판매량이 같으면 최근 상품, 같은 상품명은 한 번만
+        assertEquals(List.of(4L), itemIds(trie.suggest("세트", 10)));
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    @DisplayName("추가/삭제를 반복해도 전체 탐색 결과와 같은지 테스트")
+    public void randomOperations() {
+        Random random = new Random(7);
+        String[] words = {"가방", "가방끈", "가죽", "가죽 가방", "나이키", "나이", "a", "ab", "abc"};
+        int topSize = 3;
+        SuggestTrie trie = new SuggestTrie(topSize, 16);
+        String[] itemNms = new String[51];
+        int[] sales = new int[51];
+        for (int run = 0; run < 3000; run++) {
+            int itemId = 1 + random.nextInt(50);
+            if (random.nextInt(4) == 0) {
+                trie.remove(itemId);
+                itemNms[itemId] = null;
+            } else {
+                itemNms[itemId] = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + itemId;
+                sales[itemId] = random.nextInt(5);
+                trie.put(itemId, itemNms[itemId], sales[itemId]);
+            }
+
+            for (String prefix : new String[]{"가", "가방", "가죽 가", "나", "a", "ab", "abc"}) {
+                List<Long> expected = new ArrayList<>();
+                for (int i = 50; i >= 1; i--) {
+                    if (itemNms[i] != null && startsWithWord(itemNms[i], prefix)) {
+                        expected.add((long) i);
+                    }
+                }
+                expected.sort((a, b) -> Integer.compare(sales[b.intValue()], sales[a.intValue()]));
+                assertEquals(expected.subList(0, Math.min(topSize, expected.size())),
+                        itemIds(trie.suggest(prefix, topSize)), prefix);
+            }
+        }
+    }
+
+    // ===== 벤치마크 =====
+
+    private static final String[] BRANDS = {"나이키", "아디다스", "뉴발란스", "푸마", "리복", "컨버스", "반스", "아식스", "휠라", "미즈노"};
+    private static final String[] COLORS = {"블랙", "화이트", "네이비", "그레이", "베이지", "레드", "블루", "그린", "핑크", "옐로우"};
+    private static final String[] CATEGORIES = {"러닝화", "운동화", "축구화", "농구화", "슬리퍼", "샌들", "후드티", "반팔티", "트레이닝 팬츠", "바람막이",
+            "패딩", "백팩", "모자", "양말", "레깅스", "집업", "조거팬츠", "스니커즈", "워킹화", "등산화"};
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("100만 건 상품명 자동완성 응답 시간")
+    public void suggestLatency() {
+        int itemCount = 1_000_000;
+        Random random = new Random(42);
+        long buildStart = System.nanoTime();
+        SuggestTrie trie = new SuggestTrie(10, itemCount);
+        for (int itemId = 1; itemId <= itemCount; itemId++) {
+            String itemNm = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + COLORS[random.nextInt(COLORS.length)] + " "
+                    + CATEGORIES[random.nextInt(CATEGORIES.length)] + " "
+                    + (char) ('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26)) + random.nextInt(1000);
+            trie.add(itemId, itemNm, random.nextInt(1000));
+        }
+        trie.build();
+        log.info("자동완성 트리 생성 : {}건, {}ms", itemCount, (System.nanoTime() - buildStart) / 1_000_000);
+
+        String[] queries = {"ㄴ", "나", "나잌", "나이키 블", "뉴발란스 그레이 러닝", "러닝", "QZ", "QZ5", "없는"};
+        for (String query : queries) {
+            for (int run = 0; run < 10000; run++) {     // JIT 워밍업
+                trie.suggest(query, 10);
+            }
+            List<Long> latencies = new ArrayList<>();
+            int resultSize = 0;
+            for (int run = 0; run < 10000; run++) {
+                long begin = System.nanoTime();
+                resultSize = trie.suggest(query, 10).size();
+                latencies.add(System.nanoTime() - begin);
+            }
+            long p99 = percentileMicros(latencies, 99);
+            log.info("[{}] 제안 {}건 | p50 {}us, p99 {}us", query, resultSize, percentileMicros(latencies, 50), p99);
+            assertTrue(p99 < 2000, query);
+        }
+
+        // 상품 수정(트리 경로의 top 다시 계산) 응답 시간
+        List<Long> latencies = new ArrayList<>();
+        for (int run = 0; run < 10000; run++) {
+            long itemId = 1 + random.nextInt(itemCount);
+            long begin = System.nanoTime();
+            trie.put(itemId, "나이키 블랙 러닝화 수정" + run, random.nextInt(1000));
+            latencies.add(System.nanoTime() - begin);
+        }
+        log.info("상품 수정 | p50 {}us, p99 {}us", percentileMicros(latencies, 50), percentileMicros(latencies, 99));
+    }
+
+    private boolean startsWithWord(String itemNm, String prefix) {
+        String[] words = itemNm.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            if (String.join(" ", List.of(words).subList(i, words.length)).startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Long> itemIds(List<ItemSuggestDto> suggestions) {
+        return suggestions.stream().map(ItemSuggestDto::getItemId).toList();
+    }
+
+    private long percentileMicros(List<Long> latencies, double percentile) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1000;
+    }
+}
@@ -0,0 +1,275 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.OrderDto;
+import com.javalab.shop.entity.Item;
+import com.javalab.shop.entity.Member;
+import com.javalab.shop.exception.OutOfStockException;
+import com.javalab.shop.repository.ItemRepository;
+import com.javalab.shop.repository.MemberRepository;
+import com.javalab.shop.repository.OrderRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 핫 아이템 재고 장부 테스트
+ * - 한 상품에 주문이 몰릴 때 메모리 재고 장부와 DB 조건부 UPDATE 의 처리량을 비교한다.
+ */
+// 주기적인 flush 는 끄고(1시간) 테스트에서 직접 호출한다.
+@SpringBootTest(properties = {"shop.stock.hot-item.enabled=true", "shop.stock.hot-item.flush-interval-ms=3600000"})
+@Log4j2
+class HotItemStockLedgerTest {
+
+    private static final int THREAD_COUNT = 32;
+    private static final int ORDER_COUNT = 3000;
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    HotItemStockLedger hotItemStockLedger;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;     // 주문 요약(order_summary) 정리용
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private Member member;
+    private List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        member = new Member();
+        member.setEmail("hot-item-" + UUID.randomUUID() + "@test.com");
+        memberRepository.save(member);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from order_summary where member_email = ?", member.getEmail());
+            orderRepository.deleteAll(orderRepository.findOrders(member.getEmail(), Pageable.unpaged()));
+        });
+        itemRepository.deleteAll(items);
+        memberRepository.delete(member);
+    }
+
+    private Item saveItem(int stockNumber) {
+        Item item = new Item();
+        item.setItemNm("핫딜 상품");
+        item.setPrice(10000);
+        item.setItemDetail("핫딜 상품 상세 설명");
+        item.setItemSellStatus(ItemSellStatus.SELL);
+        item.setStockNumber(stockNumber);
+        items.add(itemRepository.save(item));
+        return item;
+    }
+
+    private int orderConcurrently(Item item, int orderCount) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        AtomicInteger successCount = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            futures.add(executorService.submit(() -> {
+                OrderDto orderDto = new OrderDto();
+                orderDto.setItemId(item.getId());
+                orderDto.setCount(1);
+                try {
+                    orderService.order(orderDto, member.getEmail());
+                    successCount.incrementAndGet();
+                } catch (OutOfStockException e) {
+                    // 재고 부족
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        return successCount.get();
+    }
+
+    private int dbStock(Item item) {
+        return itemRepository.findById(item.getId())
+                .orElseThrow(EntityNotFoundException::new)
+                .getStockNumber();
+    }
+
+    @Test
+    @DisplayName("핫 아이템 재고 차감 후 DB 반영 테스트")
+    public void reserveAndFlush() throws Exception {
+        Item item = saveItem(500);
+        hotItemStockLedger.markHot(item.getId());
+
+        int successCount = orderConcurrently(item, 1000);
+        hotItemStockLedger.flush();
+
+        assertEquals(500, successCount);
+        assertEquals(0, hotItemStockLedger.getStock(item.getId()));
+        assertEquals(0, dbStock(item));
+    }
+
+    @Test
+    @DisplayName("관리자 재고 수정은 커밋된 후에 장부에 반영 테스트")
+    public void resetAfterCommit() {
+        Item item = saveItem(500);
+        hotItemStockLedger.markHot(item.getId());
+
+        // 1. 롤백되면 장부를 그대로 둔다.
+        transactionTemplate.executeWithoutResult(status -> {
+            hotItemStockLedger.reset(item.getId(), 100);
+            status.setRollbackOnly();
+        });
+        assertEquals(500, hotItemStockLedger.getStock(item.getId()));
+
+        // 2. 커밋 전에는 이전 재고, 커밋된 후에 새 재고
+        transactionTemplate.executeWithoutResult(status -> {
+            hotItemStockLedger.reset(item.getId(), 100);
+            assertEquals(500, hotItemStockLedger.getStock(item.getId()));
+        });
+        assertEquals(100, hotItemStockLedger.getStock(item.getId()));
+    }
+
+    // 관리자 재고 수정(ItemService.updateItem)처럼 상품을 조회해서 재고를 바꾸고 커밋 후 장부를 맞춘다.
+    // - 그 사이 flush 가 커밋되었으면 버전 충돌로 실패하므로 다시 시도한다.
+    private void updateStock(Item item, int stockNumber) {
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Item saved = itemRepository.findById(item.getId()).orElseThrow(EntityNotFoundException::new);
+                    saved.setStockNumber(stockNumber);
+                    hotItemStockLedger.reset(item.getId(), stockNumber);
+                });
+                return;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // 다시 조회해서 수정
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("관리자 재고 수정 시 DB에 반영하지 않은 차감과 롤백은 새 장부로 넘어감 테스트")
+    public void resetCarriesPendingDelta() throws Exception {
+        Item item = saveItem(500);
+        hotItemStockLedger.markHot(item.getId());
+
+        // 1. 반영하지 않은 차감(100)은 관리자 재고(300)에서 빠지고 다음 flush 에서 DB에도 반영된다.
+        assertTrue(hotItemStockLedger.reserve(item.getId(), 100));
+        updateStock(item, 300);
+        assertEquals(200, hotItemStockLedger.getStock(item.getId()));
+        hotItemStockLedger.flush();
+        assertEquals(200, dbStock(item));
+
+        // 2. 교체 전에 차감한 주문이 교체 후에 롤백되면 새 장부로 되돌린다.
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                assertTrue(hotItemStockLedger.reserve(item.getId(), 10));
+                try {
+                    executorService.submit(() -> updateStock(item, 300)).get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                assertEquals(290, hotItemStockLedger.getStock(item.getId()));
+                status.setRollbackOnly();
+            });
+        } finally {
+            executorService.shutdown();
+        }
+        assertEquals(300, hotItemStockLedger.getStock(item.getId()));
+        hotItemStockLedger.flush();
+        assertEquals(300, dbStock(item));
+    }
+
+    @Test
+    @DisplayName("주문, flush, 관리자 재고 수정이 동시에 일어나도 장부와 DB 재고가 일치 테스트")
+    public void resetConcurrentlyWithOrdersAndFlush() throws Exception {
+        Item item = saveItem(ORDER_COUNT);
+        hotItemStockLedger.markHot(item.getId());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        AtomicBoolean ordering = new AtomicBoolean(true);
+        Future<Integer> orders = executorService.submit(() -> {
+            try {
+                return orderConcurrently(item, ORDER_COUNT / 2);
+            } finally {
+                ordering.set(false);
+            }
+        });
+        Future<?> flushes = executorService.submit(() -> {
+            while (ordering.get()) {
+                hotItemStockLedger.flush();
+            }
+        });
+        int resets = 0;
+        while (ordering.get()) {
+            updateStock(item, ORDER_COUNT);
+            resets++;
+        }
+        int successCount = orders.get();
+        flushes.get();
+        executorService.shutdown();
+        hotItemStockLedger.flush();
+
+        log.info("주문 {}건, 관리자 재고 수정 {}번", successCount, resets);
+        assertEquals(ORDER_COUNT / 2, successCount);      // 재고가 충분하므로 모두 성공
+        assertEquals(hotItemStockLedger.getStock(item.getId()), dbStock(item));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("핫 아이템 재고 장부와 DB 조건부 UPDATE 처리량 비교")
+    public void compareThroughput() throws Exception {
+        // 1. DB 조건부 UPDATE (item 행 하나에 UPDATE 가 몰린다)
+        Item jpaItem = saveItem(ORDER_COUNT);
+        long start = System.nanoTime();
+        int jpaSuccess = orderConcurrently(jpaItem, ORDER_COUNT);
+        long jpaNanos = System.nanoTime() - start;
+
+        // 2. 핫 아이템 재고 장부
+        Item hotItem = saveItem(ORDER_COUNT);
+        hotItemStockLedger.markHot(hotItem.getId());
+        start = System.nanoTime();
+        int hotSuccess = orderConcurrently(hotItem, ORDER_COUNT);
+        long hotNanos = System.nanoTime() - start;
+        hotItemStockLedger.flush();
+
+        log.info("DB 조건부 UPDATE : {} orders/sec", jpaSuccess * 1_000_000_000L / jpaNanos);
+        log.info("핫 아이템 재고 장부 : {} orders/sec", hotSuccess * 1_000_000_000L / hotNanos);
+
+        assertEquals(ORDER_COUNT - hotSuccess, dbStock(hotItem));
+    }
+}
@@ -0,0 +1,172 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.dto.IdempotentResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 멱등키 처리 테스트
+ * - 메모리 저장소를 직접 생성해서 사용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+class IdempotencyServiceTest {
+
+    private static final String EMAIL = "test@test.com";
+    private static final String FINGERPRINT = IdempotencyService.fingerprint(1L, 1);   // 상품 1번 1개 주문
+
+    private final AtomicLong orderSequence = new AtomicLong();
+    private final AtomicInteger orderCount = new AtomicInteger();
+
+    private ResponseEntity<?> order() {
+        orderCount.incrementAndGet();
+        return new ResponseEntity<Long>(orderSequence.incrementAndGet(), HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("같은 멱등키로 재시도하면 저장된 응답 반환 테스트")
+    public void replaySameKey() {
+        IdempotencyService idempotencyService = new IdempotencyService(new InMemoryIdempotencyStore(100, 60, 60));
+
+        ResponseEntity<?> first = idempotencyService.execute(EMAIL, "key-1", FINGERPRINT, this::order);
+        ResponseEntity<?> retry = idempotencyService.execute(EMAIL, "key-1", FINGERPRINT, this::order);
+
+        assertEquals(1, orderCount.get());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("멱등키가 없거나 회원이 다르면 매번 실행 테스트")
+    public void differentMemberOrNoKey() {
+        IdempotencyService idempotencyService = new IdempotencyService(new InMemoryIdempotencyStore(100, 60, 60));
+
+        idempotencyService.execute(EMAIL, "key-1", FINGERPRINT, this::order);
+        idempotencyService.execute("other@test.com", "key-1", FINGERPRINT, this::order);
+        idempotencyService.execute(EMAIL, null, FINGERPRINT, this::order);
+        idempotencyService.execute(EMAIL, null, FINGERPRINT, this::order);
+
+        assertEquals(4, orderCount.get());
+    }
+
+    @Test
+    @DisplayName("실패 응답 저장 및 예외 발생 시 재시도 허용 테스트")
+    public void storeErrorAndReleaseOnException() {
+        IdempotencyService idempotencyService = new IdempotencyService(new InMemoryIdempotencyStore(100, 60, 60));
+
+        // 1. 재고 부족 같은 실패 응답도 저장된다.
+        idempotencyService.execute(EMAIL, "key-1", FINGERPRINT,
+                () -> new ResponseEntity<String>("상품의 재고가 부족 합니다.", HttpStatus.BAD_REQUEST));
+        ResponseEntity<?> retry = idempotencyService.execute(EMAIL, "key-1", FINGERPRINT, this::order);
+        assertEquals(HttpStatus.BAD_REQUEST, retry.getStatusCode());
+        assertEquals("상품의 재고가 부족 합니다.", retry.getBody());
+        assertEquals(0, orderCount.get());
+
+        // 2. 예상하지 못한 예외는 저장하지 않으므로 같은 키로 다시 실행된다.
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(EMAIL, "key-2", FINGERPRINT, () -> {
+            throw new IllegalStateException("DB 연결 실패");
+        }));
+        idempotencyService.execute(EMAIL, "key-2", FINGERPRINT, this::order);
+        assertEquals(1, orderCount.get());
+    }
+
+    @Test
+    @DisplayName("처리 중인 멱등키로 요청하면 409 반환 테스트")
+    public void inProgress() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(100, 60, 60);
+        IdempotencyService idempotencyService = new IdempotencyService(store);
+
+        ResponseEntity<?> response = idempotencyService.execute(EMAIL, "key-1", FINGERPRINT,
+                () -> idempotencyService.execute(EMAIL, "key-1", FINGERPRINT, this::order));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(0, orderCount.get());
+    }
+
+    @Test
+    @DisplayName("메모리 저장소 최대 개수 초과 시 LRU 제거 테스트")
+    public void lruEviction() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(3, 60, 60);
+        IdempotencyService idempotencyService = new IdempotencyService(store);
+
+        for (int i = 1; i <= 3; i++) {
+            idempotencyService.execute(EMAIL, "key-" + i, FINGERPRINT, this::order);
+        }
+        idempotencyService.execute(EMAIL, "key-1", FINGERPRINT, this::order);    // key-1 사용 -> key-2 가 가장 오래 사용하지 않은 키
+        idempotencyService.execute(EMAIL, "key-4", FINGERPRINT, this::order);    // key-2 제거
+
+        assertEquals(3, store.size());
+        assertEquals(4, orderCount.get());
+        idempotencyService.execute(EMAIL, "key-1", FINGERPRINT, this::order);    // 남아 있으므로 실행되지 않음
+        idempotencyService.execute(EMAIL, "key-2", FINGERPRINT, this::order);    // 제거되었으므로 다시 실행
+        assertEquals(5, orderCount.get());
+    }
+
+    @Test
+    @DisplayName("서버 오류와 409 응답은 저장하지 않음 테스트")
+    public void notStoreTransientError() {
+        IdempotencyService idempotencyService = new IdempotencyService(new InMemoryIdempotencyStore(100, 60, 60));
+
+        idempotencyService.execute(EMAIL, "key-1", FINGERPRINT,
+                () -> new ResponseEntity<String>("서버에 오류가 발생했습니다.", HttpStatus.INTERNAL_SERVER_ERROR));
+        idempotencyService.execute(EMAIL, "key-2", FINGERPRINT,
+                () -> new ResponseEntity<String>("잠시 후 다시 시도해주세요.", HttpStatus.CONFLICT));
+
+        assertEquals(HttpStatus.OK, idempotencyService.execute(EMAIL, "key-1", FINGERPRINT, this::order).getStatusCode());
+        assertEquals(HttpStatus.OK, idempotencyService.execute(EMAIL, "key-2", FINGERPRINT, this::order).getStatusCode());
+        assertEquals(2, orderCount.get());
+    }
+
+    @Test
+    @DisplayName("메모리 저장소 최대 개수 초과 시 처리 중인 키는 제거하지 않음 테스트")
+    public void keepInProgressOnEviction() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2, 60, 60);
+
+        store.tryAcquire("key-1");                                  // 처리 중, 가장 오래 사용하지 않은 키
+        store.tryAcquire("key-2");
+        store.complete("key-2", new IdempotentResponse(200, 1L, null, FINGERPRINT));
+        store.tryAcquire("key-3");                                  // key-1 대신 처리가 끝난 key-2 제거
+
+        assertEquals(2, store.size());
+        assertFalse(store.tryAcquire("key-1"));
+        assertTrue(store.tryAcquire("key-2"));
+    }
+
+    @Test
+    @DisplayName("같은 멱등키로 내용이 다른 요청을 보내면 422 반환 테스트")
+    public void rejectDifferentRequest() {
+        IdempotencyService idempotencyService = new IdempotencyService(new InMemoryIdempotencyStore(100, 60, 60));
+
+        idempotencyService.execute(EMAIL, "key-1", FINGERPRINT, this::order);
+        ResponseEntity<?> other = idempotencyService.execute(EMAIL, "key-1",
+                IdempotencyService.fingerprint(1L, 2), this::order);              // 수량이 다른 주문
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, other.getStatusCode());
+        assertEquals(1, orderCount.get());
+        assertEquals(HttpStatus.OK, idempotencyService.execute(EMAIL, "key-1", FINGERPRINT, this::order).getStatusCode());
+        assertEquals(1, orderCount.get());
+    }
+
+    @Test
+    @DisplayName("처리 중인 키는 임대 시간이 지나면 다시 선점 가능 테스트")
+    public void leaseExpires() throws Exception {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(100, 60, 0);   // 임대 시간 0초
+
+        assertTrue(store.tryAcquire("key-1"));      // 처리하던 서버가 응답을 저장하지 못하고 죽은 경우
+        Thread.sleep(10);
+        assertTrue(store.tryAcquire("key-1"));
+
+        // 응답을 저장하면 임대 시간이 아니라 보관 기간(ttl-minutes) 동안 유지된다.
+        store.complete("key-1", new IdempotentResponse(200, 1L, null, FINGERPRINT));
+        Thread.sleep(10);
+        assertFalse(store.tryAcquire("key-1"));
+    }
+}
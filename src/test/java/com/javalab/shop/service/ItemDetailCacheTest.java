@@ -0,0 +1,87 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.ItemDetailDto;
+import com.javalab.shop.event.ItemChangedEvent;
+import com.javalab.shop.event.ItemImgChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 상품 상세 페이지 캐시 테스트
+ * - 캐시만 직접 생성해서 사용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+class ItemDetailCacheTest {
+
+    @Test
+    @DisplayName("같은 상품은 한 번만 조회하고 변경된 상품만 비움 테스트")
+    public void invalidate() {
+        ItemDetailCache cache = new ItemDetailCache(new SimpleMeterRegistry(), true, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        ItemDetailDto first = cache.get(1L, () -> load(1L, loads));
+        assertSame(first, cache.get(1L, () -> load(1L, loads)));
+        cache.get(2L, () -> load(2L, loads));
+        assertEquals(2, loads.get());
+
+        cache.onItemChanged(new ItemChangedEvent(1L));          // 1번 상품만 비운다.
+        cache.get(1L, () -> load(1L, loads));
+        cache.get(2L, () -> load(2L, loads));
+        assertEquals(3, loads.get());
+
+        cache.onItemImgChanged(new ItemImgChangedEvent(2L));
+        cache.get(2L, () -> load(2L, loads));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    @DisplayName("없는 상품과 조회 중에 변경이 커밋된 상품은 보관하지 않음 테스트")
+    public void notCached() throws InterruptedException {
+        ItemDetailCache cache = new ItemDetailCache(new SimpleMeterRegistry(), true, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get(1L, () -> null));
+        // DB를 읽는 중에 다른 트랜잭션의 커밋 이벤트가 다른 스레드에서 처리된다.
+        // 같은 상품을 비우면 조회가 끝날 때까지 기다리므로 다른 상품(3번)을 비운다. 변경 횟수는 상품 구분 없이 하나이다.
+        CountDownLatch committed = new CountDownLatch(1);
+        Thread committer = new Thread(() -> {
+            cache.onItemChanged(new ItemChangedEvent(3L));
+            committed.countDown();
+        });
+        cache.get(2L, () -> {
+            committer.start();
+            await(committed);
+            return load(2L, loads);
+        });
+        committer.join();
+        assertEquals(0, cache.size());
+
+        cache.get(2L, () -> load(2L, loads));
+        assertEquals(1, cache.size());
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ItemDetailDto load(Long itemId, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new ItemDetailDto(itemId, "나이키 러닝화", 10000, "가벼운 러닝화", ItemSellStatus.SELL, List.of());
+    }
+}
@@ -1,14 +1,22 @@
 package com.javalab.shop.service;
 
 import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.CursorSliceDto;
+import com.javalab.shop.dto.ItemDetailDto;
 import com.javalab.shop.dto.ItemFormDto;
+import com.javalab.shop.dto.ItemImgDto;
+import com.javalab.shop.dto.ItemSearchDto;
 import com.javalab.shop.entity.Item;
 import com.javalab.shop.entity.ItemImg;
 import com.javalab.shop.repository.ItemImgRepository;
 import com.javalab.shop.repository.ItemRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import lombok.extern.log4j.Log4j2;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -19,11 +27,18 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @Transactional
+@Log4j2
 //@Commit
 public class ItemServiceTest {
     @Autowired
@@ -35,6 +50,12 @@ public class ItemServiceTest {
     @Autowired
     private ItemImgRepository itemImgRepository;
 
+    @Autowired
+    private ItemDetailCache itemDetailCache;
+
+    @PersistenceContext
+    private EntityManager em;
+
     /**
      * 테스트용 MultipartFile 생성
      */
@@ -80,4 +101,112 @@ public class ItemServiceTest {
         // 검증, 상품명이 같은지 확인
         assertEquals(itemFormDTO.getItemNm(), item.getItemNm());
     }
+
+    @Test
+    @DisplayName("관리자 상품 목록 커서 페이징 테스트")
+    public void getAdminItemSlice() {
+        // 1. given : 상품 5건, 가장 최근에 등록되었으므로 상품 ID 내림차순 목록의 앞쪽에 있다.
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Item item = new Item();
+            item.setItemNm("커서 테스트 상품" + i);
+            item.setPrice(10000);
+            item.setItemDetail("커서 테스트 상품 상세 설명");
+            item.setItemSellStatus(ItemSellStatus.SELL);
+            item.setStockNumber(100);
+            itemIds.add(itemRepository.save(item).getId());
+        }
+        ItemSearchDto itemSearchDto = new ItemSearchDto();
+
+        // 2. when : 2건씩 조회, 전체 상품 수는 첫 페이지에서만 센다.
+        CursorSliceDto<Item> first = itemService.getAdminItemSlice(itemSearchDto, null, 2, true);
+        CursorSliceDto<Item> second = itemService.getAdminItemSlice(itemSearchDto, first.getNextCursor(), 2, false);
+
+        // 3. then : 최신 상품부터 겹치지 않게 조회된다.
+        assertTrue(first.isHasNext());
+        assertNotNull(first.getTotalCount());
+        assertNull(second.getTotalCount());
+        assertEquals(List.of(itemIds.get(4), itemIds.get(3)), first.getContent().stream().map(Item::getId).toList());
+        assertEquals(List.of(itemIds.get(2), itemIds.get(1)), second.getContent().stream().map(Item::getId).toList());
+        assertThrows(IllegalArgumentException.class, () -> itemService.getAdminItemSlice(itemSearchDto, "잘못된커서", 2, false));
+    }
+
+    @Test
+    @DisplayName("상품 상세 페이지 한 번의 쿼리 조회 테스트")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void getItemDetailPage() throws Exception {
+        // 1. given : 이미지 5개인 상품
+        Long itemId = itemService.saveItem(ItemFormDto.builder()
+                .itemNm("상세 페이지 테스트 상품")
+                .itemSellStatus(ItemSellStatus.SELL)
+                .itemDetail("상세 페이지 테스트 상품 입니다.")
+                .price(1000)
+                .stockNumber(100)
+                .build(), createMultipartFiles());
+        em.flush();
+        em.clear();
+
+        // 2. when
+        ItemDetailDto itemDetailDto = itemService.getItemDetailPage(itemId);
+
+        // 3. then : 수정 화면용 조회(getItemDetail())와 같은 상품/이미지, 첫 번째 이미지가 대표 이미지
+        ItemFormDto itemFormDto = itemService.getItemDetail(itemId);
+        assertEquals(itemFormDto.getItemNm(), itemDetailDto.getItemNm());
+        assertEquals(itemFormDto.getItemDetail(), itemDetailDto.getItemDetail());
+        assertEquals(itemFormDto.getPrice(), itemDetailDto.getPrice());
+        assertEquals(itemFormDto.getItemImgDtoList().stream().map(ItemImgDto::getImgUrl).toList(),
+                itemDetailDto.getItemImgDtoList().stream().map(ItemImgDto::getImgUrl).toList());
+        assertEquals("Y", itemDetailDto.getItemImgDtoList().get(0).getRepImgYn());
+        assertThrows(EntityNotFoundException.class, () -> itemService.getItemDetailPage(-1L));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("상품 상세 조회 시간 비교(이미지/상품 따로 조회 + ModelMapper vs 한 번의 쿼리 vs 캐시)")
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    public void itemDetailLatency() throws Exception {
+        // 1. given : 이미지 5개인 상품 50개
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            itemIds.add(itemService.saveItem(ItemFormDto.builder()
+                    .itemNm("상세 조회 시간 테스트 상품 " + i)
+                    .itemSellStatus(ItemSellStatus.SELL)
+                    .itemDetail("상세 설명 ".repeat(400))
+                    .price(1000)
+                    .stockNumber(100)
+                    .build(), createMultipartFiles()));
+        }
+        em.flush();
+
+        // 2. 캐시가 비어 있는 조회(cold) : 매번 영속성 컨텍스트와 2차 캐시, 상세 페이지 캐시를 비운다.
+        long before = averageMicros(itemIds, itemId -> () -> itemService.getItemDetail(itemId), true);
+        long after = averageMicros(itemIds, itemId -> () -> itemService.getItemDetailPage(itemId), true);
+        // 3. 캐시된 조회(warm) : 위에서 채운 상세 페이지 캐시에서 읽는다.
+        long warm = averageMicros(itemIds, itemId -> () -> itemService.getItemDetailPage(itemId), false);
+
+        log.info("상품 상세 조회 평균 : 이전(cold) {}us, 한 번의 쿼리(cold) {}us, 캐시(warm) {}us", before, after, warm);
+        assertTrue(warm < after);
+    }
+
+    // 상품마다 한 번씩 5회 반복 조회한 평균 시간(마이크로초), 첫 회는 워밍업으로 제외
+    private long averageMicros(List<Long> itemIds, Function<Long, Supplier<Object>> read, boolean cold) {
+        long total = 0;
+        int count = 0;
+        for (int round = 0; round < 5; round++) {
+            for (Long itemId : itemIds) {
+                if (cold) {
+                    em.clear();
+                    em.getEntityManagerFactory().getCache().evictAll();
+                    itemDetailCache.invalidate(itemId);
+                }
+                long start = System.nanoTime();
+                read.apply(itemId).get();
+                if (round > 0) {
+                    total += System.nanoTime() - start;
+                    count++;
+                }
+            }
+        }
+        return total / count / 1000;
+    }
 }
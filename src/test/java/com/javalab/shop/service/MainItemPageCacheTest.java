@@ -0,0 +1,118 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.dto.CursorSliceDto;
+import com.javalab.shop.dto.ItemSearchDto;
+import com.javalab.shop.dto.MainItemDto;
+import com.javalab.shop.event.ItemChangedEvent;
+import com.javalab.shop.event.ItemImgChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 메인 화면 상품 목록 캐시 테스트
+ * - 캐시만 직접 생성해서 사용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+class MainItemPageCacheTest {
+
+    @Test
+    @DisplayName("같은 검색어/페이지는 한 번만 조회하고 적중률 메트릭 기록 테스트")
+    public void hit() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MainItemPageCache cache = new MainItemPageCache(meterRegistry, true, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        Page<MainItemDto> first = cache.get(search("Nike"), PageRequest.of(0, 6), () -> load(loads));
+        Page<MainItemDto> second = cache.get(search("NIKE"), PageRequest.of(0, 6), () -> load(loads));   // 대소문자만 다른 검색어
+        cache.get(search("Nike"), PageRequest.of(1, 6), () -> load(loads));                              // 다른 페이지
+
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(1.0 / 3, meterRegistry.get("shop.cache.main-item-page.hit-ratio").gauge().value(), 0.0001);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "mainItemPage").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("상품/상품 이미지 변경 커밋 시 캐시 비움 테스트")
+    public void invalidate() {
+        MainItemPageCache cache = new MainItemPageCache(new SimpleMeterRegistry(), true, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(search(null), PageRequest.of(0, 6), () -> load(loads));
+        cache.onItemChanged(new ItemChangedEvent(1L));
+        cache.get(search(""), PageRequest.of(0, 6), () -> load(loads));      // null 과 "" 는 같은 키
+        cache.onItemImgChanged(new ItemImgChangedEvent(1L));
+        cache.get(search(""), PageRequest.of(0, 6), () -> load(loads));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("조회 중에 상품 변경이 커밋되면 조회 결과를 보관하지 않음 테스트")
+    public void invalidateWhileLoading() {
+        MainItemPageCache cache = new MainItemPageCache(new SimpleMeterRegistry(), true, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(search(""), PageRequest.of(0, 6), () -> {
+            cache.onItemChanged(new ItemChangedEvent(1L));      // DB를 읽는 중에 다른 트랜잭션이 커밋
+            return load(loads);
+        });
+        assertEquals(0, cache.size());
+
+        cache.get(search(""), PageRequest.of(0, 6), () -> load(loads));
+        assertEquals(1, cache.size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("커서 페이징 결과는 커서/전체 수 조회 여부별로 보관 테스트")
+    public void slice() {
+        MainItemPageCache cache = new MainItemPageCache(new SimpleMeterRegistry(), true, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        CursorSliceDto<MainItemDto> first = cache.getSlice(search("Nike"), null, 6, false, () -> loadSlice(loads));
+        assertSame(first, cache.getSlice(search("nike"), "", 6, false, () -> loadSlice(loads)));   // null 과 "" 는 같은 첫 페이지
+        cache.getSlice(search("Nike"), "", 6, true, () -> loadSlice(loads));                       // 전체 수 포함
+        cache.getSlice(search("Nike"), "MTA", 6, false, () -> loadSlice(loads));                   // 다음 페이지
+        cache.get(search("Nike"), PageRequest.of(0, 6), () -> load(loads));                       // offset 페이징과 키가 겹치지 않는다.
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    @DisplayName("최대 개수를 넘으면 일부 항목 제거 테스트")
+    public void maxSize() {
+        MainItemPageCache cache = new MainItemPageCache(new SimpleMeterRegistry(), true, 10);
+        AtomicInteger loads = new AtomicInteger();
+        for (int page = 0; page < 100; page++) {
+            cache.get(search(""), PageRequest.of(page, 6), () -> load(loads));
+        }
+        assertEquals(10, cache.size());
+    }
+
+    private ItemSearchDto search(String searchQuery) {
+        ItemSearchDto itemSearchDto = new ItemSearchDto();
+        itemSearchDto.setSearchQuery(searchQuery);
+        return itemSearchDto;
+    }
+
+    private Page<MainItemDto> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new PageImpl<>(List.of(new MainItemDto(1L, "나이키 러닝화", "가벼운 러닝화", "/images/item/1.jpg", 10000)));
+    }
+
+    private CursorSliceDto<MainItemDto> loadSlice(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new CursorSliceDto<>(List.of(new MainItemDto(1L, "나이키 러닝화", "가벼운 러닝화", "/images/item/1.jpg", 10000)), null);
+    }
+}
@@ -0,0 +1,222 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.OrderDto;
+import com.javalab.shop.entity.Item;
+import com.javalab.shop.entity.Member;
+import com.javalab.shop.exception.OutOfStockException;
+import com.javalab.shop.repository.ItemRepository;
+import com.javalab.shop.repository.MemberRepository;
+import com.javalab.shop.repository.OrderRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * 주문 묶음 처리(그룹 커밋) 테스트
+ * - 동시에 들어온 주문을 묶어서 처리해도 주문마다 자신의 결과(주문 번호 또는 재고 부족)를 받는지 확인한다.
+ */
+@SpringBootTest(properties = {
+        "shop.order.batch.enabled=true",
+        "shop.order.batch.max-size=64",
+        "shop.order.batch.max-wait-ms=5"
+})
+@Log4j2
+class OrderBatchProcessorTest {
+
+    private static final int THREAD_COUNT = 64;
+
+    @Autowired
+    OrderBatchProcessor orderBatchProcessor;
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;     // 주문 요약(order_summary) 정리용
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private Member member;
+    private List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        member = new Member();
+        member.setEmail("order-batch-" + UUID.randomUUID() + "@test.com");
+        memberRepository.save(member);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from order_summary where member_email = ?", member.getEmail());
+            orderRepository.deleteAll(orderRepository.findOrders(member.getEmail(), Pageable.unpaged()));
+        });
+        itemRepository.deleteAll(items);
+        memberRepository.delete(member);
+    }
+
+    private Item saveItem(int stockNumber) {
+        Item item = new Item();
+        item.setItemNm("묶음 주문 테스트 상품");
+        item.setPrice(10000);
+        item.setItemDetail("묶음 주문 테스트 상품 상세 설명");
+        item.setItemSellStatus(ItemSellStatus.SELL);
+        item.setStockNumber(stockNumber);
+        items.add(itemRepository.save(item));
+        return item;
+    }
+
+    private int currentStock(Item item) {
+        return itemRepository.findById(item.getId())
+                .orElseThrow(EntityNotFoundException::new)
+                .getStockNumber();
+    }
+
+    /**
+     * 주문을 동시에 실행하고 성공한 주문 번호와 주문별 응답 시간(나노초)을 모은다.
+     */
+    private long runConcurrently(Item item, int orderCount, BiFunction<OrderDto, String, Long> order,
+                                 Set<Long> orderIds, List<Long> latencies) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < orderCount; i++) {
+            futures.add(executorService.submit(() -> {
+                OrderDto orderDto = new OrderDto();
+                orderDto.setItemId(item.getId());
+                orderDto.setCount(1);
+                long begin = System.nanoTime();
+                try {
+                    orderIds.add(order.apply(orderDto, member.getEmail()));
+                } catch (OutOfStockException e) {
+                    // 재고 부족은 정상적인 실패로 본다.
+                }
+                latencies.add(System.nanoTime() - begin);
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executorService.shutdown();
+        return elapsed;
+    }
+
+    private long percentileMicros(List<Long> latencies, double percentile) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1000;
+    }
+
+    @Test
+    @DisplayName("묶음 주문 재고 차감 및 주문별 결과 테스트")
+    public void batchOrder() throws Exception {
+        // 1. given : 재고 300개, 주문 500건(1개씩)
+        Item item = saveItem(300);
+        Set<Long> orderIds = ConcurrentHashMap.newKeySet();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        // 2. when
+        runConcurrently(item, 500, orderBatchProcessor::order, orderIds, latencies);
+
+        // 3. then : 재고만큼만 주문이 성공하고, 성공한 주문은 모두 서로 다른 주문 번호를 받는다.
+        assertEquals(300, orderIds.size());
+        assertEquals(0, currentStock(item));
+        assertEquals(500, latencies.size());
+    }
+
+    @Test
+    @DisplayName("종료 중에 들어온 주문도 멈추지 않고 처리 테스트")
+    public void orderWhileStopping() throws Exception {
+        // 1. given : 재고 200개, 주문 200건(1개씩)
+        Item item = saveItem(200);
+        Set<Long> orderIds = ConcurrentHashMap.newKeySet();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        // 2. when : 주문이 들어오는 중에 묶음 처리기를 종료
+        ExecutorService stopper = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> stopped = stopper.submit(() -> {
+                Thread.sleep(5);
+                orderBatchProcessor.stop();
+                return null;
+            });
+            assertTimeoutPreemptively(Duration.ofSeconds(30),
+                    () -> runConcurrently(item, 200, orderBatchProcessor::order, orderIds, latencies));
+            stopped.get();
+        } finally {
+            stopper.shutdown();
+            orderBatchProcessor.start();    // 같은 컨텍스트를 쓰는 다른 테스트를 위해 다시 시작
+        }
+
+        // 3. then : 종료 전후에 들어온 주문이 모두 처리된다.
+        assertEquals(200, orderIds.size());
+        assertEquals(0, currentStock(item));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("주문별 트랜잭션과 묶음 주문 처리량/응답 시간 비교")
+    public void compareThroughputAndLatency() throws Exception {
+        int orderCount = 5000;
+
+        // 1. 주문마다 트랜잭션 커밋
+        Item singleItem = saveItem(orderCount);
+        List<Long> singleLatencies = Collections.synchronizedList(new ArrayList<>());
+        long singleNanos = runConcurrently(singleItem, orderCount, orderService::order,
+                ConcurrentHashMap.newKeySet(), singleLatencies);
+
+        // 2. 묶음 주문(그룹 커밋)
+        Item batchItem = saveItem(orderCount);
+        List<Long> batchLatencies = Collections.synchronizedList(new ArrayList<>());
+        long batchNanos = runConcurrently(batchItem, orderCount, orderBatchProcessor::order,
+                ConcurrentHashMap.newKeySet(), batchLatencies);
+
+        log.info("주문별 트랜잭션 : {} orders/sec, p50 {}us, p99 {}us",
+                orderCount * 1_000_000_000L / singleNanos,
+                percentileMicros(singleLatencies, 50), percentileMicros(singleLatencies, 99));
+        log.info("묶음 주문 : {} orders/sec, p50 {}us, p99 {}us",
+                orderCount * 1_000_000_000L / batchNanos,
+                percentileMicros(batchLatencies, 50), percentileMicros(batchLatencies, 99));
+
+        assertEquals(0, currentStock(singleItem));
+        assertEquals(0, currentStock(batchItem));
+    }
+}
@@ -0,0 +1,82 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.dto.OrderDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 주문 묶음 처리기 대기 시간 초과 테스트
+ * - 묶음 처리 시간을 조절할 수 있는 OrderService 를 직접 만들어서 사용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+class OrderBatchProcessorTimeoutTest {
+
+    private static final long TIMEOUT_MILLIS = 50;
+
+    /**
+     * 묶음 처리가 release 될 때까지 끝나지 않는 주문 서비스
+     */
+    static class SlowOrderService extends OrderService {
+
+        private final CountDownLatch batchStarted = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger directOrders = new AtomicInteger();
+
+        SlowOrderService() {
+            super(null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public Long order(OrderDto orderDto, String email) {
+            directOrders.incrementAndGet();
+            return -1L;
+        }
+
+        @Override
+        public void orderBatch(List<OrderBatchProcessor.OrderRequest> requests) {
+            batchStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            requests.forEach(request -> request.setOrderId(100L));
+        }
+    }
+
+    @Test
+    @DisplayName("작업 스레드가 가져간 주문은 대기 시간이 지나도 묶음의 결과를 반환 테스트")
+    public void waitForBatchAfterTimeout() throws Exception {
+        SlowOrderService orderService = new SlowOrderService();
+        OrderBatchProcessor processor = new OrderBatchProcessor(orderService, new SimpleMeterRegistry(),
+                true, 64, 1, TIMEOUT_MILLIS);
+        processor.start();
+        try {
+            CompletableFuture<Long> orderId = CompletableFuture.supplyAsync(
+                    () -> processor.order(new OrderDto(), "test@test.com"));
+
+            // 1. 묶음 처리가 시작된 뒤 대기 시간보다 오래 붙잡아 둔다.
+            assertTrue(orderService.batchStarted.await(5, TimeUnit.SECONDS));
+            Thread.sleep(TIMEOUT_MILLIS * 4);
+            assertFalse(orderId.isDone());
+
+            // 2. 묶음이 끝나면 오류가 아니라 묶음의 주문 번호를 받고, 주문을 직접 다시 실행하지 않는다.
+            orderService.release.countDown();
+            assertEquals(100L, orderId.get(5, TimeUnit.SECONDS));
+            assertEquals(0, orderService.directOrders.get());
+        } finally {
+            orderService.release.countDown();
+            processor.stop();
+        }
+    }
+}
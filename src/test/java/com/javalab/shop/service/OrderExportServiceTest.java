@@ -0,0 +1,115 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.OrderDto;
+import com.javalab.shop.entity.Item;
+import com.javalab.shop.entity.Member;
+import com.javalab.shop.repository.ItemRepository;
+import com.javalab.shop.repository.MemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class OrderExportServiceTest {
+
+    @Autowired
+    OrderExportService orderExportService;
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    private final LocalDateTime from = LocalDate.now().atStartOfDay();
+    private final LocalDateTime to = from.plusDays(1);
+
+    private Item saveItem(String itemNm) {
+        Item item = new Item();
+        item.setItemNm(itemNm);
+        item.setPrice(10000);
+        item.setItemDetail("내보내기 테스트 상품 상세 설명");
+        item.setItemSellStatus(ItemSellStatus.SELL);
+        item.setStockNumber(100);
+        return itemRepository.save(item);
+    }
+
+    private OrderDto orderDto(Item item, int count) {
+        OrderDto orderDto = new OrderDto();
+        orderDto.setItemId(item.getId());
+        orderDto.setCount(count);
+        return orderDto;
+    }
+
+    /**
+     * 상품 2개를 담은 주문을 만들고 주문 번호를 반환한다.
+     */
+    private Long saveOrder() {
+        Member member = new Member();
+        member.setEmail("export-" + UUID.randomUUID() + "@test.com");
+        memberRepository.save(member);
+        Item item1 = saveItem("내보내기, \"특가\" 상품");    // 쉼표와 따옴표가 있는 상품명
+        Item item2 = saveItem("내보내기 상품");
+        List<OrderDto> orderDtoList = new ArrayList<>();
+        orderDtoList.add(orderDto(item1, 1));
+        orderDtoList.add(orderDto(item2, 2));
+        return orderService.orders(orderDtoList, member.getEmail());
+    }
+
+    @Test
+    @DisplayName("주문 CSV 내보내기 테스트")
+    public void exportCsv() {
+        // 1. given
+        Long orderId = saveOrder();
+
+        // 2. when
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long count = orderExportService.exportCsv(from, to, outputStream);
+
+        // 3. then : 헤더 + 주문 상품 한 줄씩, 쉼표/따옴표가 있는 값은 따옴표로 감싼다.
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(lines[0].endsWith("order_id,order_date,order_status,member_email,item_id,item_nm,count,order_price"));
+        assertEquals(count + 1, lines.length);
+        List<String> orderLines = Arrays.stream(lines).filter(line -> line.startsWith(orderId + ",")).toList();
+        assertEquals(2, orderLines.size());
+        assertTrue(orderLines.stream().anyMatch(line -> line.contains(",\"내보내기, \"\"특가\"\" 상품\",1,10000")));
+    }
+
+    @Test
+    @DisplayName("주문 NDJSON 내보내기 테스트")
+    public void exportNdjson() {
+        // 1. given
+        Long orderId = saveOrder();
+
+        // 2. when
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long count = orderExportService.exportNdjson(from, to, outputStream);
+
+        // 3. then : 주문 한 건이 한 줄, 주문 상품은 lines 배열
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(count, lines.length);
+        List<String> orderLines = Arrays.stream(lines).filter(line -> line.startsWith("{\"orderId\":" + orderId + ",")).toList();
+        assertEquals(1, orderLines.size());
+        assertTrue(orderLines.get(0).contains("\"count\":2"));
+        assertTrue(orderLines.get(0).contains("\"itemNm\":\"내보내기, \\\"특가\\\" 상품\""));
+    }
+}
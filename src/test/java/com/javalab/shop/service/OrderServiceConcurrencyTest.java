@@ -0,0 +1,254 @@
+package com.javalab.shop.service;
+
+import com.javalab.shop.constant.ItemSellStatus;
+import com.javalab.shop.dto.OrderDto;
+import com.javalab.shop.entity.Item;
+import com.javalab.shop.entity.Member;
+import com.javalab.shop.entity.Order;
+import com.javalab.shop.entity.OrderItem;
+import com.javalab.shop.exception.OutOfStockException;
+import com.javalab.shop.repository.ItemRepository;
+import com.javalab.shop.repository.MemberRepository;
+import com.javalab.shop.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 주문 동시성 테스트
+ * - 여러 스레드가 같은 상품을 동시에 주문할 때 재고가 정확하게 차감되는지 확인한다.
+ * - 각 스레드가 자신의 트랜잭션을 커밋해야 하므로 클래스에 @Transactional을 선언하지 않고,
+ *   테스트가 끝나면 직접 만든 데이터를 삭제한다.
+ * - 실행된 SQL 수를 세기 위해 Hibernate 통계를 켠다.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Log4j2
+class OrderServiceConcurrencyTest {
+
+    private static final int THREAD_COUNT = 32;
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;     // 주문 요약(order_summary) 정리용
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Member member;
+    private List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        member = new Member();
+        // 실제 데이터베이스의 회원과 겹치지 않도록 매번 다른 이메일 사용
+        member.setEmail("concurrency-" + UUID.randomUUID() + "@test.com");
+        memberRepository.save(member);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // 주문 요약, 주문(주문 상품은 cascade 로 함께 삭제), 상품, 회원 순으로 삭제
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from order_summary where member_email = ?", member.getEmail());
+            orderRepository.deleteAll(orderRepository.findOrders(member.getEmail(), Pageable.unpaged()));
+        });
+        itemRepository.deleteAll(items);
+        memberRepository.delete(member);
+    }
+
+    private Item saveItem(int stockNumber) {
+        Item item = new Item();
+        item.setItemNm("동시성 테스트 상품");
+        item.setPrice(10000);
+        item.setItemDetail("동시성 테스트 상품 상세 설명");
+        item.setItemSellStatus(ItemSellStatus.SELL);
+        item.setStockNumber(stockNumber);
+        items.add(itemRepository.save(item));
+        return item;
+    }
+
+    /**
+     * 주문 작업을 THREAD_COUNT 개의 스레드로 orderCount 번 실행하고 성공한 주문 수를 반환한다.
+     */
+    private int runConcurrently(int orderCount, Runnable orderTask) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        AtomicInteger successCount = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            futures.add(executorService.submit(() -> {
+                try {
+                    orderTask.run();
+                    successCount.incrementAndGet();
+                } catch (OutOfStockException e) {
+                    // 재고 부족은 정상적인 실패로 본다.
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.MINUTES);
+        return successCount.get();
+    }
+
+    private int currentStock(Item item) {
+        return itemRepository.findById(item.getId())
+                .orElseThrow(EntityNotFoundException::new)
+                .getStockNumber();
+    }
+
+    private OrderDto orderDto(Item item) {
+        return orderDto(item, 1);
+    }
+
+    private OrderDto orderDto(Item item, int count) {
+        OrderDto orderDto = new OrderDto();
+        orderDto.setItemId(item.getId());
+        orderDto.setCount(count);
+        return orderDto;
+    }
+
+    @Test
+    @DisplayName("동시 주문 재고 차감 테스트")
+    public void concurrentOrder() throws Exception {
+        // 1. given : 재고 1000개, 주문 2000건(1개씩)
+        Item item = saveItem(1000);
+
+        // 2. when : 32개 스레드에서 동시에 주문
+        int successCount = runConcurrently(2000, () -> orderService.order(orderDto(item), member.getEmail()));
+
+        // 3. then : 재고만큼만 주문이 성공하고 남은 재고는 0
+        assertEquals(1000, successCount);
+        assertEquals(0, currentStock(item));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("조건부 UPDATE 재고 차감과 엔티티 조회 후 차감 방식 처리량 비교")
+    public void compareThroughput() throws Exception {
+        int orderCount = 3000;
+
+        // 1. 기존 방식 : 상품 조회 -> removeStock() -> flush 시점에 UPDATE
+        Item legacyItem = saveItem(orderCount);
+        long start = System.nanoTime();
+        int legacySuccess = runConcurrently(orderCount, () -> transactionTemplate.executeWithoutResult(status -> {
+            Item item = itemRepository.findById(legacyItem.getId()).orElseThrow(EntityNotFoundException::new);
+            item.removeStock(1);
+            OrderItem orderItem = OrderItem.createOrderItem(item, 1);
+            orderRepository.save(Order.createOrder(memberRepository.findByEmail(member.getEmail()), List.of(orderItem)));
+        }));
+        long legacyNanos = System.nanoTime() - start;
+
+        // 2. 조건부 UPDATE 방식
+        Item atomicItem = saveItem(orderCount);
+        start = System.nanoTime();
+        int atomicSuccess = runConcurrently(orderCount, () -> orderService.order(orderDto(atomicItem), member.getEmail()));
+        long atomicNanos = System.nanoTime() - start;
+
+        log.info("기존 방식 : {} orders/sec, 성공 {}건, 남은 재고 {} (정상이면 {})",
+                legacySuccess * 1_000_000_000L / legacyNanos, legacySuccess, currentStock(legacyItem),
+                orderCount - legacySuccess);
+        log.info("조건부 UPDATE : {} orders/sec, 성공 {}건, 남은 재고 {}",
+                atomicSuccess * 1_000_000_000L / atomicNanos, atomicSuccess, currentStock(atomicItem));
+
+        // 조건부 UPDATE 방식은 주문 수와 차감된 재고가 항상 일치해야 한다.
+        assertEquals(orderCount - atomicSuccess, currentStock(atomicItem));
+    }
+
+    @Test
+    @DisplayName("장바구니 동시 주문 데드락 방지 테스트")
+    public void concurrentCartOrderWithoutDeadlock() throws Exception {
+        // 1. given : 상품 5개(재고 각 1000개)
+        List<Item> cartItems = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            cartItems.add(saveItem(1000));
+        }
+        List<OrderDto> ascending = new ArrayList<>();
+        for (Item item : cartItems) {
+            ascending.add(orderDto(item));
+        }
+        // 같은 상품들을 반대 순서로 담은 장바구니
+        List<OrderDto> descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+
+        // 2. when : 절반은 오름차순, 절반은 내림차순 장바구니로 동시에 주문
+        //    상품 순서대로 lock 을 잡으면 두 주문이 서로의 lock 을 기다리는 데드락이 생긴다.
+        AtomicInteger turn = new AtomicInteger();
+        int successCount = runConcurrently(400, () -> orderService.orders(
+                turn.getAndIncrement() % 2 == 0 ? ascending : descending, member.getEmail()));
+
+        // 3. then : 데드락 예외 없이 모든 주문이 성공하고 상품마다 정확히 400개씩 차감
+        assertEquals(400, successCount);
+        for (Item item : cartItems) {
+            assertEquals(600, currentStock(item));
+        }
+    }
+
+    @Test
+    @DisplayName("장바구니 주문 상품 조회/수정 쿼리 수 테스트")
+    public void cartOrderRoundTrips() {
+        // 1. given : 상품 30개, 같은 상품이 두 번 담긴 줄 포함
+        int lineCount = 30;
+        List<OrderDto> orderDtoList = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            orderDtoList.add(orderDto(saveItem(100), 2));
+        }
+        orderDtoList.add(orderDto(items.get(0), 3));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // 2. when
+        orderService.orders(orderDtoList, member.getEmail());
+
+        // 3. then
+        // 기존 방식은 상품마다 조회 1번 + UPDATE 1번 + 주문 상품 INSERT 1번(3N 이상)이 필요했다.
+        // 이제 상품 조회는 한 번, UPDATE 는 batch 로 묶이므로 주문 상품 INSERT 를 제외하면 상수 개의 쿼리만 남는다.
+        long statementCount = statistics.getPrepareStatementCount();
+        log.info("상품 {}개 장바구니 주문 쿼리 수 : {}", lineCount, statementCount);
+        assertTrue(statementCount < 2L * lineCount);
+        // 같은 상품의 수량은 합쳐서 차감된다.
+        assertEquals(95, currentStock(items.get(0)));
+        assertEquals(98, currentStock(items.get(1)));
+    }
+}
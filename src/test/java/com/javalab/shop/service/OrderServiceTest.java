@@ -2,27 +2,41 @@ package com.javalab.shop.service;
 
 import com.javalab.shop.constant.ItemSellStatus;
 import com.javalab.shop.constant.OrderStatus;
+import com.javalab.shop.dto.CursorSliceDto;
 import com.javalab.shop.dto.OrderDto;
+import com.javalab.shop.dto.OrderHistDto;
 import com.javalab.shop.entity.Item;
+import com.javalab.shop.entity.ItemImg;
 import com.javalab.shop.entity.Member;
 import com.javalab.shop.entity.Order;
 import com.javalab.shop.entity.OrderItem;
+import com.javalab.shop.repository.ItemImgRepository;
 import com.javalab.shop.repository.ItemRepository;
 import com.javalab.shop.repository.MemberRepository;
 import com.javalab.shop.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.Commit;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")    // 쿼리 수 확인용 통계
 @Transactional
 class OrderServiceTest {
 
@@ -38,6 +52,12 @@ class OrderServiceTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    ItemImgRepository itemImgRepository;
+
+    @Autowired
+    EntityManager em;
+
     /**
      * 상품 저장
      * @return
@@ -112,11 +132,132 @@ class OrderServiceTest {
                 .orElseThrow(EntityNotFoundException::new);
         // 주문 취소
         orderService.cancelOrder(orderId);
+        // 재고는 JPQL 일괄 UPDATE 로 복구되어 영속성 컨텍스트의 상품에는 반영되지 않으므로 비우고 다시 조회한다.
+        em.flush();
+        em.clear();
+        Item cancelledItem = itemRepository.findById(item.getId())
+                .orElseThrow(EntityNotFoundException::new);
 
 
         // 3. then (주문 취소 확인)
         assertEquals(OrderStatus.CANCEL, order.getOrderStatus());
         // 주문 취소 후 상품 재고 확인
-        assertEquals(100, item.getStockNumber());
+        assertEquals(100, cancelledItem.getStockNumber());
+    }
+
+    @Test
+    @DisplayName("주문 내역 조회 쿼리 수 테스트")
+    public void getOrderListQueryCount(){
+        // 1. given : 대표 이미지가 있는 상품 5개, 상품 5개씩 담은 주문 6건
+        Member member = new Member();
+        member.setEmail("order-hist-" + UUID.randomUUID() + "@test.com");
+        memberRepository.save(member);
+        List<OrderDto> orderDtoList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Item item = saveItem();
+            ItemImg itemImg = new ItemImg();
+            itemImg.setItem(item);
+            itemImg.setRepimgYn("Y");
+            itemImg.setImgUrl("/images/item/test" + i + ".jpg");
+            itemImgRepository.save(itemImg);
+            item.updateRepImgUrl(itemImg.getImgUrl());     // ItemImgService 가 대표 이미지 저장 시 하는 일
+
+            OrderDto orderDto = new OrderDto();
+            orderDto.setItemId(item.getId());
+            orderDto.setCount(1);
+            orderDtoList.add(orderDto);
+        }
+        for (int i = 0; i < 6; i++) {
+            orderService.orders(orderDtoList, member.getEmail());
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // 2. when : 한 페이지에 주문 4건(주문 상품 20개)
+        Page<OrderHistDto> page = orderService.getOrderList(member.getEmail(), PageRequest.of(0, 4));
+
+        // 3. then : 첫 페이지가 가득 찼으므로 주문 요약 페이지 조회 1번 + 전체 주문 수 조회 1번
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(6, page.getTotalElements());
+        assertEquals(4, page.getContent().size());
+        for (OrderHistDto orderHistDto : page.getContent()) {
+            assertEquals(5, orderHistDto.getOrderItemDtoList().size());
+            assertEquals("/images/item/test0.jpg", orderHistDto.getOrderItemDtoList().get(0).getImgUrl());
+        }
+
+        // 마지막 페이지는 조회한 행으로 전체 수를 알 수 있으므로 페이지 조회 1번만 실행한다.
+        statistics.clear();
+        Page<OrderHistDto> lastPage = orderService.getOrderList(member.getEmail(), PageRequest.of(1, 4));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, lastPage.getContent().size());
+        assertEquals(6, lastPage.getTotalElements());
+
+        // 첫 페이지가 가득 차지 않은 경우도 페이지 조회 1번만 실행한다.
+        statistics.clear();
+        Page<OrderHistDto> partialPage = orderService.getOrderList(member.getEmail(), PageRequest.of(0, 10));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(6, partialPage.getContent().size());
+        assertEquals(6, partialPage.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("주문 내역 커서 페이징 테스트")
+    public void getOrderHistory(){
+        // 1. given : 주문 6건
+        Member member = new Member();
+        member.setEmail("order-cursor-" + UUID.randomUUID() + "@test.com");
+        memberRepository.save(member);
+        Item item = saveItem();
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            OrderDto orderDto = new OrderDto();
+            orderDto.setItemId(item.getId());
+            orderDto.setCount(1);
+            orderIds.add(orderService.order(orderDto, member.getEmail()));
+        }
+
+        // 2. when : 4건씩 조회
+        CursorSliceDto<OrderHistDto> first = orderService.getOrderHistory(member.getEmail(), null, 4);
+        CursorSliceDto<OrderHistDto> second = orderService.getOrderHistory(member.getEmail(), first.getNextCursor(), 4);
+
+        // 3. then : 최신 주문부터 겹치지 않게 조회되고, 마지막 페이지에는 다음 커서가 없다.
+        assertTrue(first.isHasNext());
+        assertEquals(4, first.getContent().size());
+        assertEquals(orderIds.get(5), first.getContent().get(0).getOrderId());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+        assertEquals(2, second.getContent().size());
+        assertEquals(orderIds.get(0), second.getContent().get(1).getOrderId());
+    }
+
+    @Test
+    @DisplayName("주문 요약 스냅샷 및 주문 취소 반영 테스트")
+    public void orderSummarySnapshot(){
+        // 1. given : 주문 후 상품명 변경
+        Member member = new Member();
+        member.setEmail("order-summary-" + UUID.randomUUID() + "@test.com");
+        memberRepository.save(member);
+        Item item = saveItem();
+        OrderDto orderDto = new OrderDto();
+        orderDto.setItemId(item.getId());
+        orderDto.setCount(2);
+        Long orderId = orderService.order(orderDto, member.getEmail());
+        item.setItemNm("변경된 상품명");
+
+        // 2. when : 주문 취소 후 주문 내역 조회
+        orderService.cancelOrder(orderId);
+        em.flush();
+        em.clear();
+        Page<OrderHistDto> page = orderService.getOrderList(member.getEmail(), PageRequest.of(0, 4));
+
+        // 3. then : 주문 시점의 상품명과 취소 상태가 보인다.
+        OrderHistDto orderHistDto = page.getContent().get(0);
+        assertEquals(orderId, orderHistDto.getOrderId());
+        assertEquals(OrderStatus.CANCEL, orderHistDto.getOrderStatus());
+        assertEquals("테스트 상품", orderHistDto.getOrderItemDtoList().get(0).getItemNm());
+        assertEquals(2, orderHistDto.getOrderItemDtoList().get(0).getCount());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.javalab.shop.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 최근 본 상품 저장소 테스트
+ * - 저장소만 직접 생성해서 사용하므로 스프링 컨텍스트와 DB 없이 실행된다.
+ */
+class RecentlyViewedStoreTest {
+
+    @Test
+    @DisplayName("최근 본 순서로 최대 개수만 보관, 다시 본 상품은 맨 앞으로 이동 테스트")
+    public void record() {
+        RecentlyViewedStore store = new RecentlyViewedStore(3, 100);
+        assertFalse(store.record("test@test.com", 1L));            // load() 전
+        assertNull(store.get("test@test.com", 10));
+
+        store.load("test@test.com", new long[]{2L, 1L});            // 저장된 목록 : 2 를 가장 최근에 봄
+        store.record("test@test.com", 3L);
+        assertArrayEquals(new long[]{3L, 2L, 1L}, store.get("test@test.com", 10));
+
+        store.record("test@test.com", 4L);                          // 가득 차면 가장 오래된 상품을 덮어쓴다.
+        assertArrayEquals(new long[]{4L, 3L, 2L}, store.get("test@test.com", 10));
+
+        store.record("test@test.com", 2L);                          // 이미 본 상품
+        assertArrayEquals(new long[]{2L, 4L, 3L}, store.get("test@test.com", 10));
+        assertArrayEquals(new long[]{2L, 4L}, store.get("test@test.com", 2));
+
+        store.load("test@test.com", new long[]{9L});                // 이미 있는 회원은 무시
+        assertArrayEquals(new long[]{2L, 4L, 3L}, store.get("test@test.com", 10));
+    }
+
+    @Test
+    @DisplayName("변경된 회원만 저장 대상으로 꺼내기 테스트")
+    public void drainDirty() {
+        RecentlyViewedStore store = new RecentlyViewedStore(10, 100);
+        store.load("a@test.com", new long[]{1L});
+        store.load("b@test.com", new long[]{2L});
+        assertTrue(store.drainDirty().isEmpty());                   // DB에서 읽은 목록은 저장하지 않는다.
+
+        store.record("a@test.com", 5L);
+        Map<String, long[]> dirty = store.drainDirty();
+        assertEquals(1, dirty.size());
+        assertArrayEquals(new long[]{5L, 1L}, dirty.get("a@test.com"));
+        assertTrue(store.drainDirty().isEmpty());
+
+        store.markDirty(dirty);                                     // 저장 실패
+        assertEquals(1, store.drainDirty().size());
+    }
+
+    @Test
+    @DisplayName("최대 회원 수를 넘으면 가장 오래전에 사용한 회원을 빼고 저장 전 목록은 보존 테스트")
+    public void evict() {
+        RecentlyViewedStore store = new RecentlyViewedStore(10, 2);
+        store.load("a@test.com", new long[0]);
+        store.load("b@test.com", new long[0]);
+        store.record("a@test.com", 1L);
+        store.get("b@test.com", 10);
+        store.record("a@test.com", 2L);                             // b 보다 a 를 최근에 사용
+
+        store.load("c@test.com", new long[0]);                      // b 가 빠진다.
+        assertEquals(2, store.size());
+        assertNull(store.get("b@test.com", 10));
+        assertArrayEquals(new long[]{2L, 1L}, store.get("a@test.com", 10));
+
+        store.get("c@test.com", 10);                                // a 보다 c 를 최근에 사용
+        store.load("d@test.com", new long[0]);                      // 저장하지 않은 a 가 빠진다.
+        assertNull(store.get("a@test.com", 10));
+        Map<String, long[]> dirty = store.drainDirty();
+        assertArrayEquals(new long[]{2L, 1L}, dirty.get("a@test.com"));
+
+        store.load("a@test.com", new long[]{7L});                   // 저장 전에 다시 사용하면 DB 값 대신 빠진 목록을 사용한다.
+        assertArrayEquals(new long[]{2L, 1L}, store.get("a@test.com", 10));
+
+        store.flushed(dirty);
+        store.load("e@test.com", new long[0]);
+        store.load("f@test.com", new long[0]);
+        assertTrue(store.drainDirty().containsKey("a@test.com"));  // 다시 읽은 a 는 변경됨으로 남아 있다가 빠질 때 보존된다.
+    }
+}